@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the common JMH command line options, e.g.
+ * <pre>java -jar benchmarks.jar ReasonerBenchmark -p conf=family/father_oe.conf</pre>
+ * In contrast to the default JMH runner, the results are written as JSON to
+ * <code>target/jmh-results/dllearner-&lt;version&gt;.json</code> unless specified otherwise, such that
+ * the results of different versions can be compared.
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions cmdOptions = new CommandLineOptions(args);
+
+		if (cmdOptions.shouldHelp()) {
+			cmdOptions.showHelp();
+			return;
+		}
+
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(cmdOptions);
+
+		if (!cmdOptions.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		if (!cmdOptions.getResult().hasValue()) {
+			File resultFile = new File("target/jmh-results", "dllearner-" + getVersion() + ".json");
+			resultFile.getParentFile().mkdirs();
+			options.result(resultFile.getPath());
+		}
+		if (!cmdOptions.getJvmArgsAppend().hasValue()) {
+			// the forked JVMs have to find the examples, too
+			options.jvmArgsAppend("-D" + BenchmarkUtils.EXAMPLES_DIR_PROPERTY + "="
+					+ BenchmarkUtils.getExamplesDir().getAbsolutePath());
+		}
+
+		new Runner(options.build()).run();
+	}
+
+	private static String getVersion() throws IOException {
+		Properties properties = new Properties();
+		try (InputStream is = BenchmarkRunner.class.getClassLoader().getResourceAsStream("benchmarks.properties")) {
+			if (is != null) {
+				properties.load(is);
+			}
+		}
+		return properties.getProperty("version", "unknown");
+	}
+}
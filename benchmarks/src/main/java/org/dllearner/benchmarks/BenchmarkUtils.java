@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.dllearner.cli.CLI;
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.ComponentInitException;
+import org.dllearner.refinementoperators.RhoDRDown;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+/**
+ * Shared setup code of the benchmarks.
+ */
+public class BenchmarkUtils {
+
+	/**
+	 * The system property holding the directory of the bundled examples.
+	 */
+	public static final String EXAMPLES_DIR_PROPERTY = "dllearner.examples";
+
+	private BenchmarkUtils() {}
+
+	/**
+	 * @return the directory containing the bundled examples, which can be set via the system property
+	 * {@value #EXAMPLES_DIR_PROPERTY}
+	 */
+	public static File getExamplesDir() {
+		return new File(System.getProperty(EXAMPLES_DIR_PROPERTY, "../examples"));
+	}
+
+	/**
+	 * @param path the path relative to the examples directory
+	 * @return the file
+	 */
+	public static File getExampleFile(String path) {
+		File file = new File(getExamplesDir(), path);
+		if (!file.exists()) {
+			throw new IllegalStateException("Example file " + file.getAbsolutePath() + " does not exist. Set the " +
+					"examples directory via -D" + EXAMPLES_DIR_PROPERTY + "=<dir>.");
+		}
+		return file;
+	}
+
+	/**
+	 * Loads a conf file of the examples, i.e. all components declared in the file are initialized.
+	 * @param confFile the path of the conf file relative to the examples directory
+	 * @return the CLI holding the components
+	 * @throws IOException if the conf file could not be loaded
+	 */
+	public static CLI loadConf(String confFile) throws IOException {
+		CLI cli = new CLI(getExampleFile(confFile));
+		cli.init();
+		return cli;
+	}
+
+	/**
+	 * Computes a deterministic set of class expressions by refining owl:Thing in a breadth-first manner,
+	 * e.g. to be used as input of reasoner and learning problem benchmarks.
+	 * @param reasoner the reasoner
+	 * @param maxLength the max. length of the class expressions
+	 * @param limit the max. number of class expressions
+	 * @return the class expressions
+	 * @throws ComponentInitException if the refinement operator could not be initialized
+	 */
+	public static Set<OWLClassExpression> generateClassExpressions(AbstractReasonerComponent reasoner,
+																   int maxLength, int limit) throws ComponentInitException {
+		RhoDRDown op = new RhoDRDown();
+		op.setReasoner(reasoner);
+		op.init();
+
+		Set<OWLClassExpression> result = new TreeSet<>();
+		Deque<OWLClassExpression> todo = new ArrayDeque<>();
+		todo.add(new OWLDataFactoryImpl().getOWLThing());
+		while (!todo.isEmpty() && result.size() < limit) {
+			for (OWLClassExpression refinement : new TreeSet<>(op.refine(todo.poll(), maxLength))) {
+				if (result.size() < limit && result.add(refinement)) {
+					todo.add(refinement);
+				}
+			}
+		}
+		return result;
+	}
+}
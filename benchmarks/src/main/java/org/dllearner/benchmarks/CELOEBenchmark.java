@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.algorithms.celoe.CELOE;
+import org.dllearner.cli.CLI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.Measurement;
+
+/**
+ * End-to-end runs of {@link CELOE} on the learning problems of the bundled examples. Instead of the algorithm
+ * declared in the conf file, CELOE is configured to stop after a fixed number of class expression tests, such
+ * that the measured time does not depend on a time budget.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class CELOEBenchmark {
+
+	@Param({"family/father.conf", "family/father_oe.conf", "carcinogenesis/train.conf", "mutagenesis/train1.conf"})
+	public String conf;
+
+	@Param({"5000"})
+	public int maxClassExpressionTests;
+
+	private CLI cli;
+	private CELOE la;
+
+	@Setup(Level.Trial)
+	public void loadConf() throws Exception {
+		cli = BenchmarkUtils.loadConf(conf);
+	}
+
+	@Setup(Level.Invocation)
+	public void setup() throws Exception {
+		la = new CELOE(cli.getLearningProblem(), cli.getReasonerComponent());
+		la.setMaxClassExpressionTests(maxClassExpressionTests);
+		la.setMaxExecutionTimeInSeconds(0);
+		la.setStopOnFirstDefinition(false);
+		la.setWriteSearchTree(false);
+		la.init();
+	}
+
+	@Benchmark
+	public double run() {
+		la.start();
+		return la.getCurrentlyBestAccuracy();
+	}
+}
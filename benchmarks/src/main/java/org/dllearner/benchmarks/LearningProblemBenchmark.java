@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.cli.CLI;
+import org.dllearner.core.AbstractClassExpressionLearningProblem;
+import org.dllearner.learningproblems.ClassLearningProblem;
+import org.dllearner.learningproblems.PosNegLPStandard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+
+/**
+ * Accuracy and score computation of the learning problem declared in a conf file, i.e. {@link PosNegLPStandard}
+ * or {@link ClassLearningProblem}, for a fixed set of class expressions generated by the refinement operator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LearningProblemBenchmark {
+
+	@Param({"family/father.conf", "family/father_oe.conf", "carcinogenesis/train.conf", "mutagenesis/train1.conf"})
+	public String conf;
+
+	@Param({"100"})
+	public int nrOfClassExpressions;
+
+	@Param({"0.3"})
+	public double noise;
+
+	private AbstractClassExpressionLearningProblem<?> lp;
+	private List<OWLClassExpression> classExpressions;
+
+	@Setup
+	public void setup() throws Exception {
+		CLI cli = BenchmarkUtils.loadConf(conf);
+		lp = cli.getLearningProblem();
+		if (!(lp instanceof PosNegLPStandard || lp instanceof ClassLearningProblem)) {
+			throw new IllegalStateException("Learning problem " + lp.getClass().getSimpleName() + " of conf file "
+					+ conf + " is not supported.");
+		}
+		classExpressions = new ArrayList<>(
+				BenchmarkUtils.generateClassExpressions(cli.getReasonerComponent(), 5, nrOfClassExpressions));
+	}
+
+	@Benchmark
+	public void getAccuracyOrTooWeak(Blackhole bh) {
+		for (OWLClassExpression ce : classExpressions) {
+			bh.consume(lp.getAccuracyOrTooWeak(ce, noise));
+		}
+	}
+
+	@Benchmark
+	public void computeScore(Blackhole bh) {
+		for (OWLClassExpression ce : classExpressions) {
+			bh.consume(lp.computeScore(ce, noise));
+		}
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.RDFDataMgr;
+import org.dllearner.algorithms.qtl.QueryTreeUtils;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.algorithms.qtl.impl.QueryTreeFactory;
+import org.dllearner.algorithms.qtl.impl.QueryTreeFactoryBase;
+import org.dllearner.algorithms.qtl.operations.lgg.LGGGenerator;
+import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorSimple;
+import org.dllearner.cli.CLI;
+import org.dllearner.kb.OWLFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.model.OWLIndividual;
+
+/**
+ * LGG computation and subsumption checks on query trees of the individuals of the knowledge base declared
+ * in a conf file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class QueryTreeBenchmark {
+
+	@Param({"family/father_oe.conf", "carcinogenesis/train.conf", "mutagenesis/train1.conf"})
+	public String conf;
+
+	@Param({"2", "3"})
+	public int maxTreeDepth;
+
+	@Param({"30"})
+	public int nrOfTrees;
+
+	private final LGGGenerator lggGenerator = new LGGGeneratorSimple();
+
+	private List<RDFResourceTree> trees;
+
+	@Setup
+	public void setup() throws Exception {
+		CLI cli = BenchmarkUtils.loadConf(conf);
+		if (!(cli.getKnowledgeSource() instanceof OWLFile)) {
+			throw new IllegalStateException("Conf file " + conf + " does not use an OWL file.");
+		}
+		Model model = RDFDataMgr.loadModel(((OWLFile) cli.getKnowledgeSource()).getURL().toString());
+
+		QueryTreeFactory factory = new QueryTreeFactoryBase();
+		trees = new ArrayList<>();
+		for (OWLIndividual ind : cli.getReasonerComponent().getIndividuals()) {
+			if (trees.size() == nrOfTrees) {
+				break;
+			}
+			trees.add(factory.getQueryTree(ind.toStringID(), model, maxTreeDepth));
+		}
+	}
+
+	@Benchmark
+	public void lgg(Blackhole bh) {
+		for (int i = 0; i < trees.size() - 1; i++) {
+			bh.consume(lggGenerator.getLGG(trees.get(i), trees.get(i + 1)));
+		}
+	}
+
+	@Benchmark
+	public void isSubsumedBy(Blackhole bh) {
+		for (RDFResourceTree tree1 : trees) {
+			for (RDFResourceTree tree2 : trees) {
+				bh.consume(QueryTreeUtils.isSubsumedBy(tree1, tree2));
+			}
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLIndividual;
+
+/**
+ * Instance retrieval and instance checks of the {@link ClosedWorldReasoner} for a fixed set of class
+ * expressions generated by the refinement operator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReasonerBenchmark {
+
+	@Param({"family/father_oe.conf", "carcinogenesis/train.conf", "mutagenesis/train1.conf"})
+	public String conf;
+
+	@Param({"100"})
+	public int nrOfClassExpressions;
+
+	@Param({"100"})
+	public int nrOfIndividuals;
+
+	private AbstractReasonerComponent reasoner;
+	private List<OWLClassExpression> classExpressions;
+	private List<OWLIndividual> individuals;
+
+	@Setup
+	public void setup() throws Exception {
+		reasoner = BenchmarkUtils.loadConf(conf).getReasonerComponent();
+		if (!(reasoner instanceof ClosedWorldReasoner)) {
+			throw new IllegalStateException("Conf file " + conf + " does not use the closed world reasoner.");
+		}
+		classExpressions = new ArrayList<>(BenchmarkUtils.generateClassExpressions(reasoner, 5, nrOfClassExpressions));
+		individuals = new ArrayList<>(reasoner.getIndividuals());
+		individuals = individuals.subList(0, Math.min(nrOfIndividuals, individuals.size()));
+	}
+
+	@Benchmark
+	public void getIndividuals(Blackhole bh) {
+		for (OWLClassExpression ce : classExpressions) {
+			bh.consume(reasoner.getIndividuals(ce));
+		}
+	}
+
+	@Benchmark
+	public void hasType(Blackhole bh) {
+		for (OWLClassExpression ce : classExpressions) {
+			for (OWLIndividual ind : individuals) {
+				bh.consume(reasoner.hasType(ce, ind));
+			}
+		}
+	}
+}
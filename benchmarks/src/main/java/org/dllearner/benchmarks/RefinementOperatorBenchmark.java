@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.refinementoperators.RhoDRDown;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+
+/**
+ * Downward refinement of a fixed set of class expressions by {@link RhoDRDown} up to different lengths. The
+ * operator is shared by all invocations, i.e. its internal caches are warm as during a learning run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RefinementOperatorBenchmark {
+
+	@Param({"family/father_oe.conf", "carcinogenesis/train.conf", "mutagenesis/train1.conf"})
+	public String conf;
+
+	@Param({"3", "5", "7"})
+	public int maxLength;
+
+	@Param({"20"})
+	public int nrOfClassExpressions;
+
+	private RhoDRDown op;
+	private List<OWLClassExpression> classExpressions;
+
+	@Setup
+	public void setup() throws Exception {
+		AbstractReasonerComponent reasoner = BenchmarkUtils.loadConf(conf).getReasonerComponent();
+
+		op = new RhoDRDown();
+		op.setReasoner(reasoner);
+		op.init();
+
+		classExpressions = new ArrayList<>(BenchmarkUtils.generateClassExpressions(reasoner, 3, nrOfClassExpressions));
+	}
+
+	@Benchmark
+	public void refine(Blackhole bh) {
+		for (OWLClassExpression ce : classExpressions) {
+			bh.consume(op.refine(ce, maxLength));
+		}
+	}
+}
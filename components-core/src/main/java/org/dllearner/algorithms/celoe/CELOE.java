@@ -19,8 +19,6 @@
 package org.dllearner.algorithms.celoe;
 
 import com.google.common.collect.Sets;
-import com.jamonapi.Monitor;
-import com.jamonapi.MonitorFactory;
 import org.dllearner.core.*;
 import org.dllearner.core.config.ConfigOption;
 import org.dllearner.core.owl.ClassHierarchy;
@@ -37,7 +35,13 @@ import org.dllearner.reasoning.ReasonerImplementation;
 import org.dllearner.reasoning.SPARQLReasoner;
 import org.dllearner.refinementoperators.*;
 import org.dllearner.utilities.*;
+import org.dllearner.utilities.datastructures.BoundedSearchTree;
+import org.dllearner.utilities.datastructures.FingerprintSet;
 import org.dllearner.utilities.datastructures.SearchTree;
+import org.dllearner.utilities.metrics.Counter;
+import org.dllearner.utilities.metrics.MetricRegistry;
+import org.dllearner.utilities.metrics.MetricSet;
+import org.dllearner.utilities.metrics.Timer;
 import org.dllearner.utilities.owl.*;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
@@ -86,8 +90,9 @@ public class CELOE extends AbstractCELA implements Cloneable{
 			exampleValue = "ex:Male or http://example.org/ontology/Female")
 	private OWLClassExpression startClass;
 	
-	// all descriptions in the search tree plus those which were too weak (for fast redundancy check)
-	private TreeSet<OWLClassExpression> descriptions;
+	// fingerprints of all descriptions in the search tree plus those which were too weak or have been
+	// evicted (for fast redundancy check)
+	private FingerprintSet<OWLClassExpression> descriptions;
 	
 	
 	// if true, then each solution is evaluated exactly instead of approximately
@@ -119,7 +124,12 @@ public class CELOE extends AbstractCELA implements Cloneable{
 	
 	// utility variables
 	
-	// statistical variables
+	// statistical variables, also published in the metric registry to watch running jobs
+	private final MetricSet metrics = new MetricSet();
+	private final Counter expressionTestCount = metrics.counter("expression_tests");
+	private final Timer refineNodeTime = metrics.timer("refine_node_time");
+	private final Timer addNodeTime = metrics.timer("add_node_time");
+	private final Timer evaluationTime = metrics.timer("evaluation_time");
 	private int expressionTests = 0;
 	private int minHorizExp = 0;
 	private int maxHorizExp = 0;
@@ -179,6 +189,20 @@ public class CELOE extends AbstractCELA implements Cloneable{
 	private boolean expandAccuracy100Nodes = false;
 	private double currentHighestAccuracy;
 
+	@ConfigOption(defaultValue = "false", description = "whether to store the covered examples in each node of the search tree, such that only "
+			+ "examples covered by the parent node are tested for its refinements (requires a downward refinement operator and a learning problem "
+			+ "which supports incremental coverage)")
+	private boolean useIncrementalCoverage = false;
+	private CoverageIndex coverageIndex;
+
+	@ConfigOption(defaultValue = "0", description = "the maximum number of nodes in the search tree (0 = no limit). If exceeded, the leaves "
+			+ "with the lowest heuristic score are removed from the search tree")
+	private int maxSearchTreeSize = 0;
+
+	@ConfigOption(defaultValue = "0", description = "the maximum fraction of the max. heap size which can be used before leaves with the "
+			+ "lowest heuristic score are removed from the search tree (0 = no limit)")
+	private double maxHeapUsage = 0;
+
 	// option to keep track of best score during algorithm run
 	private boolean keepTrackOfBestScore = false;
 	private SortedMap<Long, Double> runtimeVsBestScore = new TreeMap<>();
@@ -228,6 +252,9 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		
 		setWriteSearchTree(celoe.writeSearchTree);
 		setReplaceSearchTree(celoe.replaceSearchTree);
+		setUseIncrementalCoverage(celoe.useIncrementalCoverage);
+		setMaxSearchTreeSize(celoe.maxSearchTreeSize);
+		setMaxHeapUsage(celoe.maxHeapUsage);
 	}
 	
 	public CELOE(AbstractClassExpressionLearningProblem problem, AbstractReasonerComponent reasoner) {
@@ -242,6 +269,8 @@ public class CELOE extends AbstractCELA implements Cloneable{
 	
 	@Override
 	public void init() throws ComponentInitException {
+		MetricRegistry.getDefault().register(this, metrics);
+
 		baseURI = reasoner.getBaseURI();
 		prefixes = reasoner.getPrefixes();
 			
@@ -311,6 +340,16 @@ public class CELOE extends AbstractCELA implements Cloneable{
 			((CustomHierarchyRefinementOperator) operator).setDataPropertyHierarchy(datatypePropertyHierarchy);
 		}
 		operator.init();
+
+		if(useIncrementalCoverage && !(operator instanceof DownwardRefinementOperator)) {
+			logger.warn("Incremental coverage requires a downward refinement operator and will be disabled.");
+			useIncrementalCoverage = false;
+		}
+		if(useIncrementalCoverage && !learningProblem.isIncrementalCoverageSupported()) {
+			logger.warn("Incremental coverage is not supported by the learning problem in its current configuration and will be disabled.");
+			useIncrementalCoverage = false;
+		}
+		coverageIndex = useIncrementalCoverage ? new CoverageIndex(learningProblem.getCoverageSets()) : null;
 	}
 	
 	@Override
@@ -487,7 +526,7 @@ public class CELOE extends AbstractCELA implements Cloneable{
 	// expand node horizontically
 	private TreeSet<OWLClassExpression> refineNode(OENode node) {
 		logger.trace(sparql_debug,"REFINE NODE " + node);
-		MonitorFactory.getTimeMonitor("refineNode").start();
+		Timer.Context refineTimer = refineNodeTime.time();
 		// we have to remove and add the node since its heuristic evaluation changes through the expansion
 		// (you *must not* include any criteria in the heuristic which are modified outside of this method,
 		// otherwise you may see rarely occurring but critical false ordering in the nodes set)
@@ -499,7 +538,7 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		node.setRefinementCount(refinements.size());
 //		System.out.println("refined node: " + node);
 		searchTree.updateDone(node);
-		MonitorFactory.getTimeMonitor("refineNode").stop();
+		refineTimer.stop();
 		return refinements;
 	}
 	
@@ -508,9 +547,14 @@ public class CELOE extends AbstractCELA implements Cloneable{
 	 * @return TRUE if node was added and FALSE otherwise
 	 */
 	private boolean addNode(OWLClassExpression description, OENode parentNode) {
+		try (Timer.Context ignored = addNodeTime.time()) {
+			return addNodeImpl(description, parentNode);
+		}
+	}
+
+	private boolean addNodeImpl(OWLClassExpression description, OENode parentNode) {
 		String sparql_debug_out = "";
 		if (logger.isTraceEnabled()) sparql_debug_out = "DESC: " + description;
-		MonitorFactory.getTimeMonitor("addNode").start();
 		
 		// redundancy check (return if redundant)
 		boolean nonRedundant = descriptions.add(description);
@@ -526,11 +570,19 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		}
 		
 		// quality of class expression (return if too weak)
-		Monitor mon = MonitorFactory.start("lp");
+		Timer.Context evaluationTimer = evaluationTime.time();
 		logger.trace(sparql_debug, sparql_debug_out);
-		double accuracy = learningProblem.getAccuracyOrTooWeak(description, noise);
+		double accuracy;
+		ReasoningUtils.Coverage[] coverage = null;
+		if(useIncrementalCoverage) {
+			// a refinement can only cover examples which are covered by its parent
+			BitSet[] parentCoverage = parentNode == null ? null : parentNode.getCoveredExamples();
+			coverage = learningProblem.getCoverage(description, parentCoverage == null ? null : coverageIndex.decode(parentCoverage));
+		}
+		// without coverage (e.g. the test was aborted), the class expression is fully evaluated
+		accuracy = learningProblem.getAccuracyOrTooWeak(description, coverage, noise);
 		logger.trace(sparql_debug, "`acc:"+accuracy);
-		mon.stop();
+		evaluationTimer.stop();
 		
 		// issue a warning if accuracy is not between 0 and 1 or -1 (too weak)
 		if(accuracy > 1.0 || (accuracy < 0.0 && accuracy != -1)) {
@@ -539,6 +591,7 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		}
 		
 		expressionTests++;
+		expressionTestCount.inc();
 		
 		// return FALSE if 'too weak'
 		if(accuracy == -1) {
@@ -546,6 +599,9 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		}
 		
 		OENode node = new OENode(description, accuracy);
+		if(coverage != null) {
+			node.setCoveredExamples(coverageIndex.encode(coverage));
+		}
 		searchTree.addNode(parentNode, node);
 		
 		// in some cases (e.g. mutation) fully evaluating even a single class expression is too expensive
@@ -752,14 +808,21 @@ public class CELOE extends AbstractCELA implements Cloneable{
 	private void reset() {
 		// set all values back to their default values (used for running
 		// the algorithm more than once)
-		searchTree = new SearchTree<>(heuristic);
-		descriptions = new TreeSet<>();
-		bestEvaluatedDescriptions.getSet().clear();
+		if(maxSearchTreeSize > 0 || maxHeapUsage > 0) {
+			searchTree = new BoundedSearchTree<>(heuristic, maxSearchTreeSize, maxHeapUsage);
+		} else {
+			searchTree = new SearchTree<>(heuristic);
+		}
+		descriptions = new FingerprintSet<>(OWLObjectFunnel.INSTANCE);
+		bestEvaluatedDescriptions.clear();
 		expressionTests = 0;
 		runtimeVsBestScore.clear();
 	}
 	
 	private void printAlgorithmRunStats() {
+		if (searchTree instanceof BoundedSearchTree) {
+			logger.info(((BoundedSearchTree<OENode>) searchTree).getEvictedNodes() + " nodes evicted from the search tree.");
+		}
 		if (stop) {
 			logger.info("Algorithm stopped ("+expressionTests+" descriptions tested). " + searchTree.size() + " nodes in the search tree.\n");
 		} else {
@@ -1044,6 +1107,30 @@ public class CELOE extends AbstractCELA implements Cloneable{
 		this.expandAccuracy100Nodes = expandAccuracy100Nodes;
 	}
 
+	public boolean isUseIncrementalCoverage() {
+		return useIncrementalCoverage;
+	}
+
+	public void setUseIncrementalCoverage(boolean useIncrementalCoverage) {
+		this.useIncrementalCoverage = useIncrementalCoverage;
+	}
+
+	public int getMaxSearchTreeSize() {
+		return maxSearchTreeSize;
+	}
+
+	public void setMaxSearchTreeSize(int maxSearchTreeSize) {
+		this.maxSearchTreeSize = maxSearchTreeSize;
+	}
+
+	public double getMaxHeapUsage() {
+		return maxHeapUsage;
+	}
+
+	public void setMaxHeapUsage(double maxHeapUsage) {
+		this.maxHeapUsage = maxHeapUsage;
+	}
+
 	/**
 	 * Whether to keep track of the best score during the algorithm run.
 	 *
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.celoe;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.dllearner.utilities.ReasoningUtils.Coverage;
+import org.semanticweb.owlapi.model.OWLIndividual;
+
+/**
+ * Assigns a dense index to the individuals of each example set of a learning
+ * problem, such that the examples covered by a search tree node can be stored
+ * as one bit set per example set instead of a set of individuals.
+ */
+class CoverageIndex {
+
+	private final OWLIndividual[][] individuals;
+	private final Map<OWLIndividual, Integer>[] indexes;
+
+	@SuppressWarnings("unchecked")
+	CoverageIndex(Set<OWLIndividual>[] exampleSets) {
+		individuals = new OWLIndividual[exampleSets.length][];
+		indexes = new Map[exampleSets.length];
+		for (int i = 0; i < exampleSets.length; i++) {
+			individuals[i] = exampleSets[i].toArray(new OWLIndividual[exampleSets[i].size()]);
+			indexes[i] = new HashMap<>(individuals[i].length * 2);
+			for (int j = 0; j < individuals[i].length; j++) {
+				indexes[i].put(individuals[i][j], j);
+			}
+		}
+	}
+
+	/**
+	 * @param coverage the coverage of a class expression on the example sets
+	 * @return for each example set, the bit set of the covered examples
+	 */
+	BitSet[] encode(Coverage[] coverage) {
+		BitSet[] bits = new BitSet[coverage.length];
+		for (int i = 0; i < coverage.length; i++) {
+			bits[i] = new BitSet(individuals[i].length);
+			for (OWLIndividual ind : coverage[i].trueSet) {
+				Integer index = indexes[i].get(ind);
+				if (index != null) {
+					bits[i].set(index);
+				}
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * @param bits the bit sets as returned by {@link #encode(Coverage[])}
+	 * @return for each example set, a read-only view of the covered examples
+	 */
+	@SuppressWarnings("unchecked")
+	Set<OWLIndividual>[] decode(BitSet[] bits) {
+		Set<OWLIndividual>[] sets = new Set[bits.length];
+		for (int i = 0; i < bits.length; i++) {
+			sets[i] = new CoveredSet(individuals[i], indexes[i], bits[i]);
+		}
+		return sets;
+	}
+
+	private static class CoveredSet extends AbstractSet<OWLIndividual> {
+
+		private final OWLIndividual[] individuals;
+		private final Map<OWLIndividual, Integer> index;
+		private final BitSet bits;
+		private final int size;
+
+		CoveredSet(OWLIndividual[] individuals, Map<OWLIndividual, Integer> index, BitSet bits) {
+			this.individuals = individuals;
+			this.index = index;
+			this.bits = bits;
+			this.size = bits.cardinality();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			Integer i = index.get(o);
+			return i != null && bits.get(i);
+		}
+
+		@Override
+		public Iterator<OWLIndividual> iterator() {
+			return new Iterator<OWLIndividual>() {
+				private int next = bits.nextSetBit(0);
+
+				@Override
+				public boolean hasNext() {
+					return next >= 0;
+				}
+
+				@Override
+				public OWLIndividual next() {
+					if (next < 0) {
+						throw new NoSuchElementException();
+					}
+					OWLIndividual ind = individuals[next];
+					next = bits.nextSetBit(next + 1);
+					return ind;
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -19,6 +19,7 @@
 package org.dllearner.algorithms.celoe;
 
 import java.text.DecimalFormat;
+import java.util.BitSet;
 import java.util.Map;
 
 import org.dllearner.core.AbstractSearchTreeNode;
@@ -32,7 +33,8 @@ import org.semanticweb.owlapi.model.OWLClassExpression;
  * 
  * Differences to the node structures in other algorithms (this may change):
  * - covered examples are not stored in node (i.e. coverage needs to be recomputed
- * for child nodes, which costs time but saves memory)
+ * for child nodes, which costs time but saves memory), unless incremental coverage
+ * is enabled in CELOE
  * - only evaluated nodes are stored
  * - too weak nodes are not stored
  * - redundant nodes are not stored (?)
@@ -54,6 +56,11 @@ public class OENode extends AbstractSearchTreeNode<OENode> implements SearchTree
 	// OWLClassExpression in this node - it is a better heuristic indicator than child count
 	// (and avoids the problem that adding children changes the heuristic value)
 	private int refinementCount = 0;
+
+	// the examples covered by the description, one bit set over the indexed examples
+	// for each example set of the learning problem; only stored if incremental coverage
+	// is enabled
+	private BitSet[] coveredExamples;
 	
 	private static DecimalFormat dfPercent = new DecimalFormat("0.00%");
 	
@@ -102,6 +109,22 @@ public class OENode extends AbstractSearchTreeNode<OENode> implements SearchTree
 		return horizontalExpansion;
 	}
 	
+	/**
+	 * @return the examples covered by the description of this node (one bit set for
+	 * each example set of the learning problem) or null if they are not stored
+	 */
+	public BitSet[] getCoveredExamples() {
+		return coveredExamples;
+	}
+
+	/**
+	 * Stores the examples covered by the description of this node.
+	 * @param coveredExamples one bit set for each example set of the learning problem or null
+	 */
+	public void setCoveredExamples(BitSet[] coveredExamples) {
+		this.coveredExamples = coveredExamples;
+	}
+
 	public String getShortDescription(String baseURI) {
 		return getShortDescription(baseURI, null);
 	}
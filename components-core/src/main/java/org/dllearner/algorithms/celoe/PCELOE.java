@@ -19,8 +19,6 @@
 package org.dllearner.algorithms.celoe;
 
 import com.google.common.collect.Sets;
-import com.jamonapi.Monitor;
-import com.jamonapi.MonitorFactory;
 import org.apache.log4j.FileAppender;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
@@ -42,7 +40,11 @@ import org.dllearner.utilities.Files;
 import org.dllearner.utilities.Helper;
 import org.dllearner.utilities.OWLAPIUtils;
 import org.dllearner.utilities.TreeUtils;
-import org.dllearner.utilities.datastructures.SynchronizedSearchTree;
+import org.dllearner.utilities.datastructures.ConcurrentSearchTree;
+import org.dllearner.utilities.metrics.Counter;
+import org.dllearner.utilities.metrics.MetricRegistry;
+import org.dllearner.utilities.metrics.MetricSet;
+import org.dllearner.utilities.metrics.Timer;
 import org.dllearner.utilities.owl.*;
 import org.semanticweb.owlapi.model.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,10 +52,13 @@ import uk.ac.manchester.cs.owl.owlapi.OWLClassImpl;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The PCELOE is an experimental, parallel implementation of the CELOE algorithm.
@@ -72,7 +77,7 @@ public class PCELOE extends AbstractCELA {
 	@ConfigOption(description = "the refinement operator instance to use")
 	private LengthLimitedRefinementOperator operator;
 
-	private SynchronizedSearchTree<OENode> searchTree;
+	private ConcurrentSearchTree<OENode> searchTree;
 	@ConfigOption(defaultValue="celoe_heuristic")
 	private AbstractHeuristic heuristic;
 	// the class with which we start the refinement process
@@ -112,8 +117,13 @@ public class PCELOE extends AbstractCELA {
 	// but it can also suppress quite useful expressions
 	private boolean forceMutualDifference = false;
 
-	// statistical variables
-		private int expressionTests = 0;
+	// statistical variables, also published in the metric registry to watch running jobs
+	private final MetricSet metrics = new MetricSet();
+	private final Counter expressionTestCount = metrics.counter("expression_tests");
+	private final Timer refineNodeTime = metrics.timer("refine_node_time");
+	private final Timer addNodeTime = metrics.timer("add_node_time");
+	private final Timer evaluationTime = metrics.timer("evaluation_time");
+		private AtomicInteger expressionTests = new AtomicInteger();
 		private int minHorizExp = 0;
 		private int maxHorizExp = 0;
 		private long totalRuntimeNs = 0;
@@ -178,11 +188,15 @@ public class PCELOE extends AbstractCELA {
 	@ConfigOption(defaultValue="2", description="number of threads running in parallel")
 	private int nrOfThreads = 2;
 
-	private int expressionTestCountLastImprovement;
+	// written by the worker threads and read by the termination check
+	private final AtomicInteger expressionTestCountLastImprovement = new AtomicInteger();
 	private long timeLastImprovement = 0;
 
-	private Set<OENode> currentlyProcessedNodes = Collections.synchronizedSet(new HashSet<>());
+	private Set<OENode> currentlyProcessedNodes = ConcurrentHashMap.newKeySet();
 	private volatile double highestAccuracy = 0.0;
+	// the worst of the best descriptions if the set of best descriptions is full (null otherwise);
+	// allows to check without locking whether a class expression is a candidate for the best descriptions
+	private volatile EvaluatedDescription<? extends Score> worstBestDescription;
 
 	public PCELOE() {}
 
@@ -235,6 +249,8 @@ public class PCELOE extends AbstractCELA {
 
 	@Override
 	public void init() throws ComponentInitException {
+		MetricRegistry.getDefault().register(this, metrics);
+
 		baseURI = reasoner.getBaseURI();
 		prefixes = reasoner.getPrefixes();
 
@@ -300,6 +316,10 @@ public class PCELOE extends AbstractCELA {
 			examples = Sets.union(((PosNegLP)learningProblem).getPositiveExamples(),((PosNegLP)learningProblem).getNegativeExamples());
 		}
 
+		// the reasoner is shared by the workers, and already queried
+		// concurrently while the operator is initialised
+		reasoner.setSynchronized();
+
 		// create a refinement operator and pass all configuration
 		// variables to it
 		if (operator == null) {
@@ -319,8 +339,11 @@ public class PCELOE extends AbstractCELA {
 			((CustomHierarchyRefinementOperator) operator).setDataPropertyHierarchy(datatypePropertyHierarchy);
 		}
 
-		reasoner.setSynchronized();
-		operator = new SynchronizedRefinementOperator(operator);
+		// RhoDRDown can be shared by the workers, other operators have to be
+		// refined under a global lock
+		if(!(operator instanceof RhoDRDown)) {
+			operator = new SynchronizedRefinementOperator(operator);
+		}
 	}
 
 	@Override
@@ -496,19 +519,21 @@ public class PCELOE extends AbstractCELA {
 		// we expand the best node of those, which have not achieved 100% accuracy
 		// already and have a horizontal expansion equal to their length
 		// (rationale: further extension is likely to add irrelevant syntactical constructs)
-		synchronized (searchTree) {
-			Iterator<OENode> it = searchTree.descendingIterator();
+		// (the iteration is weakly consistent, i.e. nodes which are concurrently updated by
+		// other threads may be skipped; a node is claimed by adding it to the currently processed nodes)
+		Iterator<OENode> it = searchTree.descendingIterator();
 
-			while(it.hasNext()) {
-				OENode node = it.next();
-				if (currentlyProcessedNodes.contains(node)) continue;
+		while(it.hasNext()) {
+			OENode node = it.next();
+			if (currentlyProcessedNodes.contains(node)) continue;
 
-				if (isExpandAccuracy100Nodes() && node.getHorizontalExpansion() < OWLClassExpressionUtils.getLength(node.getDescription())) {
-						currentlyProcessedNodes.add(node);
-						return node;
-				} else {
-					if(node.getAccuracy() < 1.0 || node.getHorizontalExpansion() < OWLClassExpressionUtils.getLength(node.getDescription())) {
-						currentlyProcessedNodes.add(node);
+			if (isExpandAccuracy100Nodes() && node.getHorizontalExpansion() < OWLClassExpressionUtils.getLength(node.getDescription())) {
+				if (currentlyProcessedNodes.add(node)) {
+					return node;
+				}
+			} else {
+				if(node.getAccuracy() < 1.0 || node.getHorizontalExpansion() < OWLClassExpressionUtils.getLength(node.getDescription())) {
+					if (currentlyProcessedNodes.add(node)) {
 						return node;
 					}
 				}
@@ -522,7 +547,7 @@ public class PCELOE extends AbstractCELA {
 
 	// expand node horizontically
 	private TreeSet<OWLClassExpression> refineNode(LengthLimitedRefinementOperator operator, OENode node) {
-		MonitorFactory.getTimeMonitor("refineNode").start();
+		Timer.Context refineTimer = refineNodeTime.time();
 		// we have to remove and add the node since its heuristic evaluation changes through the expansion
 		// (you *must not* include any criteria in the heuristic which are modified outside of this method,
 		// otherwise you may see rarely occurring but critical false ordering in the nodes set)
@@ -534,7 +559,7 @@ public class PCELOE extends AbstractCELA {
 		node.setRefinementCount(refinements.size());
 //		System.out.println("refined node: " + node);
 		searchTree.updateDone(node);
-		MonitorFactory.getTimeMonitor("refineNode").stop();
+		refineTimer.stop();
 		return refinements;
 	}
 
@@ -543,8 +568,12 @@ public class PCELOE extends AbstractCELA {
 	 * @return TRUE if node was added and FALSE otherwise
 	 */
 	private boolean addNode(OWLClassExpression description, OENode parentNode) {
-		MonitorFactory.getTimeMonitor("addNode").start();
+		try (Timer.Context ignored = addNodeTime.time()) {
+			return addNodeImpl(description, parentNode);
+		}
+	}
 
+	private boolean addNodeImpl(OWLClassExpression description, OENode parentNode) {
 		// redundancy check (return if redundant)
 		boolean nonRedundant = descriptions.add(description);
 		if(!nonRedundant) {
@@ -557,9 +586,9 @@ public class PCELOE extends AbstractCELA {
 		}
 
 		// quality of class expression (return if too weak)
-		Monitor mon = MonitorFactory.start("lp");
+		Timer.Context evaluationTimer = evaluationTime.time();
 		double accuracy = learningProblem.getAccuracyOrTooWeak(description, noise);
-		mon.stop();
+		evaluationTimer.stop();
 
 		// issue a warning if accuracy is not between 0 and 1 or -1 (too weak)
 		if(accuracy > 1.0 || (accuracy < 0.0 && accuracy != -1)) {
@@ -567,7 +596,8 @@ public class PCELOE extends AbstractCELA {
 					". This could be caused by a bug in the heuristic measure and should be reported to the DL-Learner bug tracker.");
 		}
 
-		expressionTests++;
+		expressionTests.incrementAndGet();
+		expressionTestCount.inc();
 
 		// return FALSE if 'too weak'
 		if(accuracy == -1) {
@@ -593,9 +623,9 @@ public class PCELOE extends AbstractCELA {
 		// maybe add to best descriptions (method keeps set size fixed);
 		// we need to make sure that this does not get called more often than
 		// necessary since rewriting is expensive
-		boolean isCandidate = !bestEvaluatedDescriptions.isFull();
+		EvaluatedDescription<? extends Score> worst = worstBestDescription;
+		boolean isCandidate = worst == null;
 		if(!isCandidate) {
-			EvaluatedDescription worst = bestEvaluatedDescriptions.getWorst();
 			double accThreshold = worst.getAccuracy();
 			isCandidate =
 				(accuracy > accThreshold ||
@@ -619,11 +649,13 @@ public class PCELOE extends AbstractCELA {
 			// A is not a candidate; on the other hand this suppresses many meaningless extensions of A
 			boolean shorterDescriptionExists = false;
 			if(forceMutualDifference) {
-				for(EvaluatedDescription<? extends Score> ed : bestEvaluatedDescriptions.getSet()) {
-					if(Math.abs(ed.getAccuracy()-accuracy) <= 0.00001 && ConceptTransformation.isSubdescription(niceDescription, ed.getDescription())) {
-//						System.out.println("shorter: " + ed.getDescription());
-						shorterDescriptionExists = true;
-						break;
+				synchronized (bestEvaluatedDescriptions) {
+					for(EvaluatedDescription<? extends Score> ed : bestEvaluatedDescriptions.getSet()) {
+						if(Math.abs(ed.getAccuracy()-accuracy) <= 0.00001 && ConceptTransformation.isSubdescription(niceDescription, ed.getDescription())) {
+//							System.out.println("shorter: " + ed.getDescription());
+							shorterDescriptionExists = true;
+							break;
+						}
 					}
 				}
 			}
@@ -633,7 +665,7 @@ public class PCELOE extends AbstractCELA {
 			if(!shorterDescriptionExists) {
 				if(!filterFollowsFromKB || !((ClassLearningProblem)learningProblem).followsFromKB(niceDescription)) {
 //					System.out.println(node + "->" + niceDescription);
-					bestEvaluatedDescriptions.add(niceDescription, accuracy, learningProblem);
+					addBestDescription(niceDescription);
 //					System.out.println("acc: " + accuracy);
 //					System.out.println(bestEvaluatedDescriptions);
 				}
@@ -647,6 +679,17 @@ public class PCELOE extends AbstractCELA {
 		return true;
 	}
 
+	// adds a class expression to the best descriptions; the (possibly expensive) evaluation
+	// is done before locking, such that only the update of the set is serialised
+	private void addBestDescription(OWLClassExpression description) {
+		EvaluatedDescription<? extends Score> ed = learningProblem.evaluate(description);
+		synchronized (bestEvaluatedDescriptions) {
+			bestEvaluatedDescriptions.add(ed);
+			worstBestDescription = bestEvaluatedDescriptions.isFull() ? bestEvaluatedDescriptions.getWorst() : null;
+			highestAccuracy = bestEvaluatedDescriptions.getBestAccuracy();
+		}
+	}
+
 	// checks whether the class expression is allowed
 		private boolean isDescriptionAllowed(OWLClassExpression description, OENode parentNode) {
 			if(isClassLearningProblem) {
@@ -776,23 +819,27 @@ public class PCELOE extends AbstractCELA {
 	private boolean terminationCriteriaSatisfied() {
 		return
 		stop ||
-		(maxClassExpressionTestsAfterImprovement != 0 && (expressionTests - expressionTestCountLastImprovement >= maxClassExpressionTestsAfterImprovement)) ||
-		(maxClassExpressionTests != 0 && (expressionTests >= maxClassExpressionTests)) ||
+		(maxClassExpressionTestsAfterImprovement != 0 && (expressionTests.get() - expressionTestCountLastImprovement.get() >= maxClassExpressionTestsAfterImprovement)) ||
+		(maxClassExpressionTests != 0 && (expressionTests.get() >= maxClassExpressionTests)) ||
 		(maxExecutionTimeInSecondsAfterImprovement != 0 && ((System.nanoTime() - nanoStartTime) >= (maxExecutionTimeInSecondsAfterImprovement* 1000000000L))) ||
 		(maxExecutionTimeInSeconds != 0 && ((System.nanoTime() - nanoStartTime) >= (maxExecutionTimeInSeconds* 1000000000L))) ||
-		(terminateOnNoiseReached && (100*getCurrentlyBestAccuracy()>=100-noisePercentage)) ||
-		(stopOnFirstDefinition && (getCurrentlyBestAccuracy() >= 1));
+		(terminateOnNoiseReached && (100*getHighestAccuracy()>=100-noisePercentage)) ||
+		(stopOnFirstDefinition && (getHighestAccuracy() >= 1));
 	}
 
 	private void reset() {
 		// set all values back to their default values (used for running
 		// the algorithm more than once)
 //		nodes = new TreeSet<OENode>(heuristic);
-		searchTree = new SynchronizedSearchTree(heuristic);
-		//Sets.synchronizedNavigableSet(new TreeSet<OENode>(Collections.reverseOrder(heuristic)));
-		descriptions = Collections.synchronizedSortedSet(new TreeSet<>());
-		bestEvaluatedDescriptions.getSet().clear();
-		expressionTests = 0;
+		searchTree = new ConcurrentSearchTree<>(heuristic);
+		descriptions = new ConcurrentSkipListSet<>();
+		synchronized (bestEvaluatedDescriptions) {
+			bestEvaluatedDescriptions.clear();
+		}
+		worstBestDescription = null;
+		expressionTestCountLastImprovement.set(0);
+		currentlyProcessedNodes.clear();
+		expressionTests.set(0);
 		highestAccuracy = 0.0;
 	}
 
@@ -807,18 +854,20 @@ public class PCELOE extends AbstractCELA {
 	}
 
 	private void showIfBetterSolutionsFound() {
-		if(!singleSuggestionMode && bestEvaluatedDescriptions.getBestAccuracy() > currentHighestAccuracy) {
-			currentHighestAccuracy = bestEvaluatedDescriptions.getBestAccuracy();
-			expressionTestCountLastImprovement = expressionTests;
-			timeLastImprovement = System.nanoTime();
-			long durationInMillis = getCurrentRuntimeInMilliSeconds();
-			String durationStr = getDurationAsString(durationInMillis);
-			logger.info("more accurate (" + dfPercent.format(currentHighestAccuracy) + ") class expression found after " + durationStr + ": " + descriptionToString(bestEvaluatedDescriptions.getBest().getDescription()));
+		synchronized (bestEvaluatedDescriptions) {
+			if(!singleSuggestionMode && bestEvaluatedDescriptions.getBestAccuracy() > currentHighestAccuracy) {
+				currentHighestAccuracy = bestEvaluatedDescriptions.getBestAccuracy();
+				expressionTestCountLastImprovement.set(expressionTests.get());
+				timeLastImprovement = System.nanoTime();
+				long durationInMillis = getCurrentRuntimeInMilliSeconds();
+				String durationStr = getDurationAsString(durationInMillis);
+				logger.info("more accurate (" + dfPercent.format(currentHighestAccuracy) + ") class expression found after " + durationStr + ": " + descriptionToString(bestEvaluatedDescriptions.getBest().getDescription()));
+			}
 		}
 	}
 
 	private void writeSearchTree(TreeSet<OWLClassExpression> refinements) {
-		StringBuilder treeString = new StringBuilder("best node: ").append(bestEvaluatedDescriptions.getBest()).append("\n");
+		StringBuilder treeString = new StringBuilder("best node: ").append(getCurrentlyBestEvaluatedDescription()).append("\n");
 		if (refinements.size() > 1) {
 			treeString.append("all expanded nodes:\n");
 			for (OWLClassExpression ref : refinements) {
@@ -874,23 +923,37 @@ public class PCELOE extends AbstractCELA {
 		return ed == null ? null : ed.getDescription();
 	}
 
+	// the best descriptions are read under the same lock as they are updated by the worker threads
+
 	@Override
 	public List<OWLClassExpression> getCurrentlyBestDescriptions() {
-		return bestEvaluatedDescriptions.toDescriptionList();
+		synchronized (bestEvaluatedDescriptions) {
+			return bestEvaluatedDescriptions.toDescriptionList();
+		}
 	}
 
 	@Override
 	public EvaluatedDescription getCurrentlyBestEvaluatedDescription() {
-		return bestEvaluatedDescriptions.getBest();
+		synchronized (bestEvaluatedDescriptions) {
+			return bestEvaluatedDescriptions.getBest();
+		}
 	}
 
+	/**
+	 * @return a copy of the best descriptions found so far, as the set is modified
+	 * concurrently while the algorithm is running
+	 */
 	@Override
 	public NavigableSet<? extends EvaluatedDescription<? extends Score>> getCurrentlyBestEvaluatedDescriptions() {
-		return bestEvaluatedDescriptions.getSet();
+		synchronized (bestEvaluatedDescriptions) {
+			return new TreeSet<>(bestEvaluatedDescriptions.getSet());
+		}
 	}
 
 	public double getCurrentlyBestAccuracy() {
-		return bestEvaluatedDescriptions.getBest().getAccuracy();
+		synchronized (bestEvaluatedDescriptions) {
+			return bestEvaluatedDescriptions.getBest().getAccuracy();
+		}
 	}
 
 	@Override
@@ -915,7 +978,7 @@ public class PCELOE extends AbstractCELA {
 	 * @return the expressionTests
 	 */
 	public int getClassExpressionTests() {
-		return expressionTests;
+		return expressionTests.get();
 	}
 
 	public LengthLimitedRefinementOperator getOperator() {
@@ -1113,7 +1176,7 @@ public class PCELOE extends AbstractCELA {
 		this.nrOfThreads = nrOfThreads;
 	}
 
-	private synchronized double getHighestAccuracy(){
+	private double getHighestAccuracy(){
 		return highestAccuracy;
 	}
 
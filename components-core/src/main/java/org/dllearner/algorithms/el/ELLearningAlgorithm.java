@@ -285,7 +285,7 @@ public class ELLearningAlgorithm extends AbstractCELA {
 	 */
 	private void reset() {
 		candidates.clear();
-		bestEvaluatedDescriptions.getSet().clear();
+		bestEvaluatedDescriptions.clear();
 	}
 	
 	private boolean isDescriptionAllowed(OWLClassExpression description) {
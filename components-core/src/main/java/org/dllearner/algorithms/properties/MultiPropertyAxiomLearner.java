@@ -24,14 +24,13 @@ import com.google.common.collect.Sets.SetView;
 import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
 import org.apache.jena.query.ParameterizedSparqlString;
 import org.apache.jena.query.Query;
-import org.apache.jena.query.QueryExecution;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.riot.system.ErrorHandlerFactory;
 import org.dllearner.algorithms.properties.AxiomAlgorithms.AxiomTypeCluster;
 import org.dllearner.core.*;
 import org.dllearner.kb.LocalModelBasedSparqlEndpointKS;
 import org.dllearner.kb.SparqlEndpointKS;
+import org.dllearner.kb.sparql.PaginatedSampleFetcher;
 import org.dllearner.kb.sparql.SparqlEndpoint;
 import org.dllearner.reasoning.SPARQLReasoner;
 import org.dllearner.utilities.OWLAPIUtils;
@@ -67,6 +66,7 @@ public class MultiPropertyAxiomLearner {
 	private boolean useSampling = false;
 	private long maxSampleGenerationTimeMilliseconds = 10000;
 	private long pageSize = 10000;
+	private int samplePrefetchDepth = 4;
 
 	private boolean multiThreaded = false;
 	private int maxNrOfThreads = 1;
@@ -83,7 +83,7 @@ public class MultiPropertyAxiomLearner {
 
 	private Set<AxiomType<? extends OWLAxiom>> axiomTypes;
 	
-	private Map<AxiomType<? extends OWLAxiom>, AbstractAxiomLearningAlgorithm> algorithms = new HashMap<>();
+	private Map<AxiomType<? extends OWLAxiom>, AbstractAxiomLearningAlgorithm> algorithms = Maps.newConcurrentMap();
 	
 	public MultiPropertyAxiomLearner(SparqlEndpointKS ks) {
 		this(ks.getQueryExecutionFactory());
@@ -100,6 +100,9 @@ public class MultiPropertyAxiomLearner {
 
 		checkConfigOptions();
 		
+		results = Maps.newConcurrentMap();
+		algorithms.clear();
+
 		// check if entity is empty
 		int popularity = reasoner.getPopularity(entity);
 		if(popularity == 0){
@@ -107,8 +110,6 @@ public class MultiPropertyAxiomLearner {
 			return;
 		}
 		
-		results = Maps.newConcurrentMap();
-		
 		EntityType<?> entityType = entity.getEntityType();
 		
 		// check for axiom types that are not appropriate for the given entity
@@ -285,6 +286,13 @@ public class MultiPropertyAxiomLearner {
 		this.maxSampleGenerationTimeMilliseconds = sampleGenerationTimeUnit.toMillis(sampleGenerationTimeDuration);
 	}
 
+	/**
+	 * @param samplePrefetchDepth the max. number of pages of a sample that are fetched concurrently
+	 */
+	public void setSamplePrefetchDepth(int samplePrefetchDepth) {
+		this.samplePrefetchDepth = samplePrefetchDepth;
+	}
+
 	private List<EvaluatedAxiom<OWLAxiom>> applyAlgorithm(AxiomType<? extends OWLAxiom> axiomType, SparqlEndpointKS ks) throws ComponentInitException{
 		Class<? extends AbstractAxiomLearningAlgorithm<? extends OWLAxiom, ? extends OWLObject, ? extends OWLEntity>> algorithmClass = AxiomAlgorithms.getAlgorithmClass(axiomType);
 		AbstractAxiomLearningAlgorithm learner = null;
@@ -306,57 +314,41 @@ public class MultiPropertyAxiomLearner {
 
 	private Model generateSample(OWLEntity entity, AxiomTypeCluster cluster){
 		logger.info("Generating sample (" + cluster + ") for " + OWLAPIUtils.getPrintName(entity.getEntityType()) + " " + entity.toStringID() + "...");
-		long startTime = System.currentTimeMillis();
 
-		Model sample = ModelFactory.createDefaultModel();
-		
 		ParameterizedSparqlString sampleQueryTemplate = cluster.getSampleQuery();
 		sampleQueryTemplate.clearParam("entity");
 		sampleQueryTemplate.setIri("entity", entity.toStringID());
 		
 		Query query = sampleQueryTemplate.asQuery();
-		query.setLimit(pageSize);
-		
-		boolean isEmpty = false;
-		boolean samplingTimeout = false;
-		int i = 0;
-		while(!isEmpty && !samplingTimeout && !isTimeout()){
-			// get next sample
-			logger.debug("Extending sample...");
-			query.setOffset(i++ * pageSize);
-			logger.debug("sending query\n" + query);
-			try (QueryExecution qe=qef.createQueryExecution(query)) {
-				// set the remaining runtime
-				qe.setTimeout(maxSampleGenerationTimeMilliseconds - (System.currentTimeMillis() - startTime));
-
-				// execute query
-				Model tmp = qe.execConstruct();
-				sample.add(tmp);
-
-				// if last call returned empty model, we can leave loop
-				isEmpty = tmp.isEmpty();
-			} catch (Exception e) {
-				boolean syntaxError = e instanceof RuntimeException &&
-						e.getCause() != null &&
-						e.getCause() instanceof org.apache.jena.riot.RiotException;
-				logger.error("Sample generation for " + cluster + " failed. Reason:\n");
-				if(syntaxError) {
-					logger.error("Endpoint returned illegal data with error\n" + e.getCause().getMessage()
-										 + "\nfor query\n" + query + "\n");
-				} else {
-					logger.error("Query execution failed for query\n" + query, e);
-				}
-
-				return null;
-			}
-			// checker for sampling timeout
-			samplingTimeout = (System.currentTimeMillis() - startTime) >= maxSampleGenerationTimeMilliseconds;
-			if(samplingTimeout) {
-				logger.info("Sampling timeout.");
+
+		PaginatedSampleFetcher fetcher = new PaginatedSampleFetcher(qef);
+		fetcher.setPageSize(pageSize);
+		fetcher.setPrefetchDepth(samplePrefetchDepth);
+		long timeout = maxSampleGenerationTimeMilliseconds;
+		if(maxExecutionTimeMilliseconds > 0) {
+			timeout = Math.max(1, Math.min(timeout, getRemainingRuntimeMilliSeconds()));
+		}
+		fetcher.setTimeout(timeout);
+
+		Model sample;
+		try {
+			sample = fetcher.fetch(query);
+		} catch (Exception e) {
+			boolean syntaxError = e instanceof RuntimeException &&
+					e.getCause() != null &&
+					e.getCause() instanceof org.apache.jena.riot.RiotException;
+			logger.error("Sample generation for " + cluster + " failed. Reason:\n");
+			if(syntaxError) {
+				logger.error("Endpoint returned illegal data with error\n" + e.getCause().getMessage()
+									 + "\nfor query\n" + query + "\n");
+			} else {
+				logger.error("Query execution failed for query\n" + query, e);
 			}
+
+			return null;
 		}
 		logger.info("Finished generating sample. Sample size: " + sample.size() + " triples");
-		if(isEmpty) {
+		if(fetcher.isComplete()) {
 			logger.info("Sample contains the whole relevant data.");
 		}
 		return sample;
@@ -35,6 +35,7 @@ import org.dllearner.algorithms.qtl.heuristics.QueryTreeHeuristic;
 import org.dllearner.algorithms.qtl.heuristics.QueryTreeHeuristicSimple;
 import org.dllearner.algorithms.qtl.impl.QueryTreeFactory;
 import org.dllearner.algorithms.qtl.impl.QueryTreeFactoryBase;
+import org.dllearner.algorithms.qtl.operations.QueryTreeOperationCache;
 import org.dllearner.algorithms.qtl.operations.lgg.LGGGenerator;
 import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorRDFS;
 import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorSimple;
@@ -154,6 +155,14 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	
 	private boolean useDisjunction = false;
 	
+	@ConfigOption(defaultValue = "10000", description = "the maximum number of LGG and subsumption results which are memoized, 0 to disable the memoization")
+	private int operationCacheSize = 10000;
+
+	@ConfigOption(defaultValue = "4", description = "the number of threads used to generate the query trees of the examples")
+	private int treeGenerationThreads = 4;
+	
+	private QueryTreeOperationCache operationCache;
+	
 	public QTL2Disjunctive() {}
 	
 	public QTL2Disjunctive(PosNegLP learningProblem, AbstractReasonerComponent reasoner) {
@@ -189,6 +198,8 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		this.maxTreeComputationTimeInSeconds = qtl.maxTreeComputationTimeInSeconds;
 		this.tryFullCoverage = qtl.tryFullCoverage;
 		this.stopOnFirstDefinition = qtl.stopOnFirstDefinition;
+		this.operationCacheSize = qtl.operationCacheSize;
+		this.treeGenerationThreads = qtl.treeGenerationThreads;
 	}
 	
 	/* (non-Javadoc)
@@ -224,6 +235,8 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 			lggGenerator = new LGGGeneratorRDFS(reasoner);
 		}
 		
+		operationCache = operationCacheSize > 0 ? new QueryTreeOperationCache(operationCacheSize) : null;
+		
 		// generate the query trees
 		generateQueryTrees();
 		
@@ -253,46 +266,47 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	
 	private void generateQueryTrees(){
 		logger.info("Generating trees...");
-		RDFResourceTree queryTree;
 		
 		// positive examples
 		if(currentPosExampleTrees.isEmpty()){
-			for (OWLIndividual ind : lp.getPositiveExamples()) {
-				try {
-					Model cbd = cbdGen.getConciseBoundedDescription(ind.toStringID(), maxTreeDepth);
-//					cbd.write(new FileOutputStream("/tmp/dbpedia-" + ind.toStringID().substring(ind.toStringID().lastIndexOf('/') + 1) + ".ttl"), "TURTLE", null);
-					queryTree = treeFactory.getQueryTree(ind.toStringID(), cbd, maxTreeDepth);
-					tree2Individual.put(queryTree, ind);
-					currentPosExampleTrees.add(queryTree);
-					currentPosExamples.add(ind);
-					logger.debug(ind.toStringID());
-					logger.debug(queryTree.getStringRepresentation());
-				} catch (Exception e) {
-					logger.error("Failed to generate tree for resource " + ind, e);
-					throw new RuntimeException();
-				}
-			}
+			generateQueryTrees(lp.getPositiveExamples(), currentPosExampleTrees, currentPosExamples);
 		}
 		
 		// negative examples
 		if(currentNegExampleTrees.isEmpty()){
-			for (OWLIndividual ind : lp.getNegativeExamples()) {
-				try {
-					Model cbd = cbdGen.getConciseBoundedDescription(ind.toStringID(), maxTreeDepth);
-					queryTree = treeFactory.getQueryTree(ind.toStringID(), cbd, maxTreeDepth);
-					tree2Individual.put(queryTree, ind);
-					currentNegExampleTrees.add(queryTree);
-					currentNegExamples.add(ind);
-					logger.debug(ind.toStringID());
-					logger.debug(queryTree.getStringRepresentation());
-				} catch (Exception e) {
-					logger.error("Failed to generate tree for resource " + ind, e);
-					throw new RuntimeException();
-				}
-			}
+			generateQueryTrees(lp.getNegativeExamples(), currentNegExampleTrees, currentNegExamples);
 		}
 		logger.info("...done.");
 	}
+
+	private void generateQueryTrees(Collection<OWLIndividual> examples, List<RDFResourceTree> trees, Set<OWLIndividual> treeExamples) {
+		Map<String, OWLIndividual> resource2Individual = new LinkedHashMap<>();
+		for (OWLIndividual ind : examples) {
+			resource2Individual.put(ind.toStringID(), ind);
+		}
+
+		// the CBDs are fetched in concurrent batches and the trees are built in parallel
+		Map<String, RDFResourceTree> resource2Tree;
+		try {
+			Map<String, Model> cbds = cbdGen.getConciseBoundedDescriptions(resource2Individual.keySet(), maxTreeDepth);
+			resource2Tree = treeFactory.getQueryTrees(resource2Individual.keySet(),
+					cbds::get,
+					maxTreeDepth, treeGenerationThreads);
+		} catch (Exception e) {
+			logger.error("Failed to generate trees", e);
+			throw new RuntimeException(e);
+		}
+
+		for (Entry<String, RDFResourceTree> entry : resource2Tree.entrySet()) {
+			OWLIndividual ind = resource2Individual.get(entry.getKey());
+			RDFResourceTree queryTree = entry.getValue();
+			tree2Individual.put(queryTree, ind);
+			trees.add(queryTree);
+			treeExamples.add(ind);
+			logger.debug(ind.toStringID());
+			logger.debug(queryTree.getStringRepresentation());
+		}
+	}
 	
 	/* (non-Javadoc)
 	 * @see org.dllearner.core.LearningAlgorithm#start()
@@ -364,6 +378,9 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		long nanoEndTime = System.nanoTime();
 		logger.info("Finished in " + TimeUnit.NANOSECONDS.toMillis(nanoEndTime - nanoStartTime) + "ms.");
 		logger.info(expressionTests +" descriptions tested");
+		if(operationCache != null) {
+			logger.info(operationCache.toString());
+		}
 		if(currentBestSolution != null) {
 			logger.info("Combined solution:" + currentBestSolution.getDescription().toString().replace("\n", ""));
 			logger.info(currentBestSolution.getScore().toString());
@@ -458,7 +475,9 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 				// compute the LGG
 				MonitorFactory.getTimeMonitor("lgg").start();
 				((LGGGeneratorSimple)lggGenerator).setTimeout(getRemainingPartialSolutionTime(), TimeUnit.SECONDS);
-				RDFResourceTree lgg = lggGenerator.getLGG(currentTree, uncoveredTree);
+				RDFResourceTree lgg = operationCache != null
+						? operationCache.getLGG(currentTree, uncoveredTree, lggGenerator)
+						: lggGenerator.getLGG(currentTree, uncoveredTree);
 				MonitorFactory.getTimeMonitor("lgg").stop();
 //				System.out.println("COMPLETE:" + ((LGGGeneratorSimple)lggGenerator).isComplete());
 //				logger.info("LGG: "  + lgg.getStringRepresentation());
@@ -693,7 +712,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 			// compute positive examples which are not covered by LGG
 			for (RDFResourceTree posTree : currentPosExampleTrees) {
 //				System.out.print(currentPosExampleTrees.indexOf(posTree) + ":");
-				if(!QueryTreeUtils.isSubsumedBy(posTree, tree, entailment, reasoner)){
+				if(!isSubsumedBy(posTree, tree, entailment)){
 //					System.err.println(posTree.getStringRepresentation(true));System.err.println(tree.getStringRepresentation(true));
 //					System.out.println("FALSE");
 					uncoveredPositiveExampleTrees.add(posTree);
@@ -704,7 +723,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 			
 			// compute negative examples which are covered by LGG
 			for (RDFResourceTree negTree : currentNegExampleTrees) {
-				if(QueryTreeUtils.isSubsumedBy(negTree, tree, entailment, reasoner)){
+				if(isSubsumedBy(negTree, tree, entailment)){
 					coveredNegativeExampleTrees.add(negTree);
 				}
 			}
@@ -982,7 +1001,7 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	private List<RDFResourceTree> getCoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees){
 		List<RDFResourceTree> coveredTrees = new ArrayList<>();
 		for (RDFResourceTree queryTree : trees) {
-			if(QueryTreeUtils.isSubsumedBy(queryTree, tree)){
+			if(isSubsumedBy(queryTree, tree, Entailment.SIMPLE)){
 				coveredTrees.add(queryTree);
 			}
 		}
@@ -998,13 +1017,24 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 	private List<RDFResourceTree> getUncoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees){
 		List<RDFResourceTree> uncoveredTrees = new ArrayList<>();
 		for (RDFResourceTree queryTree : trees) {
-			if(!QueryTreeUtils.isSubsumedBy(queryTree, tree)){
+			if(!isSubsumedBy(queryTree, tree, Entailment.SIMPLE)){
 				uncoveredTrees.add(queryTree);
 			}
 		}
 		return uncoveredTrees;
 	}
 
+	/**
+	 * Determines if tree1 is subsumed by tree2 under the given entailment. Results for
+	 * simple entailment are memoized if enabled.
+	 */
+	private boolean isSubsumedBy(RDFResourceTree tree1, RDFResourceTree tree2, Entailment entailment) {
+		if(entailment == Entailment.SIMPLE && operationCache != null) {
+			return operationCache.isSubsumedBy(tree1, tree2);
+		}
+		return QueryTreeUtils.isSubsumedBy(tree1, tree2, entailment, reasoner);
+	}
+
 	private boolean terminationCriteriaSatisfied() {
 		//stop was called or time expired
 		if(stop || isTimeExpired()){
@@ -1167,6 +1197,30 @@ public class QTL2Disjunctive extends AbstractCELA implements Cloneable{
 		this.maxTreeDepth = maxTreeDepth;
 	}
 	
+	/**
+	 * @param operationCacheSize the maximum number of LGG and subsumption results which are
+	 * memoized, 0 to disable the memoization
+	 */
+	public void setOperationCacheSize(int operationCacheSize) {
+		this.operationCacheSize = operationCacheSize;
+	}
+	
+	public int getOperationCacheSize() {
+		return operationCacheSize;
+	}
+
+	/**
+	 * @param treeGenerationThreads the number of threads used to generate the query trees
+	 * of the examples
+	 */
+	public void setTreeGenerationThreads(int treeGenerationThreads) {
+		this.treeGenerationThreads = treeGenerationThreads;
+	}
+
+	public int getTreeGenerationThreads() {
+		return treeGenerationThreads;
+	}
+	
 	/**
 	 * @return the runtime in ms until the best solution was found
 	 */
@@ -35,6 +35,7 @@ import org.dllearner.algorithms.qtl.heuristics.QueryTreeHeuristic;
 import org.dllearner.algorithms.qtl.heuristics.QueryTreeHeuristicSimple;
 import org.dllearner.algorithms.qtl.impl.QueryTreeFactory;
 import org.dllearner.algorithms.qtl.impl.QueryTreeFactoryBase;
+import org.dllearner.algorithms.qtl.operations.QueryTreeOperationCache;
 import org.dllearner.algorithms.qtl.operations.lgg.*;
 import org.dllearner.algorithms.qtl.util.Entailment;
 import org.dllearner.algorithms.qtl.util.filters.PredicateExistenceFilterDBpedia;
@@ -160,6 +161,11 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 
 	private int nrOfThreads = Runtime.getRuntime().availableProcessors();
 
+	@ConfigOption(defaultValue = "10000", description = "the maximum number of LGG and subsumption results which are memoized, 0 to disable the memoization")
+	private int operationCacheSize = 10000;
+
+	private QueryTreeOperationCache operationCache;
+
 	public QTL2DisjunctiveMultiThreaded() {}
 
 	public QTL2DisjunctiveMultiThreaded(PosNegLP learningProblem, AbstractReasonerComponent reasoner) {
@@ -195,6 +201,7 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 		this.maxTreeComputationTimeInSeconds = qtl.maxTreeComputationTimeInSeconds;
 		this.tryFullCoverage = qtl.tryFullCoverage;
 		this.stopOnFirstDefinition = qtl.stopOnFirstDefinition;
+		this.operationCacheSize = qtl.operationCacheSize;
 	}
 
 	/* (non-Javadoc)
@@ -232,6 +239,8 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 			lggGenerator = new LGGGeneratorRDFS(reasoner);
 		}
 
+		operationCache = operationCacheSize > 0 ? new QueryTreeOperationCache(operationCacheSize) : null;
+
 		// generate the query trees
 		generateQueryTrees();
 
@@ -265,47 +274,48 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 
 	private void generateQueryTrees(){
 		logger.info("Generating trees...");
-		RDFResourceTree queryTree;
-
+		
 		// positive examples
 		if(currentPosExampleTrees.isEmpty()){
-			for (OWLIndividual ind : lp.getPositiveExamples()) {
-				try {
-					Model cbd = cbdGen.getConciseBoundedDescription(ind.toStringID(), maxTreeDepth);
-//					cbd.write(new FileOutputStream("/tmp/dbpedia-" + ind.toStringID().substring(ind.toStringID().lastIndexOf('/') + 1) + ".ttl"), "TURTLE", null);
-					queryTree = treeFactory.getQueryTree(ind.toStringID(), cbd, maxTreeDepth);
-					tree2Individual.put(queryTree, ind);
-					currentPosExampleTrees.add(queryTree);
-					currentPosExamples.add(ind);
-					logger.debug(ind.toStringID());
-					logger.debug(queryTree.getStringRepresentation());
-				} catch (Exception e) {
-					logger.error("Failed to generate tree for resource " + ind, e);
-					throw new RuntimeException();
-				}
-			}
+			generateQueryTrees(lp.getPositiveExamples(), currentPosExampleTrees, currentPosExamples);
 		}
-
+		
 		// negative examples
 		if(currentNegExampleTrees.isEmpty()){
-			for (OWLIndividual ind : lp.getNegativeExamples()) {
-				try {
-					Model cbd = cbdGen.getConciseBoundedDescription(ind.toStringID(), maxTreeDepth);
-					queryTree = treeFactory.getQueryTree(ind.toStringID(), cbd, maxTreeDepth);
-					tree2Individual.put(queryTree, ind);
-					currentNegExampleTrees.add(queryTree);
-					currentNegExamples.add(ind);
-					logger.debug(ind.toStringID());
-					logger.debug(queryTree.getStringRepresentation());
-				} catch (Exception e) {
-					logger.error("Failed to generate tree for resource " + ind, e);
-					throw new RuntimeException();
-				}
-			}
+			generateQueryTrees(lp.getNegativeExamples(), currentNegExampleTrees, currentNegExamples);
 		}
 		logger.info("...done.");
 	}
 
+	private void generateQueryTrees(Collection<OWLIndividual> examples, List<RDFResourceTree> trees, Set<OWLIndividual> treeExamples) {
+		Map<String, OWLIndividual> resource2Individual = new LinkedHashMap<>();
+		for (OWLIndividual ind : examples) {
+			resource2Individual.put(ind.toStringID(), ind);
+		}
+
+		// the CBDs are fetched in concurrent batches and the trees are built in parallel
+		Map<String, RDFResourceTree> resource2Tree;
+		try {
+			Map<String, Model> cbds = cbdGen.getConciseBoundedDescriptions(resource2Individual.keySet(), maxTreeDepth);
+			resource2Tree = treeFactory.getQueryTrees(resource2Individual.keySet(),
+					cbds::get,
+					maxTreeDepth, nrOfThreads);
+		} catch (Exception e) {
+			logger.error("Failed to generate trees", e);
+			throw new RuntimeException(e);
+		}
+
+		for (Entry<String, RDFResourceTree> entry : resource2Tree.entrySet()) {
+			OWLIndividual ind = resource2Individual.get(entry.getKey());
+			RDFResourceTree queryTree = entry.getValue();
+			tree2Individual.put(queryTree, ind);
+			trees.add(queryTree);
+			treeExamples.add(ind);
+			logger.debug(ind.toStringID());
+			logger.debug(queryTree.getStringRepresentation());
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see org.dllearner.core.LearningAlgorithm#start()
 	 */
@@ -388,6 +398,9 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 
 		logger.info("Finished in {}ms.", getCurrentRuntimeInMilliSeconds());
 		logger.info("{} descriptions tested", expressionTests);
+		if(operationCache != null) {
+			logger.info(operationCache.toString());
+		}
 		if(currentBestSolution != null) {
 			logger.info("Combined solution:{}", currentBestSolution.getDescription().toString().replace("\n", ""));
 			logger.info(currentBestSolution.getScore().toString());
@@ -734,7 +747,7 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 			// compute positive examples which are not covered by LGG
 			for (RDFResourceTree posTree : currentPosExampleTrees) {
 //				System.out.print(currentPosExampleTrees.indexOf(posTree) + ":");
-				if(!QueryTreeUtils.isSubsumedBy(posTree, tree, entailment, reasoner)){
+				if(!isSubsumedBy(posTree, tree, entailment)){
 //					System.err.println(posTree.getStringRepresentation(true));System.err.println(tree.getStringRepresentation(true));
 //					System.out.println("FALSE");
 					uncoveredPositiveExampleTrees.add(posTree);
@@ -745,7 +758,7 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 
 			// compute negative examples which are covered by LGG
 			for (RDFResourceTree negTree : currentNegExampleTrees) {
-				if(QueryTreeUtils.isSubsumedBy(negTree, tree, entailment, reasoner)){
+				if(isSubsumedBy(negTree, tree, entailment)){
 					coveredNegativeExampleTrees.add(negTree);
 				}
 			}
@@ -1023,7 +1036,7 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 	private List<RDFResourceTree> getCoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees){
 		List<RDFResourceTree> coveredTrees = new ArrayList<>();
 		for (RDFResourceTree queryTree : trees) {
-			if(QueryTreeUtils.isSubsumedBy(queryTree, tree)){
+			if(isSubsumedBy(queryTree, tree, Entailment.SIMPLE)){
 				coveredTrees.add(queryTree);
 			}
 		}
@@ -1039,13 +1052,24 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 	private List<RDFResourceTree> getUncoveredTrees(RDFResourceTree tree, List<RDFResourceTree> trees){
 		List<RDFResourceTree> uncoveredTrees = new ArrayList<>();
 		for (RDFResourceTree queryTree : trees) {
-			if(!QueryTreeUtils.isSubsumedBy(queryTree, tree)){
+			if(!isSubsumedBy(queryTree, tree, Entailment.SIMPLE)){
 				uncoveredTrees.add(queryTree);
 			}
 		}
 		return uncoveredTrees;
 	}
 
+	/**
+	 * Determines if tree1 is subsumed by tree2 under the given entailment. Results for
+	 * simple entailment are memoized if enabled.
+	 */
+	private boolean isSubsumedBy(RDFResourceTree tree1, RDFResourceTree tree2, Entailment entailment) {
+		if(entailment == Entailment.SIMPLE && operationCache != null) {
+			return operationCache.isSubsumedBy(tree1, tree2);
+		}
+		return QueryTreeUtils.isSubsumedBy(tree1, tree2, entailment, reasoner);
+	}
+
 	private boolean terminationCriteriaSatisfied() {
 		//stop was called or time expired
 		if(stop || isTimeExpired()){
@@ -1208,6 +1232,18 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 		this.maxTreeDepth = maxTreeDepth;
 	}
 	
+	/**
+	 * @param operationCacheSize the maximum number of LGG and subsumption results which are
+	 * memoized, 0 to disable the memoization
+	 */
+	public void setOperationCacheSize(int operationCacheSize) {
+		this.operationCacheSize = operationCacheSize;
+	}
+	
+	public int getOperationCacheSize() {
+		return operationCacheSize;
+	}
+	
 	/**
 	 * @return the runtime in ms until the best solution was found
 	 */
@@ -1232,7 +1268,9 @@ public class QTL2DisjunctiveMultiThreaded extends AbstractCELA implements Clonea
 			// compute the LGG
 			MonitorFactory.getTimeMonitor("lgg").start();
 			lggGenerator.setTimeout(getRemainingPartialSolutionTime(), TimeUnit.SECONDS);
-			RDFResourceTree lgg = lggGenerator.getLGG(tree1, tree2);
+			RDFResourceTree lgg = operationCache != null
+					? operationCache.getLGG(tree1, tree2, lggGenerator)
+					: lggGenerator.getLGG(tree1, tree2);
 			MonitorFactory.getTimeMonitor("lgg").stop();
 //			System.out.println("COMPLETE:" + ((LGGGeneratorSimple)lggGenerator).isComplete());
 //				logger.info("LGG: "  + lgg.getStringRepresentation());
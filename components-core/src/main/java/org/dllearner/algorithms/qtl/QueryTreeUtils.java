@@ -38,6 +38,7 @@ import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import org.dllearner.algorithms.qtl.datastructures.NodeInv;
 import org.dllearner.algorithms.qtl.datastructures.QueryTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.CompactRDFResourceTree;
 import org.dllearner.algorithms.qtl.datastructures.impl.GenericTree;
 import org.dllearner.algorithms.qtl.datastructures.impl.QueryTreeImpl.LiteralNodeConversionStrategy;
 import org.dllearner.algorithms.qtl.datastructures.impl.QueryTreeImpl.LiteralNodeSubsumptionStrategy;
@@ -359,6 +360,65 @@ public class QueryTreeUtils {
     	return true;
     }
     
+    /**
+	 * Determines if tree1 is subsumed by tree2, i.e. whether tree2 is more general than
+	 * tree1. Both trees must use the same node dictionary. Edges are compared by a merge
+	 * over the sorted edge IDs of both trees.
+	 * A literal node without value is subsumed by a literal node without value if the
+	 * latter has either no datatype or the same datatype.
+	 * @param tree1 the first query tree
+	 * @param tree2 the second query tree
+	 * @return whether <code>tree1</code> is subsumed by <code>tree2</code>
+	 */
+    public static boolean isSubsumedBy(CompactRDFResourceTree tree1, CompactRDFResourceTree tree2) {
+    	if(tree1 == tree2) {
+    		return true;
+    	}
+    	// 1.compare the root nodes
+    	// (T_1 != ?) and (T_2 != ?) --> T_1 = T_2
+    	if(tree1.isResourceNode() && tree2.isResourceNode()) {
+    		return tree1.getLabel() == tree2.getLabel();
+    	} else if(tree1.isLiteralNode() && tree2.isLiteralNode()) {
+    		if(tree2.isLiteralValueNode()) {
+    			return tree1.getLabel() == tree2.getLabel();
+    		}
+    		RDFDatatype d2 = tree2.getDatatype();
+    		return d2 == null || d2.equals(tree1.getDatatype());
+    	}
+
+    	// (T_1 = ?) and (T_2 != ?) --> FALSE
+    	if(tree1.isVarNode() && !tree2.isVarNode()) {
+    		return false;
+    	}
+
+    	// 2. compare the children
+    	int edgeCount1 = tree1.getEdgeCount();
+    	int i = 0;
+    	for(int j = 0; j < tree2.getEdgeCount(); j++){ // for each edge in T_2
+    		int edge2 = tree2.getEdge(j);
+    		while(i < edgeCount1 && tree1.getEdge(i) < edge2) {
+    			i++;
+    		}
+    		if(i == edgeCount1 || tree1.getEdge(i) != edge2) {
+    			return false;
+    		}
+    		List<CompactRDFResourceTree> children1 = tree1.getChildrenAt(i);
+    		for(CompactRDFResourceTree child2 : tree2.getChildrenAt(j)) { // and each child in T_2
+    			boolean isSubsumed = false;
+    			for(CompactRDFResourceTree child1 : children1){ // there has to be at least one child in T_1 that is subsumed
+    				if(isSubsumedBy(child1, child2)){
+    					isSubsumed = true;
+    					break;
+    				}
+    			}
+    			if(!isSubsumed){
+    				return false;
+    			}
+    		}
+    	}
+    	return true;
+    }
+
     public static boolean isSubsumedBy(RDFResourceTree tree1, RDFResourceTree tree2, LiteralNodeSubsumptionStrategy strategy) {
 		return isSubsumedBy(tree1, tree2);
 	}
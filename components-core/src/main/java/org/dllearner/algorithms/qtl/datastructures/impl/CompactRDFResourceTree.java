@@ -0,0 +1,352 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.datastructures.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.graph.Node;
+
+/**
+ * An immutable and memory-compact representation of an {@link RDFResourceTree}.
+ * Node labels and edges are encoded as integer IDs of a shared {@link NodeDictionary},
+ * the edges of a node are stored in a sorted array and the children in a single array
+ * aligned to it. Each node thus needs only a few small arrays instead of the hash and tree
+ * maps used by {@link RDFResourceTree}. Subtrees are never modified after construction and
+ * can therefore be shared between trees.
+ * <p>
+ * The children of an edge are kept in the order of their hash codes, such that trees which
+ * differ only in the order of children are equal. Equality and the hash code therefore form
+ * a canonical form of the tree, which can be used as a key for memoization.
+ */
+public final class CompactRDFResourceTree {
+
+	private static final byte VAR = 0;
+	private static final byte RESOURCE = 1;
+	private static final byte LITERAL_VALUE = 2;
+	private static final byte LITERAL = 3;
+
+	private static final int[] NO_EDGES = new int[0];
+	private static final CompactRDFResourceTree[] NO_CHILDREN = new CompactRDFResourceTree[0];
+
+	private final NodeDictionary dictionary;
+
+	private final int label;
+	private final byte kind;
+	// the datatype of literal nodes
+	private final RDFDatatype datatype;
+
+	// distinct edge IDs in ascending order, the children of edges[i] are
+	// children[offsets[i]] ... children[offsets[i + 1] - 1]
+	private final int[] edges;
+	private final int[] offsets;
+	private final CompactRDFResourceTree[] children;
+
+	private final int hash;
+
+	private CompactRDFResourceTree(NodeDictionary dictionary, Node data, RDFDatatype datatype,
+								   int[] edges, int[] offsets, CompactRDFResourceTree[] children) {
+		this.dictionary = dictionary;
+		this.label = dictionary.getId(data);
+		if (data.isURI()) {
+			this.kind = RESOURCE;
+		} else if (data.isLiteral()) {
+			this.kind = data.equals(RDFResourceTree.DEFAULT_LITERAL_NODE) ? LITERAL : LITERAL_VALUE;
+		} else {
+			this.kind = VAR;
+		}
+		this.datatype = kind == LITERAL_VALUE ? data.getLiteralDatatype() : datatype;
+		this.edges = edges;
+		this.offsets = offsets;
+		this.children = children;
+
+		int h = 31 * label + kind;
+		h = 31 * h + Objects.hashCode(this.datatype);
+		h = 31 * h + Arrays.hashCode(edges);
+		h = 31 * h + Arrays.hashCode(offsets);
+		h = 31 * h + Arrays.hashCode(children);
+		this.hash = h;
+	}
+
+	/**
+	 * Converts the given tree into its compact representation.
+	 * @param tree the tree
+	 * @param dictionary the dictionary used to encode labels and edges
+	 * @return the compact tree
+	 */
+	public static CompactRDFResourceTree of(RDFResourceTree tree, NodeDictionary dictionary) {
+		Builder builder = new Builder(dictionary, tree.getData()).datatype(tree.getDatatype());
+		for (Node edge : tree.getEdges()) {
+			int edgeId = dictionary.getId(edge);
+			for (RDFResourceTree child : tree.getChildren(edge)) {
+				builder.addChild(edgeId, of(child, dictionary));
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Converts the given tree into its compact representation using the default dictionary.
+	 * @param tree the tree
+	 * @return the compact tree
+	 */
+	public static CompactRDFResourceTree of(RDFResourceTree tree) {
+		return of(tree, NodeDictionary.getDefault());
+	}
+
+	/**
+	 * @return a new, mutable {@link RDFResourceTree} with the same structure
+	 */
+	public RDFResourceTree toRDFResourceTree() {
+		RDFResourceTree tree;
+		if (kind == LITERAL) {
+			tree = datatype == null ? RDFResourceTree.newLiteralNode() : new RDFResourceTree(datatype);
+		} else {
+			tree = new RDFResourceTree(getData());
+		}
+		for (int i = 0; i < edges.length; i++) {
+			Node edge = dictionary.getNode(edges[i]);
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+				tree.addChild(children[j].toRDFResourceTree(), edge);
+			}
+		}
+		return tree;
+	}
+
+	public NodeDictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * @return the ID of the label in the dictionary
+	 */
+	public int getLabel() {
+		return label;
+	}
+
+	public Node getData() {
+		return dictionary.getNode(label);
+	}
+
+	/**
+	 * @return the datatype if node is literal node
+	 */
+	public RDFDatatype getDatatype() {
+		return datatype;
+	}
+
+	public boolean isResourceNode() {
+		return kind == RESOURCE;
+	}
+
+	public boolean isLiteralNode() {
+		return kind == LITERAL || kind == LITERAL_VALUE;
+	}
+
+	public boolean isLiteralValueNode() {
+		return kind == LITERAL_VALUE;
+	}
+
+	public boolean isVarNode() {
+		return kind == VAR;
+	}
+
+	public boolean isLeaf() {
+		return edges.length == 0;
+	}
+
+	/**
+	 * @return the IDs of all outgoing edges in ascending order
+	 */
+	public int[] getEdges() {
+		return edges.clone();
+	}
+
+	/**
+	 * @return the number of distinct outgoing edges
+	 */
+	public int getEdgeCount() {
+		return edges.length;
+	}
+
+	/**
+	 * @param index the index of the edge in {@link #getEdges()}
+	 * @return the ID of the edge
+	 */
+	public int getEdge(int index) {
+		return edges[index];
+	}
+
+	/**
+	 * @param index the index of the edge in {@link #getEdges()}
+	 * @return the children connected via the edge
+	 */
+	public List<CompactRDFResourceTree> getChildrenAt(int index) {
+		return Collections.unmodifiableList(Arrays.asList(children).subList(offsets[index], offsets[index + 1]));
+	}
+
+	/**
+	 * @param edge the ID of the edge
+	 * @return the children connected via the edge or <code>null</code> if there is no such edge
+	 */
+	public List<CompactRDFResourceTree> getChildren(int edge) {
+		int index = Arrays.binarySearch(edges, edge);
+		return index < 0 ? null : getChildrenAt(index);
+	}
+
+	/**
+	 * @return all children
+	 */
+	public List<CompactRDFResourceTree> getChildren() {
+		return Collections.unmodifiableList(Arrays.asList(children));
+	}
+
+	/**
+	 * @return the number of nodes in this tree
+	 */
+	public int size() {
+		int size = 1;
+		for (CompactRDFResourceTree child : children) {
+			size += child.size();
+		}
+		return size;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	/**
+	 * Two compact trees are equal if they have the same structure, i.e. the same labels,
+	 * edges and children, regardless of the order in which children have been added.
+	 * Children with colliding hash codes may still be ordered differently, in which case
+	 * two equivalent trees are not considered equal.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CompactRDFResourceTree)) {
+			return false;
+		}
+		CompactRDFResourceTree other = (CompactRDFResourceTree) obj;
+		return hash == other.hash
+				&& label == other.label
+				&& kind == other.kind
+				&& dictionary == other.dictionary
+				&& Objects.equals(datatype, other.datatype)
+				&& Arrays.equals(edges, other.edges)
+				&& Arrays.equals(offsets, other.offsets)
+				&& Arrays.equals(children, other.children);
+	}
+
+	@Override
+	public String toString() {
+		return toRDFResourceTree().getStringRepresentation();
+	}
+
+	/**
+	 * A builder for compact trees. Children can be added in any order, they are sorted
+	 * by edge and hash code when the tree is built.
+	 */
+	public static class Builder {
+
+		private final NodeDictionary dictionary;
+		private final Node data;
+		private RDFDatatype datatype;
+
+		// pairs of edge and (hash code of child << 32 | index of child)
+		private final List<long[]> edgeAndIndex = new ArrayList<>();
+		private final List<CompactRDFResourceTree> childList = new ArrayList<>();
+
+		/**
+		 * Creates a builder for a tree with a default variable as label.
+		 * @param dictionary the dictionary
+		 */
+		public Builder(NodeDictionary dictionary) {
+			this(dictionary, RDFResourceTree.DEFAULT_VAR_NODE);
+		}
+
+		public Builder(NodeDictionary dictionary, Node data) {
+			this.dictionary = dictionary;
+			this.data = data.isBlank() ? RDFResourceTree.DEFAULT_VAR_NODE : data;
+		}
+
+		/**
+		 * Creates a builder for an empty literal node with given datatype.
+		 * @param dictionary the dictionary
+		 * @param datatype the datatype, can be <code>null</code>
+		 */
+		public Builder(NodeDictionary dictionary, RDFDatatype datatype) {
+			this(dictionary, RDFResourceTree.DEFAULT_LITERAL_NODE);
+			this.datatype = datatype;
+		}
+
+		public Builder datatype(RDFDatatype datatype) {
+			this.datatype = datatype;
+			return this;
+		}
+
+		public Builder addChild(int edge, CompactRDFResourceTree child) {
+			if (child.dictionary != dictionary) {
+				throw new IllegalArgumentException("Child tree uses a different node dictionary.");
+			}
+			edgeAndIndex.add(new long[]{edge, ((long) child.hash << 32) | childList.size()});
+			childList.add(child);
+			return this;
+		}
+
+		public Builder addChild(Node edge, CompactRDFResourceTree child) {
+			return addChild(dictionary.getId(edge), child);
+		}
+
+		public CompactRDFResourceTree build() {
+			if (childList.isEmpty()) {
+				return new CompactRDFResourceTree(dictionary, data, datatype, NO_EDGES, NO_EDGES, NO_CHILDREN);
+			}
+			// sort by edge and then by hash code of the child
+			edgeAndIndex.sort((e1, e2) -> e1[0] != e2[0] ? Long.compare(e1[0], e2[0]) : Long.compare(e1[1], e2[1]));
+
+			int[] edgeBuf = new int[edgeAndIndex.size()];
+			int[] offsetBuf = new int[edgeAndIndex.size() + 1];
+			CompactRDFResourceTree[] children = new CompactRDFResourceTree[childList.size()];
+			int nrOfEdges = 0;
+			for (int i = 0; i < edgeAndIndex.size(); i++) {
+				long[] entry = edgeAndIndex.get(i);
+				int edge = (int) entry[0];
+				if (nrOfEdges == 0 || edgeBuf[nrOfEdges - 1] != edge) {
+					edgeBuf[nrOfEdges] = edge;
+					offsetBuf[nrOfEdges] = i;
+					nrOfEdges++;
+				}
+				children[i] = childList.get((int) (entry[1] & 0xFFFFFFFFL));
+			}
+			offsetBuf[nrOfEdges] = children.length;
+
+			return new CompactRDFResourceTree(dictionary, data, datatype,
+					Arrays.copyOf(edgeBuf, nrOfEdges), Arrays.copyOf(offsetBuf, nrOfEdges + 1), children);
+		}
+	}
+}
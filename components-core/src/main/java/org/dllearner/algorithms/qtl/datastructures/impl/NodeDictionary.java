@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.datastructures.impl;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.jena.graph.Node;
+import org.dllearner.algorithms.qtl.datastructures.NodeInv;
+
+/**
+ * A dictionary which maps RDF nodes, i.e. the labels and edges of query trees,
+ * to consecutive integer IDs and back. Each node is stored only once, no matter
+ * in how many trees it occurs. The dictionary is thread-safe.
+ */
+public class NodeDictionary {
+
+	private static final NodeDictionary DEFAULT = new NodeDictionary();
+
+	// inverse edges are kept separately, because a NodeInv is not distinguishable
+	// from the URI node it wraps in all equality checks
+	private final Map<Node, Integer> node2Id = new ConcurrentHashMap<>();
+	private final Map<Node, Integer> inverseNode2Id = new ConcurrentHashMap<>();
+
+	private volatile Node[] id2Node = new Node[64];
+	private int size = 0;
+
+	/**
+	 * @return a dictionary shared by all trees which do not use their own
+	 */
+	public static NodeDictionary getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns the ID of the node and adds the node if it is not contained yet.
+	 * @param node the node
+	 * @return the ID of the node
+	 */
+	public int getId(Node node) {
+		Map<Node, Integer> map = node instanceof NodeInv ? inverseNode2Id : node2Id;
+		Integer id = map.get(node);
+		if (id == null) {
+			id = map.computeIfAbsent(node, this::add);
+		}
+		return id;
+	}
+
+	private synchronized int add(Node node) {
+		if (size == id2Node.length) {
+			id2Node = Arrays.copyOf(id2Node, size * 2);
+		}
+		Node[] nodes = id2Node;
+		nodes[size] = node;
+		// publish the new element by a volatile write
+		id2Node = nodes;
+		return size++;
+	}
+
+	/**
+	 * @param id the ID
+	 * @return the node with the given ID
+	 */
+	public Node getNode(int id) {
+		return id2Node[id];
+	}
+
+	/**
+	 * @return the number of nodes in the dictionary
+	 */
+	public synchronized int size() {
+		return size;
+	}
+}
@@ -143,17 +143,18 @@ public class RDFResourceTree extends GenericTree<Node, RDFResourceTree> implemen
 		this.id = id;
 	}
 	
+	/**
+	 * Creates a deep copy of the given tree.
+	 * @param tree the tree
+	 */
 	public RDFResourceTree(RDFResourceTree tree) {
 		super(tree.getData());
-		this.id = getID();
-		
-		for (Entry<Node, List<RDFResourceTree>> entry : edge2Children.entrySet()) {
-			Node edge = entry.getKey();
-			List<RDFResourceTree> children = entry.getValue();
-			
-			for (RDFResourceTree child : children) {
-				addChild(new RDFResourceTree(child), edge);
-			}
+		this.id = tree.getID();
+		this.datatype = tree.datatype;
+
+		// keep the order of the children
+		for (RDFResourceTree child : tree.getChildren()) {
+			addChild(new RDFResourceTree(child), tree.getEdgeToChild(child));
 		}
 	}
 	
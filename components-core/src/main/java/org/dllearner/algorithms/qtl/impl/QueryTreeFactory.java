@@ -23,6 +23,14 @@ import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
@@ -75,6 +83,42 @@ public interface QueryTreeFactory {
 	 */
 	RDFResourceTree getQueryTree(Resource resource, Model model, int maxDepth);
 
+	/**
+	 * Generates the query trees of the given resources in parallel. The data of each resource, e.g. its CBD,
+	 * is provided by the given function, which is called concurrently as well. The factory must therefore
+	 * be thread-safe.
+	 *
+	 * @param resources the resource URIs which are supposed to be the roots of the query trees
+	 * @param dataProvider returns the data of a resource
+	 * @param maxDepth the maximum depth of the query trees
+	 * @param nrOfThreads the number of threads
+	 * @return the query trees, in the iteration order of the resources
+	 */
+	default Map<String, RDFResourceTree> getQueryTrees(Collection<String> resources, Function<String, Model> dataProvider,
+													   int maxDepth, int nrOfThreads) {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, nrOfThreads));
+		try {
+			Map<String, Future<RDFResourceTree>> futures = new LinkedHashMap<>();
+			for (String resource : resources) {
+				futures.put(resource, executor.submit(() -> getQueryTree(resource, dataProvider.apply(resource), maxDepth)));
+			}
+			Map<String, RDFResourceTree> trees = new LinkedHashMap<>();
+			for (Map.Entry<String, Future<RDFResourceTree>> entry : futures.entrySet()) {
+				try {
+					trees.put(entry.getKey(), entry.getValue().get());
+				} catch (ExecutionException e) {
+					throw new RuntimeException("Failed to generate tree for resource " + entry.getKey(), e.getCause());
+				}
+			}
+			return trees;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while generating the query trees.", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	/**
 	 * @return the maximum depth of the generated query trees (Default: 3)
 	 */
@@ -43,14 +43,14 @@ import java.util.*;
 import java.util.function.Predicate;
 
 /**
- * A base factory for query trees.
+ * A base factory for query trees. The factory can be used by several threads
+ * at the same time, as long as the drop filters are not changed meanwhile.
  *
  * @author Lorenz Bühmann
  *
  */
 public class QueryTreeFactoryBase implements QueryTreeFactory {
 
-	private int nodeId;
 	private final Comparator<Statement> comparator = new StatementComparator();
 
 	private int maxDepth = 3;
@@ -78,7 +78,7 @@ public class QueryTreeFactoryBase implements QueryTreeFactory {
 		 */
 	@Override
 	public RDFResourceTree getQueryTree(Resource resource, Model model, int maxDepth) {
-		return createTree(resource, model, maxDepth);
+		return new TreeBuilder(model).createTree(resource, maxDepth);
 	}
 	
 	/* (non-Javadoc)
@@ -89,81 +89,84 @@ public class QueryTreeFactoryBase implements QueryTreeFactory {
 		this.dropFilters.addAll(Arrays.asList(dropFilters));
 	}
 
-	private RDFResourceTree createTree(Resource resource, Model model, int maxDepth) {
-		nodeId = 0;
-		Map<Resource, SortedSet<Statement>> resource2Statements = new HashMap<>();
-
-		fillMap(resource, model, resource2Statements);
-
-		RDFResourceTree tree = new RDFResourceTree(resource.asNode());
-		fillTree(resource, tree, resource2Statements, 0, maxDepth);
-
-		return tree;
-	}
-
-	private void fillMap(Resource s, Model model, Map<Resource, SortedSet<Statement>> resource2Statements) {
+	/**
+	 * Holds the state of the construction of a single tree.
+	 * <p>
+	 * The children of a node only depend on its resource and the remaining depth,
+	 * thus the subtree of a resource which is reached several times with the same
+	 * remaining depth is built only once and copied afterwards.
+	 */
+	private class TreeBuilder {
 
-		// get all statements with subject s
-		ExtendedIterator<Statement> it = model.listStatements(s, null, (RDFNode) null);
+		private final Model model;
+		private final Map<Resource, SortedSet<Statement>> resource2Statements = new HashMap<>();
+		private final Map<Resource, Map<Integer, RDFResourceTree>> subTrees = new HashMap<>();
+		private int nodeId = 0;
 
-		// filter statement if necessary
-		if (!dropFilters.isEmpty()) {
-			Iterator<Predicate<Statement>> iter = dropFilters.iterator();
-			Predicate<Statement> keepFilter = iter.next();
-			it = it.filterKeep(keepFilter);
-			while (iter.hasNext()) {it = it.filterKeep(iter.next());
-//				keepFilter = keepFilter.and(iter.next());
-			}
-//			it = it.filterKeep(keepFilter);
+		TreeBuilder(Model model) {
+			this.model = model;
 		}
 
-		SortedSet<Statement> statements = resource2Statements.get(s);
-		if (statements == null) {
-			statements = new TreeSet<>(comparator);
-			resource2Statements.put(s, statements);
+		RDFResourceTree createTree(Resource resource, int maxDepth) {
+			RDFResourceTree tree = new RDFResourceTree(resource.asNode());
+			fillTree(resource, tree, maxDepth);
+			return tree;
 		}
 
-		while (it.hasNext()) {
-			Statement st = it.next();
-			statements.add(st);
-			if ((st.getObject().isResource()) && !resource2Statements.containsKey(st.getObject())) {
-				fillMap(st.getObject().asResource(), model, resource2Statements);
+		private SortedSet<Statement> getStatements(Resource s) {
+			SortedSet<Statement> statements = resource2Statements.get(s);
+			if (statements == null) {
+				// get all statements with subject s
+				ExtendedIterator<Statement> it = model.listStatements(s, null, (RDFNode) null);
+
+				// filter statement if necessary
+				for (Predicate<Statement> filter : dropFilters) {
+					it = it.filterKeep(filter);
+				}
+
+				statements = new TreeSet<>(comparator);
+				while (it.hasNext()) {
+					statements.add(it.next());
+				}
+				resource2Statements.put(s, statements);
 			}
+			return statements;
 		}
-	}
-
-	private void fillTree(Resource root, RDFResourceTree tree, Map<Resource, SortedSet<Statement>> resource2Statements,
-			int currentDepth, int maxDepth) {
-		currentDepth++;
-		if (resource2Statements.containsKey(root)) {
-			RDFResourceTree subTree;
 
-			for (Statement st : resource2Statements.get(root)) {
+		private void fillTree(Resource root, RDFResourceTree tree, int remainingDepth) {
+			for (Statement st : getStatements(root)) {
 				Node predicate = st.getPredicate().asNode();
 				RDFNode object = st.getObject();
 
+				RDFResourceTree subTree;
 				if (object.isLiteral()) {
 					subTree = new RDFResourceTree(nodeId++, object.asNode());
 					tree.addChild(subTree, predicate);
-				} else if (object.isURIResource()) {
-					subTree = new RDFResourceTree(nodeId++, object.asNode());
-					tree.addChild(subTree, predicate);
-//					System.out.println(root + "::" + object + "::" + (currentDepth < maxDepth));
-					if (currentDepth < maxDepth) {
-						if (currentDepth < maxDepth) {
-							fillTree(object.asResource(), subTree, resource2Statements, currentDepth, maxDepth);
-						}
-					}
-				} else if (object.isAnon()) {
-					subTree = new RDFResourceTree(nodeId++);
+				} else if (object.isURIResource() || object.isAnon()) {
+					subTree = object.isURIResource()
+							? new RDFResourceTree(nodeId++, object.asNode())
+							: new RDFResourceTree(nodeId++);
 					tree.addChild(subTree, predicate);
-					if (currentDepth < maxDepth) {
-						fillTree(object.asResource(), subTree, resource2Statements, currentDepth, maxDepth);
+					if (remainingDepth > 1) {
+						fillSubTree(object.asResource(), subTree, remainingDepth - 1);
 					}
 				}
 			}
 		}
-		currentDepth--;
+
+		private void fillSubTree(Resource root, RDFResourceTree tree, int remainingDepth) {
+			Map<Integer, RDFResourceTree> depth2SubTree = subTrees.computeIfAbsent(root, r -> new HashMap<>());
+			RDFResourceTree subTree = depth2SubTree.get(remainingDepth);
+			if (subTree == null) {
+				fillTree(root, tree, remainingDepth);
+				depth2SubTree.put(remainingDepth, tree);
+			} else {
+				for (RDFResourceTree child : subTree.getChildren()) {
+					RDFResourceTree copy = new RDFResourceTree(child);
+					tree.addChild(copy, subTree.getEdgeToChild(child));
+				}
+			}
+		}
 	}
 
 	class StatementComparator implements Comparator<Statement> {
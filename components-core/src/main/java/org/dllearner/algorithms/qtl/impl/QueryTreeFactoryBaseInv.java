@@ -75,7 +75,8 @@ public class QueryTreeFactoryBaseInv implements QueryTreeFactory {
 		 * @see org.dllearner.algorithms.qtl.impl.QueryTreeFactory#getQueryTree(org.apache.jena.rdf.model.Resource, org.apache.jena.rdf.model.Model, int)
 		 */
 	@Override
-	public RDFResourceTree getQueryTree(Resource resource, Model model, int maxDepth) {
+	public synchronized RDFResourceTree getQueryTree(Resource resource, Model model, int maxDepth) {
+		// synchronized because of the node ID counter shared by all trees
 		return createTree(resource, model, maxDepth);
 	}
 	
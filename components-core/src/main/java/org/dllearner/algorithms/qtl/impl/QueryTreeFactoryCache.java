@@ -18,36 +18,52 @@
  */
 package org.dllearner.algorithms.qtl.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.jena.graph.Node;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
 
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 
 /**
- * 
- * @author Lorenz Bühmann
- *
+ * A query tree factory which memoizes the trees generated by another factory.
+ * The trees are identified by the resource, the model and the maximum depth,
+ * where models are compared by identity, i.e. the cache assumes that the data
+ * of a model doesn't change, and it can be kept across several learning runs
+ * as long as they pass the same model. The cache does not keep the models
+ * alive. It is bounded and evicts the least recently used trees first. Trees
+ * with a blank node as root are not cached. The cache is thread-safe if the
+ * delegate is.
  */
 public class QueryTreeFactoryCache implements QueryTreeFactory {
-	
-//	private static final long size = 0;
-//
-//	LoadingCache<String, RDFResourceTree> cache = CacheBuilder.newBuilder().
-//			maximumSize(size)
-//			.build(
-//			new CacheLoader<String, RDFResourceTree>() {
-//				@Override
-//				public RDFResourceTree load(String resource) throws Exception {
-//					return delegatee.getQueryTree(resource, model);
-//				}
-//	});
-
-	private QueryTreeFactory delegatee;
+
+	private static final long DEFAULT_MAX_SIZE = 10000;
+
+	private final QueryTreeFactory delegatee;
+	private final Cache<TreeKey, RDFResourceTree> cache;
+
+	// statistics are cumulative in Guava, thus we remember the values at the last reset
+	private CacheStats statsAtReset = new CacheStats(0, 0, 0, 0, 0, 0);
 
 	public QueryTreeFactoryCache(QueryTreeFactory delegatee) {
+		this(delegatee, DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * @param delegatee the factory which generates the trees
+	 * @param maxSize the maximum number of cached trees
+	 */
+	public QueryTreeFactoryCache(QueryTreeFactory delegatee, long maxSize) {
 		this.delegatee = delegatee;
+		this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
 	}
 
 	/* (non-Javadoc)
@@ -57,13 +73,10 @@ public class QueryTreeFactoryCache implements QueryTreeFactory {
 	public void setMaxDepth(int maxDepth) {
 		delegatee.setMaxDepth(maxDepth);
 	}
-	
-	/* (non-Javadoc)
-	 * @see org.dllearner.algorithms.qtl.impl.QueryTreeFactory#getQueryTree(java.lang.String, org.apache.jena.rdf.model.Model, int)
-	 */
+
 	@Override
-	public RDFResourceTree getQueryTree(String example, Model model, int maxDepth) {
-		return delegatee.getQueryTree(model.getResource(example), model, maxDepth);
+	public int maxDepth() {
+		return delegatee.maxDepth();
 	}
 
 	/* (non-Javadoc)
@@ -71,7 +84,17 @@ public class QueryTreeFactoryCache implements QueryTreeFactory {
 	 */
 	@Override
 	public RDFResourceTree getQueryTree(Resource resource, Model model, int maxDepth) {
-		return delegatee.getQueryTree(resource, model, maxDepth);
+		if (resource.isAnon()) {
+			return delegatee.getQueryTree(resource, model, maxDepth);
+		}
+		try {
+			RDFResourceTree tree = cache.get(new TreeKey(resource.asNode(), model, maxDepth),
+											 () -> delegatee.getQueryTree(resource, model, maxDepth));
+			// the cached tree must not be modified by the caller
+			return new RDFResourceTree(tree);
+		} catch (ExecutionException | UncheckedExecutionException e) {
+			throw new RuntimeException("Failed to generate tree for resource " + resource, e.getCause());
+		}
 	}
 	
 	/* (non-Javadoc)
@@ -80,5 +103,70 @@ public class QueryTreeFactoryCache implements QueryTreeFactory {
 	@Override
 	public void addDropFilters(Predicate<Statement>... dropFilters) {
 		delegatee.addDropFilters(dropFilters);
+		// the cached trees have been generated without the filters
+		clear();
+	}
+
+	/**
+	 * Removes all trees.
+	 */
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * @return the number of cached trees
+	 */
+	public long size() {
+		return cache.size();
+	}
+
+	/**
+	 * @return hit, miss and eviction counts since the last reset
+	 */
+	public CacheStats getStats() {
+		return cache.stats().minus(statsAtReset);
+	}
+
+	/**
+	 * Resets the hit, miss and eviction counts.
+	 */
+	public void resetStatistics() {
+		statsAtReset = cache.stats();
+	}
+
+	private static final class TreeKey {
+		private final Node resource;
+		// the model is only referenced weakly, such that it can be garbage collected while
+		// its trees are still cached; those entries are never hit again and get evicted
+		private final WeakReference<Model> model;
+		private final int modelHash;
+		private final int maxDepth;
+
+		TreeKey(Node resource, Model model, int maxDepth) {
+			this.resource = resource;
+			this.model = new WeakReference<>(model);
+			this.modelHash = System.identityHashCode(model);
+			this.maxDepth = maxDepth;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(resource, modelHash, maxDepth);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof TreeKey)) {
+				return false;
+			}
+			TreeKey other = (TreeKey) obj;
+			Model model = this.model.get();
+			return maxDepth == other.maxDepth && resource.equals(other.resource)
+					&& model != null && model == other.model.get();
+		}
 	}
 }
@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.operations;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.dllearner.algorithms.qtl.QueryTreeUtils;
+import org.dllearner.algorithms.qtl.datastructures.impl.CompactRDFResourceTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.NodeDictionary;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.algorithms.qtl.operations.lgg.AbstractLGGGenerator;
+import org.dllearner.algorithms.qtl.operations.lgg.LGGGenerator;
+import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorCompact;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A bounded memo table for the results of LGG and subsumption computations on query trees.
+ * Trees are identified by their canonical form, i.e. their {@link CompactRDFResourceTree}
+ * representation, such that structurally equal trees share the same entries no matter
+ * whether they are the same objects. The canonical form of each tree is computed only once
+ * and kept as long as the tree is referenced, thus trees must not be modified after they
+ * have been passed to the cache.
+ * <p>
+ * The LGG entries are only valid for one kind of {@link LGGGenerator}, i.e. a cache should
+ * not be shared between algorithms using different generators. The cache is thread-safe.
+ */
+public class QueryTreeOperationCache {
+
+	private final NodeDictionary dictionary = new NodeDictionary();
+
+	private final Cache<RDFResourceTree, CompactRDFResourceTree> canonicalForms;
+	private final Cache<TreePair, CompactRDFResourceTree> lggCache;
+	private final Cache<TreePair, Boolean> subsumptionCache;
+
+	// statistics are cumulative in Guava, thus we remember the values at the last reset
+	private CacheStats lggStatsAtReset = new CacheStats(0, 0, 0, 0, 0, 0);
+	private CacheStats subsumptionStatsAtReset = new CacheStats(0, 0, 0, 0, 0, 0);
+
+	/**
+	 * @param maxSize the maximum number of LGG and subsumption entries, each
+	 */
+	public QueryTreeOperationCache(long maxSize) {
+		canonicalForms = CacheBuilder.newBuilder().weakKeys().build();
+		lggCache = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+		subsumptionCache = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+	}
+
+	/**
+	 * @param tree the tree
+	 * @return the canonical form of the tree
+	 */
+	public CompactRDFResourceTree getCanonicalForm(RDFResourceTree tree) {
+		try {
+			// weak keys are compared by identity
+			return canonicalForms.get(tree, () -> CompactRDFResourceTree.of(tree, dictionary));
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Failed to compute the canonical form of " + tree, e.getCause());
+		}
+	}
+
+	/**
+	 * Returns the LGG of both trees, which is computed by the given generator if it
+	 * is not in the cache yet. Results of an LGG computation which has been stopped
+	 * or timed out are not cached.
+	 *
+	 * @param tree1 the first tree
+	 * @param tree2 the second tree
+	 * @param lggGenerator the generator used if the LGG is not in the cache
+	 * @return a new tree which is the LGG of both trees
+	 */
+	public RDFResourceTree getLGG(RDFResourceTree tree1, RDFResourceTree tree2, LGGGenerator lggGenerator) {
+		CompactRDFResourceTree c1 = getCanonicalForm(tree1);
+		CompactRDFResourceTree c2 = getCanonicalForm(tree2);
+
+		// the LGG is commutative, thus the order of both trees doesn't matter
+		TreePair key = c1.hashCode() <= c2.hashCode() ? new TreePair(c1, c2) : new TreePair(c2, c1);
+
+		CompactRDFResourceTree lgg = lggCache.getIfPresent(key);
+		if (lgg == null) {
+			RDFResourceTree result = lggGenerator.getLGG(tree1, tree2);
+			if (isComplete(lggGenerator)) {
+				lgg = getCanonicalForm(result);
+				lggCache.put(key, lgg);
+			}
+			return result;
+		}
+		return lgg.toRDFResourceTree();
+	}
+
+	private boolean isComplete(LGGGenerator lggGenerator) {
+		if (lggGenerator instanceof AbstractLGGGenerator) {
+			return ((AbstractLGGGenerator) lggGenerator).isComplete();
+		} else if (lggGenerator instanceof LGGGeneratorCompact) {
+			return ((LGGGeneratorCompact) lggGenerator).isComplete();
+		}
+		return true;
+	}
+
+	/**
+	 * Determines if tree1 is subsumed by tree2, see {@link QueryTreeUtils#isSubsumedBy(RDFResourceTree, RDFResourceTree)}.
+	 *
+	 * @param tree1 the first query tree
+	 * @param tree2 the second query tree
+	 * @return whether <code>tree1</code> is subsumed by <code>tree2</code>
+	 */
+	public boolean isSubsumedBy(RDFResourceTree tree1, RDFResourceTree tree2) {
+		TreePair key = new TreePair(getCanonicalForm(tree1), getCanonicalForm(tree2));
+		Boolean subsumed = subsumptionCache.getIfPresent(key);
+		if (subsumed == null) {
+			subsumed = QueryTreeUtils.isSubsumedBy(tree1, tree2);
+			subsumptionCache.put(key, subsumed);
+		}
+		return subsumed;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		canonicalForms.invalidateAll();
+		lggCache.invalidateAll();
+		subsumptionCache.invalidateAll();
+	}
+
+	/**
+	 * @return hit, miss and eviction counts of the LGG entries since the last reset
+	 */
+	public CacheStats getLGGStats() {
+		return lggCache.stats().minus(lggStatsAtReset);
+	}
+
+	/**
+	 * @return hit, miss and eviction counts of the subsumption entries since the last reset
+	 */
+	public CacheStats getSubsumptionStats() {
+		return subsumptionCache.stats().minus(subsumptionStatsAtReset);
+	}
+
+	/**
+	 * Resets the hit, miss and eviction counts.
+	 */
+	public void resetStatistics() {
+		lggStatsAtReset = lggCache.stats();
+		subsumptionStatsAtReset = subsumptionCache.stats();
+	}
+
+	@Override
+	public String toString() {
+		return "LGG cache: " + render(getLGGStats(), lggCache.size()) + "\n"
+				+ "subsumption cache: " + render(getSubsumptionStats(), subsumptionCache.size()) + "\n";
+	}
+
+	private static String render(CacheStats stats, long size) {
+		return stats.hitCount() + " hits, " + stats.missCount() + " misses ("
+				+ String.format("%.1f", stats.hitRate() * 100) + "% hit rate), "
+				+ stats.evictionCount() + " evictions, " + size + " entries";
+	}
+
+	private static final class TreePair {
+		private final CompactRDFResourceTree tree1;
+		private final CompactRDFResourceTree tree2;
+
+		TreePair(CompactRDFResourceTree tree1, CompactRDFResourceTree tree2) {
+			this.tree1 = tree1;
+			this.tree2 = tree2;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * tree1.hashCode() + tree2.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof TreePair)) {
+				return false;
+			}
+			TreePair other = (TreePair) obj;
+			return tree1.equals(other.tree1) && tree2.equals(other.tree2);
+		}
+	}
+}
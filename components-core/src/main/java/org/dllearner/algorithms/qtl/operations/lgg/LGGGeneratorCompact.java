@@ -0,0 +1,216 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.operations.lgg;
+
+import com.jamonapi.Monitor;
+import com.jamonapi.MonitorFactory;
+import org.apache.jena.datatypes.RDFDatatype;
+import org.dllearner.algorithms.qtl.QueryTreeUtils;
+import org.dllearner.algorithms.qtl.datastructures.impl.CompactRDFResourceTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.NodeDictionary;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.algorithms.qtl.operations.StoppableOperation;
+import org.dllearner.algorithms.qtl.operations.TimeoutableOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An LGG generator based on syntax and structure only, like {@link LGGGeneratorSimple}, but working
+ * on {@link CompactRDFResourceTree}s. The edges of both trees are compared by a merge over the
+ * sorted edge IDs, and subtrees which are the same in both trees are shared with the LGG
+ * instead of being copied.
+ */
+public class LGGGeneratorCompact implements LGGGenerator, StoppableOperation, TimeoutableOperation {
+
+	private static final Logger logger = LoggerFactory.getLogger(LGGGeneratorCompact.class);
+
+	private Monitor mon = MonitorFactory.getTimeMonitor("lgg");
+
+	private final NodeDictionary dictionary;
+
+	private long timeoutMillis = -1;
+	private long startTime;
+
+	private volatile boolean stop = false;
+
+	private boolean complete = true;
+
+	public LGGGeneratorCompact(NodeDictionary dictionary) {
+		this.dictionary = dictionary;
+	}
+
+	public LGGGeneratorCompact() {
+		this(NodeDictionary.getDefault());
+	}
+
+	/**
+	 * Computes the LGG on the compact representation of both trees and converts the result back.
+	 */
+	@Override
+	public RDFResourceTree getLGG(RDFResourceTree tree1, RDFResourceTree tree2, boolean learnFilters) {
+		return getLGG(CompactRDFResourceTree.of(tree1, dictionary), CompactRDFResourceTree.of(tree2, dictionary))
+				.toRDFResourceTree();
+	}
+
+	/**
+	 * Returns the Least General Generalization of two compact trees.
+	 *
+	 * @param tree1 the first tree
+	 * @param tree2 the second tree
+	 * @return the Least General Generalization
+	 */
+	public CompactRDFResourceTree getLGG(CompactRDFResourceTree tree1, CompactRDFResourceTree tree2) {
+		if (tree1.getDictionary() != dictionary || tree2.getDictionary() != dictionary) {
+			throw new IllegalArgumentException("Trees have to use the node dictionary of the LGG generator.");
+		}
+		startTime = System.currentTimeMillis();
+		stop = false;
+		complete = true;
+
+		mon.start();
+		CompactRDFResourceTree lgg = computeLGG(tree1, tree2);
+		mon.stop();
+
+		return lgg;
+	}
+
+	/**
+	 * Returns the Least General Generalization of a list of compact trees.
+	 *
+	 * @param trees the trees
+	 * @return the Least General Generalization
+	 */
+	public CompactRDFResourceTree getCompactLGG(List<CompactRDFResourceTree> trees) {
+		if (trees.isEmpty()) {
+			throw new RuntimeException("LGG computation for empty set of trees.");
+		}
+		CompactRDFResourceTree lgg = trees.get(0);
+		for (int i = 1; i < trees.size(); i++) {
+			lgg = getLGG(lgg, trees.get(i));
+		}
+		return lgg;
+	}
+
+	private CompactRDFResourceTree computeLGG(CompactRDFResourceTree tree1, CompactRDFResourceTree tree2) {
+		// 1. compare the root nodes
+		// a) if both root nodes have same URI or literal value, or if both trees are the same,
+		// just return one of the two trees as LGG
+		if (tree1 == tree2
+				|| ((tree1.isResourceNode() || tree1.isLiteralValueNode()) && tree1.getLabel() == tree2.getLabel())) {
+			logger.trace("Early termination. Tree 1 {}  and tree 2 {} describe the same resource.", tree1, tree2);
+			return tree1;
+		}
+
+		// b) handle literal nodes
+		if (tree1.isLiteralNode() && tree2.isLiteralNode()) {
+			RDFDatatype d1 = tree1.getDatatype();
+			RDFDatatype d2 = tree2.getDatatype();
+			return new CompactRDFResourceTree.Builder(dictionary, d1 != null && d1.equals(d2) ? d1 : null).build();
+		}
+
+		// c) else create new empty tree
+		CompactRDFResourceTree.Builder lgg = new CompactRDFResourceTree.Builder(dictionary);
+
+		// 2. compare the edges contained in both trees
+		int i = 0;
+		int j = 0;
+		while (i < tree1.getEdgeCount() && j < tree2.getEdgeCount()) {
+			if (stop || isTimeout()) {
+				complete = false;
+				break;
+			}
+			int edge1 = tree1.getEdge(i);
+			int edge2 = tree2.getEdge(j);
+			if (edge1 < edge2) {
+				i++;
+			} else if (edge1 > edge2) {
+				j++;
+			} else {
+				for (CompactRDFResourceTree child : computeChildLGGs(tree1.getChildrenAt(i), tree2.getChildrenAt(j))) {
+					lgg.addChild(edge1, child);
+				}
+				i++;
+				j++;
+			}
+		}
+
+		return lgg.build();
+	}
+
+	private List<CompactRDFResourceTree> computeChildLGGs(List<CompactRDFResourceTree> children1,
+														  List<CompactRDFResourceTree> children2) {
+		List<CompactRDFResourceTree> addedChildren = new ArrayList<>();
+
+		for (CompactRDFResourceTree child1 : children1) {
+			for (CompactRDFResourceTree child2 : children2) {
+				if (stop || isTimeout()) {
+					complete = false;
+					return addedChildren;
+				}
+
+				CompactRDFResourceTree lggChild = computeLGG(child1, child2);
+
+				// check if there was already a more specific child computed before
+				// and if so don't add the current one
+				boolean add = true;
+				for (Iterator<CompactRDFResourceTree> it = addedChildren.iterator(); it.hasNext(); ) {
+					CompactRDFResourceTree addedChild = it.next();
+
+					if (QueryTreeUtils.isSubsumedBy(addedChild, lggChild)) {
+						add = false;
+						break;
+					} else if (QueryTreeUtils.isSubsumedBy(lggChild, addedChild)) {
+						it.remove();
+					}
+				}
+				if (add) {
+					addedChildren.add(lggChild);
+				}
+			}
+		}
+		return addedChildren;
+	}
+
+	@Override
+	public void setTimeout(long timeout, TimeUnit timeoutUnits) {
+		this.timeoutMillis = timeoutUnits.toMillis(timeout);
+	}
+
+	@Override
+	public void stop() {
+		stop = true;
+	}
+
+	private boolean isTimeout() {
+		return timeoutMillis > 0 && System.currentTimeMillis() - startTime >= timeoutMillis;
+	}
+
+	public boolean isComplete() {
+		return complete;
+	}
+
+	public NodeDictionary getDictionary() {
+		return dictionary;
+	}
+}
@@ -39,6 +39,7 @@ import org.dllearner.core.config.ConfigOption;
 import org.dllearner.core.owl.ClassHierarchy;
 import org.dllearner.kb.LocalModelBasedSparqlEndpointKS;
 import org.dllearner.kb.SparqlEndpointKS;
+import org.dllearner.kb.sparql.PaginatedSampleFetcher;
 import org.dllearner.kb.sparql.SPARQLTasks;
 import org.dllearner.learningproblems.AxiomScore;
 import org.dllearner.learningproblems.Heuristics;
@@ -76,6 +77,10 @@ public abstract class AbstractAxiomLearningAlgorithm<T extends OWLAxiom, S exten
 	protected boolean returnOnlyNewAxioms;
 	@ConfigOption(description="The maximum number of rows fetched from the endpoint to approximate the result.")
 	protected int maxFetchedRows;
+	@ConfigOption(defaultValue="4", description="The max. number of pages of the sample that are fetched from the endpoint concurrently.")
+	protected int samplePrefetchDepth = 4;
+	@ConfigOption(defaultValue="-1", description="The max. number of triples in the sample, i.e. the sample generation stops once this size is reached. A value below 1 means no limit.")
+	protected long maxSampleSize = -1;
 	
 	@ConfigOption(description = "the sparql endpoint knowledge source")
 	protected SparqlEndpointKS ks;
@@ -214,6 +219,22 @@ public abstract class AbstractAxiomLearningAlgorithm<T extends OWLAxiom, S exten
 	public void setMaxFetchedRows(int maxFetchedRows) {
 		this.maxFetchedRows = maxFetchedRows;
 	}
+
+	public int getSamplePrefetchDepth() {
+		return samplePrefetchDepth;
+	}
+
+	public void setSamplePrefetchDepth(int samplePrefetchDepth) {
+		this.samplePrefetchDepth = samplePrefetchDepth;
+	}
+
+	public long getMaxSampleSize() {
+		return maxSampleSize;
+	}
+
+	public void setMaxSampleSize(long maxSampleSize) {
+		this.maxSampleSize = maxSampleSize;
+	}
 	
 	public void setForceSPARQL_1_0_Mode(boolean forceSPARQL_1_0_Mode) {
 		this.forceSPARQL_1_0_Mode = forceSPARQL_1_0_Mode;
@@ -313,34 +334,25 @@ public abstract class AbstractAxiomLearningAlgorithm<T extends OWLAxiom, S exten
 	
 	private void generateSample(){
 		logger.info("Generating sample...");
-		sample = ModelFactory.createDefaultModel();
-		
-		// we have to set up a new query execution factory working on our local model
-		qef = new QueryExecutionFactoryModel(sample);
-		reasoner = new SPARQLReasoner(qef);
-		
-		// get the page size
-		//TODO put to base class
-		long pageSize = 10000;//PaginationUtils.adjustPageSize(globalQef, 10000);
 		
 		ParameterizedSparqlString sampleQueryTemplate = getSampleQuery();
 		sampleQueryTemplate.setIri("p", entityToDescribe.toStringID());
 		Query query = sampleQueryTemplate.asQuery();
-		query.setLimit(pageSize);
 		
-		boolean isEmpty = false;
-		int i = 0;
-		while(!isTimeout() && !isEmpty){
-			// get next sample
-			logger.debug("Extending sample...");
-			query.setOffset(i++ * pageSize);
-			QueryExecution qe = ksQef.createQueryExecution(query);
-			Model tmp = qe.execConstruct();
-			sample.add(tmp);
-			
-			// if last call returned empty model, we can leave loop
-			isEmpty = tmp.isEmpty();
+		PaginatedSampleFetcher fetcher = new PaginatedSampleFetcher(ksQef);
+		//TODO put to base class
+		fetcher.setPageSize(10000);//PaginationUtils.adjustPageSize(globalQef, 10000);
+		fetcher.setPrefetchDepth(samplePrefetchDepth);
+		fetcher.setMaxSampleSize(maxSampleSize);
+		if(maxExecutionTimeInSeconds != 0) {
+			fetcher.setTimeout(Math.max(1, getRemainingRuntimeInMilliSeconds()));
 		}
+		sample = fetcher.fetch(query);
+		
+		// we have to set up a new query execution factory working on our local model
+		qef = new QueryExecutionFactoryModel(sample);
+		reasoner = new SPARQLReasoner(qef);
+		
 		logger.info("...done. Sample size: " + sample.size() + " triples");
 	}
 	
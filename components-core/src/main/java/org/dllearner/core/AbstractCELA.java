@@ -247,6 +247,16 @@ public abstract class AbstractCELA extends AbstractComponent implements ClassExp
 		return bestEvaluatedDescriptions.getSet();
 	}
 	
+	/**
+	 * Returns the best descriptions found so far, best first. In contrast to
+	 * {@link #getCurrentlyBestEvaluatedDescriptions()}, this is an immutable
+	 * snapshot, which can be read by other threads while the algorithm is running.
+	 * @return Best class descriptions found so far.
+	 */
+	public List<? extends EvaluatedDescription<? extends Score>> getCurrentlyBestEvaluatedDescriptionsSnapshot() {
+		return bestEvaluatedDescriptions.getSnapshot();
+	}
+
 	/**
 	 * Returns a filtered list of currently best class descriptions.
 	 * 
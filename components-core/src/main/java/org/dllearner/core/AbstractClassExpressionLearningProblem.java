@@ -20,13 +20,18 @@ package org.dllearner.core;
 
 import org.dllearner.core.annotations.NoConfigOption;
 import org.dllearner.core.config.ConfigOption;
+import org.dllearner.learningproblems.EvaluationCache;
 import org.dllearner.learningproblems.ExampleLoader;
 import org.dllearner.utilities.ReasoningUtils;
+import org.dllearner.utilities.ReasoningUtils.Coverage;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLIndividual;
 import org.springframework.beans.factory.annotation.Autowired;
 import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
+import java.util.Set;
+
 /**
  * Base class for all class expression learning problems.
  * 
@@ -38,6 +43,8 @@ public abstract class AbstractClassExpressionLearningProblem<T extends Score>  e
 	protected OWLDataFactory dataFactory = new OWLDataFactoryImpl();
 	@ConfigOption(description = "load examples via class expression selector")
 	protected ExampleLoader exampleLoaderHelper = null;
+	@ConfigOption(description = "cache which infers the coverage of class expressions from previously evaluated ones, such that the reasoner is only asked for undecided examples")
+	protected EvaluationCache evaluationCache = null;
 
 	public AbstractClassExpressionLearningProblem(){
 
@@ -51,6 +58,7 @@ public abstract class AbstractClassExpressionLearningProblem<T extends Score>  e
 		if (this.reasoner != reasoner) {
 			if (this.reasoningUtil == null) {
 				this.reasoningUtil = newReasoningUtils(reasoner);
+				this.reasoningUtil.setEvaluationCache(evaluationCache);
 			} else {
 				this.reasoningUtil.setReasoner(reasoner);
 			}
@@ -91,6 +99,57 @@ public abstract class AbstractClassExpressionLearningProblem<T extends Score>  e
 		setReasonerAndUtil(reasoner);
 	}
     
+	/**
+	 * @return whether this learning problem (in its current configuration) supports
+	 * {@link #getCoverage(OWLClassExpression, Set[])}, i.e. the accuracy of a class
+	 * expression can be computed from its coverage of the example sets alone
+	 */
+	public boolean isIncrementalCoverageSupported() {
+		return false;
+	}
+
+	/**
+	 * @return the example sets, on which the coverage of a class expression is computed
+	 * by {@link #getCoverage(OWLClassExpression, Set[])}, or null if incremental coverage
+	 * is not supported
+	 */
+	public Set<OWLIndividual>[] getCoverageSets() {
+		return null;
+	}
+
+	/**
+	 * Computes the coverage of a class expression on the example sets of this
+	 * learning problem. If the class expression is a specialisation of an already
+	 * evaluated class expression, the examples covered by the latter can be passed
+	 * as candidates, so that only those have to be tested.
+	 * @param description the class expression to test
+	 * @param candidates for each example set, the examples which may be covered,
+	 *                   or null to test all examples
+	 * @return the coverage for each example set or null if incremental coverage is
+	 * not supported or the test was aborted
+	 * @see #isIncrementalCoverageSupported()
+	 */
+	public Coverage[] getCoverage(OWLClassExpression description, Set<OWLIndividual>[] candidates) {
+		if (!isIncrementalCoverageSupported()) {
+			return null;
+		}
+		return reasoningUtil.getCoverage(description, getCoverageSets(), candidates);
+	}
+
+	/**
+	 * Computes the accuracy of a class expression from its coverage as returned
+	 * by {@link #getCoverage(OWLClassExpression, Set[])}. If no coverage is given
+	 * or incremental coverage is not supported, the class expression is fully
+	 * evaluated by {@link #getAccuracyOrTooWeak(OWLClassExpression, double)}.
+	 * @param description the class expression
+	 * @param coverage the coverage of the class expression or null
+	 * @param noise the noise level
+	 * @return the accuracy or -1 if the class expression is too weak
+	 */
+	public double getAccuracyOrTooWeak(OWLClassExpression description, Coverage[] coverage, double noise) {
+		return getAccuracyOrTooWeak(description, noise);
+	}
+
 	public ReasoningUtils getReasoningUtil() {
 		return reasoningUtil;
 	}
@@ -99,6 +158,18 @@ public abstract class AbstractClassExpressionLearningProblem<T extends Score>  e
 		this.reasoningUtil = reasoningUtil;
 	}
 
+	public EvaluationCache getEvaluationCache() {
+		return evaluationCache;
+	}
+
+	@Autowired(required = false)
+	public void setEvaluationCache(EvaluationCache evaluationCache) {
+		this.evaluationCache = evaluationCache;
+		if (reasoningUtil != null) {
+			reasoningUtil.setEvaluationCache(evaluationCache);
+		}
+	}
+
 	public ExampleLoader getExampleLoaderHelper() {
 		return exampleLoaderHelper;
 	}
@@ -32,6 +32,10 @@ import org.dllearner.reasoning.ReasonerType;
 import org.dllearner.utilities.Helper;
 import org.dllearner.utilities.OWLAPIUtils;
 import org.dllearner.utilities.datastructures.SortedSetTuple;
+import org.dllearner.utilities.metrics.Counter;
+import org.dllearner.utilities.metrics.MetricRegistry;
+import org.dllearner.utilities.metrics.MetricSet;
+import org.dllearner.utilities.metrics.Timer;
 import org.semanticweb.owlapi.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +47,7 @@ import java.text.ParseException;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.function.Function;
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 
 /**
@@ -82,27 +87,25 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	@ConfigOption(description = "whether to use single instance checks", defaultValue = "false")
 	protected boolean useInstanceChecks = false;
 
-	// statistical data for particular reasoning operations
-	private long instanceCheckReasoningTimeNs = 0;
-	private int nrOfInstanceChecks = 0;
-	private int nrOfMultiInstanceChecks = 0;
-	private long retrievalReasoningTimeNs = 0;
-	private int nrOfRetrievals = 0;
-	private long subsumptionReasoningTimeNs = 0;
-	private int nrOfSubsumptionChecks = 0;
-	private int nrOfMultiSubsumptionChecks = 0;
-	private int nrOfSubsumptionHierarchyQueries = 0;
+	// statistical data for particular reasoning operations, safe to be updated
+	// concurrently, e.g. by the parallel learning algorithms
+	private final MetricSet metrics = new MetricSet();
+	private final Counter nrOfInstanceChecks = metrics.counter("instance_checks");
+	private final Counter nrOfMultiInstanceChecks = metrics.counter("multi_instance_checks");
+	private final Counter nrOfRetrievals = metrics.counter("retrievals");
+	private final Counter nrOfSubsumptionChecks = metrics.counter("subsumption_checks");
+	private final Counter nrOfMultiSubsumptionChecks = metrics.counter("multi_subsumption_checks");
+	private final Counter nrOfSubsumptionHierarchyQueries = metrics.counter("subsumption_hierarchy_queries");
+	private final Timer instanceCheckReasoningTime = metrics.timer("instance_check_reasoning_time");
+	private final Timer retrievalReasoningTime = metrics.timer("retrieval_reasoning_time");
+	private final Timer subsumptionReasoningTime = metrics.timer("subsumption_reasoning_time");
 
 	// rest of reasoning time
-	private long otherReasoningTimeNs = 0;
+	private final Timer otherReasoningTime = metrics.timer("other_reasoning_time");
 
 	// time for all reasoning requests (usually longer than the sum of all
 	// above)
-	private long overallReasoningTimeNs = 0;
-
-	// temporary variables (moved here for performance reasons)
-	private long reasoningStartTimeTmp;
-	private long reasoningDurationTmp;
+	private final Timer overallReasoningTime = metrics.timer("overall_reasoning_time");
 
 	// list view
 	private List<OWLClass> atomicConceptsList;
@@ -143,7 +146,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	protected Set<KnowledgeSource> sources;
 
     public AbstractReasonerComponent(){
-
+		registerMetrics();
     }
 	/**
 	 * Constructs a new reasoner component.
@@ -153,12 +156,50 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	 */
 	public AbstractReasonerComponent(Set<KnowledgeSource> sources) {
 		this.sources = sources;
+		registerMetrics();
 	}
 	
 	public AbstractReasonerComponent(KnowledgeSource source) {
 		this(Collections.singleton(source));
 	}
 
+	/**
+	 * Copy constructor for snapshots of an initialised reasoner. The snapshot
+	 * shares the (precomputed) hierarchies, domains and ranges of the given
+	 * reasoner, but keeps its own statistics.
+	 * 
+	 * @param reasoner
+	 *            The reasoner to copy.
+	 */
+	protected AbstractReasonerComponent(AbstractReasonerComponent reasoner) {
+		this.sources = reasoner.getSources();
+		this.useInstanceChecks = reasoner.useInstanceChecks;
+		this.precomputeClassHierarchy = reasoner.precomputeClassHierarchy;
+		this.precomputeObjectPropertyHierarchy = reasoner.precomputeObjectPropertyHierarchy;
+		this.precomputeDataPropertyHierarchy = reasoner.precomputeDataPropertyHierarchy;
+		this.precomputePropertyDomains = reasoner.precomputePropertyDomains;
+		this.precomputeObjectPropertyRanges = reasoner.precomputeObjectPropertyRanges;
+
+		// compute the hierarchies once, such that all snapshots share them
+		if (precomputeClassHierarchy) {
+			reasoner.getClassHierarchy();
+		}
+		if (precomputeObjectPropertyHierarchy) {
+			reasoner.getObjectPropertyHierarchy();
+		}
+		if (precomputeDataPropertyHierarchy) {
+			reasoner.getDatatypePropertyHierarchy();
+		}
+		this.subsumptionHierarchy = reasoner.subsumptionHierarchy;
+		this.roleHierarchy = reasoner.roleHierarchy;
+		this.datatypePropertyHierarchy = reasoner.datatypePropertyHierarchy;
+		this.datatype2Properties = reasoner.datatype2Properties;
+		this.dataproperty2datatype = reasoner.dataproperty2datatype;
+		this.propertyDomains = reasoner.propertyDomains;
+		this.objectPropertyRanges = reasoner.objectPropertyRanges;
+		this.initialized = reasoner.initialized;
+	}
+
 	/**
 	 * Gets the knowledge sources used by this reasoner.
 	 * 
@@ -205,16 +246,20 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	 * algorithm, you can use this method to reset all statistical values.
 	 */
 	public void resetStatistics() {
-		instanceCheckReasoningTimeNs = 0;
-		nrOfInstanceChecks = 0;
-		retrievalReasoningTimeNs = 0;
-		nrOfRetrievals = 0;
-		subsumptionReasoningTimeNs = 0;
-		nrOfSubsumptionChecks = 0;
-		// subsumptionHierarchyTimeNs = 0;
-		nrOfSubsumptionHierarchyQueries = 0;
-		otherReasoningTimeNs = 0;
-		overallReasoningTimeNs = 0;
+		metrics.reset();
+	}
+
+	/**
+	 * @return the statistics of the reasoner, which are also published in the
+	 *         {@link MetricRegistry#getDefault() default registry} under the short
+	 *         name of the reasoner
+	 */
+	public MetricSet getMetrics() {
+		return metrics;
+	}
+
+	private void registerMetrics() {
+		MetricRegistry.getDefault().register(this, metrics);
 	}
 
 	/**
@@ -264,7 +309,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final boolean isSuperClassOf(OWLClassExpression superClass, OWLClassExpression subClass) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTime = System.nanoTime();
 		boolean result = false;
 		if(precomputeClassHierarchy) {
 			if(superClass.isAnonymous() || subClass.isAnonymous()) {
@@ -283,10 +328,10 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 				e.printStackTrace();
 			}
 		}
-		nrOfSubsumptionChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		subsumptionReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfSubsumptionChecks.inc();
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		subsumptionReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
 		if(logger.isTraceEnabled()) {
 			logger.trace("reasoner query isSuperClassOf: " + superClass + " " + subClass + " " + result);
 		}
@@ -300,17 +345,17 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final boolean isEquivalentClass(OWLClassExpression class1, OWLClassExpression class2) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTime = System.nanoTime();
 		boolean result = false;
 		try {
 			result = isEquivalentClassImpl(class1, class2);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfSubsumptionChecks+=2;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		subsumptionReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfSubsumptionChecks.inc(2);
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		subsumptionReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
 		if(logger.isTraceEnabled()) {
 			logger.trace("reasoner query isEquivalentClass: " + class1 + " " + class2 + " " + result);
 		}
@@ -323,17 +368,17 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	
 	@Override
 	public final boolean isDisjoint(OWLClass class1, OWLClass class2) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTime = System.nanoTime();
 		boolean result = false;
 		try {
 			result = isDisjointImpl(class1, class2);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfSubsumptionChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		subsumptionReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfSubsumptionChecks.inc();
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		subsumptionReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
 		if(logger.isTraceEnabled()) {
 			logger.trace("reasoner query isDisjoint: " + class1 + " " + class2 + " " + result);
 		}
@@ -363,18 +408,18 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	@Override
 	public final Set<OWLClassExpression> isSuperClassOf(Set<OWLClassExpression> superConcepts,
 			OWLClassExpression subConcept) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTime = System.nanoTime();
 		Set<OWLClassExpression> result = null;
 		try {
 			result = isSuperClassOfImpl(superConcepts, subConcept);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfSubsumptionChecks += superConcepts.size();
-		nrOfMultiSubsumptionChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		subsumptionReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfSubsumptionChecks.inc(superConcepts.size());
+		nrOfMultiSubsumptionChecks.inc();
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		subsumptionReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
 		return result;
 	}
 
@@ -388,7 +433,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final SortedSetTuple<OWLIndividual> doubleRetrieval(OWLClassExpression concept) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTime = System.nanoTime();
 		SortedSetTuple<OWLIndividual> result;
 		try {
 			result = doubleRetrievalImpl(concept);
@@ -396,9 +441,9 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			handleExceptions(e);
 			return null;
 		}
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		otherReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		otherReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
 		return result;
 	}
 
@@ -409,7 +454,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final SortedSet<OWLIndividual> getIndividuals(OWLClassExpression concept) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTime = System.nanoTime();
 		SortedSet<OWLIndividual> result;
 		try {
 			result = getIndividualsImpl(concept);
@@ -417,10 +462,10 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			handleExceptions(e);
 			return null;
 		}
-		nrOfRetrievals++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		retrievalReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfRetrievals.inc();
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		retrievalReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
 		if(logger.isTraceEnabled()) {
 			logger.trace("reasoner query getIndividuals: " + concept + " " + result);
 		}
@@ -434,7 +479,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	
 	@Override
 	public final SortedSet<FuzzyIndividual> getFuzzyIndividuals(OWLClassExpression concept) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTime = System.nanoTime();
 		SortedSet<FuzzyIndividual> result;
 		try {
 			result = getFuzzyIndividualsImpl(concept);
@@ -442,10 +487,10 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			handleExceptions(e);
 			return null;
 		}
-		nrOfRetrievals++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		retrievalReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfRetrievals.inc();
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		retrievalReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
 		if(logger.isTraceEnabled()) {
 			logger.trace("reasoner query getIndividuals: " + concept + " " + result);
 		}
@@ -459,17 +504,17 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final boolean hasType(OWLClassExpression concept, OWLIndividual s) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTime = System.nanoTime();
 		boolean result = false;
 		try {
 			result = hasTypeImpl(concept, s);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfInstanceChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		instanceCheckReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfInstanceChecks.inc();
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		instanceCheckReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
 		return result;
 	}
 
@@ -481,18 +526,18 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	@Override
 	public final SortedSet<OWLIndividual> hasType(OWLClassExpression concept, Set<OWLIndividual> s) {
 		// logger.debug("instanceCheck "+concept.toKBSyntaxString());
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTime = System.nanoTime();
 		SortedSet<OWLIndividual> result = null;
 		try {
 			result = hasTypeImpl(concept, s);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfInstanceChecks += s.size();
-		nrOfMultiInstanceChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		instanceCheckReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfInstanceChecks.inc(s.size());
+		nrOfMultiInstanceChecks.inc();
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		instanceCheckReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
 		// logger.debug("instanceCheck done");
 		return result;
 	}
@@ -504,6 +549,53 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 		return returnSet;
 	}
 
+	@Override
+	public final int hasType(OWLClassExpression concept, Iterable<OWLIndividual> individuals,
+			BiPredicate<OWLIndividual, Boolean> consumer) {
+		long reasoningStartTime = System.nanoTime();
+		int nrOfChecks = 0;
+		try {
+			nrOfChecks = hasTypeImpl(concept, individuals, consumer);
+		} catch (ReasoningMethodUnsupportedException e) {
+			handleExceptions(e);
+		}
+		nrOfInstanceChecks.inc(nrOfChecks);
+		nrOfMultiInstanceChecks.inc();
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		instanceCheckReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
+		return nrOfChecks;
+	}
+
+	/**
+	 * Streams instance checks to the consumer. By default, the checks are
+	 * performed one by one, but without going through the timing wrapper of
+	 * {@link #hasType(OWLClassExpression, OWLIndividual)}; reasoners which can
+	 * answer the checks from a precomputed retrieval should override this.
+	 */
+	protected int hasTypeImpl(OWLClassExpression concept, Iterable<OWLIndividual> individuals,
+			BiPredicate<OWLIndividual, Boolean> consumer) throws ReasoningMethodUnsupportedException {
+		int nrOfChecks = 0;
+		for (OWLIndividual individual : individuals) {
+			nrOfChecks++;
+			if (!consumer.test(individual, hasTypeImpl(concept, individual))) {
+				break;
+			}
+		}
+		return nrOfChecks;
+	}
+
+	@Override
+	public final int getInstanceCount(OWLClassExpression concept, Collection<OWLIndividual> individuals, int maxMissing) {
+		// [0] = instances, [1] = missing
+		int[] counts = new int[2];
+		hasType(concept, individuals, (individual, result) -> {
+			counts[result ? 0 : 1]++;
+			return counts[1] <= maxMissing;
+		});
+		return counts[1] > maxMissing ? -1 : counts[0];
+	}
+
 	@Override
 	public final Set<OWLClass> getInconsistentClasses() {
 		try {
@@ -521,7 +613,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final boolean isSatisfiable() {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTime = System.nanoTime();
 		boolean result;
 		try {
 			result = isSatisfiableImpl();
@@ -529,9 +621,9 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			handleExceptions(e);
 			return false;
 		}
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		otherReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		otherReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
 		return result;
 	}
 
@@ -541,7 +633,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final boolean remainsSatisfiable(OWLAxiom axiom) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTime = System.nanoTime();
 		boolean result;
 		try {
 			result = remainsSatisfiableImpl(axiom);
@@ -549,9 +641,9 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			handleExceptions(e);
 			return false;
 		}
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		otherReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		otherReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
 		return result;
 	}
 
@@ -637,7 +729,7 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 
 	@Override
 	public final Map<OWLIndividual, SortedSet<OWLIndividual>> getPropertyMembers(OWLObjectProperty atomicRole) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTime = System.nanoTime();
 		Map<OWLIndividual, SortedSet<OWLIndividual>> result;
 		try {
 			result = getPropertyMembersImpl(atomicRole);
@@ -645,9 +737,9 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 			handleExceptions(e);
 			return null;
 		}
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		otherReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		otherReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
 		return result;
 	}
 
@@ -1452,55 +1544,55 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	}
 
 	public long getInstanceCheckReasoningTimeNs() {
-		return instanceCheckReasoningTimeNs;
+		return instanceCheckReasoningTime.getSum();
 	}
 
 	public long getRetrievalReasoningTimeNs() {
-		return retrievalReasoningTimeNs;
+		return retrievalReasoningTime.getSum();
 	}
 
 	public int getNrOfInstanceChecks() {
-		return nrOfInstanceChecks;
+		return (int) nrOfInstanceChecks.getCount();
 	}
 
 	public int getNrOfRetrievals() {
-		return nrOfRetrievals;
+		return (int) nrOfRetrievals.getCount();
 	}
 
 	public int getNrOfSubsumptionChecks() {
-		return nrOfSubsumptionChecks;
+		return (int) nrOfSubsumptionChecks.getCount();
 	}
 
 	public long getSubsumptionReasoningTimeNs() {
-		return subsumptionReasoningTimeNs;
+		return subsumptionReasoningTime.getSum();
 	}
 
 	public int getNrOfSubsumptionHierarchyQueries() {
-		return nrOfSubsumptionHierarchyQueries;
+		return (int) nrOfSubsumptionHierarchyQueries.getCount();
 	}
 
 	public long getOverallReasoningTimeNs() {
-		return overallReasoningTimeNs;
+		return overallReasoningTime.getSum();
 	}
 
 	public long getTimePerRetrievalNs() {
-		return retrievalReasoningTimeNs / nrOfRetrievals;
+		return getRetrievalReasoningTimeNs() / getNrOfRetrievals();
 	}
 
 	public long getTimePerInstanceCheckNs() {
-		return instanceCheckReasoningTimeNs / nrOfInstanceChecks;
+		return getInstanceCheckReasoningTimeNs() / getNrOfInstanceChecks();
 	}
 
 	public long getTimePerSubsumptionCheckNs() {
-		return subsumptionReasoningTimeNs / nrOfSubsumptionChecks;
+		return getSubsumptionReasoningTimeNs() / getNrOfSubsumptionChecks();
 	}
 
 	public int getNrOfMultiSubsumptionChecks() {
-		return nrOfMultiSubsumptionChecks;
+		return (int) nrOfMultiSubsumptionChecks.getCount();
 	}
 
 	public int getNrOfMultiInstanceChecks() {
-		return nrOfMultiInstanceChecks;
+		return (int) nrOfMultiInstanceChecks.getCount();
 	}
 	
 	/**
@@ -1569,35 +1661,35 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	@Override
 	public String toString() {
 		String str = "";
-		if (nrOfRetrievals > 0) {
-			str += "number of retrievals: " + nrOfRetrievals + "\n";
+		if (getNrOfRetrievals() > 0) {
+			str += "number of retrievals: " + getNrOfRetrievals() + "\n";
 			str += "retrieval reasoning time: "
-							+ Helper.prettyPrintNanoSeconds(retrievalReasoningTimeNs)
+							+ Helper.prettyPrintNanoSeconds(getRetrievalReasoningTimeNs())
 							+ " ( " + Helper.prettyPrintNanoSeconds(getTimePerRetrievalNs())
 							+ " per retrieval)" + "\n";
 		}
-		if (nrOfInstanceChecks > 0) {
-			str += "number of instance checks: " + nrOfInstanceChecks + " ("
-					+ nrOfMultiInstanceChecks + " multiple)\n";
+		if (getNrOfInstanceChecks() > 0) {
+			str += "number of instance checks: " + getNrOfInstanceChecks() + " ("
+					+ getNrOfMultiInstanceChecks() + " multiple)\n";
 			str += "instance check reasoning time: "
-					+ Helper.prettyPrintNanoSeconds(instanceCheckReasoningTimeNs) + " ( "
+					+ Helper.prettyPrintNanoSeconds(getInstanceCheckReasoningTimeNs()) + " ( "
 					+ Helper.prettyPrintNanoSeconds(getTimePerInstanceCheckNs())
 					+ " per instance check)\n";
 		}
-		if (nrOfSubsumptionHierarchyQueries > 0) {
+		if (getNrOfSubsumptionHierarchyQueries() > 0) {
 			str += "subsumption hierarchy queries: "
-					+ nrOfSubsumptionHierarchyQueries + "\n";
+					+ getNrOfSubsumptionHierarchyQueries() + "\n";
 		}
-		if (nrOfSubsumptionChecks > 0) {
-			str += "(complex) subsumption checks: " + nrOfSubsumptionChecks
-					+ " (" + nrOfMultiSubsumptionChecks + " multiple)\n";
+		if (getNrOfSubsumptionChecks() > 0) {
+			str += "(complex) subsumption checks: " + getNrOfSubsumptionChecks()
+					+ " (" + getNrOfMultiSubsumptionChecks() + " multiple)\n";
 			str += "subsumption reasoning time: "
-					+ Helper.prettyPrintNanoSeconds(subsumptionReasoningTimeNs) + " ( "
+					+ Helper.prettyPrintNanoSeconds(getSubsumptionReasoningTimeNs()) + " ( "
 					+ Helper.prettyPrintNanoSeconds(getTimePerSubsumptionCheckNs())
 					+ " per subsumption check)\n";
 		}
 		str += "overall reasoning time: "
-				+ Helper.prettyPrintNanoSeconds(overallReasoningTimeNs) + "\n";	
+				+ Helper.prettyPrintNanoSeconds(getOverallReasoningTimeNs()) + "\n";	
 		return str;
 	}
 	
@@ -1607,17 +1699,17 @@ public abstract class AbstractReasonerComponent extends AbstractComponent implem
 	
 	@Override
 	public double hasTypeFuzzyMembership(OWLClassExpression description, FuzzyIndividual individual) {
-		reasoningStartTimeTmp = System.nanoTime();
+		long reasoningStartTime = System.nanoTime();
 		double result = -1;
 		try {
 			result = hasTypeFuzzyMembershipImpl(description, individual);
 		} catch (ReasoningMethodUnsupportedException e) {
 			handleExceptions(e);
 		}
-		nrOfInstanceChecks++;
-		reasoningDurationTmp = System.nanoTime() - reasoningStartTimeTmp;
-		instanceCheckReasoningTimeNs += reasoningDurationTmp;
-		overallReasoningTimeNs += reasoningDurationTmp;
+		nrOfInstanceChecks.inc();
+		long reasoningDuration = System.nanoTime() - reasoningStartTime;
+		instanceCheckReasoningTime.update(reasoningDuration);
+		overallReasoningTime.update(reasoningDuration);
 		return result;		
 	}
 
@@ -47,6 +47,14 @@ public abstract class AbstractSearchTreeNode <T extends AbstractSearchTreeNode>
 		node.notifyTrees(this.trees);
 	}
 	
+	/**
+	 * remove a child node from this node, e.g. if it has been evicted from the trees
+	 * @param node the child node
+	 */
+	public void removeChild(T node) {
+		children.remove(node);
+	}
+
 	/**
 	 * set the parent of this node
 	 * @param node parent node
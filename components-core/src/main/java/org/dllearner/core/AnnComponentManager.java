@@ -122,47 +122,98 @@ public class AnnComponentManager {
 	private static AnnComponentManager cm = null;
 	private static Reflections reflectionScanner = null;
 
+	/**
+	 * System property to scan the classpath for components instead of using the
+	 * component index written at compile time.
+	 */
+	public static final String SCAN_CLASSPATH_PROPERTY = "dllearner.components.scan";
+
+	// the index entries by class name, if the component index is used
+	private static Map<String, ComponentIndex.Entry> indexEntries;
+
 	private AnnComponentManager() {
+		indexEntries = null;
 		if (componentClassNames == null) {
-			componentClassNames = new ArrayList<>();
-			if (reflectionScanner == null) {
-				org.apache.log4j.Logger.getLogger(Reflections.class).setLevel(Level.OFF);
-				reflectionScanner = new Reflections("org.dllearner");
-			}
-			Set<Class<? extends Component>> componentClasses = reflectionScanner.getSubTypesOf(Component.class);
-			Set<Class<?>> componentAnnClasses = reflectionScanner.getTypesAnnotatedWith(ComponentAnn.class, true);
-			for (Class<?> clazz
-					: Sets.intersection(
-							componentClasses,
-							componentAnnClasses
-					)
-				) {
-				if (!Modifier.isAbstract( clazz.getModifiers() ))
-					componentClassNames.add(clazz.getCanonicalName());
+			ComponentIndex index = null;
+			if (reflectionScanner == null && !Boolean.getBoolean(SCAN_CLASSPATH_PROPERTY)) {
+				index = ComponentIndex.load(AnnComponentManager.class.getClassLoader());
+				if (index.isEmpty()) {
+					logger.warn("No component index found, scanning the classpath for components.");
+					index = null;
+				}
 			}
-			for (Class<?> clazz
-					: Sets.difference(componentClasses, componentAnnClasses)
-					) {
-				if (!Modifier.isAbstract( clazz.getModifiers() ))
-					logger.debug("Warning: " + clazz.getCanonicalName() + " implements Component but is not annotated, ignored");
+			if (index != null) {
+				indexEntries = new HashMap<>();
+				componentClassNames = new ArrayList<>();
+				for (ComponentIndex.Entry entry : index.getEntries()) {
+					indexEntries.put(entry.getClassName(), entry);
+					componentClassNames.add(entry.getClassName());
+				}
+			} else {
+				scanClasspath();
 			}
 		}
-		// conversion of class strings to objects
-		components = new TreeSet<>((Comparator<Class<? extends Component>>) (o1, o2) -> {
+		// the class objects are created on demand
+		components = null;
+		componentNames = null;
+		componentNamesShort = null;
+	}
+
+	private static void scanClasspath() {
+		componentClassNames = new ArrayList<>();
+		if (reflectionScanner == null) {
+			org.apache.log4j.Logger.getLogger(Reflections.class).setLevel(Level.OFF);
+			reflectionScanner = new Reflections("org.dllearner");
+		}
+		Set<Class<? extends Component>> componentClasses = reflectionScanner.getSubTypesOf(Component.class);
+		Set<Class<?>> componentAnnClasses = reflectionScanner.getTypesAnnotatedWith(ComponentAnn.class, true);
+		for (Class<?> clazz
+				: Sets.intersection(
+						componentClasses,
+						componentAnnClasses
+				)
+			) {
+			if (!Modifier.isAbstract( clazz.getModifiers() ))
+				componentClassNames.add(clazz.getCanonicalName());
+		}
+		for (Class<?> clazz
+				: Sets.difference(componentClasses, componentAnnClasses)
+				) {
+			if (!Modifier.isAbstract( clazz.getModifiers() ))
+				logger.debug("Warning: " + clazz.getCanonicalName() + " implements Component but is not annotated, ignored");
+		}
+	}
+
+	// conversion of class strings to objects
+	private static synchronized void resolveComponents() {
+		if (components != null) {
+			return;
+		}
+		Collection<Class<? extends Component>> resolved = new TreeSet<>((Comparator<Class<? extends Component>>) (o1, o2) -> {
 			return o1.getName().compareTo(o2.getName());
 		});
-		componentNames = new DualHashBidiMap<>();
-		componentNamesShort = new DualHashBidiMap<>();
+		BidiMap<Class<? extends Component>, String> names = new DualHashBidiMap<>();
+		BidiMap<Class<? extends Component>, String> namesShort = new DualHashBidiMap<>();
 		for (String componentClassName : componentClassNames) {
-			try {
-				Class<? extends Component> component = Class.forName(componentClassName).asSubclass(Component.class);
-				components.add(component);
-				componentNames.put(component, getName(component));
-				componentNamesShort.put(component, getShortName(component));
-			} catch (ClassNotFoundException e) {
-				e.printStackTrace();
+			Class<? extends Component> component = loadComponentClass(componentClassName);
+			if (component != null) {
+				resolved.add(component);
+				names.put(component, getName(component));
+				namesShort.put(component, getShortName(component));
 			}
 		}
+		componentNames = names;
+		componentNamesShort = namesShort;
+		components = resolved;
+	}
+
+	private static Class<? extends Component> loadComponentClass(String componentClassName) {
+		try {
+			return Class.forName(componentClassName).asSubclass(Component.class);
+		} catch (ClassNotFoundException e) {
+			e.printStackTrace();
+			return null;
+		}
 	}
 
 	/**
@@ -197,6 +248,7 @@ public class AnnComponentManager {
 	 * instance of <code>ComponentManager</code>.
 	 */
 	public Collection<Class<? extends Component>> getComponents() {
+		resolveComponents();
 		return components;
 	}
 	
@@ -235,6 +287,12 @@ public class AnnComponentManager {
      * @return The class of the component.
      */
     public Class<? extends Component> getComponentClass(String componentName) {
+    	// lookup in the index, which does not require loading all components
+    	if (indexEntries != null && components == null) {
+    		return getComponentClass(componentName, false);
+    	}
+
+    	resolveComponents();
     	// lookup by long name
     	Class<? extends Component> componentClass = componentNames.getKey(componentName);
     	
@@ -245,6 +303,48 @@ public class AnnComponentManager {
 
         return componentClass;
     }
+
+    /**
+     * Get the corresponding component class given the long or short name, where
+     * long names are looked up first. If the component index is used, only the
+     * class of the matching component is loaded.
+     *
+     * @param componentName The long or short name of the component.
+     * @param ignoreCase Whether to compare the names case insensitive.
+     * @return The class of the component or null if there is no such component.
+     */
+    public Class<? extends Component> getComponentClass(String componentName, boolean ignoreCase) {
+    	if (indexEntries != null) {
+    		for (boolean shortName : new boolean[]{false, true}) {
+    			for (ComponentIndex.Entry entry : indexEntries.values()) {
+    				String name = shortName ? entry.getShortName() : entry.getName();
+    				if (ignoreCase ? name.equalsIgnoreCase(componentName) : name.equals(componentName)) {
+    					return loadComponentClass(entry.getClassName());
+    				}
+    			}
+    		}
+    		return null;
+    	}
+
+    	resolveComponents();
+    	for (BidiMap<Class<? extends Component>, String> names : Arrays.asList(componentNames, componentNamesShort)) {
+    		for (Map.Entry<Class<? extends Component>, String> entry : names.entrySet()) {
+    			if (ignoreCase ? entry.getValue().equalsIgnoreCase(componentName) : entry.getValue().equals(componentName)) {
+    				return entry.getKey();
+    			}
+    		}
+    	}
+    	return null;
+    }
+
+    /**
+     * @param component The component class.
+     * @return The entry of the component in the component index or null if the
+     * index is not used.
+     */
+    public ComponentIndex.Entry getIndexEntry(Class<? extends Component> component) {
+    	return indexEntries == null ? null : indexEntries.get(component.getName());
+    }
     
     /**
      * Get registered components which are of the specified type.
@@ -254,6 +354,7 @@ public class AnnComponentManager {
      */
     public Collection<Class<? extends Component>> getComponentsOfType(Class type) {
 
+        resolveComponents();
         Collection<Class<? extends Component>> result = components.stream()
 		        .filter(component -> type.isAssignableFrom(component))
 		        .collect(Collectors.toCollection(ArrayList::new));
@@ -269,6 +370,7 @@ public class AnnComponentManager {
 	 * value is its name.
 	 */
 	public BidiMap<Class<? extends Component>, String> getComponentsNamed() {
+		resolveComponents();
 		return componentNames;
 	}
 
@@ -280,6 +382,7 @@ public class AnnComponentManager {
 	 * value is its name.
 	 */
 	public BidiMap<Class<? extends Component>, String> getComponentsNamedShort() {
+		resolveComponents();
 		return componentNamesShort;
 	}
 
@@ -459,6 +562,9 @@ public class AnnComponentManager {
 	}
 
 	public static boolean addComponentClassName(String e) {
+		// the added component is not part of the index, thus the classes are resolved again
+		indexEntries = null;
+		components = null;
 		return componentClassNames.add(e);
 	}
 
@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The index of the DL-Learner components available on the classpath. The index
+ * is written at compile time into each module by the
+ * {@link org.dllearner.core.annotations.ComponentIndexProcessor}, such that the
+ * components can be looked up without scanning the classpath and without
+ * loading the component classes.
+ */
+public class ComponentIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ComponentIndex.class);
+
+	/**
+	 * The location of the index in each module.
+	 */
+	public static final String INDEX_RESOURCE = "META-INF/dllearner/components.index";
+
+	/**
+	 * A component as listed in the index, i.e. the content of its
+	 * {@link ComponentAnn} annotation and the names of its config options.
+	 */
+	public static class Entry {
+		private final String className;
+		private final String name;
+		private final String shortName;
+		private final double version;
+		private final List<String> configOptions;
+
+		public Entry(String className, String name, String shortName, double version, List<String> configOptions) {
+			this.className = className;
+			this.name = name;
+			this.shortName = shortName;
+			this.version = version;
+			this.configOptions = configOptions;
+		}
+
+		public String getClassName() {
+			return className;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getShortName() {
+			return shortName;
+		}
+
+		public double getVersion() {
+			return version;
+		}
+
+		public List<String> getConfigOptions() {
+			return configOptions;
+		}
+
+		/**
+		 * @return the line of the index file for this entry, i.e. the tab separated
+		 * class name, name, short name, version and comma separated config options
+		 */
+		public String toLine() {
+			return className + "\t" + escape(name) + "\t" + escape(shortName) + "\t" + version + "\t"
+					+ String.join(",", configOptions);
+		}
+
+		/**
+		 * @param line a line of the index file
+		 * @return the entry described by the line
+		 * @throws IllegalArgumentException if the line is malformed
+		 */
+		public static Entry parse(String line) {
+			String[] columns = line.split("\t", -1);
+			if (columns.length != 5) {
+				throw new IllegalArgumentException("Malformed component index entry: " + line);
+			}
+			List<String> configOptions = columns[4].isEmpty()
+					? Collections.<String>emptyList()
+					: Arrays.asList(columns[4].split(","));
+			return new Entry(columns[0], columns[1], columns[2], Double.parseDouble(columns[3]), configOptions);
+		}
+
+		private static String escape(String s) {
+			return s.replace('\t', ' ').replace('\n', ' ');
+		}
+
+		@Override
+		public String toString() {
+			return className + " (" + shortName + ")";
+		}
+	}
+
+	private final Map<String, Entry> entries = new TreeMap<>();
+
+	private ComponentIndex() {}
+
+	/**
+	 * Loads the index files of all modules visible to the given class loader.
+	 *
+	 * @param classLoader the class loader
+	 * @return the merged index, which is empty if no index file was found
+	 */
+	public static ComponentIndex load(ClassLoader classLoader) {
+		ComponentIndex index = new ComponentIndex();
+		try {
+			Enumeration<URL> resources = classLoader.getResources(INDEX_RESOURCE);
+			while (resources.hasMoreElements()) {
+				URL url = resources.nextElement();
+				try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						if (!line.isEmpty() && !line.startsWith("#")) {
+							Entry entry = Entry.parse(line);
+							index.entries.put(entry.getClassName(), entry);
+						}
+					}
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			logger.warn("Could not read the component index", e);
+		}
+		return index;
+	}
+
+	/**
+	 * @return the entries of the index, sorted by class name
+	 */
+	public Collection<Entry> getEntries() {
+		return entries.values();
+	}
+
+	/**
+	 * @param className the fully qualified class name
+	 * @return the entry of the component or null if it is not in the index
+	 */
+	public Entry getEntry(String className) {
+		return entries.get(className);
+	}
+
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+}
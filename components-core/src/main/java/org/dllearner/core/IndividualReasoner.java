@@ -18,9 +18,11 @@
  */
 package org.dllearner.core;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.function.BiPredicate;
 
 import org.dllearner.utilities.datastructures.SortedSetTuple;
 import org.semanticweb.owlapi.model.OWLClass;
@@ -65,6 +67,32 @@ public interface IndividualReasoner {
 	 * @return The subset of those instances, which have the given type.
 	 */
 	SortedSet<OWLIndividual> hasType(OWLClassExpression description, Set<OWLIndividual> individuals);
+
+	/**
+	 * Performs instance checks on a sequence of individuals and streams the
+	 * results in iteration order to <code>consumer</code>, which can stop the
+	 * evaluation by returning false (e.g. once a class expression is known to
+	 * be too weak).
+	 * @param description An OWL class description.
+	 * @param individuals The individuals to check.
+	 * @param consumer Receives each individual along with the result of its
+	 * instance check and returns whether the evaluation should go on.
+	 * @return The number of instance checks performed.
+	 */
+	int hasType(OWLClassExpression description, Iterable<OWLIndividual> individuals, BiPredicate<OWLIndividual, Boolean> consumer);
+	
+	/**
+	 * Counts the instances of <code>description</code> among the given
+	 * individuals, aborting as soon as more than <code>maxMissing</code>
+	 * of them are not instances.
+	 * @param description An OWL class description.
+	 * @param individuals The individuals to check.
+	 * @param maxMissing The maximum number of individuals which may not be
+	 * instances of the class description.
+	 * @return The number of instances or -1 if more than <code>maxMissing</code>
+	 * individuals are not instances.
+	 */
+	int getInstanceCount(OWLClassExpression description, Collection<OWLIndividual> individuals, int maxMissing);
 	
 	/**
 	 * Gets all instances of a given class expression in the knowledge base.
@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core.annotations;
+
+import org.dllearner.core.ComponentAnn;
+import org.dllearner.core.ComponentIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Annotation processor which writes the {@link ComponentIndex} of a module, i.e.
+ * all non-abstract classes implementing {@link org.dllearner.core.Component} and
+ * annotated with {@link ComponentAnn}, together with their config options.
+ * It is registered as a service, thus it runs for each module depending on
+ * components-core.
+ */
+@SupportedAnnotationTypes("org.dllearner.core.ComponentAnn")
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+	private static final String COMPONENT_TYPE = "org.dllearner.core.Component";
+	private static final String CONFIG_OPTION_TYPE = "org.dllearner.core.config.ConfigOption";
+
+	private final Map<String, ComponentIndex.Entry> entries = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			if (!entries.isEmpty()) {
+				writeIndex();
+			}
+			return false;
+		}
+
+		TypeElement componentType = processingEnv.getElementUtils().getTypeElement(COMPONENT_TYPE);
+		if (componentType == null) {
+			return false;
+		}
+		for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(ComponentAnn.class))) {
+			if (type.getKind() != ElementKind.CLASS
+					|| type.getModifiers().contains(Modifier.ABSTRACT)
+					|| !processingEnv.getTypeUtils().isAssignable(
+							processingEnv.getTypeUtils().erasure(type.asType()),
+							processingEnv.getTypeUtils().erasure(componentType.asType()))) {
+				continue;
+			}
+			ComponentAnn ann = type.getAnnotation(ComponentAnn.class);
+			String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+			entries.put(className, new ComponentIndex.Entry(className, ann.name(), ann.shortName(), ann.version(),
+					getConfigOptions(type)));
+		}
+		return false;
+	}
+
+	// the names of the config option fields of the class and its super classes
+	private List<String> getConfigOptions(TypeElement type) {
+		SortedSet<String> options = new TreeSet<>();
+		TypeElement current = type;
+		while (current != null) {
+			for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+				for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+					if (annotation.getAnnotationType().toString().equals(CONFIG_OPTION_TYPE)) {
+						options.add(field.getSimpleName().toString());
+					}
+				}
+			}
+			TypeMirror superclass = current.getSuperclass();
+			current = superclass.getKind() == TypeKind.DECLARED
+					? (TypeElement) ((DeclaredType) superclass).asElement()
+					: null;
+		}
+		return new ArrayList<>(options);
+	}
+
+	private void writeIndex() {
+		// in incremental builds only the changed classes are processed, thus we keep
+		// the entries of the existing index whose classes still exist
+		Map<String, ComponentIndex.Entry> index = new TreeMap<>();
+		try {
+			FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.INDEX_RESOURCE);
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (!line.isEmpty() && !line.startsWith("#")) {
+						ComponentIndex.Entry entry = ComponentIndex.Entry.parse(line);
+						if (processingEnv.getElementUtils().getTypeElement(entry.getClassName().replace('$', '.')) != null) {
+							index.put(entry.getClassName(), entry);
+						}
+					}
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			// no (valid) index written so far
+		}
+		index.putAll(entries);
+
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.INDEX_RESOURCE);
+			try (Writer writer = new BufferedWriter(new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8))) {
+				writer.write("# DL-Learner component index: class, name, short name, version, config options\n");
+				for (ComponentIndex.Entry entry : index.values()) {
+					writer.write(entry.toLine());
+					writer.write("\n");
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Could not write the component index: " + e.getMessage());
+		}
+	}
+}
@@ -40,6 +40,9 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 	private SortedSet<T> rootEntities = new TreeSet<>();
 	private SortedSet<T> leafEntities = new TreeSet<>();
 	
+	// compact form of the hierarchy which answers the queries, (re)built lazily after the maps have been changed
+	private volatile HierarchyIndex<T> index;
+	
 
 	public AbstractHierarchy(SortedMap<T, SortedSet<T>> hierarchyUp, SortedMap<T, SortedSet<T>> hierarchyDown) {
 		this.hierarchyUp = hierarchyUp;
@@ -78,22 +81,13 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 	 */
 	@Override
 	public SortedSet<T> getChildren(T entity, boolean direct) {
-		SortedSet<T> result =  hierarchyDown.get(entity);
+		SortedSet<T> result = getIndex().getChildren(entity, direct);
 		
 		if(result == null) {
 			logger.debug("Query for " + entity + " in hierarchy, but the entity is not contained in the (downward) hierarchy, e.g. because the entity does not exist or is ignored. Returning empty result instead.");
 			return new TreeSet<>();
 		}
-		
-		result.remove(entity);
-		if(!direct) { // get transitive children
-			SortedSet<T> tmp = new TreeSet<>();
-			for(T child : result){
-				tmp.addAll(getChildren(child, direct));
-			}
-			result.addAll(tmp);
-		}
-		return new TreeSet<>(result);
+		return result;
 	}
 
 	/* (non-Javadoc)
@@ -109,23 +103,13 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 	 */
 	@Override
 	public SortedSet<T> getParents(T entity, boolean direct) {
-		SortedSet<T> result =  hierarchyUp.get(entity);
+		SortedSet<T> result = getIndex().getParents(entity, direct);
 		
 		if(result == null) {
 			logger.debug("Query for " + entity + " in hierarchy, but the entity is not contained in the (upward) hierarchy, e.g. because the entity does not exist or is ignored. Returning empty result instead.");
 			return new TreeSet<>();
 		}
-		
-		result.remove(entity);
-		if(!direct) {
-			SortedSet<T> tmp = new TreeSet<>();
-			for(T parent : result){
-				tmp.addAll(getParents(parent, direct));
-			}
-			result.addAll(tmp);
-		}
-		
-		return new TreeSet<>(result);
+		return result;
 	}
 
 	/* (non-Javadoc)
@@ -151,21 +135,12 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 	public boolean isChildOf(T entity1, T entity2) {
 		if (entity1.equals(entity2)) {
 			return true;
-		} else {
-			SortedSet<T> parents = getParents(entity1);
-			
-			if(parents != null){
-				// search the upper classes of the subclass
-				for (T parent : parents) {
-					if (isChildOf(parent, entity2)) {
-						return true;
-					}
-				}
-			}
-			// we cannot reach the class via any of the upper classes,
-			// so it is not a super class
-			return false;
 		}
+		// lookup in the transitive closure of the parents
+		HierarchyIndex<T> index = getIndex();
+		int id1 = index.id(entity1);
+		int id2 = index.id(entity2);
+		return id1 >= 0 && id2 >= 0 && index.isAncestor(id1, id2);
 	}
 
 	/* (non-Javadoc)
@@ -355,6 +330,7 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 	 */
 	public void setHierarchyUp(SortedMap<T, SortedSet<T>> hierarchyUp) {
 		this.hierarchyUp = hierarchyUp;
+		index = null;
 	}
 	
 	/**
@@ -369,6 +345,7 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 	 */
 	public void setHierarchyDown(SortedMap<T, SortedSet<T>> hierarchyDown) {
 		this.hierarchyDown = hierarchyDown;
+		index = null;
 	}
 	
 	/**
@@ -378,8 +355,25 @@ public abstract class AbstractHierarchy<T extends OWLObject> implements Hierarch
 		return hierarchyDown;
 	}
 	
+	/**
+	 * Builds the compact form of the hierarchy which is used to answer all queries.
+	 * Usually, you do not need to call this as it is built on first use.
+	 */
 	public void precompute() {
-		
+		getIndex();
+	}
+	
+	private HierarchyIndex<T> getIndex() {
+		HierarchyIndex<T> result = index;
+		if (result == null) {
+			synchronized (this) {
+				result = index;
+				if (result == null) {
+					index = result = new HierarchyIndex<>(hierarchyUp, hierarchyDown);
+				}
+			}
+		}
+		return result;
 	}
 	
 	@Override
@@ -0,0 +1,224 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core.owl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.semanticweb.owlapi.model.OWLObject;
+
+/**
+ * An immutable, index-based form of a hierarchy. Each entity gets an integer id
+ * according to its natural order, and the direct parents and children as well as
+ * the transitive closure of the parents are stored as sorted id arrays. The
+ * ancestor closure answers subsumption checks with a binary search over the
+ * (usually few) ancestors of an entity instead of walking the hierarchy
+ * recursively, and it is much smaller than a full closure bit matrix for
+ * hierarchies with hundreds of thousands of classes.
+ * <p>
+ * Instances are safe to be shared across threads.
+ */
+final class HierarchyIndex<T extends OWLObject> {
+
+	private final List<T> entities;
+	private final Map<T, Integer> ids;
+
+	// null if the entity does not occur as a key in the upward resp. downward hierarchy
+	private final int[][] parents;
+	private final int[][] children;
+	private final int[][] ancestors;
+
+	HierarchyIndex(SortedMap<T, SortedSet<T>> hierarchyUp, SortedMap<T, SortedSet<T>> hierarchyDown) {
+		// assign the ids in natural order, such that sorted id arrays map to sorted entity sets
+		SortedSet<T> allEntities = new TreeSet<>();
+		allEntities.addAll(hierarchyUp.keySet());
+		allEntities.addAll(hierarchyDown.keySet());
+		hierarchyUp.values().stream().filter(Objects::nonNull).forEach(allEntities::addAll);
+		hierarchyDown.values().stream().filter(Objects::nonNull).forEach(allEntities::addAll);
+
+		entities = new ArrayList<>(allEntities);
+		ids = new HashMap<>(entities.size() * 2);
+		for (T entity : entities) {
+			ids.put(entity, ids.size());
+		}
+
+		parents = toAdjacency(hierarchyUp);
+		children = toAdjacency(hierarchyDown);
+		ancestors = computeAncestors();
+	}
+
+	private int[][] toAdjacency(SortedMap<T, SortedSet<T>> hierarchy) {
+		int[][] adjacency = new int[entities.size()][];
+		for (Map.Entry<T, SortedSet<T>> entry : hierarchy.entrySet()) {
+			int id = ids.get(entry.getKey());
+			SortedSet<T> related = entry.getValue();
+			adjacency[id] = related == null ? new int[0] : related.stream()
+					.mapToInt(ids::get)
+					.filter(other -> other != id)
+					.sorted()
+					.toArray();
+		}
+		return adjacency;
+	}
+
+	private int[][] computeAncestors() {
+		int n = entities.size();
+		int[][] closure = new int[n][];
+
+		// the visited marker of a node is the id of the node whose ancestors are collected,
+		// which avoids clearing a visited set for each node
+		int[] visitedBy = new int[n];
+		Arrays.fill(visitedBy, -1);
+		int[] stack = new int[n];
+		int[] collected = new int[n];
+
+		for (int id = 0; id < n; id++) {
+			if (parents[id] == null) {
+				continue;
+			}
+			visitedBy[id] = id;
+			int stackSize = 0;
+			int nrOfAncestors = 0;
+			for (int parent : parents[id]) {
+				if (visitedBy[parent] != id) {
+					visitedBy[parent] = id;
+					stack[stackSize++] = parent;
+				}
+			}
+			while (stackSize > 0) {
+				int current = stack[--stackSize];
+				collected[nrOfAncestors++] = current;
+				if (parents[current] != null) {
+					for (int parent : parents[current]) {
+						if (visitedBy[parent] != id) {
+							visitedBy[parent] = id;
+							stack[stackSize++] = parent;
+						}
+					}
+				}
+			}
+			int[] result = Arrays.copyOf(collected, nrOfAncestors);
+			Arrays.sort(result);
+			closure[id] = result;
+		}
+		return closure;
+	}
+
+	/**
+	 * @param entity the entity
+	 * @return the id of the entity or -1 if it does not occur in the hierarchy
+	 */
+	int id(T entity) {
+		Integer id = ids.get(entity);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @param id the id of the entity
+	 * @param ancestorId the id of the potential ancestor
+	 * @return whether the second entity is a (transitive) parent of the first one
+	 */
+	boolean isAncestor(int id, int ancestorId) {
+		return ancestors[id] != null && Arrays.binarySearch(ancestors[id], ancestorId) >= 0;
+	}
+
+	/**
+	 * @param entity the entity
+	 * @param direct whether to return only the direct parents
+	 * @return the parents of the entity or <code>null</code> if it is not contained
+	 * in the upward hierarchy
+	 */
+	SortedSet<T> getParents(T entity, boolean direct) {
+		int id = id(entity);
+		if (id < 0 || parents[id] == null) {
+			return null;
+		}
+		return toSortedSet(direct ? parents[id] : ancestors[id]);
+	}
+
+	/**
+	 * @param entity the entity
+	 * @param direct whether to return only the direct children
+	 * @return the children of the entity or <code>null</code> if it is not contained
+	 * in the downward hierarchy
+	 */
+	SortedSet<T> getChildren(T entity, boolean direct) {
+		int id = id(entity);
+		if (id < 0 || children[id] == null) {
+			return null;
+		}
+		if (direct) {
+			return toSortedSet(children[id]);
+		}
+
+		// the descendants can be a large part of the hierarchy, thus they are collected on demand
+		BitSet visited = new BitSet();
+		visited.set(id);
+		int[] stack = new int[16];
+		int stackSize = 0;
+		for (int child : children[id]) {
+			if (!visited.get(child)) {
+				visited.set(child);
+				stack = push(stack, stackSize++, child);
+			}
+		}
+		while (stackSize > 0) {
+			int current = stack[--stackSize];
+			if (children[current] != null) {
+				for (int child : children[current]) {
+					if (!visited.get(child)) {
+						visited.set(child);
+						stack = push(stack, stackSize++, child);
+					}
+				}
+			}
+		}
+		visited.clear(id);
+
+		SortedSet<T> result = new TreeSet<>();
+		for (int i = visited.nextSetBit(0); i >= 0; i = visited.nextSetBit(i + 1)) {
+			result.add(entities.get(i));
+		}
+		return result;
+	}
+
+	private static int[] push(int[] stack, int size, int value) {
+		if (size == stack.length) {
+			stack = Arrays.copyOf(stack, size * 2);
+		}
+		stack[size] = value;
+		return stack;
+	}
+
+	private SortedSet<T> toSortedSet(int[] ids) {
+		SortedSet<T> result = new TreeSet<>();
+		for (int id : ids) {
+			result.add(entities.get(id));
+		}
+		return result;
+	}
+}
@@ -34,8 +34,11 @@ import org.dllearner.core.ComponentInitException;
 import org.dllearner.core.KnowledgeSource;
 import org.dllearner.core.annotations.NoConfigOption;
 import org.dllearner.core.config.ConfigOption;
+import org.dllearner.kb.sparql.EndpointRateLimiter;
 import org.dllearner.kb.sparql.SPARQLTasks;
 import org.dllearner.kb.sparql.SparqlEndpoint;
+import org.dllearner.utilities.metrics.Counter;
+import org.dllearner.utilities.metrics.MetricRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -77,6 +80,11 @@ public class SparqlEndpointKS extends AbstractKnowledgeSource {
 	@ConfigOption(defaultValue = "50", description = "Use this setting to avoid overloading the endpoint with a sudden burst of queries. A value below 0 means no delay.", required = false)
 	private long queryDelay = 50;
 
+	@ConfigOption(description = "The max. number of queries per second sent to the endpoint. The limit is shared by all " +
+			"knowledge sources working on the same endpoint with the same rate and does not apply to cached queries. " +
+			"If not set (or 0), it is derived from the query delay.", required = false)
+	private double maxQueriesPerSecond = 0;
+
 	// caching options
 	@ConfigOption(defaultValue = "true", description = "Use this setting to enable caching of SPARQL queries in a local database.", required = false)
 	private boolean useCache = true;
@@ -166,6 +174,12 @@ public class SparqlEndpointKS extends AbstractKnowledgeSource {
 				.end()
 				.create();
 
+		// limit the rate of queries sent to the endpoint, i.e. before the cache such that cache hits are not delayed
+		double rate = maxQueriesPerSecond > 0 ? maxQueriesPerSecond : (queryDelay > 0 ? 1000d / queryDelay : 0);
+		if(rate > 0) {
+			qef = new QueryExecutionFactoryDelay(qef, EndpointRateLimiter.forEndpoint(endpoint, rate));
+		}
+
 		if(useCache) {
 			qef = CacheUtilsH2.createQueryExecutionFactory(qef, cacheDir, false, cacheTTL );
 		} else {
@@ -173,13 +187,14 @@ public class SparqlEndpointKS extends AbstractKnowledgeSource {
 			qef = CacheUtilsH2.createQueryExecutionFactory(qef, cacheDir, true, cacheTTL);
 		}
 
-		// add some delay
-		qef = new QueryExecutionFactoryDelay(qef, queryDelay);
-
 		if(retryCount > 0) {
 			qef = new QueryExecutionFactoryRetry(qef, retryCount, 1, TimeUnit.SECONDS);
 		}
 
+		// count the queries, e.g. to watch the query throughput of running jobs
+		Counter queries = MetricRegistry.getDefault().getMetricSet(MetricRegistry.keyOf(this)).counter("queries");
+		qef = new QueryExecutionFactoryDelay(qef, queries::inc);
+
 		// add pagination to avoid incomplete result sets due to limitations of the endpoint
 //		qef = new QueryExecutionFactoryPaginated(qef, pageSize);
 
@@ -240,6 +255,20 @@ public class SparqlEndpointKS extends AbstractKnowledgeSource {
 		this.queryDelay = queryDelay;
 	}
 
+	/**
+	 * Set the max. number of queries per second sent to the endpoint. In contrast to the query delay, the limit
+	 * holds for all knowledge sources and threads using the same endpoint, and cached queries are not limited.
+	 * Note that this does only make sense for remote endpoints and will be ignored for local files.
+	 * @param maxQueriesPerSecond the max. number of queries per second
+	 */
+	public void setMaxQueriesPerSecond(double maxQueriesPerSecond) {
+		this.maxQueriesPerSecond = maxQueriesPerSecond;
+	}
+
+	public double getMaxQueriesPerSecond() {
+		return maxQueriesPerSecond;
+	}
+
 	/**
 	 * @param useCache the useCache to set
 	 */
@@ -295,7 +324,11 @@ public class SparqlEndpointKS extends AbstractKnowledgeSource {
 			out += String.format("%-15s %-25s%n", "URL:", "null");
 		}
 		out += String.format("%-15s %-25s%n", "Cache:", cacheDir);
-		out += String.format("%-15s %dms%n", "Delay:", queryDelay);
+		if (maxQueriesPerSecond > 0) {
+			out += String.format("%-15s %s/s%n", "Rate limit:", maxQueriesPerSecond);
+		} else {
+			out += String.format("%-15s %dms%n", "Delay:", queryDelay);
+		}
 		return out;
 	}
 
@@ -19,8 +19,10 @@
 package org.dllearner.kb.sparql;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
 import org.dllearner.kb.SparqlEndpointKS;
@@ -113,11 +115,11 @@ public abstract class AbstractSampleGenerator {
 	protected Model getSampleModel(Set<OWLIndividual> individuals) {
 		Model model = ModelFactory.createDefaultModel();
 		
-		// load instance data
-		for(OWLIndividual ind : individuals){
-			Model cbd = cbdGen.getConciseBoundedDescription(ind.toStringID(), sampleDepth);
-			model.add(cbd);
-		}
+		// load instance data, the CBDs are fetched in batches
+		Set<String> resources = individuals.stream()
+				.map(OWLIndividual::toStringID)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		cbdGen.getConciseBoundedDescriptions(resources, sampleDepth).values().forEach(model::add);
 		
 		StmtIterator iterator = model.listStatements();
 		List<Statement> toAdd = new ArrayList<>();
@@ -18,9 +18,13 @@
  */
 package org.dllearner.kb.sparql;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.jena.rdf.model.Model;
 
@@ -85,6 +89,21 @@ public class CachingConciseBoundedDescriptionGenerator implements ConciseBounded
 		return cbd;
 	}
 
-	
+	/* (non-Javadoc)
+	 * @see org.dllearner.kb.sparql.ConciseBoundedDescriptionGenerator#getConciseBoundedDescriptions(java.util.Collection, int, boolean)
+	 */
+	@Override
+	public Map<String, Model> getConciseBoundedDescriptions(Collection<String> resourceURIs, int depth, boolean withTypesForLeafs) {
+		Set<String> missing = resourceURIs.stream()
+				.filter(resourceURI -> !cache.containsKey(resourceURI))
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		if(!missing.isEmpty()){
+			cache.putAll(delegatee.getConciseBoundedDescriptions(missing, depth, withTypesForLeafs));
+		}
+
+		Map<String, Model> cbds = new LinkedHashMap<>();
+		resourceURIs.forEach(resourceURI -> cbds.put(resourceURI, cache.get(resourceURI)));
+		return cbds;
+	}
 
 }
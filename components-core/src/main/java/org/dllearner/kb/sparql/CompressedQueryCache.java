@@ -0,0 +1,385 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent cache for the results of SPARQL queries in an H2 database.
+ *
+ * RDF models (e.g. the results of CONSTRUCT queries) are stored in the binary
+ * RDF Thrift encoding and all entries are GZIP compressed, such that a cache
+ * hit does not require parsing N-Triples. Entries expire after a configurable
+ * time to live, and if the total size of the stored entries exceeds the
+ * configured maximum, the oldest entries are evicted.
+ *
+ * The cache can be used by several threads at once. The database access is
+ * serialized, but decoding and encoding of the entries are done concurrently.
+ */
+public class CompressedQueryCache implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(CompressedQueryCache.class);
+
+	private static final String TABLE_NAME = "QUERY_CACHE_BINARY";
+
+	private static final byte TYPE_MODEL = 0;
+	private static final byte TYPE_STRING = 1;
+
+	private final Connection conn;
+
+	private final PreparedStatement selectStmt;
+	private final PreparedStatement sizeStmt;
+	private final PreparedStatement insertStmt;
+	private final PreparedStatement deleteStmt;
+
+	// entries older than this are treated as missing
+	private long timeToLiveInMilliseconds = 15L * 24 * 60 * 60 * 1000; // 15 days
+
+	// max. total size of the (compressed) entries
+	private long maxSizeInBytes = 1024L * 1024 * 1024; // 1 GB
+
+	private final AtomicLong totalSize = new AtomicLong();
+
+	// statistics
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	/**
+	 * Uses (and creates if not existing) an H2 database in the given directory.
+	 * @param cacheDir the cache directory
+	 * @throws SQLException if the database could not be opened
+	 */
+	public CompressedQueryCache(String cacheDir) throws SQLException {
+		this(DriverManager.getConnection("jdbc:h2:" + cacheDir + "/extraction;AUTO_SERVER=TRUE", "sa", ""));
+	}
+
+	/**
+	 * Uses the given database connection.
+	 * @param conn the database connection
+	 * @throws SQLException if the cache table could not be created
+	 */
+	public CompressedQueryCache(Connection conn) throws SQLException {
+		this.conn = conn;
+
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("CREATE TABLE IF NOT EXISTS " + TABLE_NAME + "(QUERYHASH BINARY(16) PRIMARY KEY, " +
+					"QUERY VARCHAR, TYPE TINYINT, DATA BLOB, SIZE INT, STORE_TIME TIMESTAMP)");
+			stmt.execute("CREATE INDEX IF NOT EXISTS " + TABLE_NAME + "_STORE_TIME ON " + TABLE_NAME + "(STORE_TIME)");
+			try (ResultSet rs = stmt.executeQuery("SELECT SUM(SIZE) FROM " + TABLE_NAME)) {
+				rs.next();
+				totalSize.set(rs.getLong(1));
+			}
+		}
+
+		selectStmt = conn.prepareStatement("SELECT TYPE, DATA, STORE_TIME FROM " + TABLE_NAME + " WHERE QUERYHASH=?");
+		sizeStmt = conn.prepareStatement("SELECT SIZE FROM " + TABLE_NAME + " WHERE QUERYHASH=?");
+		insertStmt = conn.prepareStatement("INSERT INTO " + TABLE_NAME + " VALUES(?,?,?,?,?,?)");
+		deleteStmt = conn.prepareStatement("DELETE FROM " + TABLE_NAME + " WHERE QUERYHASH=?");
+	}
+
+	/**
+	 * @param query the SPARQL query
+	 * @return the cached model or null if there is no (fresh) entry
+	 */
+	public Model getModel(String query) {
+		byte[] data = get(query, TYPE_MODEL);
+		if (data == null) {
+			return null;
+		}
+		Model model = ModelFactory.createDefaultModel();
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+			RDFDataMgr.read(model, in, Lang.RDFTHRIFT);
+		} catch (IOException e) {
+			logger.warn("Failed to decode cache entry for query " + query, e);
+			return null;
+		}
+		return model;
+	}
+
+	/**
+	 * Adds the model to the cache, replacing an existing entry.
+	 * @param query the SPARQL query
+	 * @param model the query result
+	 */
+	public void putModel(String query, Model model) {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (OutputStream out = new GZIPOutputStream(baos)) {
+			RDFDataMgr.write(out, model, RDFFormat.RDF_THRIFT);
+		} catch (IOException e) {
+			logger.warn("Failed to encode cache entry for query " + query, e);
+			return;
+		}
+		put(query, TYPE_MODEL, baos.toByteArray());
+	}
+
+	/**
+	 * @param query the SPARQL query
+	 * @return the cached string, e.g. a JSON serialised result set, or null if
+	 * there is no (fresh) entry
+	 */
+	public String getString(String query) {
+		byte[] data = get(query, TYPE_STRING);
+		if (data == null) {
+			return null;
+		}
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+			return new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			logger.warn("Failed to decode cache entry for query " + query, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Adds the string to the cache, replacing an existing entry.
+	 * @param query the SPARQL query
+	 * @param value the query result, e.g. a JSON serialised result set
+	 */
+	public void putString(String query, String value) {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (OutputStream out = new GZIPOutputStream(baos)) {
+			out.write(value.getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			logger.warn("Failed to encode cache entry for query " + query, e);
+			return;
+		}
+		put(query, TYPE_STRING, baos.toByteArray());
+	}
+
+	private byte[] get(String query, byte type) {
+		byte[] hash = hash(query);
+		byte[] data = null;
+		boolean expired = false;
+		synchronized (conn) {
+			try {
+				selectStmt.setBytes(1, hash);
+				try (ResultSet rs = selectStmt.executeQuery()) {
+					if (rs.next() && rs.getByte(1) == type) {
+						if (System.currentTimeMillis() - rs.getTimestamp(3).getTime() < timeToLiveInMilliseconds) {
+							data = rs.getBytes(2);
+						} else {
+							expired = true;
+						}
+					}
+				}
+				if (expired) {
+					remove(hash);
+				}
+			} catch (SQLException e) {
+				logger.warn("Failed to read cache entry for query " + query, e);
+			}
+		}
+		if (data == null) {
+			missCount.incrementAndGet();
+		} else {
+			hitCount.incrementAndGet();
+		}
+		return data;
+	}
+
+	private void put(String query, byte type, byte[] data) {
+		byte[] hash = hash(query);
+		synchronized (conn) {
+			try {
+				// the size of a replaced entry is not known, hence we remove it first
+				remove(hash);
+
+				insertStmt.setBytes(1, hash);
+				insertStmt.setString(2, query);
+				insertStmt.setByte(3, type);
+				insertStmt.setBytes(4, data);
+				insertStmt.setInt(5, data.length);
+				insertStmt.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
+				insertStmt.executeUpdate();
+				totalSize.addAndGet(data.length);
+
+				if (totalSize.get() > maxSizeInBytes) {
+					evict();
+				}
+			} catch (SQLException e) {
+				logger.warn("Failed to write cache entry for query " + query, e);
+			}
+		}
+	}
+
+	// must be called while holding the lock on the connection
+	private void remove(byte[] hash) throws SQLException {
+		sizeStmt.setBytes(1, hash);
+		try (ResultSet rs = sizeStmt.executeQuery()) {
+			if (!rs.next()) {
+				return;
+			}
+			totalSize.addAndGet(-rs.getInt(1));
+		}
+		deleteStmt.setBytes(1, hash);
+		deleteStmt.executeUpdate();
+	}
+
+	// removes the oldest entries until the total size is below the maximum,
+	// must be called while holding the lock on the connection
+	private void evict() throws SQLException {
+		try (Statement stmt = conn.createStatement();
+			 ResultSet rs = stmt.executeQuery("SELECT QUERYHASH, SIZE FROM " + TABLE_NAME + " ORDER BY STORE_TIME")) {
+			while (totalSize.get() > maxSizeInBytes && rs.next()) {
+				deleteStmt.setBytes(1, rs.getBytes(1));
+				deleteStmt.executeUpdate();
+				totalSize.addAndGet(-rs.getInt(2));
+				evictionCount.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Removes all entries which are older than the time to live.
+	 */
+	public void removeExpired() {
+		Timestamp oldest = new Timestamp(System.currentTimeMillis() - timeToLiveInMilliseconds);
+		synchronized (conn) {
+			try (PreparedStatement ps = conn.prepareStatement("DELETE FROM " + TABLE_NAME + " WHERE STORE_TIME<?");
+				 Statement stmt = conn.createStatement()) {
+				ps.setTimestamp(1, oldest);
+				int removed = ps.executeUpdate();
+				evictionCount.addAndGet(removed);
+				try (ResultSet rs = stmt.executeQuery("SELECT SUM(SIZE) FROM " + TABLE_NAME)) {
+					rs.next();
+					totalSize.set(rs.getLong(1));
+				}
+			} catch (SQLException e) {
+				logger.warn("Failed to remove expired cache entries", e);
+			}
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		synchronized (conn) {
+			try (Statement stmt = conn.createStatement()) {
+				stmt.execute("DELETE FROM " + TABLE_NAME);
+				totalSize.set(0);
+			} catch (SQLException e) {
+				logger.warn("Failed to clear cache", e);
+			}
+		}
+	}
+
+	private static byte[] hash(String query) {
+		return Hashing.md5().hashString(query, StandardCharsets.UTF_8).asBytes();
+	}
+
+	/**
+	 * @param timeToLiveInMilliseconds the time after which an entry becomes invalid
+	 */
+	public void setTimeToLive(long timeToLiveInMilliseconds) {
+		this.timeToLiveInMilliseconds = timeToLiveInMilliseconds;
+	}
+
+	public long getTimeToLive() {
+		return timeToLiveInMilliseconds;
+	}
+
+	/**
+	 * @param maxSizeInBytes the max. total size of the compressed entries,
+	 * the oldest entries are evicted if it is exceeded
+	 */
+	public void setMaxSize(long maxSizeInBytes) {
+		this.maxSizeInBytes = maxSizeInBytes;
+	}
+
+	public long getMaxSize() {
+		return maxSizeInBytes;
+	}
+
+	/**
+	 * @return the total size of the compressed entries in bytes
+	 */
+	public long getSize() {
+		return totalSize.get();
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	/**
+	 * @return the ratio of lookups which were answered from the cache
+	 */
+	public double getHitRate() {
+		long requests = hitCount.get() + missCount.get();
+		return requests == 0 ? 1.0 : hitCount.get() / (double) requests;
+	}
+
+	public void resetStatistics() {
+		hitCount.set(0);
+		missCount.set(0);
+		evictionCount.set(0);
+	}
+
+	@Override
+	public void close() throws SQLException {
+		synchronized (conn) {
+			selectStmt.close();
+			sizeStmt.close();
+			insertStmt.close();
+			deleteStmt.close();
+			conn.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "query cache: " + getHitCount() + " hits, " + getMissCount() + " misses, "
+				+ getEvictionCount() + " evictions, " + getSize() + " bytes";
+	}
+}
@@ -18,6 +18,9 @@
  */
 package org.dllearner.kb.sparql;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.jena.rdf.model.Model;
@@ -75,6 +78,30 @@ public interface ConciseBoundedDescriptionGenerator {
 	 */
 	Model getConciseBoundedDescription(String resourceURI, int depth, boolean withTypesForLeafs);
 
+	/**
+	 * @return the CBDs of given depth for the given resources
+	 */
+	default Map<String, Model> getConciseBoundedDescriptions(Collection<String> resourceURIs, int depth) {
+		return getConciseBoundedDescriptions(resourceURIs, depth, false);
+	}
+
+	/**
+	 * Computes the CBDs of given depth for the given resources. Implementations can
+	 * override this to fetch the CBDs in batches, the default implementation
+	 * computes them one after another.
+	 *
+	 * @return the CBD for each resource, in the iteration order of the given resources
+	 */
+	default Map<String, Model> getConciseBoundedDescriptions(Collection<String> resourceURIs, int depth, boolean withTypesForLeafs) {
+		Map<String, Model> cbds = new LinkedHashMap<>();
+		for (String resourceURI : resourceURIs) {
+			if (!cbds.containsKey(resourceURI)) {
+				cbds.put(resourceURI, getConciseBoundedDescription(resourceURI, depth, withTypesForLeafs));
+			}
+		}
+		return cbds;
+	}
+
 	void addAllowedPropertyNamespaces(Set<String> namespaces);
 
 	void addAllowedObjectNamespaces(Set<String> namespaces);
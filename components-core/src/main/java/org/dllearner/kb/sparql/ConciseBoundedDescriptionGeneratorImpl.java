@@ -19,6 +19,9 @@
 package org.dllearner.kb.sparql;
 
 import com.google.common.base.Joiner;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.aksw.jena_sparql_api.cache.core.QueryExecutionFactoryCacheEx;
 import org.aksw.jena_sparql_api.cache.extra.CacheFrontend;
 import org.aksw.jena_sparql_api.cache.h2.CacheUtilsH2;
@@ -29,20 +32,45 @@ import org.aksw.jena_sparql_api.model.QueryExecutionFactoryModel;
 import org.aksw.jena_sparql_api.pagination.core.QueryExecutionFactoryPaginated;
 import org.apache.jena.query.QueryExecution;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.riot.WebContent;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.engine.http.QueryEngineHTTP;
+import org.apache.jena.vocabulary.RDF;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * {@inheritDoc}
+ * <p>
+ * The CBDs of multiple resources are fetched with one query per batch of resources, bound via
+ * a VALUES clause, and the batches are processed concurrently. Requests for a CBD that is
+ * currently computed by another thread wait for that result instead of sending the same query
+ * again.
+ * </p>
  * @author Lorenz Buehmann
  *
  */
@@ -57,6 +85,12 @@ public class ConciseBoundedDescriptionGeneratorImpl implements ConciseBoundedDes
 	private QueryExecutionFactory qef;
 	
 	private Set<String> propertyBlacklist = new TreeSet<>();
+
+	private int batchSize = 50;
+	private int nrOfThreads = 4;
+
+	// the CBDs that are currently fetched, used to share the result between concurrent requests
+	private final ConcurrentMap<CBDRequest, CompletableFuture<Model>> pendingRequests = new ConcurrentHashMap<>();
 	
 	public ConciseBoundedDescriptionGeneratorImpl(SparqlEndpoint endpoint, CacheFrontend cache) {
 		qef = FluentQueryExecutionFactory
@@ -107,15 +141,148 @@ public class ConciseBoundedDescriptionGeneratorImpl implements ConciseBoundedDes
 	 */
 	@Override
 	public Model getConciseBoundedDescription(String resourceURI, int depth, boolean withTypesForLeafs) {
-		logger.trace("Computing CBD for {} ...", resourceURI);
+		return getConciseBoundedDescriptions(Collections.singleton(resourceURI), depth, withTypesForLeafs).get(resourceURI);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.dllearner.kb.sparql.ConciseBoundedDescriptionGenerator#getConciseBoundedDescriptions(java.util.Collection, int, boolean)
+	 */
+	@Override
+	public Map<String, Model> getConciseBoundedDescriptions(Collection<String> resourceURIs, int depth, boolean withTypesForLeafs) {
+		// register the requests, resources that are already fetched by another thread are not fetched again
+		Map<String, CompletableFuture<Model>> futures = new LinkedHashMap<>();
+		List<String> resourcesToFetch = new ArrayList<>();
+		for (String resourceURI : resourceURIs) {
+			if (!futures.containsKey(resourceURI)) {
+				CompletableFuture<Model> future = new CompletableFuture<>();
+				CompletableFuture<Model> pending = pendingRequests.putIfAbsent(
+						new CBDRequest(resourceURI, depth, withTypesForLeafs), future);
+				if (pending == null) {
+					resourcesToFetch.add(resourceURI);
+					futures.put(resourceURI, future);
+				} else {
+					futures.put(resourceURI, pending);
+				}
+			}
+		}
+
+		List<List<String>> batches = Lists.partition(resourcesToFetch, batchSize);
+		if (batches.size() <= 1 || nrOfThreads <= 1) {
+			batches.forEach(batch -> fetch(batch, depth, withTypesForLeafs, futures));
+		} else {
+			ExecutorService executor = Executors.newFixedThreadPool(Math.min(nrOfThreads, batches.size()),
+					new ThreadFactoryBuilder().setDaemon(true).setNameFormat("cbd-batch-%d").build());
+			batches.forEach(batch -> executor.submit(() -> fetch(batch, depth, withTypesForLeafs, futures)));
+			executor.shutdown();
+		}
+
+		Map<String, Model> cbds = new LinkedHashMap<>();
+		for (Map.Entry<String, CompletableFuture<Model>> entry : futures.entrySet()) {
+			try {
+				cbds.put(entry.getKey(), entry.getValue().get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while waiting for the CBD of " + entry.getKey(), e);
+			} catch (ExecutionException e) {
+				throw Throwables.propagate(e.getCause());
+			}
+		}
+		return cbds;
+	}
+
+	/**
+	 * Fetches the CBDs of the given resources with a single query and completes the corresponding futures.
+	 */
+	private void fetch(List<String> resources, int depth, boolean withTypesForLeafs,
+					   Map<String, CompletableFuture<Model>> futures) {
+		logger.trace("Computing CBD for {} ...", resources);
 		long start = System.currentTimeMillis();
-		String query = generateQuery(resourceURI, depth, withTypesForLeafs);
-		QueryExecution qe = qef.createQueryExecution(query);
-		Model model = qe.execConstruct();
-		qe.close(); 
-		long end = System.currentTimeMillis();
-		logger.trace("Got {} triples in {} ms.", model.size(), (end - start));
-		return model;
+		try {
+			String query = generateQuery(resources, depth, withTypesForLeafs);
+			Model model;
+			try(QueryExecution qe = qef.createQueryExecution(query)) {
+				model = qe.execConstruct();
+			}
+			long end = System.currentTimeMillis();
+			logger.trace("Got {} triples in {} ms.", model.size(), (end - start));
+
+			if (resources.size() == 1) {
+				futures.get(resources.get(0)).complete(model);
+			} else {
+				for (String resource : resources) {
+					futures.get(resource).complete(extractCBD(model, resource, depth, withTypesForLeafs));
+				}
+			}
+		} catch (Throwable t) {
+			resources.forEach(resource -> futures.get(resource).completeExceptionally(t));
+		} finally {
+			resources.forEach(resource -> pendingRequests.remove(
+					new CBDRequest(resource, depth, withTypesForLeafs), futures.get(resource)));
+		}
+	}
+
+	/**
+	 * Extracts the CBD of the given resource from the result of a batch query, i.e. the statements
+	 * reachable from the resource within the given depth that match the filters.
+	 */
+	private Model extractCBD(Model model, String resource, int depth, boolean withTypesForLeafs) {
+		Model cbd = ModelFactory.createDefaultModel();
+
+		Set<Resource> nodes = Collections.singleton(model.createResource(resource));
+		for (int i = 0; i < Math.max(1, depth); i++) {
+			Set<Resource> successors = new HashSet<>();
+			for (Resource node : nodes) {
+				for (Statement st : model.listStatements(node, null, (RDFNode) null).toList()) {
+					// the result might also contain the unfiltered leaf types of other resources
+					if (isAllowed(st)) {
+						cbd.add(st);
+						if (st.getObject().isResource()) {
+							successors.add(st.getObject().asResource());
+						}
+					}
+				}
+			}
+			nodes = successors;
+		}
+
+		if (withTypesForLeafs) {
+			for (Resource node : nodes) {
+				cbd.add(model.listStatements(node, RDF.type, (RDFNode) null));
+			}
+		}
+
+		return cbd;
+	}
+
+	/**
+	 * @return whether the statement matches the filters used in the query
+	 */
+	private boolean isAllowed(Statement st) {
+		String property = st.getPredicate().getURI();
+		if (propertyBlacklist.contains(property)) {
+			return false;
+		}
+		if (!allowedPropertyNamespaces.isEmpty() && !st.getPredicate().equals(RDF.type)
+				&& allowedPropertyNamespaces.stream().noneMatch(property::startsWith)) {
+			return false;
+		}
+		RDFNode object = st.getObject();
+		return allowedObjectNamespaces.isEmpty() || object.isLiteral()
+				|| (object.isURIResource() && allowedObjectNamespaces.stream().anyMatch(object.asResource().getURI()::startsWith));
+	}
+
+	/**
+	 * @param batchSize the max. number of resources whose CBDs are fetched with a single query
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = Math.max(1, batchSize);
+	}
+
+	/**
+	 * @param nrOfThreads the max. number of queries that are executed concurrently
+	 */
+	public void setNrOfThreads(int nrOfThreads) {
+		this.nrOfThreads = nrOfThreads;
 	}
 	
 	@Override
@@ -129,16 +296,18 @@ public class ConciseBoundedDescriptionGeneratorImpl implements ConciseBoundedDes
 	}
 	
 	/**
-	 * A SPARQL CONSTRUCT query is created, to get a RDF graph for the given example with a specific recursion depth.
-	 * @param resource The example resource for which a CONSTRUCT query is created.
+	 * A SPARQL CONSTRUCT query is created, to get a RDF graph for the given examples with a specific recursion depth.
+	 * Multiple examples are bound via a VALUES clause.
+	 * @param resources The example resources for which a CONSTRUCT query is created.
 	 * @return the SPARQL query
 	 */
-	private String generateQuery(String resource, int depth, boolean withTypesForLeafs){
+	private String generateQuery(List<String> resources, int depth, boolean withTypesForLeafs){
 		int lastIndex = Math.max(0, depth - 1);
+		String subject = resources.size() == 1 ? "<" + resources.get(0) + ">" : "?s";
 		
 		StringBuilder sb = new StringBuilder();
 		sb.append("CONSTRUCT {\n");
-		sb.append(String.format("<%s> ?p0 ?o0 .\n", resource));
+		sb.append(subject).append(" ?p0 ?o0 .\n");
 //		sb.append("?p0 a ?type0.\n");
 		for(int i = 1; i < depth; i++){
 			sb.append("?o").append(i-1).append(" ").append("?p").append(i).append(" ").append("?o").append(i).append(".\n");
@@ -148,7 +317,12 @@ public class ConciseBoundedDescriptionGeneratorImpl implements ConciseBoundedDes
 		}
 		sb.append("}\n");
 		sb.append("WHERE {\n");
-		sb.append("<").append(resource).append("> ").append("?p0 ").append("?o0").append(".\n");
+		if(resources.size() > 1){
+			sb.append("VALUES ?s {");
+			resources.forEach(resource -> sb.append(" <").append(resource).append(">"));
+			sb.append(" }\n");
+		}
+		sb.append(subject).append(" ?p0 ").append("?o0").append(".\n");
 		sb.append(createPropertyNamespacesFilter("?p0"));
 		sb.append(createPropertyFilter(Var.alloc("p0")));
 		sb.append(createObjectNamespacesFilter("?o0"));
@@ -224,6 +398,31 @@ public class ConciseBoundedDescriptionGeneratorImpl implements ConciseBoundedDes
 		propertyBlacklist.addAll(properties);
 	}
 	
+	private static class CBDRequest {
+		private final String resource;
+		private final int depth;
+		private final boolean withTypesForLeafs;
+
+		CBDRequest(String resource, int depth, boolean withTypesForLeafs) {
+			this.resource = resource;
+			this.depth = depth;
+			this.withTypesForLeafs = withTypesForLeafs;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof CBDRequest)) return false;
+			CBDRequest other = (CBDRequest) o;
+			return depth == other.depth && withTypesForLeafs == other.withTypesForLeafs && resource.equals(other.resource);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(resource, depth, withTypesForLeafs);
+		}
+	}
+	
 	public static void main(String[] args) {
 		ConciseBoundedDescriptionGenerator cbdGen = new ConciseBoundedDescriptionGeneratorImpl(SparqlEndpoint.getEndpointDBpediaLiveAKSW());
 		cbdGen = new CachingConciseBoundedDescriptionGenerator(cbdGen);
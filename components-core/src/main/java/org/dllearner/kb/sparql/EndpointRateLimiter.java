@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aksw.jena_sparql_api.delay.extra.Delayer;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Limits the number of queries per second sent to a SPARQL endpoint. There
+ * is a single limiter per endpoint URL and rate, i.e. the limit holds for all
+ * query execution factories and threads working on the same endpoint with the
+ * same configured rate, in contrast to a fixed delay per query execution
+ * factory. Knowledge sources asking for a different rate get their own
+ * limiter, thus they never throttle each other.
+ * <p>
+ * To be used with a {@link org.aksw.jena_sparql_api.delay.core.QueryExecutionFactoryDelay}.
+ */
+public class EndpointRateLimiter implements Delayer {
+
+	private static final Map<String, EndpointRateLimiter> limiters = new ConcurrentHashMap<>();
+
+	private final RateLimiter rateLimiter;
+
+	private EndpointRateLimiter(double maxQueriesPerSecond) {
+		this.rateLimiter = RateLimiter.create(maxQueriesPerSecond);
+	}
+
+	/**
+	 * @param endpoint the SPARQL endpoint
+	 * @param maxQueriesPerSecond the max. number of queries per second
+	 * @return the rate limiter shared by all users of the endpoint with the same rate
+	 */
+	public static EndpointRateLimiter forEndpoint(SparqlEndpoint endpoint, double maxQueriesPerSecond) {
+		return limiters.computeIfAbsent(endpoint.getURL() + " " + maxQueriesPerSecond,
+				key -> new EndpointRateLimiter(maxQueriesPerSecond));
+	}
+
+	/**
+	 * @return the max. number of queries per second
+	 */
+	public double getMaxQueriesPerSecond() {
+		return rateLimiter.getRate();
+	}
+
+	@Override
+	public void doDelay() throws InterruptedException {
+		rateLimiter.acquire();
+	}
+}
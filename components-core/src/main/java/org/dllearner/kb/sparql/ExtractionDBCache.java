@@ -19,32 +19,28 @@
 package org.dllearner.kb.sparql;
 
 import java.io.ByteArrayOutputStream;
-import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 import org.dllearner.utilities.Helper;
+import org.dllearner.utilities.metrics.Counter;
+import org.dllearner.utilities.metrics.MetricRegistry;
+import org.dllearner.utilities.metrics.MetricSet;
+import org.dllearner.utilities.metrics.Timer;
 
 import org.apache.jena.query.ResultSetFactory;
 import org.apache.jena.query.ResultSetRewindable;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
-import com.jamonapi.Monitor;
-import com.jamonapi.MonitorFactory;
 import org.apache.jena.sparql.engine.http.QueryEngineHTTP;
 
 /**
  * The class is used to cache information about resources to a database.
  * Provides the connection to an H2 database in a light weight, configuration free
- * manner. 
+ * manner. The results are stored in a {@link CompressedQueryCache}, i.e. in a
+ * compressed binary encoding.
  * 
  * Note: Currently, either select ot construct has to be used (not both).
  * 
@@ -57,25 +53,21 @@ public class ExtractionDBCache {
 	private String databaseName = "extraction";
 	private boolean autoServerMode = true;
 	
-	// specifies after how many seconds a cached result becomes invalid
-	private long freshnessInMilliseconds = 15 * 24 * 60 * 60 * 1000; // 15 days	
-	
 	private int maxExecutionTimeInSeconds = 0;
 	
 	private Connection conn;
 	
-	MessageDigest md5;
+	private CompressedQueryCache cache;
 	
-	private Monitor mon = MonitorFactory.getTimeMonitor("Query");
+	private final MetricSet metrics = MetricRegistry.getDefault().getMetricSet("extraction_db_cache");
+	private final Counter hits = metrics.counter("hits");
+	private final Counter misses = metrics.counter("misses");
+	private final Timer queryTime = metrics.timer("query_time");
 	
 	public ExtractionDBCache(Connection conn) throws SQLException
 	{
 		this.conn=conn;
-		try{md5 = MessageDigest.getInstance("MD5");}
-		catch(NoSuchAlgorithmException e) {throw new RuntimeException("Should never happen - MD5 not found.");}
-	        // create cache table if it does not exist
-		Statement stmt = conn.createStatement();
-		stmt.execute("CREATE TABLE IF NOT EXISTS QUERY_CACHE(QUERYHASH BINARY PRIMARY KEY,QUERY VARCHAR(20000), TRIPLES CLOB, STORE_TIME TIMESTAMP)");		
+		cache = new CompressedQueryCache(conn);
 	}
 	
 	public String getCacheDirectory() {
@@ -85,8 +77,6 @@ public class ExtractionDBCache {
 	public ExtractionDBCache(String cacheDir) {
 		databaseDirectory = cacheDir;
 		try {
-		md5 = MessageDigest.getInstance("MD5");
-		
 		// load driver
 		Class.forName("org.h2.Driver");
 		
@@ -99,16 +89,22 @@ public class ExtractionDBCache {
         conn = DriverManager.getConnection("jdbc:h2:"+databaseDirectory+"/"+databaseName+jdbcString, "sa", "");
 
         // create cache table if it does not exist
-        Statement stmt = conn.createStatement();
-        stmt.execute("CREATE TABLE IF NOT EXISTS QUERY_CACHE(QUERYHASH BINARY PRIMARY KEY,QUERY VARCHAR(20000), TRIPLES CLOB, STORE_TIME TIMESTAMP)");
-		} catch(NoSuchAlgorithmException | ClassNotFoundException | SQLException e) {
+        cache = new CompressedQueryCache(conn);
+		} catch(ClassNotFoundException | SQLException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
         }
 	}
 	
 	public void setFreshnessInMilliseconds(long freshnessInMilliseconds) {
-		this.freshnessInMilliseconds = freshnessInMilliseconds;
+		cache.setTimeToLive(freshnessInMilliseconds);
+	}
+	
+	/**
+	 * @return the underlying cache, e.g. to configure its size or to get hit/miss statistics
+	 */
+	public CompressedQueryCache getCache() {
+		return cache;
 	}
 	
 	public Model executeConstructQuery(SparqlEndpoint endpoint, String query) throws SQLException, UnsupportedEncodingException {
@@ -116,35 +112,14 @@ public class ExtractionDBCache {
 	}
 	
 	public Model executeConstructQuery(SparqlEndpoint endpoint, String query, int maxExecutionTimeInSeconds) throws SQLException, UnsupportedEncodingException {
-		byte[] md5 = md5(query);		
-//		Timestamp currTS = new Timestamp(new java.util.Date().getTime());
-		PreparedStatement ps=conn.prepareStatement("SELECT * FROM QUERY_CACHE WHERE QUERYHASH=? LIMIT 1");
-		ps.setBytes(1, md5);
-		ResultSet rs = ps.executeQuery();
-		
-//		long startTime = System.nanoTime();
-		boolean entryExists = rs.next();
-		boolean readFromCache = entryExists && (System.currentTimeMillis() - rs.getTimestamp("STORE_TIME").getTime() < freshnessInMilliseconds);
-//		long runTime = System.nanoTime() - startTime;
-//		System.out.println(Helper.prettyPrintNanoSeconds(runTime, true, true));
+		Model cachedModel = cache.getModel(query);
 		
-		if(readFromCache) {
-//			System.out.println("Reading from cache");
-//			String posedQuery = rs.getString("QUERY");
-//			System.out.println(posedQuery);
-				
-			Clob clob = rs.getClob("TRIPLES");
-//			long startTime = System.nanoTime();
-			Model readModel = ModelFactory.createDefaultModel();
-			readModel.read(clob.getAsciiStream(), null, "N-TRIPLE");
-//			long runTime = System.nanoTime() - startTime;
-//			System.out.println(Helper.prettyPrintNanoSeconds(runTime, true, true));			
-			return readModel;
+		if(cachedModel != null) {
+			hits.inc();
+			return cachedModel;
 		} else {
-			mon.start();
-//			System.out.println("Posing new query");
-			
-//			String endpoint = "http://139.18.2.37:8890/sparql";
+			misses.inc();
+			Timer.Context timer = queryTime.time();
 			QueryEngineHTTP queryExecution = new QueryEngineHTTP(endpoint.getURL().toString(), query);
 			queryExecution.setTimeout(maxExecutionTimeInSeconds * 1000);
 			for (String dgu : endpoint.getDefaultGraphURIs()) {
@@ -154,28 +129,9 @@ public class ExtractionDBCache {
 				queryExecution.addNamedGraph(ngu);
 			}			
 			Model m2 = queryExecution.execConstruct();	
+			timer.stop();
 			
-			// convert model to N-Triples
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			m2.write(baos, "N-TRIPLE");
-			String modelStr = baos.toString("UTF-8");
-			
-			// use a prepared statement, so that Java handles all the escaping stuff correctly automatically
-			PreparedStatement ps2;
-			if(entryExists){
-				ps2 = conn.prepareStatement("UPDATE QUERY_CACHE SET TRIPLES=?, STORE_TIME=? WHERE QUERYHASH=?");
-				ps2.setClob(1, new StringReader(modelStr));
-				ps2.setTimestamp(2, new java.sql.Timestamp(new java.util.Date().getTime()));
-				ps2.setBytes(3, md5);
-			} else {
-				ps2 = conn.prepareStatement("INSERT INTO QUERY_CACHE VALUES(?,?,?,?)");
-				ps2.setBytes(1, md5);
-				ps2.setString(2, query);
-				ps2.setClob(3, new StringReader(modelStr));
-				ps2.setTimestamp(4, new java.sql.Timestamp(new java.util.Date().getTime()));
-			}
-			mon.stop();
-			ps2.executeUpdate(); 
+			cache.putModel(query, m2);
 			
 			return m2;
 		}
@@ -186,25 +142,14 @@ public class ExtractionDBCache {
 	}
 	
 	public String executeSelectQuery(SparqlEndpoint endpoint, String query, int maxExecutionTimeInSeconds) {
+		String cachedResult = cache.getString(query);
 		
-		try {
-			
-			
-		byte[] md5 = md5(query);		
-		PreparedStatement ps=conn.prepareStatement("SELECT * FROM QUERY_CACHE WHERE QUERYHASH=? LIMIT 1");
-		ps.setBytes(1, md5);
-		ResultSet rs = ps.executeQuery();
-		
-		boolean entryExists = rs.next();
-		boolean readFromCache = entryExists && (System.currentTimeMillis() - rs.getTimestamp("STORE_TIME").getTime() < freshnessInMilliseconds);
-		
-		if(readFromCache) {
-//			System.out.println("cache");
-			Clob clob = rs.getClob("TRIPLES");
-			return clob.getSubString(1, (int) clob.length());
+		if(cachedResult != null) {
+			hits.inc();
+			return cachedResult;
 		} else {
-			mon.start();
-//			System.out.println("no-cache");
+			misses.inc();
+			Timer.Context timer = queryTime.time();
 			QueryEngineHTTP queryExecution = new QueryEngineHTTP(endpoint.getURL().toString(), query);
 			queryExecution.setTimeout(maxExecutionTimeInSeconds * 1000);
 			for (String dgu : endpoint.getDefaultGraphURIs()) {
@@ -216,41 +161,15 @@ public class ExtractionDBCache {
 			org.apache.jena.query.ResultSet tmp = queryExecution.execSelect();
 			ResultSetRewindable rs2 = ResultSetFactory.makeRewindable(tmp);
 			String json = SparqlQuery.convertResultSetToJSON(rs2);
+			timer.stop();
 			
-			// use a prepared statement, so that Java handles all the escaping stuff correctly automatically
-			PreparedStatement ps2;
-			if(entryExists){
-				ps2 = conn.prepareStatement("UPDATE QUERY_CACHE SET TRIPLES=?, STORE_TIME=? WHERE QUERYHASH=?");
-				ps2.setClob(1, new StringReader(json));
-				ps2.setTimestamp(2, new java.sql.Timestamp(new java.util.Date().getTime()));
-				ps2.setBytes(3, md5);
-			} else {
-				ps2 = conn.prepareStatement("INSERT INTO QUERY_CACHE VALUES(?,?,?,?)");
-				ps2.setBytes(1, md5);
-				ps2.setString(2, query);
-				ps2.setClob(3, new StringReader(json));
-				ps2.setTimestamp(4, new java.sql.Timestamp(new java.util.Date().getTime()));
-			}
-			mon.stop();
-			ps2.executeUpdate(); 
+			cache.putString(query, json);
 			return json;
 		}
-		} catch(SQLException e) {
-			e.printStackTrace();
-			return null;
-		} finally{
-			mon.stop();
-		}
 	}	
 	
 	public void closeConnection() throws SQLException {
-		conn.close();
-	}
-	
-	private synchronized byte[] md5(String string) {
-		md5.reset();
-		md5.update(string.getBytes());
-		return md5.digest();
+		cache.close();
 	}
 	
 	public static String toNTriple(Model m) {
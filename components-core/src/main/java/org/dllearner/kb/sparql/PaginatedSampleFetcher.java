@@ -0,0 +1,202 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Generates a sample of a knowledge base by paging through the result of a
+ * SPARQL CONSTRUCT query with LIMIT/OFFSET.
+ *
+ * Up to <code>prefetchDepth</code> pages are requested concurrently, but the
+ * pages are added to the sample in the order of their offset, i.e. the sample
+ * is the same as for sequential paging unless the fetching is stopped early.
+ * The fetching stops as soon as a page is empty, the timeout is reached, the
+ * sample contains the max. number of triples or the given stop condition
+ * holds, e.g. because the sample is sufficient to compute a score with the
+ * desired confidence. Pending pages are cancelled in that case.
+ */
+public class PaginatedSampleFetcher {
+
+	private static final Logger logger = LoggerFactory.getLogger(PaginatedSampleFetcher.class);
+
+	private final QueryExecutionFactory qef;
+
+	private long pageSize = 10000;
+	private int prefetchDepth = 4;
+	private long maxSampleSize = -1;
+	private long timeoutMilliseconds = -1;
+	private Predicate<Model> stopCondition = model -> false;
+	private Supplier<Model> modelFactory = ModelFactory::createDefaultModel;
+
+	private boolean complete;
+
+	public PaginatedSampleFetcher(QueryExecutionFactory qef) {
+		this.qef = qef;
+	}
+
+	/**
+	 * @param pageSize the number of triples requested per query
+	 */
+	public void setPageSize(long pageSize) {
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * @param prefetchDepth the max. number of pages that are requested concurrently, a value of 1 means sequential
+	 *                      paging
+	 */
+	public void setPrefetchDepth(int prefetchDepth) {
+		this.prefetchDepth = Math.max(1, prefetchDepth);
+	}
+
+	/**
+	 * @param maxSampleSize the number of triples after which the fetching stops, a value below 1 means no limit
+	 */
+	public void setMaxSampleSize(long maxSampleSize) {
+		this.maxSampleSize = maxSampleSize;
+	}
+
+	/**
+	 * @param timeoutMilliseconds the max. time to generate the sample, a value below 1 means no timeout
+	 */
+	public void setTimeout(long timeoutMilliseconds) {
+		this.timeoutMilliseconds = timeoutMilliseconds;
+	}
+
+	/**
+	 * @param stopCondition a condition that is checked after each page and which stops the fetching if it holds
+	 */
+	public void setStopCondition(Predicate<Model> stopCondition) {
+		this.stopCondition = stopCondition;
+	}
+
+	/**
+	 * Set how the model holding the sample is created, e.g. to use a store with other indexes than the default
+	 * in-memory model.
+	 * @param modelFactory the factory for the sample model
+	 */
+	public void setModelFactory(Supplier<Model> modelFactory) {
+		this.modelFactory = modelFactory;
+	}
+
+	/**
+	 * @return whether the last sample contains the whole result of the query, i.e. the fetching did not stop early
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * Fetch the sample for the given CONSTRUCT query. Limit and offset of the query are overwritten.
+	 * @param query the CONSTRUCT query
+	 * @return the sample
+	 */
+	public Model fetch(Query query) {
+		Model sample = modelFactory.get();
+		complete = false;
+
+		long startTime = System.currentTimeMillis();
+
+		ExecutorService executor = Executors.newFixedThreadPool(prefetchDepth,
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sample-page-%d").build());
+		Deque<Future<Model>> pages = new ArrayDeque<>(prefetchDepth);
+		try {
+			long nextPage = 0;
+			for (int i = 0; i < prefetchDepth; i++) {
+				pages.add(executor.submit(fetchPage(query, nextPage++, startTime)));
+			}
+
+			while (!pages.isEmpty()) {
+				Model page = pages.poll().get();
+
+				// if the page is empty, we got all data
+				if (page.isEmpty()) {
+					complete = true;
+					break;
+				}
+				sample.add(page);
+
+				if (isTimeout(startTime)) {
+					logger.debug("Sampling timeout.");
+					break;
+				}
+				if ((maxSampleSize > 0 && sample.size() >= maxSampleSize) || stopCondition.test(sample)) {
+					logger.debug("Sample is sufficient.");
+					break;
+				}
+				pages.add(executor.submit(fetchPage(query, nextPage++, startTime)));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			// a query that was aborted because of the timeout does not invalidate the sample fetched so far
+			if (!isTimeout(startTime)) {
+				throw Throwables.propagate(e.getCause());
+			}
+			logger.debug("Sampling timeout.");
+		} finally {
+			pages.forEach(page -> page.cancel(true));
+			executor.shutdownNow();
+		}
+
+		return sample;
+	}
+
+	private Callable<Model> fetchPage(Query query, long page, long startTime) {
+		// the query object is not thread-safe, thus each page works on its own copy
+		Query pageQuery = query.cloneQuery();
+		pageQuery.setLimit(pageSize);
+		pageQuery.setOffset(page * pageSize);
+
+		return () -> {
+			logger.debug("Fetching page {} of the sample", page);
+			try (QueryExecution qe = qef.createQueryExecution(pageQuery)) {
+				if (timeoutMilliseconds > 0) {
+					// set the remaining runtime
+					qe.setTimeout(Math.max(1, timeoutMilliseconds - (System.currentTimeMillis() - startTime)));
+				}
+				return qe.execConstruct();
+			}
+		};
+	}
+
+	private boolean isTimeout(long startTime) {
+		return timeoutMilliseconds > 0 && System.currentTimeMillis() - startTime >= timeoutMilliseconds;
+	}
+}
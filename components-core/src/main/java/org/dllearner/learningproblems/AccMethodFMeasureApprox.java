@@ -52,42 +52,38 @@ public class AccMethodFMeasureApprox extends AccMethodFMeasure implements AccMet
 
 		// we abort when there are too many uncovered positives
 		int maxNotCovered = (int) Math.ceil(noise*positiveExamples.size());
-		int instancesCovered = 0;
-		int instancesNotCovered = 0;
-
-		for(OWLIndividual ind : positiveExamples) {
-			if(reasoner.hasType(description, ind)) {
-				instancesCovered++;
-			} else {
-				instancesNotCovered ++;
-				if(instancesNotCovered > maxNotCovered) {
-					return -1;
-				}
-			}
+		int instancesCovered = reasoner.getInstanceCount(description, positiveExamples, maxNotCovered);
+		if(instancesCovered == -1) {
+			return -1;
 		}
 
 		double recall = instancesCovered/(double)positiveExamples.size();
 
-		int testsPerformed = 0;
-		int instancesDescription = 0;
-
-		for(OWLIndividual ind : negativeExamples) {
+		// [0] = tests performed, [1] = instances of the description
+		int[] counts = new int[2];
+		double[] approxAcc = {Double.NaN};
 
-			if(reasoner.hasType(description, ind)) {
-				instancesDescription++;
+		reasoner.hasType(description, negativeExamples, (ind, covered) -> {
+			if(covered) {
+				counts[1]++;
 			}
-			testsPerformed++;
+			counts[0]++;
 
 			// check whether approximation is sufficiently accurate
-			double[] approx = Heuristics.getFScoreApproximation(instancesCovered, recall, (beta == 0 ? 1 : beta), negativeExamples.size(), testsPerformed, instancesDescription);
+			double[] approx = Heuristics.getFScoreApproximation(instancesCovered, recall, (beta == 0 ? 1 : beta), negativeExamples.size(), counts[0], counts[1]);
 			if(approx[1]<approxDelta) {
-				return approx[0];
+				approxAcc[0] = approx[0];
+				return false;
 			}
+			return true;
+		});
 
+		if(!Double.isNaN(approxAcc[0])) {
+			return approxAcc[0];
 		}
 
 		// standard computation (no approximation)
-		double precision = instancesCovered/(double)(instancesDescription+instancesCovered);
+		double precision = instancesCovered/(double)(counts[1]+instancesCovered);
 		return Heuristics.getFScore(recall, precision, (beta == 0 ? 1 : beta));
 	}
 
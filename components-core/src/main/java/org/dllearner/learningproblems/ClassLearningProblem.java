@@ -70,6 +70,7 @@ public class ClassLearningProblem extends AbstractClassExpressionLearningProblem
 
 	// instances of super classes excluding instances of the class itself
 	private List<OWLIndividual> superClassInstances;
+	private Set<OWLIndividual> superClassInstancesSet;
 	// instances of super classes including instances of the class itself
 	private List<OWLIndividual> classAndSuperClassInstances;
 	// specific variables for generalised F-measure
@@ -139,6 +140,7 @@ public class ClassLearningProblem extends AbstractClassExpressionLearningProblem
 		// since we use the instance list for approximations, we want to avoid
 		// any bias through URI names, so we shuffle the list once pseudo-randomly
 		superClassInstances = new LinkedList<>(superClassInstancesTmp);
+		superClassInstancesSet = superClassInstancesTmp;
 		Random rand = new Random(1);
 		Collections.shuffle(classInstances, rand);
 		Collections.shuffle(superClassInstances, rand);
@@ -214,6 +216,31 @@ public class ClassLearningProblem extends AbstractClassExpressionLearningProblem
 		}
 	}
 
+	@Override
+	public boolean isIncrementalCoverageSupported() {
+		return accuracyMethod instanceof AccMethodTwoValued && !(accuracyMethod instanceof AccMethodApproximate);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Set<OWLIndividual>[] getCoverageSets() {
+		return new Set[] {classInstancesSet, superClassInstancesSet};
+	}
+
+	@Override
+	public Coverage[] getCoverage(OWLClassExpression description, Set<OWLIndividual>[] candidates) {
+		nanoStartTime = System.nanoTime();
+		return super.getCoverage(description, candidates);
+	}
+
+	@Override
+	public double getAccuracyOrTooWeak(OWLClassExpression description, Coverage[] coverage, double noise) {
+		if (coverage == null || !isIncrementalCoverageSupported()) {
+			return getAccuracyOrTooWeak(description, noise);
+		}
+		return reasoningUtil.getAccuracyOrTooWeakExact2((AccMethodTwoValued) accuracyMethod, coverage, noise);
+	}
+
 	/**
 	 * @return whether the description test should be aborted because time expired
 	 */
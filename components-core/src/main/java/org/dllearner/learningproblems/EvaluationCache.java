@@ -19,17 +19,27 @@
 package org.dllearner.learningproblems;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.Component;
+import org.dllearner.core.ComponentAnn;
+import org.dllearner.core.ComponentInitException;
+import org.dllearner.core.config.ConfigOption;
 import org.dllearner.utilities.datastructures.SortedSetTuple;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObjectComplementOf;
 import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
 import org.semanticweb.owlapi.model.OWLObjectUnionOf;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
 
 /**
@@ -38,29 +48,73 @@ import com.google.common.collect.Sets;
  * which tries to infer the covered examples of a given concept
  * from previous results.
  * 
- * TODO Under construction.
+ * For each evaluated concept, the cache stores the tested individuals which
+ * are instances of the concept and those which are not. For conjunctions,
+ * disjunctions and negations, lower and upper bounds are derived from the
+ * cached operands, such that the reasoner only needs to be asked for the
+ * individuals which cannot be decided from the bounds.
+ * 
+ * Entries are keyed by the concept and a scope, usually the
+ * {@link org.dllearner.utilities.ReasoningUtils} of a learning problem, so
+ * that a cache shared by several learning problems never mixes their results.
+ * 
  * @author Jens Lehmann
  *
  */
-public class EvaluationCache {
+@ComponentAnn(name = "evaluation cache", shortName = "evalcache", version = 0.1)
+public class EvaluationCache implements Component {
+
+	// maps a scope and a concept to the individuals known to be instances (pos) and non-instances (neg);
+	// the tuples are updated in place and guarded by their own monitor
+	private Cache<Key, SortedSetTuple<OWLIndividual>> cache;
+
+	@ConfigOption(defaultValue = "10000", description = "maximum number of concepts held in the cache")
+	private int maxSize = 10000;
+
+	@ConfigOption(defaultValue = "false", description = "whether instance checks of the reasoner are truth-functional w.r.t. "
+			+ "negation and disjunction, i.e. an individual is an instance of NOT C iff it is not an instance of C and an instance "
+			+ "of C OR D iff it is an instance of C or of D (e.g. the closed world reasoner with default negation)")
+	private boolean closedWorld = false;
 
-	// maps a concept to a list of individuals it covers
-	private Map<OWLClassExpression,SortedSet<OWLIndividual>> cache;
-	private boolean checkForEqualConcepts = false;
-	
-	private SortedSet<OWLIndividual> examples;
-	
-	public EvaluationCache(SortedSet<OWLIndividual> examples) {
-		this.examples = examples;
-		cache = new TreeMap<>();
+	private AtomicLong savedInstanceChecks = new AtomicLong();
+	private AtomicLong performedInstanceChecks = new AtomicLong();
+
+	public EvaluationCache() {}
+
+	public EvaluationCache(boolean closedWorld) {
+		this.closedWorld = closedWorld;
 	}
-	
-	public void put(OWLClassExpression concept, SortedSet<OWLIndividual> individuals) {
-		cache.put(concept, individuals);
+
+	@Override
+	public void init() throws ComponentInitException {
+		cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
 	}
 
 	/**
-	 * Determines which examples are instances of a concept.
+	 * Stores the result of an evaluation, i.e. the individuals covered by the
+	 * concept among a set of tested individuals.
+	 * @param scope the scope of the evaluation, e.g. the learning problem
+	 * @param concept the concept
+	 * @param tested the tested individuals
+	 * @param covered the tested individuals which are instances of the concept
+	 */
+	public void put(Object scope, OWLClassExpression concept, Set<OWLIndividual> tested, Set<OWLIndividual> covered) {
+		SortedSetTuple<OWLIndividual> known;
+		try {
+			known = getCache().get(new Key(scope, concept), SortedSetTuple::new);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+		synchronized (known) {
+			known.getPosSet().addAll(covered);
+			known.getNegSet().addAll(Sets.difference(tested, covered));
+		}
+	}
+
+	/**
+	 * Determines which individuals are instances of a concept, using the
+	 * cached results for the concept itself and its operands.
+	 * @param scope the scope of the evaluation, e.g. the learning problem
 	 * @param concept the concept
 	 * @return A tuple of two sets, where the first element is the
 	 * set of individuals belonging to the class and the second element
@@ -68,45 +122,197 @@ public class EvaluationCache {
 	 * elements, which are in neither of the sets, the cache cannot
 	 * safely determine whether they are concept instances or not.
 	 */
-	public SortedSetTuple<OWLIndividual> infer(OWLClassExpression concept) {
-		if(checkForEqualConcepts) {
-			Set<OWLIndividual> pos = cache.get(concept);
-			Set<OWLIndividual> neg = Sets.difference(examples, pos);
-			return new SortedSetTuple<>(pos, neg);
+	public SortedSetTuple<OWLIndividual> infer(Object scope, OWLClassExpression concept) {
+		SortedSetTuple<OWLIndividual> inferred;
+		// for a negation NOT C we know that the instances of C are not in it;
+		// the non-instances of C are instances of NOT C only under closed world semantics
+		if(concept instanceof OWLObjectComplementOf) {
+			SortedSetTuple<OWLIndividual> operand = infer(scope, ((OWLObjectComplementOf) concept).getOperand());
+			inferred = new SortedSetTuple<>(closedWorld ? operand.getNegSet() : new TreeSet<>(), operand.getPosSet());
+		// for a conjunction we know that the intersection of instances
+		// of all children belongs to the concept
+		} else if(concept instanceof OWLObjectIntersectionOf) {
+			inferred = handleMultiConjunction(scope, (OWLObjectIntersectionOf) concept);
+		// disjunctions are similar to conjunctions but we use union here;
+		// note that there can be instances which are neither in a concept
+		// C nor in a concept D, but in (C OR D), unless we have closed world semantics
+		} else if(concept instanceof OWLObjectUnionOf) {
+			inferred = handleMultiDisjunction(scope, (OWLObjectUnionOf) concept);
+		// in all other cases we cannot infer anything, so we return an
+		// empty tuple
 		} else {
-			// for a negation NOT C we can only say which concepts are not in it
-			// (those in C), but we cannot say which ones are in NOT C
-			
-			// for a conjunction we know that the intersection of instances
-			// of all children belongs to the concept
-			if(concept instanceof OWLObjectIntersectionOf) {
-				handleMultiConjunction((OWLObjectIntersectionOf)concept);
-			// disjunctions are similar to conjunctions but we use union here;
-			// note that there can be instances which are neither in a concept
-			// C nor in a concept D, but in (C OR D)
-			} else if(concept instanceof OWLObjectUnionOf) {
-				List<OWLClassExpression> operands = ((OWLObjectUnionOf) concept).getOperandsAsList();
-				Set<OWLIndividual> pos = cache.get(operands.get(0));
-				for (int i = 1; i < operands.size(); i++) {
-					pos = Sets.union(pos, cache.get(operands.get(i)));
-				}
-			// in all other cases we cannot infer anything, so we return an
-			// empty tuple
-			} else {
-				return new SortedSetTuple<>();
+			inferred = new SortedSetTuple<>();
+		}
+
+		// add what is known from previous evaluations of the concept itself
+		SortedSetTuple<OWLIndividual> known = getCache().getIfPresent(new Key(scope, concept));
+		if(known != null) {
+			synchronized (known) {
+				inferred.getPosSet().addAll(known.getPosSet());
+				inferred.getNegSet().addAll(known.getNegSet());
 			}
 		}
-		
-		return null;
+		return inferred;
 	}
-	
-	private SortedSetTuple<OWLIndividual> handleMultiConjunction(OWLObjectIntersectionOf mc) {
+
+	private SortedSetTuple<OWLIndividual> handleMultiConjunction(Object scope, OWLObjectIntersectionOf mc) {
 		List<OWLClassExpression> operands = mc.getOperandsAsList();
-		Set<OWLIndividual> pos = cache.get(operands.get(0));
+		SortedSetTuple<OWLIndividual> first = infer(scope, operands.get(0));
+		SortedSet<OWLIndividual> pos = first.getPosSet();
+		SortedSet<OWLIndividual> neg = first.getNegSet();
+		// children which are not in the cache have empty bounds, i.e. nothing
+		// is known to be in the conjunction, but the non-instances of the
+		// other children are still non-instances of the conjunction
 		for (int i = 1; i < operands.size(); i++) {
-			pos = Sets.intersection(pos, cache.get(operands.get(i)));
+			SortedSetTuple<OWLIndividual> operand = infer(scope, operands.get(i));
+			pos.retainAll(operand.getPosSet());
+			neg.addAll(operand.getNegSet());
+		}
+		return new SortedSetTuple<>(pos, neg);
+	}
+
+	private SortedSetTuple<OWLIndividual> handleMultiDisjunction(Object scope, OWLObjectUnionOf md) {
+		List<OWLClassExpression> operands = md.getOperandsAsList();
+		SortedSetTuple<OWLIndividual> first = infer(scope, operands.get(0));
+		SortedSet<OWLIndividual> pos = first.getPosSet();
+		SortedSet<OWLIndividual> neg = closedWorld ? first.getNegSet() : new TreeSet<>();
+		for (int i = 1; i < operands.size(); i++) {
+			SortedSetTuple<OWLIndividual> operand = infer(scope, operands.get(i));
+			pos.addAll(operand.getPosSet());
+			if(closedWorld) {
+				neg.retainAll(operand.getNegSet());
+			}
+		}
+		return new SortedSetTuple<>(pos, neg);
+	}
+
+	/**
+	 * Determines which of the given individuals are instances of a concept.
+	 * Only individuals whose membership cannot be inferred from the cache
+	 * are checked by the reasoner. The result is added to the cache.
+	 * @param scope the scope of the evaluation, e.g. the learning problem
+	 * @param concept the concept
+	 * @param individuals the individuals to test
+	 * @param reasoner the reasoner used for the undecided individuals
+	 * @param interrupted checked after each instance check of the reasoner
+	 * @return the individuals which are instances of the concept or null if the
+	 * evaluation was interrupted
+	 */
+	public SortedSet<OWLIndividual> getCoveredIndividuals(Object scope, OWLClassExpression concept, Set<OWLIndividual> individuals,
+			AbstractReasonerComponent reasoner, BooleanSupplier interrupted) {
+		SortedSetTuple<OWLIndividual> bounds = infer(scope, concept);
+
+		SortedSet<OWLIndividual> covered = new TreeSet<>(Sets.intersection(individuals, bounds.getPosSet()));
+		Set<OWLIndividual> undecided = Sets.difference(Sets.difference(individuals, bounds.getPosSet()), bounds.getNegSet()).immutableCopy();
+
+		savedInstanceChecks.addAndGet(individuals.size() - undecided.size());
+		if(!undecided.isEmpty()) {
+			// the individuals tested before an interrupt are still cached
+			Set<OWLIndividual> tested = new TreeSet<>();
+			Set<OWLIndividual> newlyCovered = new TreeSet<>();
+			reasoner.hasType(concept, undecided, (ind, isInstance) -> {
+				tested.add(ind);
+				if (isInstance) {
+					newlyCovered.add(ind);
+				}
+				return !interrupted.getAsBoolean();
+			});
+			performedInstanceChecks.addAndGet(tested.size());
+			put(scope, concept, tested, newlyCovered);
+			if(interrupted.getAsBoolean()) {
+				return null;
+			}
+			covered.addAll(newlyCovered);
+		}
+		return covered;
+	}
+
+	/**
+	 * Removes all entries of a scope, e.g. when the reasoner of a learning problem changed.
+	 * @param scope the scope
+	 */
+	public void invalidate(Object scope) {
+		getCache().asMap().keySet().removeIf(key -> key.scope == scope);
+	}
+
+	/**
+	 * @return the number of instance checks which could be answered from the cache
+	 */
+	public long getSavedInstanceChecks() {
+		return savedInstanceChecks.get();
+	}
+
+	/**
+	 * @return the number of instance checks which had to be passed to the reasoner
+	 */
+	public long getPerformedInstanceChecks() {
+		return performedInstanceChecks.get();
+	}
+
+	public void resetStatistics() {
+		savedInstanceChecks.set(0);
+		performedInstanceChecks.set(0);
+	}
+
+	public void clear() {
+		getCache().invalidateAll();
+	}
+
+	private Cache<Key, SortedSetTuple<OWLIndividual>> getCache() {
+		if(cache == null) {
+			cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+		}
+		return cache;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public boolean isClosedWorld() {
+		return closedWorld;
+	}
+
+	public void setClosedWorld(boolean closedWorld) {
+		this.closedWorld = closedWorld;
+	}
+
+	@Override
+	public String toString() {
+		long saved = getSavedInstanceChecks();
+		long total = saved + getPerformedInstanceChecks();
+		return "evaluation cache: " + saved + " of " + total + " instance checks inferred from cache, "
+				+ getCache().size() + " concepts cached\n";
+	}
+
+	private static final class Key {
+		private final Object scope;
+		private final OWLClassExpression concept;
+
+		Key(Object scope, OWLClassExpression concept) {
+			this.scope = scope;
+			this.concept = concept;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return scope == other.scope && concept.equals(other.concept);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(scope) + concept.hashCode();
 		}
-		// TODO: handle the case that some children may not be in cache
-		return null;
 	}
 }
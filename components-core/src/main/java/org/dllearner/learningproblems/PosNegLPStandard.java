@@ -28,6 +28,7 @@ import org.dllearner.utilities.owl.OWLClassExpressionUtils;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLIndividual;
 
+import java.util.Set;
 import java.util.SortedSet;
 
 /**
@@ -107,6 +108,25 @@ public class PosNegLPStandard extends PosNegLP implements Cloneable{
 		return reasoningUtil.getAccuracyOrTooWeak2(accuracyMethod, description, positiveExamples, negativeExamples, noise);
 	}
 
+	@Override
+	public boolean isIncrementalCoverageSupported() {
+		return !(accuracyMethod instanceof AccMethodApproximate);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Set<OWLIndividual>[] getCoverageSets() {
+		return new Set[] {positiveExamples, negativeExamples};
+	}
+
+	@Override
+	public double getAccuracyOrTooWeak(OWLClassExpression description, Coverage[] coverage, double noise) {
+		if (coverage == null || !isIncrementalCoverageSupported()) {
+			return getAccuracyOrTooWeak(description, noise);
+		}
+		return reasoningUtil.getAccuracyOrTooWeakExact2(accuracyMethod, coverage, noise);
+	}
+
 	/* (non-Javadoc)
 	 * @see org.dllearner.core.LearningProblem#evaluate(org.dllearner.core.owl.Description)
 	 */
@@ -22,6 +22,7 @@ import com.google.common.collect.Sets;
 import org.apache.log4j.Logger;
 import org.dllearner.core.*;
 import org.dllearner.core.config.ConfigOption;
+import org.dllearner.utilities.ReasoningUtils.Coverage;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
@@ -46,6 +47,8 @@ public class PosOnlyLP extends AbstractClassExpressionLearningProblem<ScorePosOn
 	private List<OWLIndividual> positiveExamplesShuffled;
 //	protected SortedSet<OWLIndividual> pseudoNegatives;
 	private List<OWLIndividual> individuals;
+	// all individuals which are not positive examples
+	private Set<OWLIndividual> otherIndividuals;
 
 	private boolean useApproximations = false;
 
@@ -80,6 +83,9 @@ public class PosOnlyLP extends AbstractClassExpressionLearningProblem<ScorePosOn
 		if(getReasoner()!=null) {
 			individuals = new LinkedList<>(getReasoner().getIndividuals());
 			Collections.shuffle(individuals, rand);
+
+			otherIndividuals = new TreeSet<>(getReasoner().getIndividuals());
+			otherIndividuals.removeAll(positiveExamples);
 		}
 
 		positiveExamplesShuffled = new LinkedList<>(positiveExamples);
@@ -263,6 +269,10 @@ public class PosOnlyLP extends AbstractClassExpressionLearningProblem<ScorePosOn
 		// computing R(A)
 		int coveredInstances = Sets.intersection(individualsC, positiveExamples).size();
 
+		return getAccuracyOrTooWeakExact(coveredInstances, additionalInstances, noise);
+	}
+
+	private double getAccuracyOrTooWeakExact(int coveredInstances, int additionalInstances, double noise) {
 		double recall = coveredInstances / (double) positiveExamples.size();
 
 		// noise computation is incorrect
@@ -282,6 +292,25 @@ public class PosOnlyLP extends AbstractClassExpressionLearningProblem<ScorePosOn
 
 	}
 
+	@Override
+	public boolean isIncrementalCoverageSupported() {
+		return !useApproximations;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Set<OWLIndividual>[] getCoverageSets() {
+		return new Set[] {positiveExamples, otherIndividuals};
+	}
+
+	@Override
+	public double getAccuracyOrTooWeak(OWLClassExpression description, Coverage[] coverage, double noise) {
+		if (coverage == null || !isIncrementalCoverageSupported()) {
+			return getAccuracyOrTooWeak(description, noise);
+		}
+		return getAccuracyOrTooWeakExact(coverage[0].trueCount, coverage[1].trueCount, noise);
+	}
+
 	// see paper: expression used in confidence interval estimation
 	private static double p3(double p1, int total) {
 		return 1.96 * Math.sqrt(p1*(1-p1)/(total+4));
@@ -0,0 +1,524 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableSortedSet;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+
+/**
+ * A compact representation of the materialized ABox used by the
+ * {@link ClosedWorldReasoner}. Each individual gets a dense int ID, class
+ * extensions are stored as bitsets over those IDs and the object property
+ * assertions are stored as sorted int arrays in compressed sparse row layout.
+ * Set operations needed during retrieval (intersection, union, complement,
+ * existential lookups) can thus be done word-wise on {@link BitSet}s, and
+ * sets of {@link OWLIndividual} objects only have to be built when a result
+ * leaves the reasoner.
+ *
+ * All bitsets returned by this class are copies, i.e. they can be modified
+ * by the caller.
+ */
+public class BitSetMaterialization {
+
+	// the dictionary, sorted by the natural order of individuals such that
+	// ID order and the order of the returned sorted sets are the same
+	private final OWLIndividual[] id2Individual;
+	private final Map<OWLIndividual, Integer> individual2Id;
+
+	// the IDs of all individuals in the knowledge base, i.e. the extension of owl:Thing
+	private final BitSet allIndividuals;
+
+	// instances of classes
+	private final Map<OWLClass, BitSet> classInstancesPos = new HashMap<>();
+	private final Map<OWLClass, BitSet> classInstancesNeg = new HashMap<>();
+
+	// object property mappings
+	private final Map<OWLObjectProperty, SuccessorLists> opPos = new HashMap<>();
+	// the inverse mappings are computed on demand
+	private final Map<OWLObjectProperty, SuccessorLists> opPosInv = new ConcurrentHashMap<>();
+
+	// boolean datatype property mappings
+	private final Map<OWLDataProperty, BitSet> bdPos = new HashMap<>();
+	private final Map<OWLDataProperty, BitSet> bdNeg = new HashMap<>();
+
+	/**
+	 * Creates the bitset based representation of the given materialization.
+	 *
+	 * @param individuals all individuals of the knowledge base
+	 * @param classInstancesPos the instances of each class
+	 * @param classInstancesNeg the instances of the negation of each class
+	 *                          (only used if default negation is not applied)
+	 * @param opPos the object property assertions
+	 * @param bdPos the individuals related to <code>true</code> by a boolean data property
+	 * @param bdNeg the individuals related to <code>false</code> by a boolean data property
+	 */
+	public BitSetMaterialization(SortedSet<OWLIndividual> individuals,
+								 Map<OWLClass, ? extends SortedSet<OWLIndividual>> classInstancesPos,
+								 Map<OWLClass, ? extends SortedSet<OWLIndividual>> classInstancesNeg,
+								 Map<OWLObjectProperty, Map<OWLIndividual, SortedSet<OWLIndividual>>> opPos,
+								 Map<OWLDataProperty, ? extends SortedSet<OWLIndividual>> bdPos,
+								 Map<OWLDataProperty, ? extends SortedSet<OWLIndividual>> bdNeg) {
+		// the dictionary has to contain all individuals occurring in the
+		// materialization, e.g. also the generic ones created for punning
+		SortedSet<OWLIndividual> dictionary = new TreeSet<>(individuals);
+		classInstancesPos.values().forEach(dictionary::addAll);
+		for (Map<OWLIndividual, SortedSet<OWLIndividual>> mapping : opPos.values()) {
+			for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping.entrySet()) {
+				dictionary.add(entry.getKey());
+				dictionary.addAll(entry.getValue());
+			}
+		}
+
+		id2Individual = dictionary.toArray(new OWLIndividual[dictionary.size()]);
+		individual2Id = new HashMap<>(id2Individual.length * 2);
+		for (int i = 0; i < id2Individual.length; i++) {
+			individual2Id.put(id2Individual[i], i);
+		}
+
+		allIndividuals = toBitSet(individuals);
+
+		for (Entry<OWLClass, ? extends SortedSet<OWLIndividual>> entry : classInstancesPos.entrySet()) {
+			this.classInstancesPos.put(entry.getKey(), toBitSet(entry.getValue()));
+		}
+		if (classInstancesNeg != null) {
+			for (Entry<OWLClass, ? extends SortedSet<OWLIndividual>> entry : classInstancesNeg.entrySet()) {
+				this.classInstancesNeg.put(entry.getKey(), toBitSet(entry.getValue()));
+			}
+		}
+
+		for (Entry<OWLObjectProperty, Map<OWLIndividual, SortedSet<OWLIndividual>>> entry : opPos.entrySet()) {
+			this.opPos.put(entry.getKey(), SuccessorLists.create(this, entry.getValue()));
+		}
+
+		for (Entry<OWLDataProperty, ? extends SortedSet<OWLIndividual>> entry : bdPos.entrySet()) {
+			this.bdPos.put(entry.getKey(), toBitSet(entry.getValue()));
+		}
+		for (Entry<OWLDataProperty, ? extends SortedSet<OWLIndividual>> entry : bdNeg.entrySet()) {
+			this.bdNeg.put(entry.getKey(), toBitSet(entry.getValue()));
+		}
+	}
+
+	/**
+	 * @return the number of individuals in the dictionary
+	 */
+	public int size() {
+		return id2Individual.length;
+	}
+
+	/**
+	 * @param individual the individual
+	 * @return the ID of the individual or -1 if it is unknown
+	 */
+	public int getId(OWLIndividual individual) {
+		Integer id = individual2Id.get(individual);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @param id the ID
+	 * @return the individual with the given ID
+	 */
+	public OWLIndividual getIndividual(int id) {
+		return id2Individual[id];
+	}
+
+	/**
+	 * Converts a set of individuals into a bitset. Individuals not contained in
+	 * the dictionary are ignored.
+	 *
+	 * @param individuals the individuals
+	 * @return the bitset containing the IDs of the individuals
+	 */
+	public BitSet toBitSet(Collection<OWLIndividual> individuals) {
+		BitSet bs = new BitSet(id2Individual.length);
+		for (OWLIndividual ind : individuals) {
+			Integer id = individual2Id.get(ind);
+			if (id != null) {
+				bs.set(id);
+			}
+		}
+		return bs;
+	}
+
+	/**
+	 * Converts a bitset of IDs into a (modifiable) sorted set of individuals.
+	 *
+	 * @param bs the bitset
+	 * @return the individuals
+	 */
+	public SortedSet<OWLIndividual> toIndividuals(BitSet bs) {
+		List<OWLIndividual> list = new ArrayList<>(bs.cardinality());
+		for (int i = bs.nextSetBit(0); i >= 0; i = bs.nextSetBit(i + 1)) {
+			list.add(id2Individual[i]);
+		}
+		// IDs are assigned in sorted order, thus creating the tree set from a
+		// sorted set runs in linear time
+		return new TreeSet<>(ImmutableSortedSet.copyOf(list));
+	}
+
+	/**
+	 * @return the IDs of all individuals
+	 */
+	public BitSet getIndividuals() {
+		return (BitSet) allIndividuals.clone();
+	}
+
+	/**
+	 * @param cls the class
+	 * @return the IDs of the instances of the class
+	 */
+	public BitSet getInstances(OWLClass cls) {
+		BitSet bs = classInstancesPos.get(cls);
+		return bs == null ? new BitSet() : (BitSet) bs.clone();
+	}
+
+	/**
+	 * Returns the instances of the negation of the class. If the negation has
+	 * not been materialized explicitly, default negation is applied.
+	 *
+	 * @param cls the class
+	 * @return the IDs of the instances of the negation of the class
+	 */
+	public BitSet getNegatedInstances(OWLClass cls) {
+		BitSet bs = classInstancesNeg.get(cls);
+		if (bs != null) {
+			return (BitSet) bs.clone();
+		}
+		return complement(classInstancesPos.getOrDefault(cls, new BitSet()));
+	}
+
+	/**
+	 * @param bs the bitset
+	 * @return all individuals not contained in the given bitset
+	 */
+	public BitSet complement(BitSet bs) {
+		BitSet result = getIndividuals();
+		result.andNot(bs);
+		return result;
+	}
+
+	/**
+	 * @param cls the class
+	 * @param individual the individual
+	 * @return whether the individual is an instance of the class
+	 */
+	public boolean hasType(OWLClass cls, OWLIndividual individual) {
+		BitSet bs = classInstancesPos.get(cls);
+		Integer id = individual2Id.get(individual);
+		return bs != null && id != null && bs.get(id);
+	}
+
+	/**
+	 * @param cls the class
+	 * @param individual the individual
+	 * @return whether the individual is an instance of the explicitly
+	 * materialized negation of the class
+	 */
+	public boolean hasNegatedType(OWLClass cls, OWLIndividual individual) {
+		BitSet bs = classInstancesNeg.get(cls);
+		Integer id = individual2Id.get(individual);
+		return bs != null && id != null && bs.get(id);
+	}
+
+	/**
+	 * @param clsA the first class
+	 * @param clsB the second class
+	 * @return whether both classes have instances, but no common instance
+	 */
+	public boolean isDisjoint(OWLClass clsA, OWLClass clsB) {
+		BitSet instancesA = classInstancesPos.getOrDefault(clsA, new BitSet());
+		BitSet instancesB = classInstancesPos.getOrDefault(clsB, new BitSet());
+
+		// trivial case if one of the sets is empty
+		if (instancesA.isEmpty() || instancesB.isEmpty()) {
+			return false;
+		}
+		return !instancesA.intersects(instancesB);
+	}
+
+	/**
+	 * @param dp the boolean data property
+	 * @return the individuals related to <code>true</code>
+	 */
+	public BitSet getTrueDatatypeMembers(OWLDataProperty dp) {
+		BitSet bs = bdPos.get(dp);
+		return bs == null ? new BitSet() : (BitSet) bs.clone();
+	}
+
+	/**
+	 * @param dp the boolean data property
+	 * @return the individuals related to <code>false</code>
+	 */
+	public BitSet getFalseDatatypeMembers(OWLDataProperty dp) {
+		BitSet bs = bdNeg.get(dp);
+		return bs == null ? new BitSet() : (BitSet) bs.clone();
+	}
+
+	/**
+	 * Computes the instances of <code>\exists r.C</code>.
+	 *
+	 * @param property the property r, might be an inverse property
+	 * @param target the instances of the filler C
+	 * @return the instances of the existential restriction
+	 */
+	public BitSet someValuesFrom(OWLObjectPropertyExpression property, BitSet target) {
+		SuccessorLists successors = getSuccessors(property);
+		BitSet result = new BitSet(id2Individual.length);
+		for (int s = successors.subjects.nextSetBit(0); s >= 0; s = successors.subjects.nextSetBit(s + 1)) {
+			for (int i = successors.offsets[s]; i < successors.offsets[s + 1]; i++) {
+				if (target.get(successors.targets[i])) {
+					result.set(s);
+					// once we found an individual, we do not need to check the others
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the instances of <code>\forall r.C</code>, i.e. all individuals
+	 * which do not have an r-filler not in C. Unless the standard semantics is
+	 * used, the individuals also need to have at least one r-filler.
+	 *
+	 * @param property the property r, might be an inverse property
+	 * @param target the instances of the filler C
+	 * @param semantics the semantics of the universal restriction
+	 * @return the instances of the universal restriction
+	 */
+	public BitSet allValuesFrom(OWLObjectPropertyExpression property, BitSet target,
+								ClosedWorldReasoner.ForallSemantics semantics) {
+		SuccessorLists successors = getSuccessors(property);
+		boolean nonEmpty = semantics != ClosedWorldReasoner.ForallSemantics.Standard;
+		// under standard semantics, individuals without fillers are instances
+		BitSet result = nonEmpty ? new BitSet(id2Individual.length) : getIndividuals();
+		for (int s = successors.subjects.nextSetBit(0); s >= 0; s = successors.subjects.nextSetBit(s + 1)) {
+			boolean allFillersInTarget = true;
+			for (int i = successors.offsets[s]; i < successors.offsets[s + 1]; i++) {
+				if (!target.get(successors.targets[i])) {
+					allFillersInTarget = false;
+					break;
+				}
+			}
+			if (!allFillersInTarget) {
+				result.clear(s);
+			} else if (nonEmpty && successors.offsets[s] < successors.offsets[s + 1]) {
+				result.set(s);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the instances of <code>\geq n r.C</code>.
+	 *
+	 * @param property the property r, might be an inverse property
+	 * @param target the instances of the filler C
+	 * @param cardinality the cardinality n
+	 * @return the instances of the min cardinality restriction
+	 */
+	public BitSet minCardinality(OWLObjectPropertyExpression property, BitSet target, int cardinality) {
+		// special case: there are always at least zero fillers
+		if (cardinality <= 0) {
+			return getIndividuals();
+		}
+		SuccessorLists successors = getSuccessors(property);
+		BitSet result = new BitSet(id2Individual.length);
+		for (int s = successors.subjects.nextSetBit(0); s >= 0; s = successors.subjects.nextSetBit(s + 1)) {
+			int from = successors.offsets[s];
+			int to = successors.offsets[s + 1];
+
+			// we do not need to run tests if there are not sufficiently many fillers
+			if (to - from < cardinality) {
+				continue;
+			}
+
+			int nrOfFillers = 0;
+			for (int i = from; i < to; i++) {
+				if (target.get(successors.targets[i])) {
+					nrOfFillers++;
+					if (nrOfFillers == cardinality) {
+						result.set(s);
+						break;
+					}
+				} else if (to - i - 1 < cardinality - nrOfFillers) {
+					// early abort when too many instance checks failed
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the instances of <code>\leq n r.C</code>.
+	 *
+	 * @param property the property r, might be an inverse property
+	 * @param target the instances of the filler C
+	 * @param cardinality the cardinality n
+	 * @return the instances of the max cardinality restriction
+	 */
+	public BitSet maxCardinality(OWLObjectPropertyExpression property, BitSet target, int cardinality) {
+		SuccessorLists successors = getSuccessors(property);
+		// initially all individuals are in the result and we then remove those
+		// with too many fillers
+		BitSet result = getIndividuals();
+		for (int s = successors.subjects.nextSetBit(0); s >= 0; s = successors.subjects.nextSetBit(s + 1)) {
+			int from = successors.offsets[s];
+			int to = successors.offsets[s + 1];
+
+			// we do not need to run tests if there are not sufficiently many fillers
+			if (to - from <= cardinality) {
+				continue;
+			}
+
+			int nrOfFillers = 0;
+			for (int i = from; i < to; i++) {
+				if (target.get(successors.targets[i])) {
+					nrOfFillers++;
+					if (nrOfFillers > cardinality) {
+						result.clear(s);
+						break;
+					}
+				} else if (to - i - 1 <= cardinality - nrOfFillers) {
+					// early abort when there can't be too many fillers anymore
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the instances of <code>\exists r.{a}</code>.
+	 *
+	 * @param property the property r, might be an inverse property
+	 * @param value the individual a
+	 * @return the instances of the value restriction
+	 */
+	public BitSet hasValue(OWLObjectPropertyExpression property, OWLIndividual value) {
+		BitSet result = new BitSet(id2Individual.length);
+		Integer id = individual2Id.get(value);
+		if (id == null) {
+			return result;
+		}
+		// the subjects related to a are exactly the successors of a via the inverse property
+		SuccessorLists inverse = getSuccessors(property.getInverseProperty().getSimplified());
+		for (int i = inverse.offsets[id]; i < inverse.offsets[id + 1]; i++) {
+			result.set(inverse.targets[i]);
+		}
+		return result;
+	}
+
+	private SuccessorLists getSuccessors(OWLObjectPropertyExpression property) {
+		OWLObjectProperty namedProperty = property.getNamedProperty();
+		SuccessorLists successors = opPos.get(namedProperty);
+		if (successors == null) {
+			return SuccessorLists.empty(id2Individual.length);
+		}
+		if (property.isAnonymous()) {
+			SuccessorLists forward = successors;
+			successors = opPosInv.computeIfAbsent(namedProperty, p -> forward.invert());
+		}
+		return successors;
+	}
+
+	/**
+	 * The successors of each individual w.r.t. a single object property in
+	 * compressed sparse row layout: the sorted successor IDs of the individual
+	 * with ID <code>i</code> are stored in
+	 * <code>targets[offsets[i]], ..., targets[offsets[i + 1] - 1]</code>.
+	 */
+	static class SuccessorLists {
+
+		final int[] offsets;
+		final int[] targets;
+		// the IDs of the individuals having at least one successor
+		final BitSet subjects;
+
+		private SuccessorLists(int[] offsets, int[] targets, BitSet subjects) {
+			this.offsets = offsets;
+			this.targets = targets;
+			this.subjects = subjects;
+		}
+
+		static SuccessorLists empty(int nrOfIndividuals) {
+			return new SuccessorLists(new int[nrOfIndividuals + 1], new int[0], new BitSet());
+		}
+
+		static SuccessorLists create(BitSetMaterialization mat, Map<OWLIndividual, SortedSet<OWLIndividual>> mapping) {
+			int n = mat.id2Individual.length;
+			int[] counts = new int[n + 1];
+			int size = 0;
+			for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping.entrySet()) {
+				int s = mat.getId(entry.getKey());
+				counts[s + 1] = entry.getValue().size();
+				size += entry.getValue().size();
+			}
+			int[] offsets = new int[n + 1];
+			for (int i = 0; i < n; i++) {
+				offsets[i + 1] = offsets[i] + counts[i + 1];
+			}
+			int[] targets = new int[size];
+			BitSet subjects = new BitSet(n);
+			for (Entry<OWLIndividual, SortedSet<OWLIndividual>> entry : mapping.entrySet()) {
+				int s = mat.getId(entry.getKey());
+				int pos = offsets[s];
+				// the values are sorted, thus the IDs are sorted as well
+				for (OWLIndividual o : entry.getValue()) {
+					targets[pos++] = mat.getId(o);
+				}
+				if (pos > offsets[s]) {
+					subjects.set(s);
+				}
+			}
+			return new SuccessorLists(offsets, targets, subjects);
+		}
+
+		SuccessorLists invert() {
+			int n = offsets.length - 1;
+			int[] invOffsets = new int[n + 1];
+			for (int target : targets) {
+				invOffsets[target + 1]++;
+			}
+			for (int i = 0; i < n; i++) {
+				invOffsets[i + 1] += invOffsets[i];
+			}
+			int[] invTargets = new int[targets.length];
+			int[] pos = Arrays.copyOf(invOffsets, n);
+			BitSet invSubjects = new BitSet(n);
+			// iterating the subjects in ascending order keeps the inverted lists sorted
+			for (int s = subjects.nextSetBit(0); s >= 0; s = subjects.nextSetBit(s + 1)) {
+				for (int i = offsets[s]; i < offsets[s + 1]; i++) {
+					invTargets[pos[targets[i]]++] = s;
+					invSubjects.set(targets[i]);
+				}
+			}
+			return new SuccessorLists(invOffsets, invTargets, invSubjects);
+		}
+	}
+}
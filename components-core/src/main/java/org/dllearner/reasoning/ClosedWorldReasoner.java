@@ -22,11 +22,13 @@ import com.google.common.collect.Sets.SetView;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.dllearner.core.*;
 import org.dllearner.core.annotations.NoConfigOption;
 import org.dllearner.core.config.ConfigOption;
 import org.dllearner.utilities.MapUtils;
 import org.dllearner.utilities.OWLAPIUtils;
+import org.dllearner.utilities.owl.OWLObjectFunnel;
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormatter;
 import org.semanticweb.owlapi.model.*;
@@ -38,6 +40,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import java.io.*;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 
 /**
  * Reasoner for fast instance checks. It works by completely dematerialising the
@@ -131,11 +138,54 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
     @ConfigOption(defaultValue = "false")
     private boolean materializeExistentialRestrictions = false;
-    @ConfigOption(defaultValue = "true")
-    private boolean useMaterializationCaching = true;
+    @ConfigOption(description = "Whether to store the materialization in a binary snapshot file and to load it from there "
+            + "on the next run with the same knowledge base and settings, instead of computing it again.",
+            defaultValue = "false")
+    private boolean useMaterializationCaching = false;
+    @ConfigOption(description = "The directory of the materialization snapshots.", defaultValue = "cache")
+    private String materializationCacheDirectory = "cache";
     @ConfigOption(defaultValue = "false")
     private boolean handlePunning = false;
+    @ConfigOption(description = "Whether to precompute the negative class extensions in case of default negation. They are "
+            + "derived by set difference from the individuals and the positive extensions, thus no reasoner call is needed.",
+            defaultValue = "true")
     private boolean precomputeNegations = true;
+    @ConfigOption(description = "The number of threads used to materialize the knowledge base. As the underlying OWL "
+            + "reasoner is in general not thread-safe, each thread queries its own instance of it.",
+            defaultValue = "1")
+    private int materializationThreads = 1;
+
+    @ConfigOption(description = "Whether to compute the class and property extensions on first access instead of "
+            + "materializing the whole knowledge base up front. The extensions are kept in a bounded store, and those "
+            + "of the entities reported by the refinement operator are computed in the background. Not supported "
+            + "together with bitset storage, materialization caching, existential restrictions and punning.",
+            defaultValue = "false")
+    private boolean useLazyMaterialization = false;
+    @ConfigOption(description = "The (estimated) maximum number of bytes used by the extensions in lazy materialization mode. "
+            + "If exceeded, the least recently used extensions are evicted and computed again on the next access.",
+            defaultValue = "268435456")
+    private long lazyMaterializationMaxBytes = 256 * 1024 * 1024;
+    // the store of the extensions, only used if useLazyMaterialization is enabled
+    private LazyMaterialization lazyMaterialization;
+
+    @ConfigOption(description = "Whether to store the materialized class extensions and property assertions as bitsets "
+            + "over dense individual IDs. This speeds up retrieval and reduces memory consumption on large ABoxes.",
+            defaultValue = "false")
+    private boolean useBitSetStorage = false;
+    // the bitset based storage, only used if useBitSetStorage is enabled
+    private BitSetMaterialization bitSetMaterialization;
+
+    @ConfigOption(description = "Whether to cache the instances of complex sub-expressions during retrieval, "
+            + "such that sub-expressions shared by several class expressions are computed only once.",
+            defaultValue = "false")
+    private boolean useRetrievalCache = false;
+    @ConfigOption(description = "The (estimated) maximum number of bytes used by the retrieval cache. "
+            + "If exceeded, the least recently used entries are evicted.",
+            defaultValue = "104857600")
+    private long retrievalCacheMaxBytes = 100 * 1024 * 1024;
+    // the retrieval caches, depending on the storage mode only one of them is used
+    private RetrievalCache<SortedSet<OWLIndividual>> sortedSetRetrievalCache;
+    private RetrievalCache<BitSet> bitSetRetrievalCache;
 
     public ClosedWorldReasoner() {
     }
@@ -204,6 +254,58 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         this.baseReasoner = baseReasoner;
     }
 
+    /**
+     * Creates a snapshot of an initialised reasoner. The snapshot shares the
+     * materialization, the hierarchies and the retrieval cache of the given
+     * reasoner without computing them again, but has its own statistics. Since
+     * the materialized data is not modified after initialisation, snapshots of
+     * the same reasoner can be used by different threads; the base reasoner is
+     * switched to synchronized mode for the remaining (schema) queries.
+     *
+     * @param reasoner the initialised reasoner
+     */
+    public ClosedWorldReasoner(ClosedWorldReasoner reasoner) {
+        super(reasoner);
+        if (reasoner.individuals == null) {
+            throw new IllegalStateException("The reasoner has to be initialised before creating a snapshot.");
+        }
+        reasoner.setSynchronized();
+        this.baseReasoner = reasoner.baseReasoner;
+
+        this.objectProperties = reasoner.objectProperties;
+        this.individuals = reasoner.individuals;
+        this.classInstancesPos = reasoner.classInstancesPos;
+        this.classInstancesNeg = reasoner.classInstancesNeg;
+        this.opPos = reasoner.opPos;
+        this.dpPos = reasoner.dpPos;
+        this.bdPos = reasoner.bdPos;
+        this.bdNeg = reasoner.bdNeg;
+        this.dd = reasoner.dd;
+        this.id = reasoner.id;
+        this.sd = reasoner.sd;
+        this.numericValueMappings = reasoner.numericValueMappings;
+
+        this.defaultNegation = reasoner.defaultNegation;
+        this.forAllSemantics = reasoner.forAllSemantics;
+        this.disjointnessSemantics = reasoner.disjointnessSemantics;
+        this.materializeExistentialRestrictions = reasoner.materializeExistentialRestrictions;
+        this.useMaterializationCaching = reasoner.useMaterializationCaching;
+        this.materializationCacheDirectory = reasoner.materializationCacheDirectory;
+        this.handlePunning = reasoner.handlePunning;
+        this.precomputeNegations = reasoner.precomputeNegations;
+        this.materializationThreads = reasoner.materializationThreads;
+        this.useLazyMaterialization = reasoner.useLazyMaterialization;
+        this.lazyMaterializationMaxBytes = reasoner.lazyMaterializationMaxBytes;
+        this.lazyMaterialization = reasoner.lazyMaterialization;
+
+        this.useBitSetStorage = reasoner.useBitSetStorage;
+        this.bitSetMaterialization = reasoner.bitSetMaterialization;
+        this.useRetrievalCache = reasoner.useRetrievalCache;
+        this.retrievalCacheMaxBytes = reasoner.retrievalCacheMaxBytes;
+        this.sortedSetRetrievalCache = reasoner.sortedSetRetrievalCache;
+        this.bitSetRetrievalCache = reasoner.bitSetRetrievalCache;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -216,29 +318,49 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             baseReasoner.init();
         }
 
-//		loadOrDematerialize();
-        materialize();
+        loadOrDematerialize();
+
+        if (useBitSetStorage) {
+            convertToBitSetStorage();
+        }
+
+        if (useRetrievalCache) {
+            if (bitSetMaterialization != null) {
+                // a bitset needs one bit per individual
+                bitSetRetrievalCache = new RetrievalCache<>(retrievalCacheMaxBytes,
+                        bs -> bs.size() / 8 + 32,
+                        bs -> (BitSet) bs.clone());
+            } else {
+                // roughly the size of a tree map entry per individual, the individuals itself are shared
+                sortedSetRetrievalCache = new RetrievalCache<>(retrievalCacheMaxBytes,
+                        set -> set.size() * 40 + 48,
+                        TreeSet::new);
+            }
+        }
     }
 
-    private void loadOrDematerialize() {
+    private void loadOrDematerialize() throws ComponentInitException {
+        if (useLazyMaterialization) {
+            if (useBitSetStorage || useMaterializationCaching || materializeExistentialRestrictions || handlePunning) {
+                logger.warn("Lazy materialization is not supported together with bitset storage, materialization caching, "
+                        + "existential restrictions or punning. Materializing the whole knowledge base instead.");
+            } else {
+                initLazyMaterialization();
+                return;
+            }
+        }
         if (useMaterializationCaching) {
-            File cacheDir = new File("cache");
+            long fingerprint = computeMaterializationFingerprint();
+            File cacheDir = new File(materializationCacheDirectory);
             cacheDir.mkdirs();
-            HashFunction hf = Hashing.md5();
-            Hasher hasher = hf.newHasher();
-            hasher.putBoolean(materializeExistentialRestrictions);
-            hasher.putBoolean(handlePunning);
-            for (OWLOntology ont : Collections.singleton(baseReasoner.getOntology())) {
-                hasher.putInt(ont.getLogicalAxioms().hashCode());
-                hasher.putInt(ont.getAxioms().hashCode());
-            }
-            String filename = hasher.hash().toString() + ".obj";
+            File cacheFile = new File(cacheDir, String.format("%016x.mat", fingerprint));
 
-            File cacheFile = new File(cacheDir, filename);
             if (cacheFile.exists()) {
-                logger.debug("Loading materialization from disk...");
-                try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(cacheFile))) {
-                    Materialization mat = (Materialization) ois.readObject();
+                logger.info("Loading materialization from " + cacheFile + " ...");
+                long startTime = System.currentTimeMillis();
+                try {
+                    Materialization mat = MaterializationSnapshot.read(cacheFile, fingerprint, df);
+                    individuals = mat.individuals;
                     classInstancesPos = mat.classInstancesPos;
                     classInstancesNeg = mat.classInstancesNeg;
                     opPos = mat.opPos;
@@ -248,34 +370,70 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
                     dd = mat.dd;
                     id = mat.id;
                     sd = mat.sd;
-                } catch (ClassNotFoundException | IOException e) {
-                    e.printStackTrace();
-                }
-                logger.debug("done.");
-            } else {
-                materialize();
-                Materialization mat = new Materialization();
-                mat.classInstancesPos = classInstancesPos;
-                mat.classInstancesNeg = classInstancesNeg;
-                mat.opPos = opPos;
-                mat.dpPos = dpPos;
-                mat.bdPos = bdPos;
-                mat.bdNeg = bdNeg;
-                mat.dd = dd;
-                mat.id = id;
-                mat.sd = sd;
-                try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(cacheFile))) {
-                    oos.writeObject(mat);
+
+                    objectProperties = baseReasoner.getObjectProperties();
+                    if (opPos.containsKey(OWLPunningDetector.punningProperty)) {
+                        objectProperties = new TreeSet<>(objectProperties);
+                        objectProperties.add(OWLPunningDetector.punningProperty);
+                        objectProperties = Collections.unmodifiableSet(objectProperties);
+                    }
+                    logger.info("...materialization loaded in " + (System.currentTimeMillis() - startTime) + " ms.");
+                    return;
                 } catch (IOException e) {
-                    e.printStackTrace();
+                    logger.warn("Could not load materialization, computing it again.", e);
                 }
             }
+
+            materialize();
+            Materialization mat = new Materialization();
+            mat.individuals = individuals;
+            mat.classInstancesPos = classInstancesPos;
+            mat.classInstancesNeg = classInstancesNeg;
+            mat.opPos = opPos;
+            mat.dpPos = dpPos;
+            mat.bdPos = bdPos;
+            mat.bdNeg = bdNeg;
+            mat.dd = dd;
+            mat.id = id;
+            mat.sd = sd;
+            try {
+                MaterializationSnapshot.write(cacheFile, mat, fingerprint);
+            } catch (IOException e) {
+                logger.warn("Could not write materialization to " + cacheFile, e);
+            }
         } else {
             materialize();
         }
     }
 
-    private void materialize() {
+    /**
+     * Computes a fingerprint of the ontology and of the settings the materialization
+     * depends on. The hashes of the axioms are combined independently of their order.
+     * The axioms are hashed structurally, i.e. with full IRIs and independent of the
+     * configured renderer.
+     */
+    private long computeMaterializationFingerprint() {
+        HashFunction hf = Hashing.murmur3_128();
+        long axiomsHash = 0;
+        int nrOfAxioms = 0;
+        for (OWLOntology ont : baseReasoner.getOntology().getImportsClosure()) {
+            for (OWLAxiom axiom : ont.getAxioms()) {
+                axiomsHash += hf.hashObject(axiom, OWLObjectFunnel.INSTANCE).asLong();
+                nrOfAxioms++;
+            }
+        }
+        Hasher hasher = hf.newHasher();
+        hasher.putInt(MaterializationSnapshot.VERSION);
+        hasher.putBoolean(materializeExistentialRestrictions);
+        hasher.putBoolean(handlePunning);
+        hasher.putBoolean(isDefaultNegation());
+        hasher.putBoolean(precomputeNegations);
+        hasher.putInt(nrOfAxioms);
+        hasher.putLong(axiomsHash);
+        return hasher.hash().asLong();
+    }
+
+    private void materialize() throws ComponentInitException {
         logger.info("Materializing TBox...");
         long dematStartTime = System.currentTimeMillis();
 
@@ -283,61 +441,66 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
         individuals = (TreeSet<OWLIndividual>) baseReasoner.getIndividuals();
 
-        logger.debug("materialising concepts");
+        // one task per entity, each of them queries the given reasoner and stores the result
+        List<Consumer<OWLAPIReasoner>> tasks = new ArrayList<>();
+
+        // materialize the class assertions
         for (OWLClass cls : baseReasoner.getClasses()) {
             if (!cls.getIRI().isReservedVocabulary()) {
-                SortedSet<OWLIndividual> pos = baseReasoner.getIndividuals(cls);
-                classInstancesPos.put(cls, (TreeSet<OWLIndividual>) pos);
-
-                if (isDefaultNegation()) {
-                    /*
-                     *  we should avoid this operation because it returns a new
-                     *  set and thus could lead to memory issues
-                     *  Instead, we could later answer '\neg A(x)' by just check
-                     *  for A(x) and return the inverse.
-                     */
-                    if (precomputeNegations) {
-                        classInstancesNeg.put(cls, new TreeSet<>(Sets.difference(individuals, pos)));
+                tasks.add(reasoner -> {
+                    SortedSet<OWLIndividual> pos = reasoner.getIndividuals(cls);
+                    putSynchronized(classInstancesPos, cls, (TreeSet<OWLIndividual>) pos);
+
+                    if (isDefaultNegation()) {
+                        /*
+                         *  we should avoid this operation because it returns a new
+                         *  set and thus could lead to memory issues
+                         *  Instead, we could later answer '\neg A(x)' by just check
+                         *  for A(x) and return the inverse.
+                         */
+                        if (precomputeNegations) {
+                            putSynchronized(classInstancesNeg, cls, new TreeSet<>(Sets.difference(individuals, pos)));
+                        }
+                    } else {
+                        OWLObjectComplementOf negatedClass = df.getOWLObjectComplementOf(cls);
+                        putSynchronized(classInstancesNeg, cls, (TreeSet<OWLIndividual>) reasoner.getIndividuals(negatedClass));
                     }
-                } else {
-                    OWLObjectComplementOf negatedClass = df.getOWLObjectComplementOf(cls);
-                    classInstancesNeg.put(cls, (TreeSet<OWLIndividual>) baseReasoner.getIndividuals(negatedClass));
-                }
+                });
             } else {
-                System.err.println(cls);
+                logger.debug("skipping class of the reserved vocabulary: " + cls);
             }
         }
 
         // materialize the object property facts
-        logger.debug("materialising object properties ...");
         for (OWLObjectProperty objProp : baseReasoner.getObjectProperties()) {
-            opPos.put(objProp, baseReasoner.getPropertyMembers(objProp));
+            tasks.add(reasoner -> putSynchronized(opPos, objProp, reasoner.getPropertyMembers(objProp)));
         }
-        logger.debug("finished materialising object properties.");
 
         // materialize the data property facts
-        logger.debug("materialising datatype properties");
         for (OWLDataProperty dp : baseReasoner.getDatatypeProperties()) {
-            dpPos.put(dp, baseReasoner.getDatatypeMembers(dp));
+            tasks.add(reasoner -> putSynchronized(dpPos, dp, reasoner.getDatatypeMembers(dp)));
         }
 
         for (OWLDataProperty dp : baseReasoner.getBooleanDatatypeProperties()) {
-            bdPos.put(dp, (TreeSet<OWLIndividual>) baseReasoner.getTrueDatatypeMembers(dp));
-            bdNeg.put(dp, (TreeSet<OWLIndividual>) baseReasoner.getFalseDatatypeMembers(dp));
+            tasks.add(reasoner -> {
+                putSynchronized(bdPos, dp, (TreeSet<OWLIndividual>) reasoner.getTrueDatatypeMembers(dp));
+                putSynchronized(bdNeg, dp, (TreeSet<OWLIndividual>) reasoner.getFalseDatatypeMembers(dp));
+            });
         }
 
         for (OWLDataProperty dp : baseReasoner.getIntDatatypeProperties()) {
-            id.put(dp, baseReasoner.getIntDatatypeMembers(dp));
+            tasks.add(reasoner -> putSynchronized(id, dp, reasoner.getIntDatatypeMembers(dp)));
         }
 
         for (OWLDataProperty dp : baseReasoner.getDoubleDatatypeProperties()) {
-            dd.put(dp, baseReasoner.getDoubleDatatypeMembers(dp));
+            tasks.add(reasoner -> putSynchronized(dd, dp, reasoner.getDoubleDatatypeMembers(dp)));
         }
 
         for (OWLDataProperty dp : baseReasoner.getStringDatatypeProperties()) {
-            sd.put(dp, baseReasoner.getStringDatatypeMembers(dp));
+            tasks.add(reasoner -> putSynchronized(sd, dp, reasoner.getStringDatatypeMembers(dp)));
         }
-        logger.debug("finished materialising data properties.");
+
+        runMaterializationTasks(tasks);
 
         if (materializeExistentialRestrictions) {
             ExistentialRestrictionMaterialization materialization = new ExistentialRestrictionMaterialization(baseReasoner.getReasoner().getRootOntology());
@@ -390,6 +553,192 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         logger.info("...TBox materialised in " + dematDuration + " ms.");
     }
 
+    private void initLazyMaterialization() {
+        logger.info("Using lazy materialization, the extensions are computed on demand.");
+
+        objectProperties = baseReasoner.getObjectProperties();
+
+        individuals = (TreeSet<OWLIndividual>) baseReasoner.getIndividuals();
+
+        // the extensions are computed by whichever thread accesses them first
+        baseReasoner.setSynchronized();
+        if (lazyMaterialization != null) {
+            lazyMaterialization.close();
+        }
+        lazyMaterialization = new LazyMaterialization(lazyMaterializationMaxBytes, baseReasoner, baseReasoner::createWorker);
+
+        Set<OWLClass> classes = baseReasoner.getClasses();
+        classInstancesPos = lazyMaterialization.newExtensionMap(classes,
+                (reasoner, cls) -> (TreeSet<OWLIndividual>) reasoner.getIndividuals(cls));
+        if (isDefaultNegation()) {
+            if (precomputeNegations) {
+                classInstancesNeg = lazyMaterialization.newExtensionMap(classes,
+                        (reasoner, cls) -> new TreeSet<>(Sets.difference(individuals, classInstancesPos.get(cls))));
+            }
+        } else {
+            classInstancesNeg = lazyMaterialization.newExtensionMap(classes,
+                    (reasoner, cls) -> (TreeSet<OWLIndividual>) reasoner.getIndividuals(df.getOWLObjectComplementOf(cls)));
+        }
+
+        opPos = lazyMaterialization.newExtensionMap(baseReasoner.getObjectProperties(),
+                (reasoner, p) -> reasoner.getPropertyMembers(p));
+        dpPos = lazyMaterialization.newExtensionMap(baseReasoner.getDatatypeProperties(),
+                (reasoner, p) -> reasoner.getDatatypeMembers(p));
+        bdPos = lazyMaterialization.newExtensionMap(baseReasoner.getBooleanDatatypeProperties(),
+                (reasoner, p) -> (TreeSet<OWLIndividual>) reasoner.getTrueDatatypeMembers(p));
+        bdNeg = lazyMaterialization.newExtensionMap(baseReasoner.getBooleanDatatypeProperties(),
+                (reasoner, p) -> (TreeSet<OWLIndividual>) reasoner.getFalseDatatypeMembers(p));
+        id = lazyMaterialization.newExtensionMap(baseReasoner.getIntDatatypeProperties(),
+                (reasoner, p) -> reasoner.getIntDatatypeMembers(p));
+        dd = lazyMaterialization.newExtensionMap(baseReasoner.getDoubleDatatypeProperties(),
+                (reasoner, p) -> reasoner.getDoubleDatatypeMembers(p));
+        sd = lazyMaterialization.newExtensionMap(baseReasoner.getStringDatatypeProperties(),
+                (reasoner, p) -> reasoner.getStringDatatypeMembers(p));
+    }
+
+    /**
+     * Computes the extensions of the given entities in the background, such that they are available when
+     * accessed later on. Does nothing unless lazy materialization is enabled.
+     *
+     * @param entities the classes, object properties and data properties
+     */
+    public void prefetch(Collection<? extends OWLEntity> entities) {
+        if (lazyMaterialization == null) {
+            return;
+        }
+        List<OWLClass> classes = new ArrayList<>();
+        List<OWLObjectProperty> objectProps = new ArrayList<>();
+        List<OWLDataProperty> dataProps = new ArrayList<>();
+        for (OWLEntity entity : entities) {
+            if (entity.isOWLClass()) {
+                classes.add(entity.asOWLClass());
+            } else if (entity.isOWLObjectProperty()) {
+                objectProps.add(entity.asOWLObjectProperty());
+            } else if (entity.isOWLDataProperty()) {
+                dataProps.add(entity.asOWLDataProperty());
+            }
+        }
+        prefetch(classInstancesPos, classes);
+        prefetch(classInstancesNeg, classes);
+        prefetch(opPos, objectProps);
+        for (Map<OWLDataProperty, ?> map : Arrays.asList(dpPos, bdPos, bdNeg, id, dd, sd)) {
+            prefetch(map, dataProps);
+        }
+    }
+
+    private <K> void prefetch(Map<K, ?> map, Collection<K> keys) {
+        if (!keys.isEmpty() && map instanceof LazyMaterialization.ExtensionMap) {
+            lazyMaterialization.prefetch((LazyMaterialization.ExtensionMap<K, ?>) map, keys);
+        }
+    }
+
+    /**
+     * Runs the materialization tasks, either sequentially on the base reasoner or, if more than one thread is
+     * configured, in parallel with one worker of the base reasoner per thread.
+     */
+    private void runMaterializationTasks(List<Consumer<OWLAPIReasoner>> tasks) throws ComponentInitException {
+        MaterializationProgress progress = new MaterializationProgress(tasks.size());
+
+        int nrOfThreads = Math.min(materializationThreads, tasks.size());
+        if (nrOfThreads <= 1) {
+            for (Consumer<OWLAPIReasoner> task : tasks) {
+                task.accept(baseReasoner);
+                progress.step();
+            }
+            return;
+        }
+
+        logger.debug("materialising with " + nrOfThreads + " threads");
+        // all created workers, disposed at the end even if they are still taken by a failed task
+        List<OWLAPIReasoner> createdWorkers = new ArrayList<>(nrOfThreads);
+        BlockingQueue<OWLAPIReasoner> workers = new ArrayBlockingQueue<>(nrOfThreads);
+        ExecutorService executor = Executors.newFixedThreadPool(nrOfThreads,
+                new ThreadFactoryBuilder().setNameFormat("materialization-%d").setDaemon(true).build());
+        try {
+            for (int i = 0; i < nrOfThreads; i++) {
+                OWLAPIReasoner worker = baseReasoner.createWorker();
+                createdWorkers.add(worker);
+                workers.add(worker);
+            }
+
+            List<Future<?>> futures = new ArrayList<>(tasks.size());
+            for (Consumer<OWLAPIReasoner> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    OWLAPIReasoner worker = workers.take();
+                    try {
+                        task.accept(worker);
+                    } finally {
+                        workers.add(worker);
+                    }
+                    progress.step();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ComponentInitException("Materialization has been interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new ComponentInitException("Materialization failed.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            for (OWLAPIReasoner worker : createdWorkers) {
+                baseReasoner.disposeWorker(worker);
+            }
+        }
+    }
+
+    private static <K, V> void putSynchronized(Map<K, V> map, K key, V value) {
+        synchronized (map) {
+            map.put(key, value);
+        }
+    }
+
+    /**
+     * Reports the number of materialized entities and the estimated remaining time
+     * at most every {@link #REPORT_INTERVAL} ms.
+     */
+    private static class MaterializationProgress {
+
+        private static final long REPORT_INTERVAL = 10000;
+
+        private final int total;
+        private final long startTime = System.currentTimeMillis();
+        private final AtomicInteger finished = new AtomicInteger();
+        private final AtomicLong lastReport = new AtomicLong(startTime);
+
+        MaterializationProgress(int total) {
+            this.total = total;
+        }
+
+        void step() {
+            int done = finished.incrementAndGet();
+            long now = System.currentTimeMillis();
+            long last = lastReport.get();
+            if (now - last >= REPORT_INTERVAL && lastReport.compareAndSet(last, now)) {
+                long elapsed = now - startTime;
+                long remaining = elapsed * (total - done) / done;
+                logger.info(String.format("...materialised %d/%d entities (%d%%) in %d s, ETA %d s",
+                        done, total, 100 * done / total, elapsed / 1000, remaining / 1000));
+            }
+        }
+    }
+
+    private void convertToBitSetStorage() {
+        logger.debug("converting materialization to bitsets ...");
+        bitSetMaterialization = new BitSetMaterialization(individuals,
+                classInstancesPos, isDefaultNegation() ? null : classInstancesNeg,
+                opPos, bdPos, bdNeg);
+        // the sorted sets are not needed anymore, thus we free the memory
+        classInstancesPos = new TreeMap<>();
+        classInstancesNeg = new TreeMap<>();
+        bdPos = new TreeMap<>();
+        bdNeg = new TreeMap<>();
+        logger.debug("finished converting materialization to bitsets.");
+    }
+
     private void fill(SortedSet<OWLIndividual> individuals, OWLClassExpression d) {
         if (!d.isAnonymous()) {
             classInstancesPos.get(d.asOWLClass()).addAll(individuals);
@@ -422,6 +771,33 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         }
     }
 
+    /**
+     * Streams instance checks from a single retrieval of the class expression if
+     * the bitset storage is enabled, so that complex class expressions are not
+     * decomposed again for each individual. The retrieval applies the same
+     * semantics as the single instance checks, in particular for \forall
+     * restrictions.
+     */
+    @Override
+    protected int hasTypeImpl(OWLClassExpression description, Iterable<OWLIndividual> individuals,
+            BiPredicate<OWLIndividual, Boolean> consumer) throws ReasoningMethodUnsupportedException {
+        if (bitSetMaterialization == null || !description.isAnonymous()) {
+            return super.hasTypeImpl(description, individuals, consumer);
+        }
+
+        BitSet instances = getIndividualsBitSet(description);
+        int nrOfChecks = 0;
+        for (OWLIndividual individual : individuals) {
+            nrOfChecks++;
+            int id = bitSetMaterialization.getId(individual);
+            boolean result = id >= 0 ? instances.get(id) : hasTypeImpl(description, individual);
+            if (!consumer.test(individual, result)) {
+                break;
+            }
+        }
+        return nrOfChecks;
+    }
+
     @Override
     public boolean hasTypeImpl(OWLClassExpression description, OWLIndividual individual)
             throws ReasoningMethodUnsupportedException {
@@ -431,10 +807,20 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         } else if (description.isOWLNothing()) {
             return false;
         } else if (!description.isAnonymous()) {
+            if (bitSetMaterialization != null) {
+                return bitSetMaterialization.hasType(description.asOWLClass(), individual);
+            }
             return classInstancesPos.get(description.asOWLClass()).contains(individual);
         } else if (description instanceof OWLObjectComplementOf) {
             OWLClassExpression operand = ((OWLObjectComplementOf) description).getOperand();
             if (!operand.isAnonymous()) {
+                if (bitSetMaterialization != null) {
+                    if (isDefaultNegation()) {
+                        return !bitSetMaterialization.hasType(operand.asOWLClass(), individual);
+                    } else {
+                        return bitSetMaterialization.hasNegatedType(operand.asOWLClass(), individual);
+                    }
+                }
                 if (isDefaultNegation()) {
                     return !classInstancesPos.get(operand).contains(individual);
                 } else {
@@ -547,7 +933,7 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
                 SortedSet<OWLIndividual> values = opPos.get(property).get(individual);
 
                 // if there is no value, by standard semantics we have to return TRUE
-                if (values == null) {
+                if (values == null || values.isEmpty()) {
                     return forAllSemantics == ForallSemantics.Standard;
                 }
 
@@ -903,7 +1289,13 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
     }
 
     public SortedSet<OWLIndividual> getIndividualsImplStandard(OWLClassExpression concept) {
-        if (!concept.isAnonymous()) {
+        if (bitSetMaterialization != null && !concept.isAnonymous()) {
+            return bitSetMaterialization.toIndividuals(bitSetMaterialization.getInstances(concept.asOWLClass()));
+        } else if (bitSetMaterialization != null && concept instanceof OWLObjectComplementOf
+                && !((OWLObjectComplementOf) concept).getOperand().isAnonymous()) {
+            return bitSetMaterialization.toIndividuals(
+                    bitSetMaterialization.getNegatedInstances(((OWLObjectComplementOf) concept).getOperand().asOWLClass()));
+        } else if (!concept.isAnonymous()) {
             return classInstancesPos.get(concept);
         } else if (concept instanceof OWLObjectComplementOf) {
             OWLClassExpression operand = ((OWLObjectComplementOf) concept).getOperand();
@@ -922,8 +1314,139 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         return inds;
     }
 
-    @SuppressWarnings("unchecked")
     public SortedSet<OWLIndividual> getIndividualsImplFast(OWLClassExpression description)
+            throws ReasoningMethodUnsupportedException {
+        if (bitSetMaterialization != null) {
+            return bitSetMaterialization.toIndividuals(getIndividualsBitSet(description));
+        }
+        if (sortedSetRetrievalCache != null) {
+            description = RetrievalCache.normalize(description);
+        }
+        return retrieveSortedSet(description);
+    }
+
+    // retrieval of (normalized) sub-expressions, uses the cache if enabled
+    private SortedSet<OWLIndividual> retrieveSortedSet(OWLClassExpression description)
+            throws ReasoningMethodUnsupportedException {
+        // the extensions of named classes are already stored
+        if (sortedSetRetrievalCache == null || !description.isAnonymous()) {
+            return getIndividualsImplSortedSets(description);
+        }
+        SortedSet<OWLIndividual> instances = sortedSetRetrievalCache.get(description);
+        if (instances == null) {
+            instances = getIndividualsImplSortedSets(description);
+            sortedSetRetrievalCache.put(description, instances);
+        }
+        return instances;
+    }
+
+    // retrieval of (normalized) sub-expressions, uses the cache if enabled
+    private BitSet retrieveBitSet(OWLClassExpression description)
+            throws ReasoningMethodUnsupportedException {
+        // the extensions of named classes are already stored
+        if (bitSetRetrievalCache == null || !description.isAnonymous()) {
+            return computeBitSet(description);
+        }
+        BitSet instances = bitSetRetrievalCache.get(description);
+        if (instances == null) {
+            instances = computeBitSet(description);
+            bitSetRetrievalCache.put(description, instances);
+        }
+        return instances;
+    }
+
+    /**
+     * Retrieval based on the bitset storage, i.e. all set operations are done
+     * on the individual IDs. Only applicable if the bitset storage is enabled.
+     *
+     * @param description the class expression
+     * @return the IDs of the instances of the class expression
+     * @throws ReasoningMethodUnsupportedException if retrieval is not supported
+     * for the class expression
+     */
+    public BitSet getIndividualsBitSet(OWLClassExpression description)
+            throws ReasoningMethodUnsupportedException {
+        if (bitSetRetrievalCache != null) {
+            description = RetrievalCache.normalize(description);
+        }
+        return retrieveBitSet(description);
+    }
+
+    private BitSet computeBitSet(OWLClassExpression description)
+            throws ReasoningMethodUnsupportedException {
+        // policy: returned sets are copies, i.e. can be modified
+        if (description.isOWLThing()) {
+            return bitSetMaterialization.getIndividuals();
+        } else if (description.isOWLNothing()) {
+            return new BitSet();
+        } else if (!description.isAnonymous()) {
+            return bitSetMaterialization.getInstances(description.asOWLClass());
+        } else if (description instanceof OWLObjectComplementOf) {
+            OWLClassExpression operand = ((OWLObjectComplementOf) description).getOperand();
+            if (!operand.isAnonymous()) {
+                // falls back to default negation if the negation is not materialized
+                return bitSetMaterialization.getNegatedInstances(operand.asOWLClass());
+            }
+            // implement retrieval as default negation
+            return bitSetMaterialization.complement(retrieveBitSet(operand));
+        } else if (description instanceof OWLObjectUnionOf) {
+            BitSet ret = new BitSet();
+            for (OWLClassExpression operand : ((OWLObjectUnionOf) description).getOperands()) {
+                ret.or(retrieveBitSet(operand));
+            }
+            return ret;
+        } else if (description instanceof OWLObjectIntersectionOf) {
+            Iterator<OWLClassExpression> iterator = ((OWLObjectIntersectionOf) description).getOperands().iterator();
+            // copy instances of first element and then subtract all others
+            BitSet ret = retrieveBitSet(iterator.next());
+            while (iterator.hasNext() && !ret.isEmpty()) {
+                ret.and(retrieveBitSet(iterator.next()));
+            }
+            return ret;
+        } else if (description instanceof OWLObjectSomeValuesFrom) {
+            OWLObjectPropertyExpression property = ((OWLObjectSomeValuesFrom) description).getProperty();
+            OWLClassExpression filler = ((OWLObjectSomeValuesFrom) description).getFiller();
+            return bitSetMaterialization.someValuesFrom(property, retrieveBitSet(filler));
+        } else if (description instanceof OWLObjectAllValuesFrom) {
+            OWLObjectPropertyExpression property = ((OWLObjectAllValuesFrom) description).getProperty();
+            OWLClassExpression filler = ((OWLObjectAllValuesFrom) description).getFiller();
+            // \forall r.\top \equiv \top under all semantics, as in hasTypeImpl
+            if (filler.isOWLThing()) {
+                return bitSetMaterialization.getIndividuals();
+            }
+            return bitSetMaterialization.allValuesFrom(property, retrieveBitSet(filler), forAllSemantics);
+        } else if (description instanceof OWLObjectMinCardinality) {
+            OWLObjectPropertyExpression property = ((OWLObjectMinCardinality) description).getProperty();
+            OWLClassExpression filler = ((OWLObjectMinCardinality) description).getFiller();
+            int cardinality = ((OWLObjectMinCardinality) description).getCardinality();
+            return bitSetMaterialization.minCardinality(property, retrieveBitSet(filler), cardinality);
+        } else if (description instanceof OWLObjectMaxCardinality) {
+            OWLObjectPropertyExpression property = ((OWLObjectMaxCardinality) description).getProperty();
+            OWLClassExpression filler = ((OWLObjectMaxCardinality) description).getFiller();
+            int cardinality = ((OWLObjectMaxCardinality) description).getCardinality();
+            return bitSetMaterialization.maxCardinality(property, retrieveBitSet(filler), cardinality);
+        } else if (description instanceof OWLObjectHasValue) {
+            OWLObjectPropertyExpression property = ((OWLObjectHasValue) description).getProperty();
+            OWLIndividual value = ((OWLObjectHasValue) description).getFiller();
+            return bitSetMaterialization.hasValue(property, value);
+        } else if (description instanceof OWLDataHasValue
+                && ((OWLDataHasValue) description).getFiller().isBoolean()
+                && baseReasoner.getBooleanDatatypeProperties().contains(((OWLDataHasValue) description).getProperty())) {
+            OWLDataProperty property = ((OWLDataHasValue) description).getProperty().asOWLDataProperty();
+            return ((OWLDataHasValue) description).getFiller().parseBoolean()
+                    ? bitSetMaterialization.getTrueDatatypeMembers(property)
+                    : bitSetMaterialization.getFalseDatatypeMembers(property);
+        } else if (description instanceof OWLObjectOneOf) {
+            return bitSetMaterialization.toBitSet(((OWLObjectOneOf) description).getIndividuals());
+        }
+
+        // data property restrictions do not have nested class expressions,
+        // thus we can use the retrieval based on sorted sets
+        return bitSetMaterialization.toBitSet(getIndividualsImplSortedSets(description));
+    }
+
+    @SuppressWarnings("unchecked")
+    private SortedSet<OWLIndividual> getIndividualsImplSortedSets(OWLClassExpression description)
             throws ReasoningMethodUnsupportedException {
 		// policy: returned sets are clones, i.e. can be modified
         // (of course we only have to clone the leafs of a class OWLClassExpression tree)
@@ -951,19 +1474,19 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
                 }
             }
             // implement retrieval as default negation
-            return new TreeSet<>(Sets.difference(individuals, getIndividualsImpl(operand)));
+            return new TreeSet<>(Sets.difference(individuals, retrieveSortedSet(operand)));
         } else if (description instanceof OWLObjectUnionOf) {
             SortedSet<OWLIndividual> ret = new TreeSet<>();
             for (OWLClassExpression operand : ((OWLObjectUnionOf) description).getOperands()) {
-                ret.addAll(getIndividualsImpl(operand));
+                ret.addAll(retrieveSortedSet(operand));
             }
             return ret;
         } else if (description instanceof OWLObjectIntersectionOf) {
             Iterator<OWLClassExpression> iterator = ((OWLObjectIntersectionOf) description).getOperands().iterator();
             // copy instances of first element and then subtract all others
-            SortedSet<OWLIndividual> ret = getIndividualsImpl(iterator.next());
+            SortedSet<OWLIndividual> ret = retrieveSortedSet(iterator.next());
             while (iterator.hasNext()) {
-                ret.retainAll(getIndividualsImpl(iterator.next()));
+                ret.retainAll(retrieveSortedSet(iterator.next()));
             }
             return ret;
         } else if (description instanceof OWLObjectSomeValuesFrom) {
@@ -973,7 +1496,7 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             OWLClassExpression filler = ((OWLObjectSomeValuesFrom) description).getFiller();
 
             //get instances of filler concept
-            SortedSet<OWLIndividual> targetSet = getIndividualsImpl(filler);
+            SortedSet<OWLIndividual> targetSet = retrieveSortedSet(filler);
 
             // the mapping of instances related by r
             Map<OWLIndividual, ? extends Collection<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
@@ -1016,8 +1539,13 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             OWLObjectPropertyExpression property = ((OWLObjectAllValuesFrom) description).getProperty();
             OWLClassExpression filler = ((OWLObjectAllValuesFrom) description).getFiller();
 
+            // \forall r.\top \equiv \top under all semantics, as in hasTypeImpl
+            if (filler.isOWLThing()) {
+                return (TreeSet<OWLIndividual>) individuals.clone();
+            }
+
             // get instances of filler concept
-            SortedSet<OWLIndividual> targetSet = getIndividualsImpl(filler);
+            SortedSet<OWLIndividual> targetSet = retrieveSortedSet(filler);
 
             // the mapping of instances related by r
             Map<OWLIndividual, ? extends Collection<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
@@ -1032,8 +1560,19 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
                 mapping = mappingInv.asMap();
             }
 
-//			SortedSet<OWLIndividual> returnSet = new TreeSet<OWLIndividual>(mapping.keySet());
-            SortedSet<OWLIndividual> returnSet = (SortedSet<OWLIndividual>) individuals.clone();
+            // unless the standard semantics is used, only individuals with at least one filler
+            // can be instances
+            SortedSet<OWLIndividual> returnSet;
+            if (forAllSemantics != ForallSemantics.Standard) {
+                returnSet = new TreeSet<>();
+                mapping.forEach((ind, values) -> {
+                    if (!values.isEmpty()) {
+                        returnSet.add(ind);
+                    }
+                });
+            } else {
+                returnSet = (SortedSet<OWLIndividual>) individuals.clone();
+            }
 
 			// each individual is connected to a set of individuals via the property;
             // we loop through the complete mapping
@@ -1052,7 +1591,7 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             OWLClassExpression filler = ((OWLObjectMinCardinality) description).getFiller();
 
             //get instances of filler concept
-            SortedSet<OWLIndividual> targetSet = getIndividualsImpl(filler);
+            SortedSet<OWLIndividual> targetSet = retrieveSortedSet(filler);
 
             // the mapping of instances related by r
             Map<OWLIndividual, ? extends Collection<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
@@ -1105,7 +1644,7 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
             int number = ((OWLObjectMaxCardinality) description).getCardinality();
 
             //get instances of filler concept
-            SortedSet<OWLIndividual> targetSet = getIndividualsImpl(filler);
+            SortedSet<OWLIndividual> targetSet = retrieveSortedSet(filler);
 
             // the mapping of instances related by r
             Map<OWLIndividual, ? extends Collection<OWLIndividual>> mapping = opPos.get(property.getNamedProperty());
@@ -1438,6 +1977,9 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
     @Override
     public boolean isDisjointImpl(OWLClass clsA, OWLClass clsB) {
         if (disjointnessSemantics == DisjointnessSemantics.INSTANCE_BASED) {
+            if (bitSetMaterialization != null) {
+                return bitSetMaterialization.isDisjoint(clsA, clsB);
+            }
             TreeSet<OWLIndividual> instancesA = classInstancesPos.get(clsA);
             TreeSet<OWLIndividual> instancesB = classInstancesPos.get(clsB);
 
@@ -1510,11 +2052,17 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
 
     @Override
     public final SortedSet<OWLIndividual> getTrueDatatypeMembersImpl(OWLDataProperty datatypeProperty) {
+        if (bitSetMaterialization != null) {
+            return bitSetMaterialization.toIndividuals(bitSetMaterialization.getTrueDatatypeMembers(datatypeProperty));
+        }
         return bdPos.get(datatypeProperty);
     }
 
     @Override
     public final SortedSet<OWLIndividual> getFalseDatatypeMembersImpl(OWLDataProperty datatypeProperty) {
+        if (bitSetMaterialization != null) {
+            return bitSetMaterialization.toIndividuals(bitSetMaterialization.getFalseDatatypeMembers(datatypeProperty));
+        }
         return bdNeg.get(datatypeProperty);
     }
 
@@ -1566,6 +2114,9 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
      */
     @Override
     public void releaseKB() {
+        if (lazyMaterialization != null) {
+            lazyMaterialization.close();
+        }
         baseReasoner.releaseKB();
     }
 
@@ -1635,6 +2186,75 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         this.useMaterializationCaching = useMaterializationCaching;
     }
 
+    public String getMaterializationCacheDirectory() {
+        return materializationCacheDirectory;
+    }
+
+    public void setMaterializationCacheDirectory(String materializationCacheDirectory) {
+        this.materializationCacheDirectory = materializationCacheDirectory;
+    }
+
+    public boolean isUseLazyMaterialization() {
+        return useLazyMaterialization;
+    }
+
+    /**
+     * @param useLazyMaterialization whether to compute the extensions on first access
+     */
+    public void setUseLazyMaterialization(boolean useLazyMaterialization) {
+        this.useLazyMaterialization = useLazyMaterialization;
+    }
+
+    public long getLazyMaterializationMaxBytes() {
+        return lazyMaterializationMaxBytes;
+    }
+
+    /**
+     * @param lazyMaterializationMaxBytes the (estimated) maximum size of the extensions in lazy materialization mode
+     */
+    public void setLazyMaterializationMaxBytes(long lazyMaterializationMaxBytes) {
+        this.lazyMaterializationMaxBytes = lazyMaterializationMaxBytes;
+    }
+
+    /**
+     * @param useBitSetStorage whether to store the materialization as bitsets
+     */
+    public void setUseBitSetStorage(boolean useBitSetStorage) {
+        this.useBitSetStorage = useBitSetStorage;
+    }
+
+    public boolean isUseBitSetStorage() {
+        return useBitSetStorage;
+    }
+
+    /**
+     * @return the bitset based storage or <code>null</code> if it is not used
+     */
+    public BitSetMaterialization getBitSetMaterialization() {
+        return bitSetMaterialization;
+    }
+
+    /**
+     * @param useRetrievalCache whether to cache the instances of complex sub-expressions
+     */
+    public void setUseRetrievalCache(boolean useRetrievalCache) {
+        this.useRetrievalCache = useRetrievalCache;
+    }
+
+    /**
+     * @param retrievalCacheMaxBytes the (estimated) maximum size of the retrieval cache in bytes
+     */
+    public void setRetrievalCacheMaxBytes(long retrievalCacheMaxBytes) {
+        this.retrievalCacheMaxBytes = retrievalCacheMaxBytes;
+    }
+
+    /**
+     * @return the retrieval cache or <code>null</code> if caching is disabled
+     */
+    public RetrievalCache<?> getRetrievalCache() {
+        return bitSetRetrievalCache != null ? bitSetRetrievalCache : sortedSetRetrievalCache;
+    }
+
     /**
      * @param handlePunning the handlePunning to set
      */
@@ -1642,6 +2262,34 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         this.handlePunning = handlePunning;
     }
 
+    /**
+     * @return whether the negative class extensions are precomputed in case of default negation
+     */
+    public boolean isPrecomputeNegations() {
+        return precomputeNegations;
+    }
+
+    /**
+     * @param precomputeNegations whether to precompute the negative class extensions in case of default negation
+     */
+    public void setPrecomputeNegations(boolean precomputeNegations) {
+        this.precomputeNegations = precomputeNegations;
+    }
+
+    /**
+     * @return the number of threads used for the materialization
+     */
+    public int getMaterializationThreads() {
+        return materializationThreads;
+    }
+
+    /**
+     * @param materializationThreads the number of threads used for the materialization
+     */
+    public void setMaterializationThreads(int materializationThreads) {
+        this.materializationThreads = materializationThreads;
+    }
+
     /**
      * @param materializeExistentialRestrictions the
      * materializeExistentialRestrictions to set
@@ -1668,4 +2316,27 @@ public class ClosedWorldReasoner extends AbstractReasonerComponent {
         baseReasoner.setSynchronized();
     }
 
+    /* (non-Javadoc)
+     * @see org.dllearner.core.AbstractReasonerComponent#resetStatistics()
+     */
+    @Override
+    public void resetStatistics() {
+        super.resetStatistics();
+        if (getRetrievalCache() != null) {
+            getRetrievalCache().resetStatistics();
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.dllearner.core.AbstractReasonerComponent#toString()
+     */
+    @Override
+    public String toString() {
+        String str = super.toString();
+        if (getRetrievalCache() != null) {
+            str += getRetrievalCache().toString();
+        }
+        return str;
+    }
+
 }
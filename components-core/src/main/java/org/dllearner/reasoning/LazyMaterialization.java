@@ -0,0 +1,260 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * The store of the lazy materialization mode of the {@link ClosedWorldReasoner}.
+ * Instead of materializing all class and property extensions up front, the
+ * maps created by {@link #newExtensionMap(Set, BiFunction)} compute the
+ * extension of an entity on first access and memoize it. All maps share one
+ * store, which is bounded by an (estimated) number of bytes and evicts the
+ * least recently used extensions first. An evicted extension is just computed
+ * again on the next access.
+ *
+ * Extensions that will probably be needed soon can be computed in the
+ * background by {@link #prefetch(ExtensionMap, Collection)}. The background
+ * thread queries its own worker of the base reasoner, such that it doesn't
+ * compete with the foreground for the base reasoner.
+ */
+class LazyMaterialization {
+
+	private static final Logger logger = LoggerFactory.getLogger(LazyMaterialization.class);
+
+	private final Cache<ExtensionKey, Object> store;
+
+	private final OWLAPIReasoner reasoner;
+	private final Supplier<OWLAPIReasoner> workerFactory;
+	private OWLAPIReasoner prefetchWorker;
+	private ExecutorService prefetchExecutor;
+
+	/**
+	 * @param maxBytes the (estimated) maximum memory used by the memoized extensions
+	 * @param reasoner the reasoner used to compute the extensions on access
+	 * @param workerFactory creates the reasoner used to compute the extensions in the background
+	 */
+	LazyMaterialization(long maxBytes, OWLAPIReasoner reasoner, Supplier<OWLAPIReasoner> workerFactory) {
+		this.reasoner = reasoner;
+		this.workerFactory = workerFactory;
+		this.store = CacheBuilder.newBuilder()
+				.maximumWeight(maxBytes)
+				.weigher((ExtensionKey key, Object value) -> (int) Math.min(Integer.MAX_VALUE, estimateSize(value)))
+				.build();
+	}
+
+	/**
+	 * Creates a read-only map whose values are computed on first access.
+	 *
+	 * @param keys the keys of the map, i.e. the entities
+	 * @param loader computes the value of an entity with the given reasoner
+	 * @return the map
+	 */
+	<K, V> ExtensionMap<K, V> newExtensionMap(Set<K> keys, BiFunction<OWLAPIReasoner, K, V> loader) {
+		return new ExtensionMap<>(keys, loader);
+	}
+
+	/**
+	 * Computes the values of the given keys in the background, unless they are
+	 * already memoized. Keys which are not contained in the map are ignored.
+	 *
+	 * @param map the map
+	 * @param keys the keys
+	 */
+	synchronized <K, V> void prefetch(ExtensionMap<K, V> map, Collection<? extends K> keys) {
+		List<K> missing = new ArrayList<>();
+		for (K key : keys) {
+			if (map.containsKey(key) && store.getIfPresent(new ExtensionKey(map, key)) == null) {
+				missing.add(key);
+			}
+		}
+		if (missing.isEmpty()) {
+			return;
+		}
+		if (prefetchExecutor == null) {
+			prefetchWorker = workerFactory.get();
+			prefetchExecutor = Executors.newSingleThreadExecutor(
+					new ThreadFactoryBuilder().setNameFormat("materialization-prefetch-%d").setDaemon(true).build());
+		}
+		prefetchExecutor.submit(() -> {
+			for (K key : missing) {
+				try {
+					map.load(prefetchWorker, key);
+				} catch (RuntimeException e) {
+					// the extension will be computed again on access, where the error is reported
+					logger.debug("Prefetching the extension of " + key + " failed.", e);
+				}
+			}
+		});
+	}
+
+	/**
+	 * @return the number of memoized extensions
+	 */
+	long size() {
+		return store.size();
+	}
+
+	/**
+	 * Stops the background computation and releases the worker.
+	 */
+	synchronized void close() {
+		if (prefetchExecutor != null) {
+			prefetchExecutor.shutdownNow();
+			reasoner.disposeWorker(prefetchWorker);
+			prefetchExecutor = null;
+			prefetchWorker = null;
+		}
+		store.invalidateAll();
+	}
+
+	// a rough estimate of the memory used by the extension, the entities itself are shared
+	private static long estimateSize(Object value) {
+		if (value instanceof Collection) {
+			return 48 + 40L * ((Collection<?>) value).size();
+		} else if (value instanceof Map) {
+			long size = 48;
+			for (Object v : ((Map<?, ?>) value).values()) {
+				size += 40 + estimateSize(v);
+			}
+			return size;
+		}
+		return 16;
+	}
+
+	/**
+	 * A read-only map whose values are computed on first access and memoized
+	 * in the store of the lazy materialization.
+	 */
+	class ExtensionMap<K, V> extends AbstractMap<K, V> {
+
+		private final Set<K> keys;
+		private final BiFunction<OWLAPIReasoner, K, V> loader;
+
+		private ExtensionMap(Set<K> keys, BiFunction<OWLAPIReasoner, K, V> loader) {
+			// a hash set, because sorted sets can't handle keys of another type
+			this.keys = Collections.unmodifiableSet(new HashSet<>(keys));
+			this.loader = loader;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public V get(Object key) {
+			if (!keys.contains(key)) {
+				return null;
+			}
+			return load(reasoner, (K) key);
+		}
+
+		@SuppressWarnings("unchecked")
+		private V load(OWLAPIReasoner reasoner, K key) {
+			try {
+				return (V) store.get(new ExtensionKey(this, key), () -> loader.apply(reasoner, key));
+			} catch (ExecutionException | UncheckedExecutionException e) {
+				throw Throwables.propagate(e.getCause());
+			}
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return keys.contains(key);
+		}
+
+		@Override
+		public Set<K> keySet() {
+			return keys;
+		}
+
+		@Override
+		public int size() {
+			return keys.size();
+		}
+
+		/*
+		 * Note that iterating over the entries computes all values.
+		 */
+		@Override
+		public Set<Entry<K, V>> entrySet() {
+			return new AbstractSet<Entry<K, V>>() {
+				@Override
+				public Iterator<Entry<K, V>> iterator() {
+					Iterator<K> it = keys.iterator();
+					return new Iterator<Entry<K, V>>() {
+						@Override
+						public boolean hasNext() {
+							return it.hasNext();
+						}
+
+						@Override
+						public Entry<K, V> next() {
+							K key = it.next();
+							return new SimpleImmutableEntry<>(key, get(key));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return keys.size();
+				}
+			};
+		}
+	}
+
+	private static final class ExtensionKey {
+
+		private final ExtensionMap<?, ?> map;
+		private final Object key;
+
+		ExtensionKey(ExtensionMap<?, ?> map, Object key) {
+			this.map = map;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ExtensionKey)) {
+				return false;
+			}
+			ExtensionKey other = (ExtensionKey) obj;
+			return map == other.map && key.equals(other.key);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(map) + key.hashCode();
+		}
+	}
+}
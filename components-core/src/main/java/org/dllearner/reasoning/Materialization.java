@@ -18,7 +18,6 @@
  */
 package org.dllearner.reasoning;
 
-import java.io.Serializable;
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeMap;
@@ -30,7 +29,13 @@ import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 
-class Materialization implements Serializable{
+/**
+ * The materialized ABox of the {@link ClosedWorldReasoner}, see also
+ * {@link MaterializationSnapshot}.
+ */
+class Materialization {
+		// all individuals of the knowledge base
+		public TreeSet<OWLIndividual> individuals = new TreeSet<>();
 		// we use sorted sets (map indices) here, because they have only log(n)
 		// complexity for checking whether an element is contained in them
 		// instances of classes
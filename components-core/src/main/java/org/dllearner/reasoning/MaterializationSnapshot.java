@@ -0,0 +1,576 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLIndividual;
+
+import com.google.common.collect.ImmutableSortedSet;
+
+/**
+ * A versioned binary snapshot of a {@link Materialization}, used by the
+ * {@link ClosedWorldReasoner} to avoid recomputing the materialization of
+ * the same knowledge base.
+ * <p>
+ * The file starts with a dictionary of all individuals, sorted by their
+ * natural order. Class extensions, property assertions and datatype values
+ * are then stored as int arrays over the dictionary IDs. This is in contrast
+ * to Java serialization of the object graph, where each set entry is an
+ * object on its own. The file is read via a read-only memory mapping, such
+ * that several JVMs working on the same knowledge base share the page cache.
+ * <p>
+ * Only the dictionary is decoded when loading a snapshot. Every entity is
+ * stored as a length-prefixed block, thus, the loaded maps just keep the
+ * offsets of the blocks and decode an extension or the values of a subject on
+ * first access. The subjects of a property are stored as a sorted ID array
+ * followed by the offsets of their values, i.e. a lookup is a binary search in
+ * the mapped file. As IDs are assigned in sorted order, the sorted sets of the
+ * materialization are built in linear time.
+ * <p>
+ * Snapshots are written to a temporary file which then replaces the target
+ * file atomically, i.e. concurrent readers never see incomplete snapshots.
+ */
+class MaterializationSnapshot {
+
+	// "DLMS"
+	private static final int MAGIC = 0x444C4D53;
+	static final int VERSION = 2;
+
+	private static final byte NAMED = 0;
+	private static final byte ANONYMOUS = 1;
+
+	/**
+	 * Writes the materialization to the given file.
+	 *
+	 * @param file the file
+	 * @param mat the materialization
+	 * @param fingerprint the fingerprint of the knowledge base and the settings the
+	 *                    materialization has been computed for
+	 * @throws IOException if writing fails
+	 */
+	static void write(File file, Materialization mat, long fingerprint) throws IOException {
+		// the dictionary contains all individuals occurring in the materialization
+		SortedSet<OWLIndividual> dictionary = new TreeSet<>(mat.individuals);
+		mat.classInstancesPos.values().forEach(dictionary::addAll);
+		mat.classInstancesNeg.values().forEach(dictionary::addAll);
+		mat.opPos.values().forEach(m -> m.forEach((s, objects) -> {
+			dictionary.add(s);
+			dictionary.addAll(objects);
+		}));
+		for (Map<OWLIndividual, ? extends Collection<?>> m : valueMappings(mat)) {
+			dictionary.addAll(m.keySet());
+		}
+		mat.bdPos.values().forEach(dictionary::addAll);
+		mat.bdNeg.values().forEach(dictionary::addAll);
+
+		Map<OWLIndividual, Integer> ids = new HashMap<>(dictionary.size() * 2);
+		for (OWLIndividual ind : dictionary) {
+			ids.put(ind, ids.size());
+		}
+
+		File tmpFile = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath()), 1 << 16))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(fingerprint);
+
+				out.writeInt(dictionary.size());
+				for (OWLIndividual ind : dictionary) {
+					if (ind.isNamed()) {
+						out.writeByte(NAMED);
+						writeString(out, ind.asOWLNamedIndividual().getIRI().toString());
+					} else {
+						out.writeByte(ANONYMOUS);
+						writeString(out, ind.asOWLAnonymousIndividual().getID().getID());
+					}
+				}
+				writeIds(out, mat.individuals, ids);
+
+				writeExtensions(out, mat.classInstancesPos, ids);
+				writeExtensions(out, mat.classInstancesNeg, ids);
+
+				writeValueMappings(out, mat.opPos, ids, (o, v) -> writeId(o, v, ids));
+
+				writeValueMappings(out, mat.dpPos, ids, (o, literal) -> {
+					writeString(o, literal.getLiteral());
+					writeString(o, literal.getDatatype().toStringID());
+					writeString(o, literal.getLang());
+				});
+
+				writeExtensions(out, mat.bdPos, ids);
+				writeExtensions(out, mat.bdNeg, ids);
+
+				writeValueMappings(out, mat.id, ids, DataOutputStream::writeInt);
+				writeValueMappings(out, mat.dd, ids, DataOutputStream::writeDouble);
+				writeValueMappings(out, mat.sd, ids, MaterializationSnapshot::writeString);
+			}
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmpFile.toPath());
+		}
+	}
+
+	/**
+	 * Reads the materialization from the given file. The returned maps are read-only
+	 * and decode their values from the mapped file on first access.
+	 *
+	 * @param file the file
+	 * @param fingerprint the expected fingerprint of the knowledge base and the settings
+	 * @param df the data factory used to create the entities
+	 * @return the materialization
+	 * @throws IOException if the file could not be read, or if it has another version or
+	 * fingerprint than expected
+	 */
+	static Materialization read(File file, long fingerprint, OWLDataFactory df) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Materialization snapshot " + file + " exceeds the max. size of 2GB.");
+			}
+			// the mapping stays valid after closing the channel
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		try {
+			return new Reader(buffer, df).read(fingerprint);
+		} catch (RuntimeException e) {
+			// e.g. buffer underflow in case of a truncated file
+			throw new IOException("Corrupt materialization snapshot " + file, e);
+		}
+	}
+
+	private static List<Map<OWLIndividual, ? extends Collection<?>>> valueMappings(Materialization mat) {
+		List<Map<OWLIndividual, ? extends Collection<?>>> mappings = new ArrayList<>();
+		mappings.addAll(mat.dpPos.values());
+		mappings.addAll(mat.id.values());
+		mappings.addAll(mat.dd.values());
+		mappings.addAll(mat.sd.values());
+		return mappings;
+	}
+
+	@FunctionalInterface
+	private interface ValueWriter<V> {
+		void write(DataOutputStream out, V value) throws IOException;
+	}
+
+	@FunctionalInterface
+	private interface BlockWriter {
+		void write(DataOutputStream out) throws IOException;
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static void writeId(DataOutputStream out, OWLIndividual ind, Map<OWLIndividual, Integer> ids) throws IOException {
+		out.writeInt(ids.get(ind));
+	}
+
+	private static void writeIds(DataOutputStream out, Collection<OWLIndividual> individuals, Map<OWLIndividual, Integer> ids) throws IOException {
+		out.writeInt(individuals.size());
+		for (OWLIndividual ind : individuals) {
+			writeId(out, ind, ids);
+		}
+	}
+
+	/**
+	 * Writes the block of a single entity, prefixed with its length, such that the reader
+	 * can skip it.
+	 */
+	private static void writeBlock(DataOutputStream out, BlockWriter block) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		block.write(new DataOutputStream(bytes));
+		out.writeInt(bytes.size());
+		bytes.writeTo(out);
+	}
+
+	private static void writeExtensions(DataOutputStream out, Map<? extends OWLEntity, ? extends Collection<OWLIndividual>> extensions,
+										Map<OWLIndividual, Integer> ids) throws IOException {
+		out.writeInt(extensions.size());
+		for (Map.Entry<? extends OWLEntity, ? extends Collection<OWLIndividual>> entry : extensions.entrySet()) {
+			writeString(out, entry.getKey().toStringID());
+			writeBlock(out, o -> writeIds(o, entry.getValue(), ids));
+		}
+	}
+
+	private static <V> void writeValueMappings(DataOutputStream out, Map<? extends OWLEntity, Map<OWLIndividual, SortedSet<V>>> mappings,
+											   Map<OWLIndividual, Integer> ids, ValueWriter<V> valueWriter) throws IOException {
+		out.writeInt(mappings.size());
+		for (Map.Entry<? extends OWLEntity, Map<OWLIndividual, SortedSet<V>>> entry : mappings.entrySet()) {
+			writeString(out, entry.getKey().toStringID());
+			writeBlock(out, o -> writeValueMapping(o, entry.getValue(), ids, valueWriter));
+		}
+	}
+
+	private static <V> void writeValueMapping(DataOutputStream out, Map<OWLIndividual, SortedSet<V>> mapping,
+											  Map<OWLIndividual, Integer> ids, ValueWriter<V> valueWriter) throws IOException {
+		// the subject IDs in ascending order, then the offsets of their values, then the values
+		SortedMap<Integer, SortedSet<V>> subjects = new TreeMap<>();
+		mapping.forEach((subject, values) -> subjects.put(ids.get(subject), values));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream values = new DataOutputStream(bytes);
+		out.writeInt(subjects.size());
+		for (int subject : subjects.keySet()) {
+			out.writeInt(subject);
+		}
+		for (SortedSet<V> subjectValues : subjects.values()) {
+			out.writeInt(values.size());
+			values.writeInt(subjectValues.size());
+			for (V value : subjectValues) {
+				valueWriter.write(values, value);
+			}
+		}
+		bytes.writeTo(out);
+	}
+
+	/**
+	 * Reads the structure of a snapshot from the mapped file.
+	 */
+	private static class Reader {
+
+		private final ByteBuffer buffer;
+		private final OWLDataFactory df;
+		private OWLIndividual[] dictionary;
+
+		Reader(ByteBuffer buffer, OWLDataFactory df) {
+			this.buffer = buffer;
+			this.df = df;
+		}
+
+		Materialization read(long fingerprint) throws IOException {
+			if (buffer.getInt() != MAGIC) {
+				throw new IOException("Not a materialization snapshot.");
+			}
+			int version = buffer.getInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported materialization snapshot version " + version + ", expected " + VERSION + ".");
+			}
+			if (buffer.getLong() != fingerprint) {
+				throw new IOException("Materialization snapshot belongs to another knowledge base or other settings.");
+			}
+
+			dictionary = new OWLIndividual[buffer.getInt()];
+			for (int i = 0; i < dictionary.length; i++) {
+				byte kind = buffer.get();
+				String id = readString(buffer);
+				dictionary[i] = kind == NAMED ? df.getOWLNamedIndividual(IRI.create(id)) : df.getOWLAnonymousIndividual(id);
+			}
+
+			Materialization mat = new Materialization();
+			mat.individuals = readIndividuals(buffer);
+
+			mat.classInstancesPos = readEntities(iri -> df.getOWLClass(IRI.create(iri)), this::readIndividuals);
+			mat.classInstancesNeg = readEntities(iri -> df.getOWLClass(IRI.create(iri)), this::readIndividuals);
+
+			// the values of a subject have the same layout as an extension
+			mat.opPos = readEntities(iri -> df.getOWLObjectProperty(IRI.create(iri)),
+					in -> new SubjectMap<>(in, dictionary, this::readIndividuals));
+
+			mat.dpPos = readValueMappings(in -> {
+				String lexicalForm = readString(in);
+				String datatype = readString(in);
+				String lang = readString(in);
+				return lang.isEmpty()
+						? df.getOWLLiteral(lexicalForm, df.getOWLDatatype(IRI.create(datatype)))
+						: df.getOWLLiteral(lexicalForm, lang);
+			});
+
+			mat.bdPos = readEntities(iri -> df.getOWLDataProperty(IRI.create(iri)), this::readIndividuals);
+			mat.bdNeg = readEntities(iri -> df.getOWLDataProperty(IRI.create(iri)), this::readIndividuals);
+
+			mat.id = readValueMappings(ByteBuffer::getInt);
+			mat.dd = readValueMappings(ByteBuffer::getDouble);
+			mat.sd = readValueMappings(MaterializationSnapshot::readString);
+
+			return mat;
+		}
+
+		private TreeSet<OWLIndividual> readIndividuals(ByteBuffer in) {
+			int[] ids = new int[in.getInt()];
+			// bulk read via an int view of the mapping
+			in.asIntBuffer().get(ids);
+			in.position(in.position() + ids.length * Integer.BYTES);
+			List<OWLIndividual> individuals = new ArrayList<>(ids.length);
+			for (int id : ids) {
+				individuals.add(dictionary[id]);
+			}
+			// IDs are in sorted order, thus creating the tree set from a sorted set runs in linear time
+			return new TreeSet<>(ImmutableSortedSet.copyOf(individuals));
+		}
+
+		/**
+		 * Reads the entities of a section and skips their blocks, which are decoded on access.
+		 */
+		private <E extends OWLEntity, V> Map<E, V> readEntities(Function<String, E> entityFactory, Function<ByteBuffer, V> decoder) {
+			Map<E, Integer> positions = new TreeMap<>();
+			int size = buffer.getInt();
+			for (int i = 0; i < size; i++) {
+				E entity = entityFactory.apply(readString(buffer));
+				int length = buffer.getInt();
+				positions.put(entity, buffer.position());
+				// fails for truncated files
+				buffer.position(buffer.position() + length);
+			}
+			return new EntityMap<>(buffer, positions, decoder);
+		}
+
+		private <V> Map<OWLDataProperty, Map<OWLIndividual, SortedSet<V>>> readValueMappings(
+				Function<ByteBuffer, V> valueReader) {
+			return readEntities(iri -> df.getOWLDataProperty(IRI.create(iri)),
+					in -> new SubjectMap<>(in, dictionary, values -> {
+						int nrOfValues = values.getInt();
+						SortedSet<V> result = new TreeSet<>();
+						for (int k = 0; k < nrOfValues; k++) {
+							result.add(valueReader.apply(values));
+						}
+						return result;
+					}));
+		}
+	}
+
+	private static String readString(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return an independent view of the buffer starting at the given position, such that
+	 * several threads can decode at the same time
+	 */
+	private static ByteBuffer at(ByteBuffer buffer, int position) {
+		ByteBuffer view = buffer.duplicate();
+		view.position(position);
+		return view;
+	}
+
+	/**
+	 * Maps the entities of a section to their blocks, which are decoded on first access.
+	 */
+	private static class EntityMap<K, V> extends AbstractMap<K, V> {
+
+		private final ByteBuffer buffer;
+		private final Map<K, Integer> positions;
+		private final Function<ByteBuffer, V> decoder;
+		private final Map<K, V> decoded = new ConcurrentHashMap<>();
+
+		EntityMap(ByteBuffer buffer, Map<K, Integer> positions, Function<ByteBuffer, V> decoder) {
+			this.buffer = buffer;
+			this.positions = positions;
+			this.decoder = decoder;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public V get(Object key) {
+			Integer position = positions.get(key);
+			if (position == null) {
+				return null;
+			}
+			return decoded.computeIfAbsent((K) key, k -> decoder.apply(at(buffer, position)));
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return positions.containsKey(key);
+		}
+
+		@Override
+		public int size() {
+			return positions.size();
+		}
+
+		@Override
+		public Set<Entry<K, V>> entrySet() {
+			return new AbstractSet<Entry<K, V>>() {
+				@Override
+				public Iterator<Entry<K, V>> iterator() {
+					Iterator<K> keys = positions.keySet().iterator();
+					return new Iterator<Entry<K, V>>() {
+						@Override
+						public boolean hasNext() {
+							return keys.hasNext();
+						}
+
+						@Override
+						public Entry<K, V> next() {
+							K key = keys.next();
+							return new SimpleImmutableEntry<>(key, get(key));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return positions.size();
+				}
+			};
+		}
+	}
+
+	/**
+	 * Maps the subjects of a property to their values. The subjects are looked up by a
+	 * binary search in the sorted ID array of the mapped file, and their values are
+	 * decoded on first access.
+	 */
+	private static class SubjectMap<V> extends AbstractMap<OWLIndividual, SortedSet<V>> {
+
+		private final ByteBuffer buffer;
+		private final OWLIndividual[] dictionary;
+		private final Function<ByteBuffer, SortedSet<V>> decoder;
+		private final int size;
+		private final int subjectsPosition;
+		private final int offsetsPosition;
+		private final int valuesPosition;
+		private final AtomicReferenceArray<SortedSet<V>> decoded;
+
+		SubjectMap(ByteBuffer in, OWLIndividual[] dictionary, Function<ByteBuffer, SortedSet<V>> decoder) {
+			this.buffer = in;
+			this.dictionary = dictionary;
+			this.decoder = decoder;
+			size = in.getInt();
+			subjectsPosition = in.position();
+			offsetsPosition = subjectsPosition + size * Integer.BYTES;
+			valuesPosition = offsetsPosition + size * Integer.BYTES;
+			decoded = new AtomicReferenceArray<>(size);
+		}
+
+		private int subject(int index) {
+			return buffer.getInt(subjectsPosition + index * Integer.BYTES);
+		}
+
+		private int indexOf(Object key) {
+			if (!(key instanceof OWLIndividual)) {
+				return -1;
+			}
+			int id = Arrays.binarySearch(dictionary, key);
+			if (id < 0) {
+				return -1;
+			}
+			int low = 0;
+			int high = size - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int midId = subject(mid);
+				if (midId < id) {
+					low = mid + 1;
+				} else if (midId > id) {
+					high = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -1;
+		}
+
+		private SortedSet<V> valuesAt(int index) {
+			SortedSet<V> values = decoded.get(index);
+			if (values == null) {
+				// concurrent decodings of the same values are equal, thus the last one wins
+				values = decoder.apply(at(buffer, valuesPosition + buffer.getInt(offsetsPosition + index * Integer.BYTES)));
+				decoded.set(index, values);
+			}
+			return values;
+		}
+
+		@Override
+		public SortedSet<V> get(Object key) {
+			int index = indexOf(key);
+			return index < 0 ? null : valuesAt(index);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return indexOf(key) >= 0;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public Set<Entry<OWLIndividual, SortedSet<V>>> entrySet() {
+			return new AbstractSet<Entry<OWLIndividual, SortedSet<V>>>() {
+				@Override
+				public Iterator<Entry<OWLIndividual, SortedSet<V>>> iterator() {
+					return new Iterator<Entry<OWLIndividual, SortedSet<V>>>() {
+						private int index = 0;
+
+						@Override
+						public boolean hasNext() {
+							return index < size;
+						}
+
+						@Override
+						public Entry<OWLIndividual, SortedSet<V>> next() {
+							if (index >= size) {
+								throw new NoSuchElementException();
+							}
+							int i = index++;
+							return new SimpleImmutableEntry<>(dictionary[subject(i)], valuesAt(i));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+			};
+		}
+	}
+}
@@ -96,6 +96,10 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
     private OWLClassExpressionMinimizer minimizer;
 
     private OWLReasoner fallbackReasoner;
+
+    // the factory and configuration the reasoner was created with, used to create further instances
+    private OWLReasonerFactory reasonerFactory;
+    private OWLReasonerConfiguration reasonerConfiguration;
     
     
  // default reasoner is Pellet
@@ -126,6 +130,33 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
         sources = Collections.singleton(ks);
     }
 
+    /**
+     * Creates a reasoner that shares the ontology and all precomputed data with the given reasoner,
+     * but queries the given instance of the underlying OWL reasoner.
+     */
+    private OWLAPIReasoner(OWLAPIReasoner base, OWLReasoner reasoner) {
+        super(base);
+        this.reasoner = reasoner;
+        this.manager = base.manager;
+        this.ontology = base.ontology;
+        this.df = base.df;
+        this.atomicConcepts = base.atomicConcepts;
+        this.atomicRoles = base.atomicRoles;
+        this.datatypeProperties = base.datatypeProperties;
+        this.individuals = base.individuals;
+        this.prefixes = base.prefixes;
+        this.baseURI = base.baseURI;
+        this.reasonerImplementation = base.reasonerImplementation;
+        this.useFallbackReasoner = base.useFallbackReasoner;
+        this.owlLinkURL = base.owlLinkURL;
+        this.reasonerFactory = base.reasonerFactory;
+        this.reasonerConfiguration = base.reasonerConfiguration;
+        this.minimizer = new OWLClassExpressionMinimizer(df, this);
+        if (useFallbackReasoner) {
+            this.fallbackReasoner = new StructuralReasonerExtended(ontology, reasonerConfiguration, BufferingMode.NON_BUFFERING);
+        }
+    }
+
     @Override
     public void init() throws ComponentInitException {
         // reset variables (otherwise subsequent initialisation with
@@ -275,7 +306,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
         IndividualNodeSetPolicy individualNodeSetPolicy = IndividualNodeSetPolicy.BY_NAME;
         OWLReasonerConfiguration conf = new SimpleConfiguration(progressMonitor, freshEntityPolicy, timeOut, individualNodeSetPolicy);
 
-        OWLReasonerFactory reasonerFactory = null;
+        reasonerFactory = null;
         // create actual reasoner
 		switch (reasonerImplementation) {
 		case PELLET:
@@ -324,6 +355,7 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 			reasonerFactory = PelletReasonerFactory.getInstance();
 		}
 
+		reasonerConfiguration = conf;
 		if (null != reasonerFactory) {
 			reasoner = reasonerFactory.createNonBufferingReasoner(ontology, conf);
 		}
@@ -1264,6 +1296,36 @@ public class OWLAPIReasoner extends AbstractReasonerComponent {
 		}
 	}
 
+	/**
+	 * Creates a worker for querying the knowledge base concurrently, e.g. one per thread. Most
+	 * OWL reasoners are not thread-safe, thus the worker shares the ontology and all precomputed
+	 * data with this reasoner, but queries its own instance of the underlying OWL reasoner. If no
+	 * further instance can be created, because the OWL reasoner has been passed from outside,
+	 * this reasoner is synchronized and returned instead.
+	 * The OWL reasoner of a worker should be disposed once it is not needed anymore, see
+	 * {@link #disposeWorker(OWLAPIReasoner)}.
+	 *
+	 * @return the worker
+	 */
+	public OWLAPIReasoner createWorker() {
+		if (reasonerFactory == null) {
+			setSynchronized();
+			return this;
+		}
+		return new OWLAPIReasoner(this, reasonerFactory.createNonBufferingReasoner(ontology, reasonerConfiguration));
+	}
+
+	/**
+	 * Disposes the OWL reasoner of a worker created by {@link #createWorker()}.
+	 *
+	 * @param worker the worker
+	 */
+	public void disposeWorker(OWLAPIReasoner worker) {
+		if (worker != this) {
+			worker.reasoner.dispose();
+		}
+	}
+
 	public static void main(String[] args) throws Exception{
 		OWLOntology o = OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(new File("/tmp/test2.rdf"));
 		System.out.println(o.getClassesInSignature());
@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.dllearner.utilities.owl.ConceptTransformation;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.util.OWLObjectDuplicator;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+/**
+ * A cache for the instances of complex class expressions used during
+ * retrieval. The cache is bounded by an (estimated) number of bytes and
+ * evicts the least recently used entries first. Values are copied on the
+ * way in and out, i.e. callers are free to modify the sets they put into or
+ * get from the cache.
+ *
+ * The keys are expected to be in normal form (see
+ * {@link #normalize(OWLClassExpression)}), such that syntactically different
+ * but equal class expressions, e.g. conjunctions with a different order of
+ * operands, share the same entry. Since all sub-expressions of a normalized
+ * class expression are normalized as well, the normalization has to be done
+ * only once per retrieval request.
+ *
+ * @param <V> the type of the cached instance sets
+ */
+public class RetrievalCache<V> {
+
+	private static final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private final Cache<OWLClassExpression, V> cache;
+	private final UnaryOperator<V> copy;
+
+	// statistics are cumulative in Guava, thus we remember the values at the last reset
+	private CacheStats statsAtReset = new CacheStats(0, 0, 0, 0, 0, 0);
+
+	/**
+	 * @param maxBytes the (estimated) maximum memory used by the cached values
+	 * @param weigher estimates the memory used by a value in bytes
+	 * @param copy returns a copy of a value
+	 */
+	public RetrievalCache(long maxBytes, ToIntFunction<V> weigher, UnaryOperator<V> copy) {
+		this.copy = copy;
+		this.cache = CacheBuilder.newBuilder()
+				.maximumWeight(maxBytes)
+				.weigher((OWLClassExpression ce, V value) -> weigher.applyAsInt(value))
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Returns the normal form of the class expression used as cache key, i.e.
+	 * nested conjunctions and disjunctions are flattened and the operands of
+	 * n-ary expressions are treated as sets.
+	 *
+	 * @param ce the class expression
+	 * @return the normalized class expression
+	 */
+	public static OWLClassExpression normalize(OWLClassExpression ce) {
+		// the duplicator is not thread safe, thus we need a new one each time
+		return new OWLObjectDuplicator(df).duplicateObject(ConceptTransformation.cleanConcept(ce));
+	}
+
+	/**
+	 * @param ce the normalized class expression
+	 * @return a copy of the cached instances or <code>null</code> if there is
+	 * no entry for the class expression
+	 */
+	public V get(OWLClassExpression ce) {
+		V value = cache.getIfPresent(ce);
+		return value == null ? null : copy.apply(value);
+	}
+
+	/**
+	 * @param ce the normalized class expression
+	 * @param value the instances of the class expression
+	 */
+	public void put(OWLClassExpression ce, V value) {
+		cache.put(ce, copy.apply(value));
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * @return the number of entries
+	 */
+	public long size() {
+		return cache.size();
+	}
+
+	/**
+	 * @return hit, miss and eviction counts since the last reset
+	 */
+	public CacheStats getStats() {
+		return cache.stats().minus(statsAtReset);
+	}
+
+	/**
+	 * Resets the hit, miss and eviction counts.
+	 */
+	public void resetStatistics() {
+		statsAtReset = cache.stats();
+	}
+
+	@Override
+	public String toString() {
+		CacheStats stats = getStats();
+		return "retrieval cache: " + stats.hitCount() + " hits, " + stats.missCount() + " misses ("
+				+ String.format("%.1f", stats.hitRate() * 100) + "% hit rate), "
+				+ stats.evictionCount() + " evictions, " + size() + " entries\n";
+	}
+}
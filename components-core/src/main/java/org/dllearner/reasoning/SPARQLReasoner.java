@@ -24,7 +24,6 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
-import org.aksw.jena_sparql_api.delay.core.QueryExecutionFactoryDelay;
 import org.aksw.jena_sparql_api.http.QueryExecutionFactoryHttp;
 import org.aksw.jena_sparql_api.model.QueryExecutionFactoryModel;
 import org.aksw.jena_sparql_api.pagination.core.QueryExecutionFactoryPaginated;
@@ -111,6 +110,22 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 	@ConfigOption(description = "Whether to use SPARQL1.1 Value Lists", defaultValue = "false")
 	private boolean useValueLists = false;
 
+	@ConfigOption(description = "The initial number of individuals per value list query. It is adapted to the " +
+			"observed query latency.", defaultValue = "200")
+	private int valueListsChunkSize = 200;
+
+	@ConfigOption(description = "The maximum number of individuals per value list query", defaultValue = "2000")
+	private int valueListsMaxChunkSize = 2000;
+
+	@ConfigOption(description = "The target latency of a single value list query in ms. The number of individuals " +
+			"per query is halved for slower and doubled for faster queries.", defaultValue = "1000")
+	private long valueListsTargetLatency = 1000;
+
+	@ConfigOption(description = "The number of value list queries which are sent concurrently", defaultValue = "4")
+	private int valueListsThreads = 4;
+
+	private ValuesQueryBatcher valuesQueryBatcher;
+
 	private QueryExecutionFactory qef;
 
 	private SparqlEndpointKS ks;
@@ -180,8 +195,8 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 				}
 			}
 			if(ks.isRemote()){
+				// the rate of queries is already limited by the knowledge source
 				qef = ks.getQueryExecutionFactory();
-				qef = new QueryExecutionFactoryDelay(qef, 50);
 //				qef = new QueryExecutionFactoryCacheEx(qef, cache);
 				qef = new QueryExecutionFactoryPaginated(qef, 10000);
 			} else {
@@ -1256,7 +1271,14 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		SortedSet<OWLIndividual> individuals = new TreeSet<>();
 		String query;
 		
-		if (indValues != null) {
+		if (indValues != null && limit == 0) {
+			final OWLClassExpression ce = description;
+			List<SortedSet<OWLIndividual>> chunkResults = getValuesQueryBatcher().execute(indValues,
+					chunk -> buildIndividualsQueryValues(ce, chunk, false),
+					this::executeIndividualsQuery);
+			chunkResults.forEach(individuals::addAll);
+			return individuals;
+		} else if (indValues != null) {
 			query = buildIndividualsQueryValues(description, indValues, false);
 		} else {
 			query = converter.asQuery("?ind", description, false).toString();
@@ -1265,8 +1287,13 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 			query += " LIMIT " + limit;
 		}
 //		query = String.format(SPARQLQueryUtils.PREFIXES + " SELECT ?ind WHERE {?ind rdf:type/rdfs:subClassOf* <%s> .}", description.asOWLClass().toStringID());
+		return executeIndividualsQuery(query);
+	}
+
+	private SortedSet<OWLIndividual> executeIndividualsQuery(String query) {
 		logger.trace(sparql_debug, "get individuals query: " + query);
 
+		SortedSet<OWLIndividual> individuals = new TreeSet<>();
 		ResultSet rs = executeSelectQuery(query);
 		while(rs.hasNext()){
 			QuerySolution qs = rs.next();
@@ -1292,7 +1319,14 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		
 		String query;
 		
-		if (indValues != null) {
+		if (indValues != null && limit == 0) {
+			// the chunks are disjoint, hence the counts can be summed up
+			final OWLClassExpression ce = description;
+			return getValuesQueryBatcher().execute(indValues,
+					chunk -> buildIndividualsQueryValues(ce, chunk, true),
+					this::executeCountQuery)
+					.stream().mapToInt(Integer::intValue).sum();
+		} else if (indValues != null) {
 			query = buildIndividualsQueryValues(description, indValues, true);
 		} else {
 			query = converter.asQuery("?ind", description, true).toString();
@@ -1302,6 +1336,10 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		if(limit != 0) {
 			query += " LIMIT " + limit;
 		}
+		return executeCountQuery(query);
+	}
+
+	private int executeCountQuery(String query) {
 		if(logger.isTraceEnabled()){
 			logger.trace(sparql_debug, "get individuals query: " + query);
 		}
@@ -1324,6 +1362,50 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		return getIndividualsCount(description, 0, indValues);
 	}
 
+	/**
+	 * Returns the instances of the class expression contained in each of the
+	 * given sets. All sets are checked by the same queries, e.g. positive and
+	 * negative examples are not checked in separate round trips.
+	 * @param description the class expression
+	 * @param sets the sets of individuals
+	 * @return for each set the individuals which are instances of the class expression
+	 */
+	public List<SortedSet<OWLIndividual>> getIndividuals(OWLClassExpression description, Set<OWLIndividual>[] sets) {
+		Set<OWLIndividual> allIndividuals = new HashSet<>();
+		for (Set<OWLIndividual> set : sets) {
+			allIndividuals.addAll(set);
+		}
+		SortedSet<OWLIndividual> instances = getIndividuals(description, allIndividuals);
+
+		List<SortedSet<OWLIndividual>> result = new ArrayList<>(sets.length);
+		for (Set<OWLIndividual> set : sets) {
+			result.add(new TreeSet<>(Sets.intersection(instances, set)));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of instances of the class expression contained in each
+	 * of the given sets. Multiple sets are checked by the same queries.
+	 * @param description the class expression
+	 * @param sets the sets of individuals
+	 * @return for each set the number of individuals which are instances of the class expression
+	 */
+	public int[] getIndividualsCount(OWLClassExpression description, Set<OWLIndividual>[] sets) {
+		if (sets.length == 1) {
+			return new int[]{getIndividualsCount(description, sets[0])};
+		}
+		return getIndividuals(description, sets).stream().mapToInt(Set::size).toArray();
+	}
+
+	private synchronized ValuesQueryBatcher getValuesQueryBatcher() {
+		if (valuesQueryBatcher == null) {
+			valuesQueryBatcher = new ValuesQueryBatcher(valueListsChunkSize, valueListsMaxChunkSize,
+					valueListsTargetLatency, valueListsThreads);
+		}
+		return valuesQueryBatcher;
+	}
+
 	/**
 	 * @param wantedClass the class to which the individuals must belong to
 	 * @param excludeClass the class to which the individuals must not belong to
@@ -2410,6 +2492,9 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 	 */
 	@Override
 	public void releaseKB() {
+		if (valuesQueryBatcher != null) {
+			valuesQueryBatcher.shutdown();
+		}
 	}
 
 	public boolean isLaxMode() {
@@ -2456,4 +2541,36 @@ public class SPARQLReasoner extends AbstractReasonerComponent implements SchemaR
 		this.useValueLists = useValueLists;
 	}
 
+	public int getValueListsChunkSize() {
+		return valueListsChunkSize;
+	}
+
+	public void setValueListsChunkSize(int valueListsChunkSize) {
+		this.valueListsChunkSize = valueListsChunkSize;
+	}
+
+	public int getValueListsMaxChunkSize() {
+		return valueListsMaxChunkSize;
+	}
+
+	public void setValueListsMaxChunkSize(int valueListsMaxChunkSize) {
+		this.valueListsMaxChunkSize = valueListsMaxChunkSize;
+	}
+
+	public long getValueListsTargetLatency() {
+		return valueListsTargetLatency;
+	}
+
+	public void setValueListsTargetLatency(long valueListsTargetLatency) {
+		this.valueListsTargetLatency = valueListsTargetLatency;
+	}
+
+	public int getValueListsThreads() {
+		return valueListsThreads;
+	}
+
+	public void setValueListsThreads(int valueListsThreads) {
+		this.valueListsThreads = valueListsThreads;
+	}
+
 }
@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.reasoning;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes queries which are restricted to a (possibly large) set of
+ * individuals, e.g. by means of a SPARQL 1.1 VALUES clause. The individuals
+ * are split into chunks, one query is sent per chunk and the chunks are
+ * processed concurrently.
+ *
+ * The chunk size is adapted to the observed latency: it is halved if a query
+ * takes longer than the target latency and doubled if it takes less than half
+ * of it. If a query fails, e.g. because it is too long for the endpoint, the
+ * chunk is split and both halves are retried once.
+ */
+public class ValuesQueryBatcher {
+
+	private static final Logger logger = LoggerFactory.getLogger(ValuesQueryBatcher.class);
+
+	private final int maxChunkSize;
+	private final long targetLatencyMs;
+	private final int nrOfThreads;
+
+	private volatile int chunkSize;
+
+	private ExecutorService executor;
+
+	// the query construction is serialized as the class expression
+	// converters are not thread-safe
+	private final Object queryBuildLock = new Object();
+
+	/**
+	 * @param initialChunkSize the number of individuals per query to start with
+	 * @param maxChunkSize the maximum number of individuals per query
+	 * @param targetLatencyMs the desired execution time of a single query in ms
+	 * @param nrOfThreads the number of queries which are sent concurrently
+	 */
+	public ValuesQueryBatcher(int initialChunkSize, int maxChunkSize, long targetLatencyMs, int nrOfThreads) {
+		this.maxChunkSize = Math.max(1, maxChunkSize);
+		this.chunkSize = Math.max(1, Math.min(initialChunkSize, this.maxChunkSize));
+		this.targetLatencyMs = targetLatencyMs;
+		this.nrOfThreads = Math.max(1, nrOfThreads);
+	}
+
+	/**
+	 * Executes one query per chunk of the individuals.
+	 * @param individuals the individuals the query is restricted to
+	 * @param queryBuilder builds the query for a chunk of individuals
+	 * @param queryExecutor executes a query and returns its (processed) result
+	 * @param <T> the type of the query results
+	 * @return the results of all chunks, in no particular order
+	 */
+	public <T> List<T> execute(Collection<OWLIndividual> individuals,
+							   Function<List<OWLIndividual>, String> queryBuilder,
+							   Function<String, T> queryExecutor) {
+		List<List<OWLIndividual>> chunks = Lists.partition(new ArrayList<>(individuals), chunkSize);
+
+		List<T> results = new ArrayList<>();
+		if (chunks.size() == 1 || nrOfThreads == 1) {
+			for (List<OWLIndividual> chunk : chunks) {
+				results.addAll(execute(chunk, queryBuilder, queryExecutor, true));
+			}
+			return results;
+		}
+
+		List<Future<List<T>>> futures = new ArrayList<>(chunks.size());
+		for (List<OWLIndividual> chunk : chunks) {
+			futures.add(getExecutor().submit(() -> execute(chunk, queryBuilder, queryExecutor, true)));
+		}
+		try {
+			for (Future<List<T>> future : futures) {
+				results.addAll(future.get());
+			}
+		} catch (InterruptedException e) {
+			futures.forEach(future -> future.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for query results", e);
+		} catch (ExecutionException e) {
+			futures.forEach(future -> future.cancel(true));
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		}
+		return results;
+	}
+
+	private <T> List<T> execute(List<OWLIndividual> chunk,
+								Function<List<OWLIndividual>, String> queryBuilder,
+								Function<String, T> queryExecutor,
+								boolean splitOnFailure) {
+		String query;
+		synchronized (queryBuildLock) {
+			query = queryBuilder.apply(chunk);
+		}
+
+		long startTime = System.nanoTime();
+		try {
+			T result = queryExecutor.apply(query);
+			adaptChunkSize(chunk.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+			return Lists.newArrayList(result);
+		} catch (RuntimeException e) {
+			if (!splitOnFailure || chunk.size() == 1) {
+				throw e;
+			}
+			int half = chunk.size() / 2;
+			reduceChunkSize(half);
+			logger.debug("Query for " + chunk.size() + " individuals failed, retrying with chunks of size " + half);
+
+			List<T> results = new ArrayList<>();
+			results.addAll(execute(chunk.subList(0, half), queryBuilder, queryExecutor, false));
+			results.addAll(execute(chunk.subList(half, chunk.size()), queryBuilder, queryExecutor, false));
+			return results;
+		}
+	}
+
+	private synchronized void adaptChunkSize(int size, long latencyMs) {
+		if (latencyMs > targetLatencyMs) {
+			reduceChunkSize(size / 2);
+		} else if (latencyMs < targetLatencyMs / 2 && size >= chunkSize && chunkSize < maxChunkSize) {
+			// only full chunks tell us that larger ones are fast enough
+			chunkSize = Math.min(maxChunkSize, chunkSize * 2);
+			logger.trace("Increased chunk size to " + chunkSize);
+		}
+	}
+
+	private synchronized void reduceChunkSize(int size) {
+		int newChunkSize = Math.max(1, size);
+		if (newChunkSize < chunkSize) {
+			chunkSize = newChunkSize;
+			logger.trace("Reduced chunk size to " + chunkSize);
+		}
+	}
+
+	private synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(nrOfThreads,
+					new ThreadFactoryBuilder().setDaemon(true).setNameFormat("values-query-%d").build());
+		}
+		return executor;
+	}
+
+	/**
+	 * @return the current number of individuals per query
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Stops the threads used to send the queries.
+	 */
+	public synchronized void shutdown() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+}
@@ -54,7 +54,7 @@ import java.util.*;
  *
  */
 //@ComponentAnn(name = "EL Downward refinement operator", shortName = "eldown", version = 0.1)
-public class ELDown extends RefinementOperatorAdapter {
+public class ELDown extends RefinementOperatorAdapter implements DownwardRefinementOperator {
 
 	private static Logger logger = Logger.getLogger(ELDown.class);	
 	
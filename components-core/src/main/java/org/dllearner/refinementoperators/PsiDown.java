@@ -40,7 +40,7 @@ import java.util.*;
  * @author jl
  *
  */
-public class PsiDown extends RefinementOperatorAdapter {
+public class PsiDown extends RefinementOperatorAdapter implements DownwardRefinementOperator {
 
 	PosNegLP learningProblem;
 	AbstractReasonerComponent reasoningService;
@@ -29,10 +29,15 @@ import org.dllearner.core.annotations.NoConfigOption;
 import org.dllearner.core.config.ConfigOption;
 import org.dllearner.core.options.CommonConfigOptions;
 import org.dllearner.core.owl.*;
+import org.dllearner.reasoning.ClosedWorldReasoner;
 import org.dllearner.reasoning.SPARQLReasoner;
 import org.dllearner.utilities.OWLAPIUtils;
 import org.dllearner.utilities.OWLCLassExpressionToOWLClassTransformer;
 import org.dllearner.utilities.ToIRIFunction;
+import org.dllearner.utilities.metrics.Counter;
+import org.dllearner.utilities.metrics.MetricRegistry;
+import org.dllearner.utilities.metrics.MetricSet;
+import org.dllearner.utilities.metrics.Timer;
 import org.dllearner.utilities.owl.ConceptTransformation;
 import org.dllearner.utilities.owl.OWLClassExpressionLengthMetric;
 import org.dllearner.utilities.owl.OWLClassExpressionToSPARQLConverter;
@@ -53,6 +58,8 @@ import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.stream.Collectors;
 
 import static com.google.common.primitives.Ints.max;
@@ -75,7 +82,7 @@ import static com.google.common.primitives.Ints.max;
  *
  */
 @ComponentAnn(name = "rho refinement operator", shortName = "rho", version = 0.8)
-public class RhoDRDown extends RefinementOperatorAdapter implements Component, CustomHierarchyRefinementOperator, CustomStartRefinementOperator, ReasoningBasedRefinementOperator {
+public class RhoDRDown extends RefinementOperatorAdapter implements Component, CustomHierarchyRefinementOperator, CustomStartRefinementOperator, ReasoningBasedRefinementOperator, DownwardRefinementOperator {
 
 	private static final ToIRIFunction TO_IRI_FUNCTION = new ToIRIFunction(true);
 	private static final OWLCLassExpressionToOWLClassTransformer OWLCLASS_TRANSFORM_FUNCTION = new OWLCLassExpressionToOWLClassTransformer();
@@ -125,14 +132,17 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 
 	// the length of concepts of top refinements, the first values is
 	// for refinements of \rho_\top(\top), the second one for \rho_A(\top)
-	private int topRefinementsLength = 0;
-	private Map<OWLClassExpression, Integer> topARefinementsLength = new TreeMap<>();
+	// (all caches below which are read by refine() are concurrent, such that the
+	// operator can be shared by several threads; they are only extended inside
+	// computeTopRefinements(), which is synchronized)
+	private volatile int topRefinementsLength = 0;
+	private Map<OWLClassExpression, Integer> topARefinementsLength = new ConcurrentSkipListMap<>();
 	// M is finite and this value is the maximum length of any value in M
 	private int mMaxLength = 4;
 
 	// the sets M_\top and M_A
 	private Map<Integer,SortedSet<OWLClassExpression>> m = new TreeMap<>();
-	private Map<OWLClassExpression,Map<Integer,SortedSet<OWLClassExpression>>> mA = new TreeMap<>();
+	private Map<OWLClassExpression,Map<Integer,SortedSet<OWLClassExpression>>> mA = new ConcurrentSkipListMap<>();
 
 	// @see MathOperations.getCombos
 	private Map<Integer, List<List<Integer>>> combos = new HashMap<>();
@@ -142,22 +152,22 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 	private Map<OWLClassExpression,Map<Integer, SortedSet<OWLClassExpression>>> topARefinements = new TreeMap<>();
 
 	// cumulated refinements of top (all from length one to the specified length)
-	private Map<Integer, TreeSet<OWLClassExpression>> topRefinementsCumulative = new HashMap<>();
-	private Map<OWLClassExpression,Map<Integer, TreeSet<OWLClassExpression>>> topARefinementsCumulative = new TreeMap<>();
+	private Map<Integer, TreeSet<OWLClassExpression>> topRefinementsCumulative = new ConcurrentHashMap<>();
+	private Map<OWLClassExpression,Map<Integer, TreeSet<OWLClassExpression>>> topARefinementsCumulative = new ConcurrentSkipListMap<>();
 
 	// app_A set of applicable properties for a given class (separate for
 	// object properties, boolean datatypes, and double datatypes)
-	private Map<OWLClassExpression, Set<OWLObjectProperty>> appOP = new TreeMap<>();
-	private Map<OWLClassExpression, Set<OWLDataProperty>> appBD = new TreeMap<>();
-	private Map<OWLClassExpression, Set<OWLDataProperty>> appNumeric = new TreeMap<>();
-	private Map<OWLClassExpression, Set<OWLDataProperty>> appSD = new TreeMap<>();
+	private Map<OWLClassExpression, Set<OWLObjectProperty>> appOP = new ConcurrentSkipListMap<>();
+	private Map<OWLClassExpression, Set<OWLDataProperty>> appBD = new ConcurrentSkipListMap<>();
+	private Map<OWLClassExpression, Set<OWLDataProperty>> appNumeric = new ConcurrentSkipListMap<>();
+	private Map<OWLClassExpression, Set<OWLDataProperty>> appSD = new ConcurrentSkipListMap<>();
 
 	// most general applicable properties
-	private Map<OWLClassExpression,Set<OWLObjectProperty>> mgr = new TreeMap<>();
-	private Map<OWLClassExpression,Set<OWLDataProperty>> mgbd = new TreeMap<>();
-	private Map<OWLClassExpression,Set<OWLDataProperty>> mgNumeric = new TreeMap<>();
-	private Map<OWLClassExpression,Set<OWLDataProperty>> mgDT = new TreeMap<>();
-	private Map<OWLClassExpression,Set<OWLDataProperty>> mgsd = new TreeMap<>();
+	private Map<OWLClassExpression,Set<OWLObjectProperty>> mgr = new ConcurrentSkipListMap<>();
+	private Map<OWLClassExpression,Set<OWLDataProperty>> mgbd = new ConcurrentSkipListMap<>();
+	private Map<OWLClassExpression,Set<OWLDataProperty>> mgNumeric = new ConcurrentSkipListMap<>();
+	private Map<OWLClassExpression,Set<OWLDataProperty>> mgDT = new ConcurrentSkipListMap<>();
+	private Map<OWLClassExpression,Set<OWLDataProperty>> mgsd = new ConcurrentSkipListMap<>();
 
 	// splits for double datatype properties in ascending order
 	private Map<OWLDataProperty,List<OWLLiteral>> splits = new TreeMap<>();
@@ -178,9 +188,16 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 	@ConfigOption(description = "whether to use hasValue on frequently occuring strings", defaultValue = "false")
 	private boolean useDataHasValueConstructor = false;
 
+	@ConfigOption(description = "compute the sets M and M_A for all domains eagerly (and in parallel) during init() " +
+			"instead of lazily while refining", defaultValue = "false")
+	private boolean precomputeM = false;
+
 	// statistics
 	public long mComputationTimeNs = 0;
 	public long topComputationTimeNs = 0;
+	private final MetricSet metrics = new MetricSet();
+	private final Counter nrOfRefinements = metrics.counter("refinements");
+	private final Timer refinementTime = metrics.timer("refinement_time");
 
 	@ConfigOption(defaultValue="true")
 	private boolean applyAllFilter = true;
@@ -233,7 +250,7 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 	private boolean useSomeOnly = true;
 
 	// caches for reasoner queries
-	private Map<OWLClassExpression,Map<OWLClassExpression,Boolean>> cachedDisjoints = new TreeMap<>();
+	private Map<OWLClassExpression,Map<OWLClassExpression,Boolean>> cachedDisjoints = new ConcurrentSkipListMap<>();
 
 //	private Map<OWLClass,Map<OWLClass,Boolean>> abDisjoint = new TreeMap<OWLClass,Map<OWLClass,Boolean>>();
 //	private Map<OWLClass,Map<OWLClass,Boolean>> notABDisjoint = new TreeMap<OWLClass,Map<OWLClass,Boolean>>();
@@ -270,11 +287,14 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 		setUseObjectValueNegation(op.useObjectValueNegation);
 		setUseStringDatatypes(op.useStringDatatypes);
 		setUseNumericDatatypes(op.useNumericDatatypes);
+		setPrecomputeM(op.precomputeM);
 		initialized = false;
 	}
 
 	@Override
     public void init() throws ComponentInitException {
+		MetricRegistry.getDefault().register(this, metrics);
+
 		/*
 		if(initialized) {
 			throw new ComponentInitException("Refinement operator cannot be initialised twice.");
@@ -489,6 +509,10 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 			dataPropertyHierarchy = reasoner.getDatatypePropertyHierarchy();
 		}
 
+		if(precomputeM) {
+			precomputeM();
+		}
+
 		initialized = true;
 	}
 
@@ -510,7 +534,11 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 		if(maxLength < OWLClassExpressionUtils.getLength(description, lengthMetric)) {
 			throw new Error("length has to be at least class expression length (class expression: " + description + " with length " + OWLClassExpressionUtils.getLength(description, lengthMetric) +", and max length: " + maxLength + ")");
 		}
-		return refine(description, maxLength, null, startClass);
+		try (Timer.Context ignored = refinementTime.time()) {
+			Set<OWLClassExpression> refinements = refine(description, maxLength, null, startClass);
+			nrOfRefinements.inc(refinements.size());
+			return refinements;
+		}
 	}
 
 	/* (non-Javadoc)
@@ -530,8 +558,8 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 
 		// actions needing to be performed if this is the first time the
 		// current domain is used
-		if(!currDomain.isOWLThing() && !topARefinementsLength.containsKey(currDomain)){
-			topARefinementsLength.put(currDomain, 0);
+		if(!currDomain.isOWLThing()){
+			topARefinementsLength.putIfAbsent(currDomain, 0);
 		}
 
 		// check whether using list or set makes more sense
@@ -1033,29 +1061,50 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 		this.dropDisjuncts = dropDisjuncts;
 	}
 
+	/**
+	 * @return whether the sets M and M_A are computed eagerly during init()
+	 */
+	public boolean isPrecomputeM() {
+		return precomputeM;
+	}
+
+	/**
+	 * @param precomputeM whether to compute the sets M and M_A for all domains
+	 * eagerly (and in parallel) during init() instead of lazily while refining
+	 */
+	public void setPrecomputeM(boolean precomputeM) {
+		this.precomputeM = precomputeM;
+	}
+
 	private void computeTopRefinements(int maxLength) {
 		computeTopRefinements(maxLength, null);
 	}
 
-	private void computeTopRefinements(int maxLength, OWLClassExpression domain) {
+	// synchronized because the top refinements may be requested by several
+	// threads at once; the length is checked again as another thread might
+	// have computed them in the meantime
+	private synchronized void computeTopRefinements(int maxLength, OWLClassExpression domain) {
+		int refinementsLength;
+
+		if(domain == null) {
+			refinementsLength = topRefinementsLength;
+		} else {
+			refinementsLength = topARefinementsLength.getOrDefault(domain, 0);
+		}
+
+		if(maxLength <= refinementsLength)
+			return;
+
 		long topComputationTimeStartNs = System.nanoTime();
 //		System.out.println("computing top refinements for " + domain + " up to length " + maxLength);
 
 		if(domain == null && m.size() == 0)
 			computeM();
 
-		if(domain != null && !mA.containsKey(domain))
+		if(domain != null && !mA.containsKey(domain)) {
+			long mComputationTimeStartNs = System.nanoTime();
 			computeM(domain);
-
-		int refinementsLength;
-
-		if(domain == null) {
-			refinementsLength = topRefinementsLength;
-		} else {
-			if(!topARefinementsLength.containsKey(domain))
-				topARefinementsLength.put(domain,0);
-
-			refinementsLength = topARefinementsLength.get(domain);
+			mComputationTimeNs += System.nanoTime() - mComputationTimeStartNs;
 		}
 
 		// compute all possible combinations of the disjunction
@@ -1149,7 +1198,7 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 				topRefinementsCumulative.put(i, cumulativeRefinements);
 			} else {
 				if(!topARefinementsCumulative.containsKey(domain))
-					topARefinementsCumulative.put(domain, new TreeMap<>());
+					topARefinementsCumulative.put(domain, new ConcurrentHashMap<>());
 				topARefinementsCumulative.get(domain).put(i, cumulativeRefinements);
 			}
 		}
@@ -1169,6 +1218,43 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 //		}
 	}
 
+	// computes M_\top and M_A for all domains the operator can encounter,
+	// i.e. the start class and the domains and ranges of the object properties;
+	// the sets M_A are independent of each other, hence computed in parallel if
+	// the reasoner can answer the queries concurrently
+	private void precomputeM() {
+		if(m.isEmpty()) {
+			computeM();
+		}
+
+		long mComputationTimeStartNs = System.nanoTime();
+
+		List<OWLClassExpression> candidates = new ArrayList<>();
+		candidates.add(startClass);
+		candidates.addAll(opRanges.values());
+		if(useInverse) {
+			candidates.addAll(opDomains.values());
+		}
+		Set<OWLClassExpression> domains = candidates.stream()
+				.filter(domain -> domain != null && !domain.isOWLThing() && !mA.containsKey(domain))
+				.collect(Collectors.toCollection(TreeSet::new));
+
+		if(reasoner instanceof ClosedWorldReasoner) {
+			// the materialized extensions can be read concurrently, only the
+			// remaining calls to the base reasoner have to be synchronized
+			reasoner.setSynchronized();
+			domains.parallelStream().forEach(this::computeM);
+		} else {
+			// other reasoners are not thread-safe, and synchronizing them would
+			// serialize all queries anyway
+			domains.forEach(this::computeM);
+		}
+
+		mComputationTimeNs += System.nanoTime() - mComputationTimeStartNs;
+		logger.debug("precomputed M for " + domains.size() + " domains in " +
+				(System.nanoTime() - mComputationTimeStartNs) / 1000000 + "ms");
+	}
+
 	// compute M_\top
 	private void computeM() {
 		long mComputationTimeStartNs = System.nanoTime();
@@ -1310,24 +1396,24 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 	// computation of the set M_A
 	// a major difference compared to the ILP 2007 \rho operator is that
 	// M is finite and contains elements of length (currently) at most 3
+	// (the result is only published in mA when it is complete, such that
+	// it can be called concurrently for different classes)
 	private void computeM(OWLClassExpression nc) {
-		long mComputationTimeStartNs = System.nanoTime();
-
-		mA.put(nc, new TreeMap<>());
+		Map<Integer,SortedSet<OWLClassExpression>> mNc = new TreeMap<>();
 		// initialise all possible lengths (1 to mMaxLength)
 		for(int i=1; i<=mMaxLength; i++) {
-			mA.get(nc).put(i, new TreeSet<>());
+			mNc.put(i, new TreeSet<>());
 		}
 
 		// most general classes, which are not disjoint with nc and provide real refinement
 		SortedSet<OWLClassExpression> m1 = getClassCandidates(nc);
-		mA.get(nc).get(lengthMetric.classLength).addAll(m1);
+		mNc.get(lengthMetric.classLength).addAll(m1);
 
 		// most specific negated classes, which are not disjoint with nc
 		if(useNegation) {
 			SortedSet<OWLClassExpression> m2;
 			m2 = getNegClassCandidates(nc);
-			mA.get(nc).get(lengthMetric.classLength + lengthMetric.objectComplementLength).addAll(m2);
+			mNc.get(lengthMetric.classLength + lengthMetric.objectComplementLength).addAll(m2);
 		}
 
 		// compute applicable properties
@@ -1338,15 +1424,15 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 			int lc = lengthMetric.dataHasValueLength + lengthMetric.dataProperyLength;
 			Set<OWLDataProperty> booleanDPs = mgbd.get(nc);
 			for (OWLDataProperty dp : booleanDPs) {
-				mA.get(nc).get(lc).add(df.getOWLDataHasValue(dp, df.getOWLLiteral(true)));
-				mA.get(nc).get(lc).add(df.getOWLDataHasValue(dp, df.getOWLLiteral(false)));
+				mNc.get(lc).add(df.getOWLDataHasValue(dp, df.getOWLLiteral(true)));
+				mNc.get(lc).add(df.getOWLDataHasValue(dp, df.getOWLLiteral(false)));
 			}
 		}
 
 		if(useExistsConstructor) {
 			int lc = lengthMetric.objectSomeValuesLength + lengthMetric.objectProperyLength + lengthMetric.classLength;
 			for(OWLObjectProperty r : mgr.get(nc)) {
-				mA.get(nc).get(lc).add(df.getOWLObjectSomeValuesFrom(r, df.getOWLThing()));
+				mNc.get(lc).add(df.getOWLObjectSomeValuesFrom(r, df.getOWLThing()));
 			}
 		}
 
@@ -1356,7 +1442,7 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 			// M_A and M_A' where A'=ran(r)
 			int lc = lengthMetric.objectAllValuesLength + lengthMetric.objectProperyLength + lengthMetric.classLength;
 			for(OWLObjectProperty r : mgr.get(nc)) {
-				mA.get(nc).get(lc).add(df.getOWLObjectAllValuesFrom(r, df.getOWLThing()));
+				mNc.get(lc).add(df.getOWLObjectAllValuesFrom(r, df.getOWLThing()));
 			}
 		}
 
@@ -1369,8 +1455,8 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 				if(splitLiterals != null && splitLiterals.size() > 0) {
 					OWLLiteral min = splits.get(dp).get(0);
 					OWLLiteral max = splits.get(dp).get(splits.get(dp).size()-1);
-					mA.get(nc).get(lc).add(df.getOWLDataSomeValuesFrom(dp, asDatatypeRestriction(dp, min, OWLFacet.MIN_INCLUSIVE)));
-					mA.get(nc).get(lc).add(df.getOWLDataSomeValuesFrom(dp, asDatatypeRestriction(dp, max, OWLFacet.MAX_INCLUSIVE)));
+					mNc.get(lc).add(df.getOWLDataSomeValuesFrom(dp, asDatatypeRestriction(dp, min, OWLFacet.MIN_INCLUSIVE)));
+					mNc.get(lc).add(df.getOWLDataSomeValuesFrom(dp, asDatatypeRestriction(dp, max, OWLFacet.MAX_INCLUSIVE)));
 				}
 			}
 		}
@@ -1383,8 +1469,8 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 				if(splits.get(dp).size() > 0) {
 					OWLLiteral min = splits.get(dp).get(0);
 					OWLLiteral max = splits.get(dp).get(splits.get(dp).size()-1);
-					mA.get(nc).get(lc).add(df.getOWLDataSomeValuesFrom(dp, asDatatypeRestriction(dp, min, OWLFacet.MIN_INCLUSIVE)));
-					mA.get(nc).get(lc).add(df.getOWLDataSomeValuesFrom(dp, asDatatypeRestriction(dp, max, OWLFacet.MAX_INCLUSIVE)));
+					mNc.get(lc).add(df.getOWLDataSomeValuesFrom(dp, asDatatypeRestriction(dp, min, OWLFacet.MIN_INCLUSIVE)));
+					mNc.get(lc).add(df.getOWLDataSomeValuesFrom(dp, asDatatypeRestriction(dp, max, OWLFacet.MAX_INCLUSIVE)));
 				}
 			}
 		}
@@ -1396,7 +1482,7 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 				// loop over frequent values
 				Set<OWLLiteral> freqValues = frequentDataValues.get(dp);
 				for(OWLLiteral lit : freqValues) {
-					mA.get(nc).get(lc).add(df.getOWLDataHasValue(dp, lit));
+					mNc.get(lc).add(df.getOWLDataHasValue(dp, lit));
 				}
 			}
 		}
@@ -1409,13 +1495,25 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 				// one filler: <= 0 r.C is equivalent to NOT EXISTS r.C,
 				// but we still keep it, because ALL r.NOT C may be difficult to reach
 				if((useNegation && maxFillers > 0) || (!useNegation && maxFillers > 1))
-					mA.get(nc).get(lc).add(df.getOWLObjectMaxCardinality(maxFillers-1, r, df.getOWLThing()));
+					mNc.get(lc).add(df.getOWLObjectMaxCardinality(maxFillers-1, r, df.getOWLThing()));
 			}
 		}
 
-//		System.out.println("m for " + nc + ": " + mA.get(nc));
+//		System.out.println("m for " + nc + ": " + mNc);
 
-		mComputationTimeNs += System.nanoTime() - mComputationTimeStartNs;
+		mA.put(nc, mNc);
+
+		// the entities in M_A are the ones the refinements below nc are built from,
+		// thus a lazily materializing reasoner can already compute their extensions
+		if(reasoner instanceof ClosedWorldReasoner) {
+			Set<OWLEntity> entities = new HashSet<>();
+			for (SortedSet<OWLClassExpression> ces : mNc.values()) {
+				for (OWLClassExpression ce : ces) {
+					entities.addAll(ce.getSignature());
+				}
+			}
+			((ClosedWorldReasoner) reasoner).prefetch(entities);
+		}
 	}
 
 	// get candidates for a refinement of \top restricted to a class B
@@ -1574,23 +1672,28 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 			computeApp(domain);
 
 		// initialise mgr, mgbd, mgdd, mgsd
-		mgr.put(domain, new TreeSet<>());
-		mgbd.put(domain, new TreeSet<>());
-		mgNumeric.put(domain, new TreeSet<>());
-		mgsd.put(domain, new TreeSet<>());
-		mgDT.put(domain, new TreeSet<>());
+		Set<OWLObjectProperty> mgrTmp = new TreeSet<>();
+		Set<OWLDataProperty> mgbdTmp = new TreeSet<>();
+		Set<OWLDataProperty> mgNumericTmp = new TreeSet<>();
+		Set<OWLDataProperty> mgsdTmp = new TreeSet<>();
 
 		SortedSet<OWLObjectProperty> mostGeneral = objectPropertyHierarchy.getMostGeneralRoles();
-		computeMgrRecursive(domain, mostGeneral, mgr.get(domain));
+		computeMgrRecursive(domain, mostGeneral, mgrTmp);
 		SortedSet<OWLDataProperty> mostGeneralDP = dataPropertyHierarchy.getMostGeneralRoles();
 		// we make the (reasonable) assumption here that all sub and super
 		// datatype properties have the same type (e.g. boolean, integer, double)
 		Set<OWLDataProperty> mostGeneralBDP = Sets.intersection(mostGeneralDP, reasoner.getBooleanDatatypeProperties());
 		Set<OWLDataProperty> mostGeneralNumericDPs = Sets.intersection(mostGeneralDP, reasoner.getNumericDataProperties());
 		Set<OWLDataProperty> mostGeneralStringDPs = Sets.intersection(mostGeneralDP, reasoner.getStringDatatypeProperties());
-		computeMgbdRecursive(domain, mostGeneralBDP, mgbd.get(domain));
-		computeMostGeneralNumericDPRecursive(domain, mostGeneralNumericDPs, mgNumeric.get(domain));
-		computeMostGeneralStringDPRecursive(domain, mostGeneralStringDPs, mgsd.get(domain));
+		computeMgbdRecursive(domain, mostGeneralBDP, mgbdTmp);
+		computeMostGeneralNumericDPRecursive(domain, mostGeneralNumericDPs, mgNumericTmp);
+		computeMostGeneralStringDPRecursive(domain, mostGeneralStringDPs, mgsdTmp);
+
+		mgr.put(domain, mgrTmp);
+		mgbd.put(domain, mgbdTmp);
+		mgNumeric.put(domain, mgNumericTmp);
+		mgsd.put(domain, mgsdTmp);
+		mgDT.put(domain, new TreeSet<>());
 	}
 
 	private void computeMgrRecursive(OWLClassExpression domain, Set<OWLObjectProperty> currProperties, Set<OWLObjectProperty> mgrTmp) {
@@ -1727,8 +1830,11 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 
 		// check whether we have cached this query
 		Map<OWLClassExpression,Boolean> tmp = cachedDisjoints.get(d1);
-		if(tmp != null && tmp.containsKey(d2)) {
-			return tmp.get(d2);
+		if(tmp != null) {
+			Boolean cached = tmp.get(d2);
+			if(cached != null) {
+				return cached;
+			}
 		}
 
 		// compute the disjointness
@@ -1742,15 +1848,10 @@ public class RhoDRDown extends RefinementOperatorAdapter implements Component, C
 		// add the result to the cache (we add it twice such that
 		// the order of access does not matter)
 
-		// create new entries if necessary
-		if (tmp == null)
-			cachedDisjoints.put(d1, new TreeMap<>());
-		if (!cachedDisjoints.containsKey(d2))
-			cachedDisjoints.put(d2, new TreeMap<>());
-
 		// add result symmetrically in the OWLClassExpression matrix
-		cachedDisjoints.get(d1).put(d2, result);
-		cachedDisjoints.get(d2).put(d1, result);
+		// (creating new entries if necessary)
+		cachedDisjoints.computeIfAbsent(d1, k -> new ConcurrentSkipListMap<>()).put(d2, result);
+		cachedDisjoints.computeIfAbsent(d2, k -> new ConcurrentSkipListMap<>()).put(d1, result);
 		//			System.out.println("---");
 		return result;
 	}
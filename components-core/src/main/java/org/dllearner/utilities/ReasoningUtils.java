@@ -25,6 +25,7 @@ import org.dllearner.core.Component;
 import org.dllearner.learningproblems.AccMethodApproximate;
 import org.dllearner.learningproblems.AccMethodTwoValued;
 import org.dllearner.learningproblems.AccMethodTwoValuedApproximate;
+import org.dllearner.learningproblems.EvaluationCache;
 import org.dllearner.reasoning.SPARQLReasoner;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLIndividual;
@@ -71,6 +72,8 @@ public class ReasoningUtils implements Component {
 
 	protected AbstractReasonerComponent reasoner;
 
+	protected EvaluationCache evaluationCache;
+
 	/**
 	 * create new reasoning utils
 	 * @param reasoner reasoner to use
@@ -111,11 +114,28 @@ public class ReasoningUtils implements Component {
 	public final Coverage[] getCoverage(OWLClassExpression concept, Set<OWLIndividual>... sets) {
 		Coverage[] rv = new Coverage [ sets.length ];
 
-		if(!reasoner.isUseInstanceChecks()) {
+		if (evaluationCache != null) {
+			SortedSet<OWLIndividual> covered = getCoveredIndividuals(concept, sets);
+			if (covered == null) {
+				return null;
+			}
+			for (int i = 0; i < sets.length; ++i) {
+				rv[i] = new Coverage();
+				rv[i].total = sets[i].size();
+
+				rv[i].trueSet.addAll(Sets.intersection(sets[i], covered));
+				rv[i].falseSet.addAll(Sets.difference(sets[i], covered));
+
+				rv[i].trueCount = rv[i].trueSet.size();
+				rv[i].falseCount = rv[i].falseSet.size();
+			}
+		} else if(!reasoner.isUseInstanceChecks()) {
 			if (reasoner instanceof SPARQLReasoner &&
 					((SPARQLReasoner)reasoner).isUseValueLists()) {
+				// all sets are checked at once
+				List<SortedSet<OWLIndividual>> trueSets = ((SPARQLReasoner) reasoner).getIndividuals(concept, sets);
 				for (int i = 0; i < sets.length; ++i) {
-					SortedSet<OWLIndividual> trueSet = reasoner.hasType(concept, sets[i]);
+					SortedSet<OWLIndividual> trueSet = trueSets.get(i);
 
 					rv[i] = new Coverage();
 					rv[i].total = sets[i].size();
@@ -144,15 +164,17 @@ public class ReasoningUtils implements Component {
 				rv[i] = new Coverage();
 				rv[i].total = sets[i].size();
 
-				for (OWLIndividual example : sets[i]) {
-					if (getReasoner().hasType(concept, example)) {
-						rv[i].trueSet.add(example);
+				Coverage coverage = rv[i];
+				getReasoner().hasType(concept, sets[i], (example, covered) -> {
+					if (covered) {
+						coverage.trueSet.add(example);
 					} else {
-						rv[i].falseSet.add(example);
-					}
-					if (interrupted()) {
-						return null;
+						coverage.falseSet.add(example);
 					}
+					return !interrupted();
+				});
+				if (interrupted()) {
+					return null;
 				}
 
 				rv[i].trueCount = rv[i].trueSet.size();
@@ -163,6 +185,38 @@ public class ReasoningUtils implements Component {
 	}
 
 
+	/**
+	 * binary partition a list of sets into true and false, where only the individuals of the
+	 * corresponding candidate set are tested. All other individuals are known not to satisfy
+	 * the concept (e.g. because the concept is a specialisation of a concept which only covers
+	 * the candidates) and are counted as false without asking the reasoner.
+	 * @param concept the OWL concept used for partition
+	 * @param sets list of sets to partition
+	 * @param candidates for each set, the subset of individuals which may satisfy the concept,
+	 *                   or null to test all individuals of the set
+	 * @return an array of Coverage data, one entry for each input set. The false sets only
+	 * contain the tested candidates which do not satisfy the concept, the counts are
+	 * computed with respect to the whole input sets
+	 */
+	public final Coverage[] getCoverage(OWLClassExpression concept, Set<OWLIndividual>[] sets, Set<OWLIndividual>[] candidates) {
+		if (candidates == null) {
+			return getCoverage(concept, sets);
+		}
+		Set[] tested = new Set [ sets.length ];
+		for (int i = 0; i < sets.length; ++i) {
+			tested[i] = candidates[i] == null ? sets[i] : candidates[i];
+		}
+		Coverage[] rv = getCoverage(concept, tested);
+		if (rv == null) {
+			return null;
+		}
+		for (int i = 0; i < sets.length; ++i) {
+			rv[i].total = sets[i].size();
+			rv[i].falseCount = rv[i].total - rv[i].trueCount;
+		}
+		return rv;
+	}
+
 	/**
 	 * count the numbers of individuals satisfying a concept. wrapper converting collections to set
 	 * @param concept the OWL concept used for counting
@@ -189,12 +243,25 @@ public class ReasoningUtils implements Component {
 												  Set<OWLIndividual>... sets) {
 		CoverageCount[] rv = new CoverageCount [ sets.length ];
 
-		if(!reasoner.isUseInstanceChecks()) {
+		if (evaluationCache != null) {
+			SortedSet<OWLIndividual> covered = getCoveredIndividuals(concept, sets);
+			if (covered == null) {
+				return null;
+			}
+			for (int i = 0; i < sets.length; ++i) {
+				rv[i] = new CoverageCount();
+				rv[i].total = sets[i].size();
+
+				rv[i].trueCount  = Sets.intersection(sets[i], covered).size();
+				rv[i].falseCount = rv[i].total - rv[i].trueCount;
+			}
+		} else if(!reasoner.isUseInstanceChecks()) {
 			if (reasoner instanceof SPARQLReasoner &&
 					((SPARQLReasoner)reasoner).isUseValueLists()) {
-
+				// all sets are checked at once
+				int[] trueCounts = ((SPARQLReasoner) reasoner).getIndividualsCount(concept, sets);
 				for (int i = 0; i < sets.length; ++i) {
-					int trueCount = ((SPARQLReasoner) reasoner).getIndividualsCount(concept, sets[i]);
+					int trueCount = trueCounts[i];
 
 					rv[i] = new CoverageCount();
 					rv[i].total = sets[i].size();
@@ -217,21 +284,41 @@ public class ReasoningUtils implements Component {
 				rv[i] = new CoverageCount();
 				rv[i].total = sets[i].size();
 
-				for (OWLIndividual example : sets[i]) {
-					if (getReasoner().hasType(concept, example)) {
-						++rv[i].trueCount;
+				CoverageCount coverage = rv[i];
+				getReasoner().hasType(concept, sets[i], (example, covered) -> {
+					if (covered) {
+						++coverage.trueCount;
 					} else {
-						++rv[i].falseCount;
-					}
-					if (interrupted()) {
-						return null;
+						++coverage.falseCount;
 					}
+					return !interrupted();
+				});
+				if (interrupted()) {
+					return null;
 				}
 			}
 		}
 		return rv;
 	}
 
+	/**
+	 * determine the individuals of the given sets satisfying a concept, using the evaluation cache
+	 * so that the reasoner is only asked for individuals which cannot be inferred from previous results.
+	 * the cache entries are scoped to this object, i.e. to the learning problem using it
+	 * @param concept the OWL concept
+	 * @param sets list of sets of individuals
+	 * @return the individuals of all sets which satisfy the concept or null if the evaluation was interrupted
+	 */
+	private SortedSet<OWLIndividual> getCoveredIndividuals(OWLClassExpression concept, Set<OWLIndividual>[] sets) {
+		Set<OWLIndividual> individuals = sets.length == 1 ? sets[0] : new HashSet<>();
+		if (sets.length > 1) {
+			for (Set<OWLIndividual> set : sets) {
+				individuals.addAll(set);
+			}
+		}
+		return evaluationCache.getCoveredIndividuals(this, concept, individuals, reasoner, this::interrupted);
+	}
+
 	/**
 	 * partition an array of sets into true, false and unknown, depending on whether they satisfy concept A or B
 	 * @param trueConcept the OWL concept used for true partition
@@ -344,9 +431,28 @@ public class ReasoningUtils implements Component {
 	}
 
 	public void setReasoner(AbstractReasonerComponent reasoner) {
+		if (evaluationCache != null && reasoner != this.reasoner) {
+			// cached results refer to the previous reasoner
+			evaluationCache.invalidate(this);
+		}
 		this.reasoner = reasoner;
 	}
 
+	public EvaluationCache getEvaluationCache() {
+		return evaluationCache;
+	}
+
+	/**
+	 * @param evaluationCache cache which is consulted before the reasoner is
+	 *                        asked for the coverage of a concept (null to disable)
+	 */
+	public void setEvaluationCache(EvaluationCache evaluationCache) {
+		if (this.evaluationCache != null && this.evaluationCache != evaluationCache) {
+			this.evaluationCache.invalidate(this);
+		}
+		this.evaluationCache = evaluationCache;
+	}
+
 	/**
 	 * helper method to create a set from a collection
 	 * @param collection
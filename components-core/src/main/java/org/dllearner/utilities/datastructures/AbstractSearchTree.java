@@ -91,7 +91,7 @@ public class AbstractSearchTree <T extends AbstractSearchTreeNode> {
 	 * must be called before modifying a node, to support immutable set element pattern
 	 * @param node the node
 	 */
-	public final void updatePrepare(T node) {
+	public void updatePrepare(T node) {
 		for (T child : (Collection<T>)node.getChildren()) {
 			if (allowedNode(child))
 				updatePrepare(child);
@@ -102,7 +102,7 @@ public class AbstractSearchTree <T extends AbstractSearchTreeNode> {
 	/**
 	 * must be called after modifying a node, to support immutable set element pattern
 	 */
-	public final void updateDone(T node) {
+	public void updateDone(T node) {
 		if (allowedNode(node)) {
 			nodes.add(node);
 			for (T child : (Collection<T>)node.getChildren()) {
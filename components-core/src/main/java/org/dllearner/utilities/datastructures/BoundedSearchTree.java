@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.datastructures;
+
+import org.dllearner.core.AbstractSearchTreeNode;
+
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * A search tree with a bounded number of nodes. If the number of nodes exceeds the
+ * given maximum, or the used heap exceeds the given fraction of the maximum heap size,
+ * the leaves with the lowest score according to the comparator are evicted, i.e. the
+ * nodes which would be expanded last. Evicted nodes are also removed from their parent,
+ * such that they can be garbage collected. Inner nodes and the root are never evicted,
+ * because the scores of their children can depend on them.
+ * <p>
+ * Note that the eviction is only driven by the budget, i.e. it does not check whether an
+ * evicted node could still lead to a better solution than the current best one. Such a
+ * check would need an upper bound for the accuracy of all refinements of a node, which
+ * depends on the learning problem and the refinement operator and is not available in
+ * general. Evicting the nodes with the lowest score is the closest approximation, but
+ * the search is not complete anymore once nodes have been evicted.
+ * </p>
+ *
+ * @param <T> the type of the nodes
+ */
+public class BoundedSearchTree<T extends AbstractSearchTreeNode<T>> extends SearchTree<T> {
+
+	// number of added nodes after which the heap usage is checked again
+	private static final int HEAP_CHECK_INTERVAL = 1000;
+	// fraction of the nodes which is kept if the heap usage is too high
+	private static final double HEAP_SHRINK_FACTOR = 0.9;
+
+	private final int maxNodes;
+	private final double maxHeapUsage;
+
+	private int addedNodesSinceHeapCheck = 0;
+	private long evictedNodes = 0;
+
+	/**
+	 * @param comparator the comparator to use for the nodes
+	 * @param maxNodes the maximum number of nodes, 0 for no limit
+	 * @param maxHeapUsage the maximum fraction of the max. heap size which is allowed to be
+	 *                     used before nodes are evicted, 0 for no limit
+	 */
+	public BoundedSearchTree(Comparator<T> comparator, int maxNodes, double maxHeapUsage) {
+		super(comparator);
+		this.maxNodes = maxNodes;
+		this.maxHeapUsage = maxHeapUsage;
+	}
+
+	@Override
+	public void addNode(T parentNode, T node) {
+		super.addNode(parentNode, node);
+
+		if (maxNodes > 0 && size() > maxNodes) {
+			evict(maxNodes);
+		}
+
+		if (maxHeapUsage > 0 && ++addedNodesSinceHeapCheck >= HEAP_CHECK_INTERVAL) {
+			addedNodesSinceHeapCheck = 0;
+			Runtime rt = Runtime.getRuntime();
+			long usedHeap = rt.totalMemory() - rt.freeMemory();
+			if (usedHeap > maxHeapUsage * rt.maxMemory()) {
+				evict((int) (size() * HEAP_SHRINK_FACTOR));
+			}
+		}
+	}
+
+	/**
+	 * Evicts leaves with the lowest score until the tree contains at most the given
+	 * number of nodes or there are no more leaves to evict.
+	 * @param limit the max. number of nodes
+	 */
+	protected void evict(int limit) {
+		Iterator<T> it = nodes.iterator();
+		while (size() > limit && it.hasNext()) {
+			T node = it.next();
+			if (node != root && node.getChildren().isEmpty()) {
+				it.remove();
+				node.getParent().removeChild(node);
+				evictedNodes++;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of nodes evicted so far
+	 */
+	public long getEvictedNodes() {
+		return evictedNodes;
+	}
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.datastructures;
+
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.dllearner.core.AbstractSearchTreeNode;
+
+/**
+ * A search tree which can be used by multiple threads without locking. The nodes
+ * are kept in a concurrent skip list, i.e. adding, removing and selecting nodes
+ * does not block other threads and iteration is weakly consistent: a thread
+ * looking for the best node may miss nodes which are updated concurrently, so
+ * the order in which nodes are expanded is only approximately the heuristic order.
+ *
+ * In contrast to the other search trees, updating a node does not re-sort its
+ * descendants. This requires that the comparator only depends on the mutable
+ * state of the node itself (and on immutable state of other nodes), which is
+ * the case for the heuristics of CELOE. A node must only be modified by the
+ * thread which currently expands it.
+ *
+ * @param <T> the type of the search tree nodes
+ */
+public class ConcurrentSearchTree<T extends AbstractSearchTreeNode> extends AbstractSearchTree<T> {
+
+	public ConcurrentSearchTree(Comparator<T> comparator) {
+		super(comparator);
+		nodes = new ConcurrentSkipListSet<>(sortOrderComp);
+	}
+
+	@Override
+	public void updatePrepare(T node) {
+		nodes.remove(node);
+	}
+
+	@Override
+	public void updateDone(T node) {
+		if (allowedNode(node)) {
+			nodes.add(node);
+		}
+	}
+
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.datastructures;
+
+import com.google.common.hash.Funnel;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A set which only stores a 128 bit fingerprint of each element instead of the element
+ * itself, i.e. it needs 32 bytes per element independent of the size of the elements.
+ * Two different elements with the same fingerprint are considered equal, but for 128 bit
+ * hashes the probability of such a collision is negligible. Elements can't be retrieved or
+ * removed. This class is not thread-safe.
+ *
+ * @param <T> the type of the elements
+ */
+public class FingerprintSet<T> {
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	private final Funnel<? super T> funnel;
+
+	// open addressing with linear probing, a slot is empty iff both values are 0
+	private long[] high;
+	private long[] low;
+	private int size = 0;
+
+	/**
+	 * @param funnel decomposes an element into primitive values to compute its fingerprint;
+	 *               equal elements have to be decomposed into the same values
+	 */
+	public FingerprintSet(Funnel<? super T> funnel) {
+		this.funnel = funnel;
+		high = new long[1024];
+		low = new long[1024];
+	}
+
+	/**
+	 * Adds the element to this set if it is not already present.
+	 *
+	 * @param element the element
+	 * @return <code>true</code> if this set did not already contain the element
+	 */
+	public boolean add(T element) {
+		ByteBuffer hash = ByteBuffer.wrap(HASH_FUNCTION.hashObject(element, funnel).asBytes()).order(ByteOrder.LITTLE_ENDIAN);
+		long h = hash.getLong();
+		// the lowest bit is always set to distinguish fingerprints from empty slots
+		long l = hash.getLong() | 1L;
+
+		if (2 * (size + 1) > high.length) {
+			resize();
+		}
+		int mask = high.length - 1;
+		int i = (int) h & mask;
+		while (low[i] != 0) {
+			if (high[i] == h && low[i] == l) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+		high[i] = h;
+		low[i] = l;
+		size++;
+		return true;
+	}
+
+	private void resize() {
+		long[] oldHigh = high;
+		long[] oldLow = low;
+		high = new long[oldHigh.length * 2];
+		low = new long[oldLow.length * 2];
+		int mask = high.length - 1;
+		for (int j = 0; j < oldHigh.length; j++) {
+			if (oldLow[j] != 0) {
+				int i = (int) oldHigh[j] & mask;
+				while (low[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				high[i] = oldHigh[j];
+				low[i] = oldLow[j];
+			}
+		}
+	}
+
+	/**
+	 * @return the number of elements in this set
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all elements.
+	 */
+	public void clear() {
+		high = new long[1024];
+		low = new long[1024];
+		size = 0;
+	}
+}
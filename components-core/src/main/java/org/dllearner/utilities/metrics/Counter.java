@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count, e.g. the number of instance checks.
+ */
+public class Counter implements Metric {
+
+	private final LongAdder count = new LongAdder();
+
+	public void inc() {
+		count.increment();
+	}
+
+	public void inc(long n) {
+		count.add(n);
+	}
+
+	/**
+	 * @return the current count
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	@Override
+	public void reset() {
+		count.reset();
+	}
+
+	@Override
+	public String toString() {
+		return String.valueOf(getCount());
+	}
+}
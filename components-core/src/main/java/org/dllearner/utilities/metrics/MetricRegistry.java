@@ -0,0 +1,234 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.core.Component;
+import org.dllearner.core.ComponentAnn;
+
+/**
+ * The registry of the metric sets of all components, keyed by component, e.g.
+ * the short name of the component. There is a single instance for the whole
+ * application, see {@link #getDefault()}. If several components register under
+ * the same key, the latest one wins, i.e. the registry does not keep components
+ * alive that are no longer used.
+ * <p>
+ * The metrics can be exported as JSON or in the Prometheus text format, in which
+ * the component becomes a label and timers are exported as summaries in seconds.
+ */
+public class MetricRegistry {
+
+	private static final MetricRegistry DEFAULT = new MetricRegistry();
+
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+	private final Map<String, MetricSet> metricSets = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the registry used by all components
+	 */
+	public static MetricRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * @param component the key of the component
+	 * @param metrics the metrics of the component
+	 */
+	public void register(String component, MetricSet metrics) {
+		metricSets.put(component, metrics);
+	}
+
+	/**
+	 * Register the metrics of a component under its short name.
+	 * @param component the component
+	 * @param metrics the metrics of the component
+	 */
+	public void register(Component component, MetricSet metrics) {
+		register(keyOf(component), metrics);
+	}
+
+	/**
+	 * @param component the component
+	 * @return the key of the component, i.e. its short name if it is annotated, otherwise its class name
+	 */
+	public static String keyOf(Component component) {
+		ComponentAnn ann = component.getClass().getAnnotation(ComponentAnn.class);
+		return ann != null ? ann.shortName() : component.getClass().getName();
+	}
+
+	/**
+	 * @param component the key of the component
+	 * @return the metrics of the component, created and registered if there are none
+	 */
+	public MetricSet getMetricSet(String component) {
+		return metricSets.computeIfAbsent(component, c -> new MetricSet());
+	}
+
+	/**
+	 * @param component the key of the component
+	 */
+	public void remove(String component) {
+		metricSets.remove(component);
+	}
+
+	/**
+	 * @return the metric sets sorted by component
+	 */
+	public SortedMap<String, MetricSet> getMetricSets() {
+		return Collections.unmodifiableSortedMap(new TreeMap<>(metricSets));
+	}
+
+	/**
+	 * Writes the current values of all metrics as JSON object with one entry per component.
+	 * @param writer the writer
+	 * @throws IOException if writing fails
+	 */
+	public void writeJSON(Writer writer) throws IOException {
+		writer.write("{");
+		boolean firstComponent = true;
+		for (Map.Entry<String, MetricSet> set : getMetricSets().entrySet()) {
+			writer.write(firstComponent ? "\n  " : ",\n  ");
+			firstComponent = false;
+			writer.write(quote(set.getKey()) + ": {");
+			boolean firstMetric = true;
+			for (Map.Entry<String, Metric> entry : set.getValue().getMetrics().entrySet()) {
+				writer.write(firstMetric ? "\n    " : ",\n    ");
+				firstMetric = false;
+				writer.write(quote(entry.getKey()) + ": ");
+				Metric metric = entry.getValue();
+				if (metric instanceof Counter) {
+					writer.write(String.valueOf(((Counter) metric).getCount()));
+				} else {
+					Histogram histogram = (Histogram) metric;
+					writer.write("{\"count\": " + histogram.getCount()
+							+ ", \"sum\": " + histogram.getSum()
+							+ ", \"mean\": " + histogram.getMean()
+							+ ", \"max\": " + histogram.getMax());
+					for (double q : QUANTILES) {
+						writer.write(", \"p" + Math.round(q * 100) + "\": " + histogram.getQuantile(q));
+					}
+					writer.write("}");
+				}
+			}
+			writer.write(firstMetric ? "}" : "\n  }");
+		}
+		writer.write(firstComponent ? "}\n" : "\n}\n");
+	}
+
+	/**
+	 * Writes the current values of all metrics in the Prometheus text exposition format.
+	 * @param writer the writer
+	 * @throws IOException if writing fails
+	 */
+	public void writePrometheus(Writer writer) throws IOException {
+		// group the metrics of all components by name, as each metric must be declared only once
+		SortedMap<String, List<Map.Entry<String, Metric>>> byName = new TreeMap<>();
+		for (Map.Entry<String, MetricSet> set : getMetricSets().entrySet()) {
+			for (Map.Entry<String, Metric> entry : set.getValue().getMetrics().entrySet()) {
+				byName.computeIfAbsent(entry.getKey(), k -> new ArrayList<>())
+						.add(new AbstractMap.SimpleEntry<>(set.getKey(), entry.getValue()));
+			}
+		}
+
+		for (Map.Entry<String, List<Map.Entry<String, Metric>>> entry : byName.entrySet()) {
+			List<Map.Entry<String, Metric>> metrics = entry.getValue();
+			Metric first = metrics.get(0).getValue();
+			String name = "dllearner_" + sanitize(entry.getKey());
+			if (first instanceof Counter) {
+				name += "_total";
+				writer.write("# TYPE " + name + " counter\n");
+			} else {
+				if (first instanceof Timer) {
+					name += "_seconds";
+				}
+				writer.write("# TYPE " + name + " summary\n");
+			}
+			for (Map.Entry<String, Metric> m : metrics) {
+				String label = "component=" + quote(m.getKey());
+				Metric metric = m.getValue();
+				if (metric instanceof Counter) {
+					writer.write(name + "{" + label + "} " + ((Counter) metric).getCount() + "\n");
+				} else if (metric instanceof Histogram) {
+					Histogram histogram = (Histogram) metric;
+					double scale = metric instanceof Timer ? 1d / TimeUnit.SECONDS.toNanos(1) : 1d;
+					for (double q : QUANTILES) {
+						writer.write(name + "{" + label + ",quantile=\"" + q + "\"} " + histogram.getQuantile(q) * scale + "\n");
+					}
+					writer.write(name + "_sum{" + label + "} " + histogram.getSum() * scale + "\n");
+					writer.write(name + "_count{" + label + "} " + histogram.getCount() + "\n");
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the current values of all metrics as JSON
+	 */
+	public String toJSON() {
+		StringWriter writer = new StringWriter();
+		try {
+			writeJSON(writer);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * @return the current values of all metrics in the Prometheus text format
+	 */
+	public String toPrometheus() {
+		StringWriter writer = new StringWriter();
+		try {
+			writePrometheus(writer);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * Reset the metrics of all components.
+	 */
+	public void reset() {
+		metricSets.values().forEach(MetricSet::reset);
+	}
+
+	private static String sanitize(String name) {
+		return name.replaceAll("[^a-zA-Z0-9_]", "_");
+	}
+
+	private static String quote(String s) {
+		return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The named metrics of a single component. Metric names should be lower case
+ * with underscores, e.g. <code>instance_checks</code>, as they are used as is
+ * in the exported formats.
+ */
+public class MetricSet {
+
+	private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+
+	/**
+	 * @param name the name of the counter
+	 * @return the counter with the given name, created if it does not exist
+	 */
+	public Counter counter(String name) {
+		return get(name, Counter.class, Counter::new);
+	}
+
+	/**
+	 * @param name the name of the histogram
+	 * @return the histogram with the given name, created if it does not exist
+	 */
+	public Histogram histogram(String name) {
+		return get(name, Histogram.class, Histogram::new);
+	}
+
+	/**
+	 * @param name the name of the timer
+	 * @return the timer with the given name, created if it does not exist
+	 */
+	public Timer timer(String name) {
+		return get(name, Timer.class, Timer::new);
+	}
+
+	private <T extends Metric> T get(String name, Class<T> type, Supplier<T> factory) {
+		Metric metric = metrics.computeIfAbsent(name, n -> factory.get());
+		if (metric.getClass() != type) {
+			throw new IllegalArgumentException("Metric " + name + " is a " + metric.getClass().getSimpleName()
+					+ " and not a " + type.getSimpleName());
+		}
+		return type.cast(metric);
+	}
+
+	/**
+	 * @return the metrics sorted by name
+	 */
+	public SortedMap<String, Metric> getMetrics() {
+		return Collections.unmodifiableSortedMap(new TreeMap<>(metrics));
+	}
+
+	/**
+	 * Reset all metrics of the set.
+	 */
+	public void reset() {
+		metrics.values().forEach(Metric::reset);
+	}
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically emits a snapshot of the metrics of a registry, e.g. to a log or a file
+ * scraped by Prometheus. In JSON mode, the snapshot object additionally contains the rate
+ * per second of every counter since the previous snapshot under the key {@code rates}.
+ */
+public class MetricsReporter {
+
+	private static final Logger logger = LoggerFactory.getLogger(MetricsReporter.class);
+
+	public enum Format {
+		JSON, PROMETHEUS
+	}
+
+	private final MetricRegistry registry;
+	private final Format format;
+	private final Consumer<String> output;
+
+	private ScheduledExecutorService scheduler;
+
+	private final Map<String, Long> lastCounts = new HashMap<>();
+	private long lastReportTime;
+
+	public MetricsReporter(MetricRegistry registry, Format format, Consumer<String> output) {
+		this.registry = registry;
+		this.format = format;
+		this.output = output;
+	}
+
+	/**
+	 * Start reporting in the background.
+	 * @param period the period between two reports
+	 * @param unit the time unit of the period
+	 */
+	public synchronized void start(long period, TimeUnit unit) {
+		if (scheduler != null) {
+			throw new IllegalStateException("Reporter already started.");
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "dllearner-metrics-reporter");
+			thread.setDaemon(true);
+			return thread;
+		});
+		lastReportTime = System.nanoTime();
+		scheduler.scheduleAtFixedRate(() -> {
+			try {
+				report();
+			} catch (Exception e) {
+				logger.warn("Failed to report metrics", e);
+			}
+		}, period, period, unit);
+	}
+
+	/**
+	 * Stop reporting and emit a final report.
+	 */
+	public synchronized void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+			report();
+		}
+	}
+
+	/**
+	 * Emit a report immediately.
+	 */
+	public synchronized void report() {
+		if (format == Format.PROMETHEUS) {
+			output.accept(registry.toPrometheus());
+		} else {
+			// add the rates as a member of the snapshot object, such that each report is a single JSON document
+			String snapshot = registry.toJSON().trim();
+			String members = snapshot.substring(1, snapshot.length() - 1).trim();
+			output.accept("{" + (members.isEmpty() ? "" : "\n  " + members + ",") + "\n  " + ratesToJSON() + "\n}\n");
+		}
+	}
+
+	private String ratesToJSON() {
+		long now = System.nanoTime();
+		double seconds = Math.max(now - lastReportTime, 1) / (double) TimeUnit.SECONDS.toNanos(1);
+		lastReportTime = now;
+
+		StringBuilder sb = new StringBuilder("\"rates\": {");
+		boolean first = true;
+		for (Map.Entry<String, MetricSet> set : registry.getMetricSets().entrySet()) {
+			for (Map.Entry<String, Metric> entry : set.getValue().getMetrics().entrySet()) {
+				if (entry.getValue() instanceof Counter) {
+					String key = set.getKey() + "." + entry.getKey();
+					long count = ((Counter) entry.getValue()).getCount();
+					Long last = lastCounts.put(key, count);
+					// a reset of the counter in between is reported as rate 0
+					long delta = last == null ? count : Math.max(count - last, 0);
+					sb.append(first ? "" : ", ")
+							.append('"').append(key.replace("\\", "\\\\").replace("\"", "\\\"")).append("\": ")
+							.append(delta / seconds);
+					first = false;
+				}
+			}
+		}
+		return sb.append("}").toString();
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The distribution of durations in nanoseconds, e.g. of instance checks.
+ * Usage:
+ * <pre>
+ * try (Timer.Context ctx = timer.time()) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class Timer extends Histogram {
+
+	/**
+	 * Measures the time between its creation and {@link #close()}.
+	 */
+	public class Context implements AutoCloseable {
+
+		private final long startTime = System.nanoTime();
+
+		/**
+		 * Stops the measurement.
+		 */
+		@Override
+		public void close() {
+			stop();
+		}
+
+		/**
+		 * Stops the measurement.
+		 * @return the elapsed time in nanoseconds
+		 */
+		public long stop() {
+			long duration = System.nanoTime() - startTime;
+			update(duration);
+			return duration;
+		}
+	}
+
+	/**
+	 * @return a new measurement started now
+	 */
+	public Context time() {
+		return new Context();
+	}
+
+	/**
+	 * @param duration the duration
+	 * @param unit the time unit of the duration
+	 */
+	public void update(long duration, TimeUnit unit) {
+		update(unit.toNanos(duration));
+	}
+}
@@ -18,7 +18,9 @@
  */
 package org.dllearner.utilities.owl;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.NavigableSet;
@@ -43,6 +45,10 @@ public class EvaluatedDescriptionSet {
 
 	private NavigableSet<EvaluatedDescription<? extends Score>> set = new TreeSet<>(comp);
 
+	// immutable copy of the set (best first), republished after each modification,
+	// such that other threads can read the current state without locking
+	private volatile List<EvaluatedDescription<? extends Score>> snapshot = Collections.emptyList();
+
 	private int maxSize;
 
 	/**
@@ -69,10 +75,11 @@ public class EvaluatedDescriptionSet {
 		// the worst result
 		if (set.size() < maxSize || getWorst().getAccuracy() <= accuracy) {
 			set.add(problem.evaluate(description));
-		}
-		// delete the worst element if set is full
-		if (set.size() > maxSize) {
-			set.pollFirst();
+			// delete the worst element if set is full
+			if (set.size() > maxSize) {
+				set.pollFirst();
+			}
+			publishSnapshot();
 		}
 	}
 
@@ -87,6 +94,7 @@ public class EvaluatedDescriptionSet {
 		if (set.size() > maxSize) {
 			set.pollFirst();
 		}
+		publishSnapshot();
 	}
 
 	/**
@@ -100,6 +108,14 @@ public class EvaluatedDescriptionSet {
 		}
 	}
 
+	/**
+	 * Removes all evaluated descriptions from this set.
+	 */
+	public void clear() {
+		set.clear();
+		publishSnapshot();
+	}
+
 	/**
 	 * @return true if this set with a maximum size of n contains n elements.
 	 */
@@ -142,6 +158,18 @@ public class EvaluatedDescriptionSet {
 		return set.isEmpty() ? Double.NEGATIVE_INFINITY : set.last().getAccuracy();
 	}
 
+	/**
+	 * @return an immutable copy of this set as of the last modification via this class,
+	 * best first; in contrast to {@link #getSet()} it can be read by any thread
+	 */
+	public List<EvaluatedDescription<? extends Score>> getSnapshot() {
+		return snapshot;
+	}
+
+	private void publishSnapshot() {
+		snapshot = Collections.unmodifiableList(new ArrayList<>(set.descendingSet()));
+	}
+
 	/**
 	 * @return the underlying set of evaluated descriptions.
 	 */
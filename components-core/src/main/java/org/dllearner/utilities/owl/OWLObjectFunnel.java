@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.owl;
+
+import java.util.Collection;
+
+import org.semanticweb.owlapi.model.HasFiller;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLCardinalityRestriction;
+import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataComplementOf;
+import org.semanticweb.owlapi.model.OWLDataOneOf;
+import org.semanticweb.owlapi.model.OWLDataRange;
+import org.semanticweb.owlapi.model.OWLDatatypeRestriction;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLFacetRestriction;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLNaryBooleanClassExpression;
+import org.semanticweb.owlapi.model.OWLNaryDataRange;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectComplementOf;
+import org.semanticweb.owlapi.model.OWLObjectInverseOf;
+import org.semanticweb.owlapi.model.OWLObjectOneOf;
+import org.semanticweb.owlapi.model.OWLPropertyAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLRestriction;
+import org.semanticweb.owlapi.util.SimpleRenderer;
+
+import com.google.common.hash.Funnel;
+import com.google.common.hash.PrimitiveSink;
+
+/**
+ * Decomposes OWL objects into primitive values, e.g. to compute fingerprints of them.
+ * In contrast to {@link Object#toString()}, whose result depends on the globally
+ * configured renderer and by default contains only the local names of the entities,
+ * structurally different objects are always decomposed into different values: entities
+ * by their type and full IRI, class expressions and data ranges by their type and their
+ * operands, restrictions by their property, cardinality and filler, and literals by
+ * their lexical form, datatype and language. The same holds for class and property
+ * assertions without annotations, which usually make up the largest part of an ontology.
+ * All other objects, e.g. the remaining axioms, are decomposed into their functional
+ * syntax rendering with full IRIs.
+ */
+public enum OWLObjectFunnel implements Funnel<OWLObject> {
+
+	INSTANCE;
+
+	private static final byte ENTITY = 1;
+	private static final byte CLASS_EXPRESSION = 2;
+	private static final byte INVERSE_PROPERTY = 3;
+	private static final byte ANONYMOUS_INDIVIDUAL = 4;
+	private static final byte LITERAL = 5;
+	private static final byte DATA_RANGE = 6;
+	private static final byte FACET_RESTRICTION = 7;
+	private static final byte ASSERTION = 8;
+	private static final byte OTHER = 9;
+
+	@Override
+	public void funnel(OWLObject object, PrimitiveSink into) {
+		if (object instanceof OWLEntity) {
+			OWLEntity entity = (OWLEntity) object;
+			into.putByte(ENTITY);
+			putString(entity.getEntityType().getName(), into);
+			putString(entity.toStringID(), into);
+		} else if (object instanceof OWLClassExpression) {
+			OWLClassExpression ce = (OWLClassExpression) object;
+			into.putByte(CLASS_EXPRESSION).putInt(ce.getClassExpressionType().ordinal());
+			if (ce instanceof OWLNaryBooleanClassExpression) {
+				funnelAll(((OWLNaryBooleanClassExpression) ce).getOperands(), into);
+			} else if (ce instanceof OWLObjectComplementOf) {
+				funnel(((OWLObjectComplementOf) ce).getOperand(), into);
+			} else if (ce instanceof OWLObjectOneOf) {
+				funnelAll(((OWLObjectOneOf) ce).getIndividuals(), into);
+			} else if (ce instanceof OWLRestriction) {
+				funnel(((OWLRestriction) ce).getProperty(), into);
+				if (ce instanceof OWLCardinalityRestriction) {
+					into.putInt(((OWLCardinalityRestriction<?>) ce).getCardinality());
+				}
+				if (ce instanceof HasFiller) {
+					funnel(((HasFiller<?>) ce).getFiller(), into);
+				}
+			}
+		} else if (object instanceof OWLObjectInverseOf) {
+			into.putByte(INVERSE_PROPERTY);
+			funnel(((OWLObjectInverseOf) object).getInverse(), into);
+		} else if (object instanceof OWLAnonymousIndividual) {
+			into.putByte(ANONYMOUS_INDIVIDUAL);
+			putString(((OWLAnonymousIndividual) object).toStringID(), into);
+		} else if (object instanceof OWLLiteral) {
+			OWLLiteral lit = (OWLLiteral) object;
+			into.putByte(LITERAL);
+			putString(lit.getLiteral(), into);
+			putString(lit.getDatatype().toStringID(), into);
+			putString(lit.getLang(), into);
+		} else if (object instanceof OWLDataRange) {
+			OWLDataRange dr = (OWLDataRange) object;
+			into.putByte(DATA_RANGE).putInt(dr.getDataRangeType().ordinal());
+			if (dr instanceof OWLNaryDataRange) {
+				funnelAll(((OWLNaryDataRange) dr).getOperands(), into);
+			} else if (dr instanceof OWLDataComplementOf) {
+				funnel(((OWLDataComplementOf) dr).getDataRange(), into);
+			} else if (dr instanceof OWLDataOneOf) {
+				funnelAll(((OWLDataOneOf) dr).getValues(), into);
+			} else if (dr instanceof OWLDatatypeRestriction) {
+				funnel(((OWLDatatypeRestriction) dr).getDatatype(), into);
+				funnelAll(((OWLDatatypeRestriction) dr).getFacetRestrictions(), into);
+			}
+		} else if (object instanceof OWLFacetRestriction) {
+			OWLFacetRestriction fr = (OWLFacetRestriction) object;
+			into.putByte(FACET_RESTRICTION);
+			putString(fr.getFacet().getIRI().toString(), into);
+			funnel(fr.getFacetValue(), into);
+		} else if (object instanceof OWLClassAssertionAxiom && !((OWLAxiom) object).isAnnotated()) {
+			OWLClassAssertionAxiom axiom = (OWLClassAssertionAxiom) object;
+			into.putByte(ASSERTION).putInt(axiom.getAxiomType().getIndex());
+			funnel(axiom.getIndividual(), into);
+			funnel(axiom.getClassExpression(), into);
+		} else if (object instanceof OWLPropertyAssertionAxiom && !((OWLAxiom) object).isAnnotated()) {
+			OWLPropertyAssertionAxiom<?, ?> axiom = (OWLPropertyAssertionAxiom<?, ?>) object;
+			into.putByte(ASSERTION).putInt(axiom.getAxiomType().getIndex());
+			funnel(axiom.getSubject(), into);
+			funnel(axiom.getProperty(), into);
+			funnel(axiom.getObject(), into);
+		} else {
+			into.putByte(OTHER);
+			putString(new SimpleRenderer().render(object), into);
+		}
+	}
+
+	// the objects are funneled in their natural order, prefixed by their number
+	private void funnelAll(Collection<? extends OWLObject> objects, PrimitiveSink into) {
+		into.putInt(objects.size());
+		objects.stream().sorted().forEach(o -> funnel(o, into));
+	}
+
+	private static void putString(String s, PrimitiveSink into) {
+		into.putInt(s.length()).putUnencodedChars(s);
+	}
+}
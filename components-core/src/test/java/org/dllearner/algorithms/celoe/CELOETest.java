@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.celoe;
+
+import org.dllearner.core.AbstractClassExpressionLearningProblem;
+import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.ComponentInitException;
+import org.dllearner.kb.OWLFile;
+import org.dllearner.learningproblems.ClassLearningProblem;
+import org.dllearner.learningproblems.PosNegLPStandard;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import uk.ac.manchester.cs.owl.owlapi.OWLClassImpl;
+import uk.ac.manchester.cs.owl.owlapi.OWLNamedIndividualImpl;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the CELOE algorithm.
+ */
+public class CELOETest {
+
+	private static final String NS = "http://example.com/father#";
+
+	private static AbstractReasonerComponent reasoner;
+
+	@BeforeClass
+	public static void setUp() throws ComponentInitException {
+		OWLFile ks = new OWLFile("../examples/family/father_oe.owl");
+		ks.init();
+		reasoner = new ClosedWorldReasoner(ks);
+		reasoner.init();
+	}
+
+	@Test
+	public void incrementalCoveragePosNegTest() throws ComponentInitException {
+		PosNegLPStandard lp = new PosNegLPStandard(reasoner);
+		lp.setPositiveExamples(individuals("stefan", "markus", "martin"));
+		lp.setNegativeExamples(individuals("heinz", "anna", "michelle"));
+		lp.init();
+
+		compareWithIncrementalCoverage(lp);
+	}
+
+	@Test
+	public void incrementalCoverageClassLearningTest() throws ComponentInitException {
+		ClassLearningProblem lp = new ClassLearningProblem(reasoner);
+		lp.setClassToDescribe(new OWLClassImpl(IRI.create(NS + "father")));
+		lp.init();
+
+		compareWithIncrementalCoverage(lp);
+	}
+
+	@Test
+	public void parallelSearchTest() throws ComponentInitException {
+		ClassLearningProblem lp = new ClassLearningProblem(reasoner);
+		lp.setClassToDescribe(new OWLClassImpl(IRI.create(NS + "father")));
+		lp.setCheckConsistency(false);
+		lp.init();
+
+		PCELOE alg = new PCELOE(lp, reasoner);
+		alg.setMaxExecutionTimeInSeconds(10);
+		alg.setNrOfThreads(4);
+		alg.setStopOnFirstDefinition(true);
+		alg.init();
+		alg.start();
+
+		assertEquals(1.0, alg.getCurrentlyBestAccuracy(), 0.0);
+	}
+
+	private void compareWithIncrementalCoverage(AbstractClassExpressionLearningProblem lp) throws ComponentInitException {
+		CELOE standard = run(lp, false);
+		CELOE incremental = run(lp, true);
+
+		assertEquals(standard.getClassExpressionTests(), incremental.getClassExpressionTests());
+		assertEquals(standard.getCurrentlyBestDescription(), incremental.getCurrentlyBestDescription());
+		assertEquals(standard.getCurrentlyBestAccuracy(), incremental.getCurrentlyBestAccuracy(), 0.0);
+	}
+
+	private CELOE run(AbstractClassExpressionLearningProblem lp, boolean useIncrementalCoverage) throws ComponentInitException {
+		CELOE alg = new CELOE(lp, reasoner);
+		alg.setMaxExecutionTimeInSeconds(0);
+		alg.setMaxClassExpressionTests(300);
+		alg.setUseIncrementalCoverage(useIncrementalCoverage);
+		alg.init();
+		alg.start();
+		return alg;
+	}
+
+	private static Set<OWLIndividual> individuals(String... names) {
+		Set<OWLIndividual> individuals = new TreeSet<>();
+		for (String name : names) {
+			individuals.add(new OWLNamedIndividualImpl(IRI.create(NS + name)));
+		}
+		return individuals;
+	}
+}
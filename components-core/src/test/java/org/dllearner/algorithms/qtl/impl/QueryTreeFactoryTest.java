@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.impl;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.dllearner.algorithms.qtl.QueryTreeUtils;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the generation of query trees, in parallel and with the cache.
+ */
+public class QueryTreeFactoryTest {
+
+	private static final String NS = "http://dl-learner.org/test/";
+	private static final int MAX_DEPTH = 3;
+
+	private Model model;
+
+	@Before
+	public void setUp() throws Exception {
+		String kb = "" +
+				"@prefix : <" + NS + "> ." +
+				"@prefix rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> ." +
+				":x1 rdf:type :A ; :p :y ; :q :y ." +
+				":x2 rdf:type :A ; :p :y ; :q [ :r :z ] ." +
+				":x3 rdf:type :B ; :q :y ." +
+				":y rdf:type :C ; :r :z ; :s \"y\" ." +
+				":z :t :x1 .";
+
+		model = ModelFactory.createDefaultModel();
+		RDFDataMgr.read(model, new StringReader(kb), null, Lang.TURTLE);
+	}
+
+	@Test
+	public void testSharedSubTrees() {
+		QueryTreeFactory factory = new QueryTreeFactoryBase();
+		RDFResourceTree tree = factory.getQueryTree(NS + "x1", model, MAX_DEPTH);
+
+		// x1 reaches y twice with the same remaining depth
+		RDFResourceTree viaP = tree.getChildren(NodeFactory.createURI(NS + "p")).get(0);
+		RDFResourceTree viaQ = tree.getChildren(NodeFactory.createURI(NS + "q")).get(0);
+		assertNotSame(viaP, viaQ);
+		assertTrue(QueryTreeUtils.sameTrees(viaP, viaQ));
+		// y with type, r->z->t->x1 cut at depth 3, and the literal
+		assertEquals(5, QueryTreeUtils.getNrOfNodes(viaP));
+		assertEquals(1 + 1 + 2 * 5, QueryTreeUtils.getNrOfNodes(tree));
+	}
+
+	@Test
+	public void testParallelGeneration() {
+		QueryTreeFactory factory = new QueryTreeFactoryBase();
+		List<String> resources = Arrays.asList(NS + "x1", NS + "x2", NS + "x3", NS + "y", NS + "z");
+		Map<String, RDFResourceTree> trees = factory.getQueryTrees(resources, resource -> model, MAX_DEPTH, 4);
+
+		assertEquals(resources, Arrays.asList(trees.keySet().toArray()));
+		for (String resource : resources) {
+			RDFResourceTree expected = factory.getQueryTree(resource, model, MAX_DEPTH);
+			assertTrue(QueryTreeUtils.sameTrees(expected, trees.get(resource)));
+			assertEquals(expected.getStringRepresentation(), trees.get(resource).getStringRepresentation());
+		}
+	}
+
+	@Test
+	public void testCache() {
+		QueryTreeFactoryCache factory = new QueryTreeFactoryCache(new QueryTreeFactoryBase());
+		RDFResourceTree tree1 = factory.getQueryTree(NS + "x2", model, MAX_DEPTH);
+		RDFResourceTree tree2 = factory.getQueryTree(NS + "x2", model, MAX_DEPTH);
+		factory.getQueryTree(NS + "x2", model, MAX_DEPTH - 1);
+
+		assertEquals(1, factory.getStats().hitCount());
+		assertEquals(2, factory.size());
+		assertNotSame(tree1, tree2);
+		assertEquals(tree1.getStringRepresentation(), tree2.getStringRepresentation());
+
+		// modifying a returned tree must not affect the cached one
+		int nrOfNodes = QueryTreeUtils.getNrOfNodes(tree1);
+		tree1.addChild(new RDFResourceTree(), NodeFactory.createURI(NS + "p"));
+		assertEquals(nrOfNodes, QueryTreeUtils.getNrOfNodes(factory.getQueryTree(NS + "x2", model, MAX_DEPTH)));
+
+		factory.addDropFilters(st -> !st.getPredicate().getURI().equals(NS + "q"));
+		assertEquals(0, factory.size());
+		assertNull(factory.getQueryTree(NS + "x2", model, MAX_DEPTH).getChildren(NodeFactory.createURI(NS + "q")));
+	}
+
+	@Test
+	public void testCachePerModel() {
+		QueryTreeFactoryCache factory = new QueryTreeFactoryCache(new QueryTreeFactoryBase());
+		RDFResourceTree tree = factory.getQueryTree(NS + "x2", model, MAX_DEPTH);
+
+		// the same resource in another model must not get the tree of the first model
+		Model otherModel = ModelFactory.createDefaultModel();
+		otherModel.add(otherModel.createResource(NS + "x2"), otherModel.createProperty(NS + "r"), otherModel.createResource(NS + "y"));
+		RDFResourceTree otherTree = factory.getQueryTree(NS + "x2", otherModel, MAX_DEPTH);
+
+		assertEquals(0, factory.getStats().hitCount());
+		assertEquals(2, factory.size());
+		assertEquals(1, otherTree.getEdges().size());
+		assertNotEquals(tree.getStringRepresentation(), otherTree.getStringRepresentation());
+	}
+}
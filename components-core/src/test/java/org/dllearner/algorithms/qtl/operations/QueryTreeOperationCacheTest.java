@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.operations;
+
+import static org.junit.Assert.*;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.dllearner.algorithms.qtl.QueryTreeUtils;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.algorithms.qtl.operations.lgg.LGGGeneratorSimple;
+import org.junit.Test;
+
+public class QueryTreeOperationCacheTest {
+
+	private static final String NS = "http://dl-learner.org/test/";
+
+	private static Node uri(String name) {
+		return NodeFactory.createURI(NS + name);
+	}
+
+	/*
+	 * ?x -type-> cls
+	 *    -p-> ?y -q-> o1
+	 *    -p-> o2
+	 * where the children of p are added in the given order
+	 */
+	private static RDFResourceTree tree(String cls, String o1, String o2, boolean reverse) {
+		RDFResourceTree tree = new RDFResourceTree();
+		tree.addChild(new RDFResourceTree(uri(cls)), RDF.type.asNode());
+
+		RDFResourceTree child1 = new RDFResourceTree();
+		child1.addChild(new RDFResourceTree(uri(o1)), uri("q"));
+		RDFResourceTree child2 = new RDFResourceTree(uri(o2));
+		if (reverse) {
+			tree.addChild(child2, uri("p"));
+			tree.addChild(child1, uri("p"));
+		} else {
+			tree.addChild(child1, uri("p"));
+			tree.addChild(child2, uri("p"));
+		}
+		return tree;
+	}
+
+	@Test
+	public void testCanonicalForm() {
+		QueryTreeOperationCache cache = new QueryTreeOperationCache(100);
+
+		assertEquals(cache.getCanonicalForm(tree("A", "a", "b", false)), cache.getCanonicalForm(tree("A", "a", "b", false)));
+		assertEquals(cache.getCanonicalForm(tree("A", "a", "b", false)), cache.getCanonicalForm(tree("A", "a", "b", true)));
+		assertNotEquals(cache.getCanonicalForm(tree("A", "a", "b", false)), cache.getCanonicalForm(tree("B", "a", "b", false)));
+		assertNotEquals(cache.getCanonicalForm(tree("A", "a", "b", false)), cache.getCanonicalForm(tree("A", "b", "a", false)));
+	}
+
+	@Test
+	public void testLGG() {
+		QueryTreeOperationCache cache = new QueryTreeOperationCache(100);
+		LGGGeneratorSimple lggGen = new LGGGeneratorSimple();
+
+		RDFResourceTree tree1 = tree("A", "a", "b", false);
+		RDFResourceTree tree2 = tree("A", "c", "b", false);
+		RDFResourceTree lgg = lggGen.getLGG(tree1, tree2);
+
+		assertTrue(QueryTreeUtils.sameTrees(lgg, cache.getLGG(tree1, tree2, lggGen)));
+		assertEquals(0, cache.getLGGStats().hitCount());
+
+		// structurally equal trees and the swapped pair have to hit the cache
+		assertTrue(QueryTreeUtils.sameTrees(lgg, cache.getLGG(tree("A", "a", "b", true), tree2, lggGen)));
+		assertTrue(QueryTreeUtils.sameTrees(lgg, cache.getLGG(tree2, tree1, lggGen)));
+		assertEquals(2, cache.getLGGStats().hitCount());
+		assertEquals(1, cache.getLGGStats().missCount());
+
+		cache.resetStatistics();
+		assertEquals(0, cache.getLGGStats().requestCount());
+	}
+
+	@Test
+	public void testSubsumption() {
+		QueryTreeOperationCache cache = new QueryTreeOperationCache(100);
+		LGGGeneratorSimple lggGen = new LGGGeneratorSimple();
+
+		RDFResourceTree tree1 = tree("A", "a", "b", false);
+		RDFResourceTree tree2 = tree("B", "a", "b", false);
+		RDFResourceTree lgg = lggGen.getLGG(tree1, tree2);
+
+		RDFResourceTree[] trees = {tree1, tree2, lgg};
+		for (int i = 0; i < 2; i++) {
+			for (RDFResourceTree t1 : trees) {
+				for (RDFResourceTree t2 : trees) {
+					assertEquals(QueryTreeUtils.isSubsumedBy(t1, t2), cache.isSubsumedBy(t1, t2));
+				}
+			}
+		}
+		assertEquals(9, cache.getSubsumptionStats().missCount());
+		assertEquals(9, cache.getSubsumptionStats().hitCount());
+	}
+}
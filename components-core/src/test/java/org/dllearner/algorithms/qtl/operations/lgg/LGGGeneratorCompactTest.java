@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.algorithms.qtl.operations.lgg;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.dllearner.algorithms.qtl.QueryTreeUtils;
+import org.dllearner.algorithms.qtl.datastructures.impl.CompactRDFResourceTree;
+import org.dllearner.algorithms.qtl.datastructures.impl.NodeDictionary;
+import org.dllearner.algorithms.qtl.datastructures.impl.RDFResourceTree;
+import org.dllearner.algorithms.qtl.impl.QueryTreeFactory;
+import org.dllearner.algorithms.qtl.impl.QueryTreeFactoryBase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the compact tree representation gives the same results for
+ * subsumption and LGG as {@link RDFResourceTree}.
+ */
+public class LGGGeneratorCompactTest {
+
+	private static final String NS = "http://dl-learner.org/test/";
+	private static final int MAX_DEPTH = 2;
+
+	private Model model;
+	private QueryTreeFactory treeFactory;
+	private NodeDictionary dictionary;
+
+	@Before
+	public void setUp() throws Exception {
+		String kb = "" +
+				"@prefix : <http://dl-learner.org/test/> ." +
+				"@prefix rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> ." +
+				"@prefix xsd: <http://www.w3.org/2001/XMLSchema#> ." +
+				":x1 rdf:type :A ; :r :y1 ; :s :z1 ; :age \"30\"^^xsd:int ." +
+				":y1 rdf:type :B ; :t :z1 ." +
+				":x2 rdf:type :A ; :r :y2 ; :r :y3 ; :age \"31\"^^xsd:int ." +
+				":y2 rdf:type :B ; :t :z2 ." +
+				":y3 rdf:type :C ; :t :z1 ." +
+				":x3 rdf:type :A ; rdf:type :D ; :r :y1 ; :s :z1 ; :name \"x3\" .";
+
+		model = ModelFactory.createDefaultModel();
+		RDFDataMgr.read(model, new StringReader(kb), null, Lang.TURTLE);
+
+		treeFactory = new QueryTreeFactoryBase();
+		dictionary = new NodeDictionary();
+	}
+
+	private RDFResourceTree getTree(String name) {
+		return treeFactory.getQueryTree(NS + name, model, MAX_DEPTH);
+	}
+
+	@Test
+	public void testConversion() {
+		RDFResourceTree tree = getTree("x2");
+		CompactRDFResourceTree compactTree = CompactRDFResourceTree.of(tree, dictionary);
+
+		assertEquals(QueryTreeUtils.getNrOfNodes(tree), compactTree.size());
+		assertTrue(QueryTreeUtils.sameTrees(tree, compactTree.toRDFResourceTree()));
+		assertEquals(compactTree, CompactRDFResourceTree.of(tree, dictionary));
+	}
+
+	@Test
+	public void testSubsumption() {
+		List<RDFResourceTree> trees = new ArrayList<>();
+		for (String name : Arrays.asList("x1", "x2", "x3")) {
+			trees.add(getTree(name));
+		}
+		LGGGeneratorSimple lggGen = new LGGGeneratorSimple();
+		trees.add(lggGen.getLGG(trees.get(0), trees.get(1)));
+		trees.add(lggGen.getLGG(trees.get(0), trees.get(2)));
+
+		for (RDFResourceTree tree1 : trees) {
+			for (RDFResourceTree tree2 : trees) {
+				assertEquals(QueryTreeUtils.isSubsumedBy(tree1, tree2),
+							 QueryTreeUtils.isSubsumedBy(
+									 CompactRDFResourceTree.of(tree1, dictionary),
+									 CompactRDFResourceTree.of(tree2, dictionary)));
+			}
+		}
+	}
+
+	@Test
+	public void testLGG() {
+		LGGGeneratorSimple lggGenSimple = new LGGGeneratorSimple();
+		LGGGeneratorCompact lggGenCompact = new LGGGeneratorCompact(dictionary);
+
+		String[][] pairs = {{"x1", "x2"}, {"x1", "x3"}, {"x2", "x3"}, {"x1", "x1"}};
+		for (String[] pair : pairs) {
+			RDFResourceTree tree1 = getTree(pair[0]);
+			RDFResourceTree tree2 = getTree(pair[1]);
+
+			RDFResourceTree lgg = lggGenSimple.getLGG(tree1, tree2);
+			CompactRDFResourceTree compactLgg = lggGenCompact.getLGG(
+					CompactRDFResourceTree.of(tree1, dictionary),
+					CompactRDFResourceTree.of(tree2, dictionary));
+
+			assertTrue(lggGenCompact.isComplete());
+			assertTrue(QueryTreeUtils.sameTrees(lgg, compactLgg.toRDFResourceTree()));
+			assertTrue(QueryTreeUtils.isSubsumedBy(CompactRDFResourceTree.of(tree1, dictionary), compactLgg));
+			assertTrue(QueryTreeUtils.isSubsumedBy(CompactRDFResourceTree.of(tree2, dictionary), compactLgg));
+		}
+	}
+
+	@Test
+	public void testSharedSubtrees() {
+		CompactRDFResourceTree tree = CompactRDFResourceTree.of(getTree("x1"), dictionary);
+
+		// the LGG of a tree with itself is the tree
+		assertSame(tree, new LGGGeneratorCompact(dictionary).getLGG(tree, tree));
+	}
+}
@@ -42,4 +42,12 @@ public class AnnComponentManagerTest {
         // currently: [class org.dllearner.reasoning.OWLAPIReasoner, class org.dllearner.reasoning.FastInstanceChecker]
         Assert.assertTrue(components.size() >= 1);
     }
+
+    @Test
+    public void testGetComponentClass() {
+        AnnComponentManager cm = AnnComponentManager.getInstance();
+        Assert.assertEquals("org.dllearner.algorithms.celoe.CELOE", cm.getComponentClass("CELOE", true).getName());
+        Assert.assertEquals("org.dllearner.algorithms.celoe.CELOE", cm.getComponentClass("celoe", true).getName());
+        Assert.assertNull(cm.getComponentClass("no such component", true));
+    }
 }
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core.annotations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.dllearner.core.ComponentIndex;
+import org.junit.Test;
+
+public class ComponentIndexProcessorTest {
+
+	private static final String COMPONENT_SOURCE =
+			"package test;\n" +
+			"import org.dllearner.core.*;\n" +
+			"import org.dllearner.core.config.ConfigOption;\n" +
+			"@ComponentAnn(name = \"test component\", shortName = \"testcomp\", version = 0.1)\n" +
+			"public class TestComponent extends AbstractComponent {\n" +
+			"	@ConfigOption(description = \"an option\")\n" +
+			"	private int foo;\n" +
+			"	@Override public void init() {}\n" +
+			"}\n";
+
+	private static final String ABSTRACT_COMPONENT_SOURCE =
+			"package test;\n" +
+			"import org.dllearner.core.*;\n" +
+			"@ComponentAnn(name = \"abstract component\", shortName = \"abstractcomp\", version = 0.1)\n" +
+			"public abstract class AbstractTestComponent extends AbstractComponent {}\n";
+
+	@Test
+	public void testIndex() throws IOException {
+		Path dir = Files.createTempDirectory("componentindex");
+		Path src = Files.createDirectories(dir.resolve("src/test"));
+		Path out = Files.createDirectories(dir.resolve("out"));
+		Files.write(src.resolve("TestComponent.java"), COMPONENT_SOURCE.getBytes(StandardCharsets.UTF_8));
+		Files.write(src.resolve("AbstractTestComponent.java"), ABSTRACT_COMPONENT_SOURCE.getBytes(StandardCharsets.UTF_8));
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		List<String> args = Arrays.asList(
+				"-classpath", System.getProperty("java.class.path"),
+				"-processor", ComponentIndexProcessor.class.getName(),
+				"-d", out.toString(),
+				src.resolve("TestComponent.java").toString(),
+				src.resolve("AbstractTestComponent.java").toString());
+		assertEquals(0, compiler.run(null, null, null, args.toArray(new String[args.size()])));
+
+		File indexFile = out.resolve(ComponentIndex.INDEX_RESOURCE).toFile();
+		assertTrue(indexFile.exists());
+
+		ComponentIndex index = ComponentIndex.load(new URLClassLoader(new URL[]{out.toUri().toURL()}, null));
+		assertEquals(1, index.getEntries().size());
+		ComponentIndex.Entry entry = index.getEntry("test.TestComponent");
+		assertEquals("test component", entry.getName());
+		assertEquals("testcomp", entry.getShortName());
+		assertEquals(0.1, entry.getVersion(), 0);
+		assertEquals(Collections.singletonList("foo"), entry.getConfigOptions());
+	}
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.core.owl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+public class ClassHierarchyTest {
+
+	private static final OWLDataFactory df = new OWLDataFactoryImpl();
+
+	private final OWLClass thing = df.getOWLThing();
+	private final OWLClass nothing = df.getOWLNothing();
+	private final OWLClass person = cls("Person");
+	private final OWLClass student = cls("Student");
+	private final OWLClass employee = cls("Employee");
+	private final OWLClass tutor = cls("Tutor");
+	private final OWLClass place = cls("Place");
+
+	private SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> up;
+	private SortedMap<OWLClassExpression, SortedSet<OWLClassExpression>> down;
+	private ClassHierarchy hierarchy;
+
+	private static OWLClass cls(String name) {
+		return df.getOWLClass(IRI.create("http://example.org/" + name));
+	}
+
+	private static SortedSet<OWLClassExpression> set(OWLClassExpression... classes) {
+		return new TreeSet<>(Arrays.asList(classes));
+	}
+
+	@Before
+	public void setUp() {
+		// Tutor is a Student and an Employee, both are Persons
+		up = new TreeMap<>();
+		down = new TreeMap<>();
+		up.put(thing, set());
+		up.put(person, set(thing));
+		up.put(place, set(thing));
+		up.put(student, set(person));
+		up.put(employee, set(person));
+		up.put(tutor, set(student, employee));
+		up.put(nothing, set(tutor, place));
+		down.put(thing, set(person, place));
+		down.put(person, set(student, employee));
+		down.put(student, set(tutor));
+		down.put(employee, set(tutor));
+		down.put(tutor, set(nothing));
+		down.put(place, set(nothing));
+		down.put(nothing, set());
+		hierarchy = new ClassHierarchy(up, down);
+	}
+
+	@Test
+	public void testSubsumption() {
+		assertTrue(hierarchy.isSubclassOf(tutor, person));
+		assertTrue(hierarchy.isSubclassOf(tutor, thing));
+		assertTrue(hierarchy.isSubclassOf(nothing, place));
+		assertTrue(hierarchy.isSubclassOf(student, student));
+		assertFalse(hierarchy.isSubclassOf(person, tutor));
+		assertFalse(hierarchy.isSubclassOf(tutor, place));
+		assertFalse(hierarchy.isSubclassOf(cls("Unknown"), thing));
+	}
+
+	@Test
+	public void testAncestorsAndDescendants() {
+		assertEquals(set(student, employee), hierarchy.getSuperClasses(tutor, true));
+		assertEquals(set(student, employee, person, thing), hierarchy.getSuperClasses(tutor));
+		assertEquals(set(person, place), hierarchy.getSubClasses(thing, true));
+		assertEquals(set(person, student, employee, tutor, place, nothing), hierarchy.getSubClasses(thing));
+		assertEquals(set(employee), hierarchy.getSiblingClasses(student));
+		assertTrue(hierarchy.getSubClasses(cls("Unknown")).isEmpty());
+
+		// transitive queries must not change the underlying hierarchy
+		assertEquals(set(person, place), down.get(thing));
+		assertEquals(set(student, employee), up.get(tutor));
+	}
+
+	@Test
+	public void testCycles() {
+		// e.g. hierarchies built from SPARQL endpoints can contain cycles
+		up.put(person, set(thing, tutor));
+		down.put(tutor, set(nothing, person));
+		hierarchy = new ClassHierarchy(up, down);
+
+		assertTrue(hierarchy.isSubclassOf(person, tutor));
+		assertTrue(hierarchy.isSubclassOf(tutor, person));
+		assertEquals(set(student, employee, person, thing), hierarchy.getSuperClasses(tutor));
+	}
+
+	@Test
+	public void testChangedHierarchy() {
+		assertEquals(set(tutor), hierarchy.getSubClasses(student, true));
+
+		// Tutor can only be reached via its first parent Employee afterwards
+		hierarchy.thinOutSubsumptionHierarchy();
+
+		assertTrue(hierarchy.getSubClasses(student, true).isEmpty());
+		assertEquals(set(tutor), hierarchy.getSubClasses(employee, true));
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the binary, compressed SPARQL query cache.
+ */
+public class CompressedQueryCacheTest {
+
+	private CompressedQueryCache cache;
+
+	@Before
+	public void setUp() throws SQLException {
+		cache = new CompressedQueryCache(DriverManager.getConnection("jdbc:h2:mem:querycache", "sa", ""));
+	}
+
+	@After
+	public void tearDown() throws SQLException {
+		cache.close();
+	}
+
+	private Model createModel(int nrOfTriples) {
+		Model model = ModelFactory.createDefaultModel();
+		Resource s = model.createResource("http://example.com/s");
+		for (int i = 0; i < nrOfTriples; i++) {
+			s.addProperty(model.createProperty("http://example.com/p" + i), "value " + i, "en");
+		}
+		return model;
+	}
+
+	@Test
+	public void testModelAndString() {
+		String query = "CONSTRUCT {?s ?p ?o} WHERE {?s ?p ?o}";
+		assertNull(cache.getModel(query));
+
+		Model model = createModel(10);
+		cache.putModel(query, model);
+		assertTrue(model.isIsomorphicWith(cache.getModel(query)));
+
+		String selectQuery = "SELECT * WHERE {?s ?p ?o}";
+		cache.putString(selectQuery, "{\"results\": \"äöü\"}");
+		assertEquals("{\"results\": \"äöü\"}", cache.getString(selectQuery));
+
+		// replacing an entry
+		cache.putModel(query, createModel(2));
+		assertEquals(2, cache.getModel(query).size());
+
+		assertEquals(3, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void testTimeToLive() {
+		String query = "CONSTRUCT {?s ?p ?o} WHERE {?s ?p ?o}";
+		cache.putModel(query, createModel(10));
+		cache.setTimeToLive(0);
+		assertNull(cache.getModel(query));
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void testSizeBasedEviction() throws InterruptedException {
+		cache.putModel("q1", createModel(100));
+		long entrySize = cache.getSize();
+		cache.setMaxSize(entrySize + entrySize / 2);
+
+		// the older entry has to be evicted
+		Thread.sleep(5);
+		cache.putModel("q2", createModel(100));
+		assertNull(cache.getModel("q1"));
+		assertEquals(100, cache.getModel("q2").size());
+		assertEquals(1, cache.getEvictionCount());
+		assertTrue(cache.getSize() <= cache.getMaxSize());
+	}
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aksw.jena_sparql_api.core.QueryExecutionFactory;
+import org.aksw.jena_sparql_api.core.QueryExecutionFactoryDecorator;
+import org.aksw.jena_sparql_api.model.QueryExecutionFactoryModel;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Tests for the batched computation of CBDs.
+ */
+public class ConciseBoundedDescriptionGeneratorTest {
+
+	private static final String NS = "http://example.com/";
+	private static final int NR_OF_RESOURCES = 30;
+
+	private Model model;
+	private List<String> resources;
+
+	@Before
+	public void setUp() {
+		model = ModelFactory.createDefaultModel();
+		Property p = model.createProperty(NS + "p");
+		Property q = model.createProperty(NS + "q");
+		Property label = model.createProperty(NS + "label");
+
+		resources = new ArrayList<>();
+		for (int i = 0; i < NR_OF_RESOURCES; i++) {
+			Resource r = model.createResource(NS + "r" + i);
+			resources.add(r.getURI());
+
+			r.addProperty(RDF.type, model.createResource(NS + "A"));
+			r.addLiteral(label, "r" + i);
+			r.addProperty(OWL.sameAs, model.createResource("http://other.com/r" + i));
+			r.addProperty(q, model.createResource("http://other.com/x" + i));
+			// the resources are connected, so the CBDs of the same batch overlap
+			r.addProperty(p, model.createResource(NS + "r" + ((i + 1) % NR_OF_RESOURCES)));
+			r.addProperty(p, model.createResource().addProperty(p, model.createResource(NS + "b" + i)));
+			model.createResource(NS + "b" + i).addProperty(RDF.type, model.createResource("http://other.com/B"));
+		}
+		model.createResource(NS + "A").addProperty(RDFS.subClassOf, model.createResource(NS + "Top"));
+	}
+
+	@Test
+	public void testBatchEqualsSingleCBDs() {
+		for (boolean withFilters : new boolean[]{false, true}) {
+			ConciseBoundedDescriptionGeneratorImpl single = createGenerator(new QueryExecutionFactoryModel(model), withFilters);
+			single.setBatchSize(1);
+			single.setNrOfThreads(1);
+
+			ConciseBoundedDescriptionGeneratorImpl batched = createGenerator(new QueryExecutionFactoryModel(model), withFilters);
+			batched.setBatchSize(7);
+			batched.setNrOfThreads(3);
+
+			for (int depth = 1; depth <= 3; depth++) {
+				for (boolean withTypesForLeafs : new boolean[]{false, true}) {
+					Map<String, Model> cbds = batched.getConciseBoundedDescriptions(resources, depth, withTypesForLeafs);
+					assertEquals(resources, new ArrayList<>(cbds.keySet()));
+
+					for (String resource : resources) {
+						Model expected = single.getConciseBoundedDescription(resource, depth, withTypesForLeafs);
+						assertTrue(!expected.isEmpty());
+						assertTrue("CBD of " + resource + " with depth " + depth + " differs",
+								expected.isIsomorphicWith(cbds.get(resource)));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCoalescing() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger nrOfQueries = new AtomicInteger();
+
+		// blocks the first query until the second request has been made
+		QueryExecutionFactory qef = new QueryExecutionFactoryDecorator(new QueryExecutionFactoryModel(model)) {
+			@Override
+			public QueryExecution createQueryExecution(String queryString) {
+				if (nrOfQueries.incrementAndGet() == 1) {
+					started.countDown();
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return super.createQueryExecution(queryString);
+			}
+		};
+		ConciseBoundedDescriptionGeneratorImpl cbdGen = createGenerator(qef, false);
+
+		String resource = resources.get(0);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		Future<Model> first = executor.submit(() -> cbdGen.getConciseBoundedDescription(resource, 2));
+		started.await(10, TimeUnit.SECONDS);
+		Future<Map<String, Model>> second = executor.submit(
+				() -> cbdGen.getConciseBoundedDescriptions(Collections.singleton(resource), 2));
+		// give the second request the time to join the pending one
+		Thread.sleep(200);
+		release.countDown();
+
+		assertTrue(first.get().isIsomorphicWith(second.get().get(resource)));
+		assertEquals(1, nrOfQueries.get());
+		executor.shutdown();
+
+		// finished requests are not cached
+		cbdGen.getConciseBoundedDescription(resource, 2);
+		assertEquals(2, nrOfQueries.get());
+	}
+
+	private ConciseBoundedDescriptionGeneratorImpl createGenerator(QueryExecutionFactory qef, boolean withFilters) {
+		ConciseBoundedDescriptionGeneratorImpl cbdGen = new ConciseBoundedDescriptionGeneratorImpl(qef);
+		if (withFilters) {
+			cbdGen.addPropertiesToIgnore(Sets.newHashSet(OWL.sameAs.getURI()));
+			cbdGen.addAllowedObjectNamespaces(Sets.newHashSet(NS));
+		}
+		return cbdGen;
+	}
+}
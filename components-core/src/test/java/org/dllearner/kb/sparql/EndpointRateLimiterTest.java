@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests for the per-endpoint rate limiting of SPARQL queries.
+ */
+public class EndpointRateLimiterTest {
+
+	// the limiters are kept for the lifetime of the JVM, thus each test uses its own endpoint
+	private static SparqlEndpoint endpoint(String name) throws MalformedURLException {
+		return new SparqlEndpoint(new URL("http://example.com/" + name + "/sparql"));
+	}
+
+	@Test
+	public void testSharedPerEndpoint() throws Exception {
+		EndpointRateLimiter limiter = EndpointRateLimiter.forEndpoint(endpoint("shared"), 10);
+		assertSame(limiter, EndpointRateLimiter.forEndpoint(endpoint("shared"), 10));
+		assertNotSame(limiter, EndpointRateLimiter.forEndpoint(endpoint("other"), 10));
+	}
+
+	@Test
+	public void testRatesDoNotAffectEachOther() throws Exception {
+		EndpointRateLimiter limiter = EndpointRateLimiter.forEndpoint(endpoint("rates"), 10);
+		assertEquals(10, limiter.getMaxQueriesPerSecond(), 0.001);
+
+		// a lower rate requested later on neither changes the existing limiter ...
+		EndpointRateLimiter lower = EndpointRateLimiter.forEndpoint(endpoint("rates"), 5);
+		assertNotSame(limiter, lower);
+		assertEquals(5, lower.getMaxQueriesPerSecond(), 0.001);
+		assertEquals(10, limiter.getMaxQueriesPerSecond(), 0.001);
+
+		// ... nor the ones created afterwards
+		assertEquals(20, EndpointRateLimiter.forEndpoint(endpoint("rates"), 20).getMaxQueriesPerSecond(), 0.001);
+		assertSame(limiter, EndpointRateLimiter.forEndpoint(endpoint("rates"), 10));
+	}
+
+	@Test
+	public void testRateHoldsAcrossThreads() throws Exception {
+		double rate = 20;
+		int permits = 21;
+		EndpointRateLimiter limiter = EndpointRateLimiter.forEndpoint(endpoint("threads"), rate);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		long start = System.nanoTime();
+		Future<?>[] futures = new Future[permits];
+		for (int i = 0; i < permits; i++) {
+			futures[i] = executor.submit(() -> {
+				limiter.doDelay();
+				return null;
+			});
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		executor.shutdown();
+
+		// the first permit is granted immediately, all others are spaced by 1/rate seconds
+		long expectedMs = (long) ((permits - 1) * 1000 / rate);
+		assertTrue("took " + elapsedMs + "ms, expected at least " + expectedMs + "ms", elapsedMs >= expectedMs * 0.9);
+	}
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.kb.sparql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.aksw.jena_sparql_api.model.QueryExecutionFactoryModel;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the concurrent, paginated sample generation.
+ */
+public class PaginatedSampleFetcherTest {
+
+	private static final int NR_OF_TRIPLES = 1000;
+
+	private Model model;
+	private Query query;
+
+	@Before
+	public void setUp() {
+		model = ModelFactory.createDefaultModel();
+		Property p = model.createProperty("http://example.com/p");
+		for (int i = 0; i < NR_OF_TRIPLES; i++) {
+			model.createResource("http://example.com/s" + i).addProperty(p, model.createResource("http://example.com/o" + i));
+		}
+		query = QueryFactory.create("CONSTRUCT {?s <http://example.com/p> ?o} WHERE {?s <http://example.com/p> ?o}");
+	}
+
+	@Test
+	public void testCompleteSample() {
+		for (int prefetchDepth : new int[]{1, 3}) {
+			PaginatedSampleFetcher fetcher = new PaginatedSampleFetcher(new QueryExecutionFactoryModel(model));
+			fetcher.setPageSize(70);
+			fetcher.setPrefetchDepth(prefetchDepth);
+
+			Model sample = fetcher.fetch(query);
+			assertTrue(fetcher.isComplete());
+			assertTrue(sample.isIsomorphicWith(model));
+		}
+	}
+
+	@Test
+	public void testEarlyStop() {
+		PaginatedSampleFetcher fetcher = new PaginatedSampleFetcher(new QueryExecutionFactoryModel(model));
+		fetcher.setPageSize(100);
+		fetcher.setPrefetchDepth(4);
+		fetcher.setMaxSampleSize(250);
+
+		Model sample = fetcher.fetch(query);
+		assertFalse(fetcher.isComplete());
+		assertEquals(300, sample.size());
+
+		fetcher.setMaxSampleSize(-1);
+		fetcher.setStopCondition(m -> m.size() >= 500);
+		sample = fetcher.fetch(query);
+		assertFalse(fetcher.isComplete());
+		assertEquals(500, sample.size());
+	}
+}
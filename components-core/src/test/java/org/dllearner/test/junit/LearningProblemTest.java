@@ -20,6 +20,8 @@ package org.dllearner.test.junit;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -27,11 +29,15 @@ import org.dllearner.core.AbstractKnowledgeSource;
 import org.dllearner.core.AbstractReasonerComponent;
 import org.dllearner.core.ComponentInitException;
 import org.dllearner.kb.OWLAPIOntology;
+import org.dllearner.kb.OWLFile;
+import org.dllearner.learningproblems.EvaluationCache;
+import org.dllearner.learningproblems.PosNegLPStandard;
 import org.dllearner.learningproblems.PosOnlyLP;
 import org.dllearner.reasoning.ClosedWorldReasoner;
 import org.junit.Test;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLOntology;
@@ -39,6 +45,7 @@ import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.model.PrefixManager;
 import org.semanticweb.owlapi.util.DefaultPrefixManager;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
 import com.google.common.collect.Sets;
 
@@ -96,4 +103,86 @@ public class LearningProblemTest {
 		assertEquals(lp.getAccuracyOrTooWeak(nc[2], 1.0), 0d, 0.000000001d); // P=0, R=0 
 	}
 
+	@Test
+	public void evaluationCacheTest() throws ComponentInitException {
+		AbstractKnowledgeSource ks = new OWLFile("../examples/family/father_oe.owl");
+		ks.init();
+		AbstractReasonerComponent reasoner = new ClosedWorldReasoner(ks);
+		reasoner.init();
+
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		PrefixManager pm = new DefaultPrefixManager();
+		pm.setDefaultPrefix("http://example.com/father#");
+		SortedSet<OWLIndividual> positiveExamples = new TreeSet<>(Sets.newHashSet(
+				df.getOWLNamedIndividual("stefan", pm), df.getOWLNamedIndividual("markus", pm), df.getOWLNamedIndividual("martin", pm)));
+		SortedSet<OWLIndividual> negativeExamples = new TreeSet<>(Sets.newHashSet(
+				df.getOWLNamedIndividual("heinz", pm), df.getOWLNamedIndividual("anna", pm), df.getOWLNamedIndividual("michelle", pm)));
+
+		PosNegLPStandard lp = new PosNegLPStandard(reasoner, positiveExamples, negativeExamples);
+		lp.init();
+		PosNegLPStandard cachedLp = new PosNegLPStandard(reasoner, positiveExamples, negativeExamples);
+		EvaluationCache cache = new EvaluationCache(true);
+		cache.init();
+		cachedLp.setEvaluationCache(cache);
+		cachedLp.init();
+
+		OWLClass male = df.getOWLClass("male", pm);
+		OWLClassExpression father = df.getOWLObjectSomeValuesFrom(df.getOWLObjectProperty("hasChild", pm), df.getOWLClass("person", pm));
+		List<OWLClassExpression> concepts = Arrays.asList(
+				male, father,
+				df.getOWLObjectIntersectionOf(male, father),
+				df.getOWLObjectUnionOf(male, father),
+				df.getOWLObjectComplementOf(male),
+				df.getOWLObjectIntersectionOf(df.getOWLObjectComplementOf(male), father));
+		for (OWLClassExpression concept : concepts) {
+			assertEquals(lp.getAccuracyOrTooWeak(concept, 1.0), cachedLp.getAccuracyOrTooWeak(concept, 1.0), 0.000000001d);
+		}
+		// only the two atomic concepts have to be checked by the reasoner
+		assertEquals(12, cache.getPerformedInstanceChecks());
+		assertEquals(24, cache.getSavedInstanceChecks());
+	}
+
+	@Test
+	public void evaluationCacheScopeTest() throws ComponentInitException, OWLOntologyCreationException {
+		OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+		OWLDataFactory df = man.getOWLDataFactory();
+		PrefixManager pm = new DefaultPrefixManager();
+		pm.setDefaultPrefix("http://dl-learner.org/junit/");
+		OWLClass a = df.getOWLClass("A", pm);
+		OWLIndividual i1 = df.getOWLNamedIndividual("i1", pm);
+		OWLIndividual i2 = df.getOWLNamedIndividual("i2", pm);
+
+		// i1 is an instance of A only in the first knowledge base
+		OWLOntology kb1 = man.createOntology();
+		man.addAxiom(kb1, df.getOWLClassAssertionAxiom(a, i1));
+		man.addAxiom(kb1, df.getOWLClassAssertionAxiom(df.getOWLThing(), i2));
+		OWLOntology kb2 = man.createOntology();
+		man.addAxiom(kb2, df.getOWLClassAssertionAxiom(df.getOWLThing(), i1));
+		man.addAxiom(kb2, df.getOWLClassAssertionAxiom(a, i2));
+
+		// one cache shared by two learning problems on different reasoners
+		EvaluationCache cache = new EvaluationCache(true);
+		cache.init();
+		SortedSet<OWLIndividual> positiveExamples = new TreeSet<>(Sets.newHashSet(i1));
+		SortedSet<OWLIndividual> negativeExamples = new TreeSet<>(Sets.newHashSet(i2));
+		PosNegLPStandard[] lps = new PosNegLPStandard[2];
+		OWLOntology[] kbs = {kb1, kb2};
+		for (int i = 0; i < 2; i++) {
+			AbstractReasonerComponent reasoner = new ClosedWorldReasoner(new OWLAPIOntology(kbs[i]));
+			reasoner.init();
+			lps[i] = new PosNegLPStandard(reasoner, positiveExamples, negativeExamples);
+			lps[i].setEvaluationCache(cache);
+			lps[i].init();
+		}
+
+		assertEquals(1, lps[0].getReasoningUtil().getCoverage(a, positiveExamples, negativeExamples)[0].trueCount);
+		assertEquals(0, lps[1].getReasoningUtil().getCoverage(a, positiveExamples, negativeExamples)[0].trueCount);
+		OWLClassExpression notA = df.getOWLObjectComplementOf(a);
+		assertEquals(1, lps[1].getReasoningUtil().getCoverage(notA, positiveExamples, negativeExamples)[0].trueCount);
+		assertEquals(0, lps[0].getReasoningUtil().getCoverage(notA, positiveExamples, negativeExamples)[0].trueCount);
+		// the negations are inferred from the cached results of each learning problem
+		assertEquals(4, cache.getPerformedInstanceChecks());
+		assertEquals(4, cache.getSavedInstanceChecks());
+	}
+
 }
@@ -18,20 +18,45 @@
  */
 package org.dllearner.test.junit;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.apache.jena.riot.RDFDataMgr;
+
 import org.dllearner.core.ComponentInitException;
+import org.dllearner.kb.OWLAPIOntology;
 import org.dllearner.kb.OWLFile;
 import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.dllearner.reasoning.ClosedWorldReasoner.ForallSemantics;
+import org.dllearner.reasoning.SPARQLReasoner;
 import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDataProperty;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
 
 import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
@@ -67,5 +92,383 @@ public class ReasonerTest {
 		assertTrue(fic.hasType(is, ind));
 			
 	}
-	
+
+	@Test
+	public void bitSetStorageTest() throws ComponentInitException {
+		OWLFile file = new OWLFile("../examples/family/father_oe.owl");
+		file.init();
+		ClosedWorldReasoner cwr = new ClosedWorldReasoner(file);
+		cwr.init();
+		ClosedWorldReasoner cwrBitSet = new ClosedWorldReasoner(file);
+		cwrBitSet.setUseBitSetStorage(true);
+		cwrBitSet.init();
+
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		String ns = "http://example.com/father#";
+		OWLClass male = df.getOWLClass(IRI.create(ns + "male"));
+		OWLClass female = df.getOWLClass(IRI.create(ns + "female"));
+		OWLObjectProperty hasChild = df.getOWLObjectProperty(IRI.create(ns + "hasChild"));
+
+		List<OWLClassExpression> expressions = Arrays.asList(
+				df.getOWLThing(),
+				male,
+				df.getOWLObjectComplementOf(male),
+				df.getOWLObjectSomeValuesFrom(hasChild, female),
+				df.getOWLObjectSomeValuesFrom(df.getOWLObjectInverseOf(hasChild), male),
+				df.getOWLObjectIntersectionOf(male, df.getOWLObjectSomeValuesFrom(hasChild, df.getOWLThing())),
+				df.getOWLObjectUnionOf(female, df.getOWLObjectSomeValuesFrom(hasChild, male)),
+				df.getOWLObjectComplementOf(df.getOWLObjectSomeValuesFrom(hasChild, female)),
+				df.getOWLObjectAllValuesFrom(hasChild, male),
+				df.getOWLObjectAllValuesFrom(df.getOWLObjectInverseOf(hasChild), female));
+
+		for (ForallSemantics semantics : ForallSemantics.values()) {
+			cwr.setForAllSemantics(semantics);
+			cwrBitSet.setForAllSemantics(semantics);
+			for (OWLClassExpression ce : expressions) {
+				SortedSet<OWLIndividual> instances = cwr.getIndividuals(ce);
+				assertEquals(ce.toString(), instances, cwrBitSet.getIndividuals(ce));
+				for (OWLIndividual ind : cwr.getIndividuals()) {
+					assertEquals(instances.contains(ind), cwr.hasType(ce, ind));
+					assertEquals(instances.contains(ind), cwrBitSet.hasType(ce, ind));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void forallTopTest() throws ComponentInitException {
+		OWLFile file = new OWLFile("../examples/family/father_oe.owl");
+		file.init();
+		ClosedWorldReasoner cwr = new ClosedWorldReasoner(file);
+		cwr.init();
+		ClosedWorldReasoner cwrBitSet = new ClosedWorldReasoner(file);
+		cwrBitSet.setUseBitSetStorage(true);
+		cwrBitSet.init();
+
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		OWLObjectProperty hasChild = df.getOWLObjectProperty(IRI.create("http://example.com/father#hasChild"));
+		OWLClassExpression onlyThing = df.getOWLObjectAllValuesFrom(hasChild, df.getOWLThing());
+		OWLClassExpression parent = df.getOWLObjectSomeValuesFrom(hasChild, df.getOWLThing());
+
+		// \forall r.\top is equivalent to \top, also for individuals without r-filler
+		for (ForallSemantics semantics : ForallSemantics.values()) {
+			for (ClosedWorldReasoner reasoner : Arrays.asList(cwr, cwrBitSet)) {
+				reasoner.setForAllSemantics(semantics);
+				SortedSet<OWLIndividual> instances = reasoner.getIndividuals(onlyThing);
+				assertEquals(semantics.toString(), reasoner.getIndividuals(), instances);
+
+				SortedSet<OWLIndividual> childless = new TreeSet<>(reasoner.getIndividuals());
+				childless.removeAll(reasoner.getIndividuals(parent));
+				assertFalse(childless.isEmpty());
+				for (OWLIndividual ind : childless) {
+					assertEquals(reasoner.hasType(onlyThing, ind), instances.contains(ind));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void streamingInstanceCheckTest() throws ComponentInitException {
+		OWLFile file = new OWLFile("../examples/family/father_oe.owl");
+		file.init();
+		ClosedWorldReasoner cwr = new ClosedWorldReasoner(file);
+		cwr.init();
+		ClosedWorldReasoner cwrBitSet = new ClosedWorldReasoner(file);
+		cwrBitSet.setUseBitSetStorage(true);
+		cwrBitSet.init();
+
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		String ns = "http://example.com/father#";
+		OWLClass male = df.getOWLClass(IRI.create(ns + "male"));
+		OWLObjectProperty hasChild = df.getOWLObjectProperty(IRI.create(ns + "hasChild"));
+		OWLClassExpression father = df.getOWLObjectIntersectionOf(male, df.getOWLObjectSomeValuesFrom(hasChild, df.getOWLThing()));
+
+		List<OWLIndividual> individuals = Lists.newArrayList(cwr.getIndividuals());
+		int nrOfFathers = cwr.getIndividuals(father).size();
+		int nrOfOthers = individuals.size() - nrOfFathers;
+
+		for (ClosedWorldReasoner reasoner : Arrays.asList(cwr, cwrBitSet)) {
+			assertEquals(nrOfFathers, reasoner.getInstanceCount(father, individuals, nrOfOthers));
+			assertEquals(-1, reasoner.getInstanceCount(father, individuals, nrOfOthers - 1));
+
+			// the evaluation stops at the first individual which is not an instance
+			List<OWLIndividual> covered = new ArrayList<>();
+			int nrOfChecks = reasoner.hasType(father, individuals, (ind, result) -> {
+				if (result) {
+					covered.add(ind);
+				}
+				return result;
+			});
+			int firstMissing = 0;
+			while (reasoner.hasType(father, individuals.get(firstMissing))) {
+				firstMissing++;
+			}
+			assertEquals(firstMissing + 1, nrOfChecks);
+			assertEquals(individuals.subList(0, firstMissing), covered);
+		}
+
+		// the streamed results are the same as for single instance checks, also for \forall
+		OWLClassExpression onlyMaleChildren = df.getOWLObjectAllValuesFrom(hasChild, male);
+		for (ForallSemantics semantics : ForallSemantics.values()) {
+			for (ClosedWorldReasoner reasoner : Arrays.asList(cwr, cwrBitSet)) {
+				reasoner.setForAllSemantics(semantics);
+				List<OWLIndividual> covered = new ArrayList<>();
+				reasoner.hasType(onlyMaleChildren, individuals, (ind, result) -> {
+					assertEquals(reasoner.hasType(onlyMaleChildren, ind), result);
+					if (result) {
+						covered.add(ind);
+					}
+					return true;
+				});
+				assertEquals(semantics.toString(), cwr.getIndividuals(onlyMaleChildren), new TreeSet<>(covered));
+			}
+		}
+	}
+
+	@Test
+	public void snapshotTest() throws ComponentInitException {
+		OWLFile file = new OWLFile("../examples/family/father_oe.owl");
+		file.init();
+		ClosedWorldReasoner cwr = new ClosedWorldReasoner(file);
+		cwr.init();
+		ClosedWorldReasoner snapshot = new ClosedWorldReasoner(cwr);
+
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		String ns = "http://example.com/father#";
+		OWLClass male = df.getOWLClass(IRI.create(ns + "male"));
+		OWLClass female = df.getOWLClass(IRI.create(ns + "female"));
+		OWLObjectProperty hasChild = df.getOWLObjectProperty(IRI.create(ns + "hasChild"));
+
+		List<OWLClassExpression> expressions = Arrays.asList(
+				male,
+				df.getOWLObjectComplementOf(male),
+				df.getOWLObjectSomeValuesFrom(hasChild, female),
+				df.getOWLObjectIntersectionOf(male, df.getOWLObjectSomeValuesFrom(hasChild, df.getOWLThing())));
+
+		cwr.resetStatistics();
+		for (OWLClassExpression ce : expressions) {
+			assertEquals(ce.toString(), cwr.getIndividuals(ce), snapshot.getIndividuals(ce));
+		}
+		// the hierarchies are shared, the statistics are not
+		assertTrue(cwr.getClassHierarchy() == snapshot.getClassHierarchy());
+		assertEquals(expressions.size(), snapshot.getNrOfRetrievals());
+		assertEquals(expressions.size(), cwr.getNrOfRetrievals());
+	}
+
+	@Test
+	public void materializationSnapshotTest() throws ComponentInitException, IOException {
+		File cacheDir = Files.createTempDirectory("materialization").toFile();
+		for (String path : Arrays.asList("../examples/family/father_oe.owl", "../examples/datatypes/double.owl", "../examples/datatypes/string.owl")) {
+			OWLFile file = new OWLFile(path);
+			file.init();
+			// the first reasoner computes and writes the materialization, the second one loads it
+			ClosedWorldReasoner cwr = new ClosedWorldReasoner(file);
+			cwr.setUseMaterializationCaching(true);
+			cwr.setMaterializationCacheDirectory(cacheDir.getPath());
+			cwr.init();
+			ClosedWorldReasoner cwrLoaded = new ClosedWorldReasoner(file);
+			cwrLoaded.setUseMaterializationCaching(true);
+			cwrLoaded.setMaterializationCacheDirectory(cacheDir.getPath());
+			cwrLoaded.init();
+
+			OWLDataFactory df = new OWLDataFactoryImpl();
+			assertEquals(cwr.getIndividuals(), cwrLoaded.getIndividuals());
+			for (OWLClass cls : cwr.getClasses()) {
+				assertEquals(cwr.getIndividuals(cls), cwrLoaded.getIndividuals(cls));
+				assertEquals(cwr.getIndividuals(df.getOWLObjectComplementOf(cls)),
+						cwrLoaded.getIndividuals(df.getOWLObjectComplementOf(cls)));
+			}
+			for (OWLObjectProperty op : cwr.getObjectProperties()) {
+				assertEquals(cwr.getPropertyMembers(op), cwrLoaded.getPropertyMembers(op));
+				// the loaded values are looked up by subject
+				for (OWLIndividual ind : cwr.getIndividuals()) {
+					assertEquals(cwr.getRelatedIndividuals(ind, op), cwrLoaded.getRelatedIndividuals(ind, op));
+				}
+			}
+			for (OWLDataProperty dp : cwr.getDatatypeProperties()) {
+				assertEquals(cwr.getDatatypeMembers(dp), cwrLoaded.getDatatypeMembers(dp));
+			}
+			for (OWLDataProperty dp : cwr.getDoubleDatatypeProperties()) {
+				assertEquals(cwr.getDoubleDatatypeMembers(dp), cwrLoaded.getDoubleDatatypeMembers(dp));
+			}
+			for (OWLDataProperty dp : cwr.getStringDatatypeProperties()) {
+				assertEquals(cwr.getStringDatatypeMembers(dp), cwrLoaded.getStringDatatypeMembers(dp));
+			}
+		}
+		assertEquals(3, cacheDir.listFiles().length);
+	}
+
+	@Test
+	public void materializationSnapshotNamespacesTest() throws ComponentInitException, IOException, OWLOntologyCreationException {
+		File cacheDir = Files.createTempDirectory("materialization").toFile();
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		OWLIndividual ind = df.getOWLNamedIndividual(IRI.create("http://ex1.org/i"));
+		// the ontologies differ only in the namespace of the class, thus they need different snapshots
+		for (String ns : Arrays.asList("http://ex1.org/", "http://ex2.org/")) {
+			OWLClass cls = df.getOWLClass(IRI.create(ns + "A"));
+			OWLOntologyManager man = OWLManager.createOWLOntologyManager();
+			OWLOntology ontology = man.createOntology();
+			man.addAxiom(ontology, df.getOWLClassAssertionAxiom(cls, ind));
+
+			ClosedWorldReasoner cwr = new ClosedWorldReasoner(new OWLAPIOntology(ontology));
+			cwr.setUseMaterializationCaching(true);
+			cwr.setMaterializationCacheDirectory(cacheDir.getPath());
+			cwr.init();
+			assertEquals(Sets.newTreeSet(Arrays.asList(ind)), cwr.getIndividuals(cls));
+		}
+		assertEquals(2, cacheDir.listFiles().length);
+	}
+
+	@Test
+	public void parallelMaterializationTest() throws ComponentInitException {
+		for (String path : Arrays.asList("../examples/family/father_oe.owl", "../examples/datatypes/double.owl", "../examples/datatypes/string.owl")) {
+			OWLFile file = new OWLFile(path);
+			file.init();
+			ClosedWorldReasoner cwr = new ClosedWorldReasoner(file);
+			cwr.init();
+			ClosedWorldReasoner cwrParallel = new ClosedWorldReasoner(file);
+			cwrParallel.setMaterializationThreads(4);
+			cwrParallel.init();
+
+			OWLDataFactory df = new OWLDataFactoryImpl();
+			assertEquals(cwr.getIndividuals(), cwrParallel.getIndividuals());
+			for (OWLClass cls : cwr.getClasses()) {
+				assertEquals(cwr.getIndividuals(cls), cwrParallel.getIndividuals(cls));
+				assertEquals(cwr.getIndividuals(df.getOWLObjectComplementOf(cls)),
+						cwrParallel.getIndividuals(df.getOWLObjectComplementOf(cls)));
+			}
+			for (OWLObjectProperty op : cwr.getObjectProperties()) {
+				assertEquals(cwr.getPropertyMembers(op), cwrParallel.getPropertyMembers(op));
+			}
+			for (OWLDataProperty dp : cwr.getDatatypeProperties()) {
+				assertEquals(cwr.getDatatypeMembers(dp), cwrParallel.getDatatypeMembers(dp));
+			}
+			for (OWLDataProperty dp : cwr.getDoubleDatatypeProperties()) {
+				assertEquals(cwr.getDoubleDatatypeMembers(dp), cwrParallel.getDoubleDatatypeMembers(dp));
+			}
+			for (OWLDataProperty dp : cwr.getStringDatatypeProperties()) {
+				assertEquals(cwr.getStringDatatypeMembers(dp), cwrParallel.getStringDatatypeMembers(dp));
+			}
+		}
+	}
+
+	@Test
+	public void lazyMaterializationTest() throws ComponentInitException {
+		for (String path : Arrays.asList("../examples/family/father_oe.owl", "../examples/datatypes/double.owl", "../examples/datatypes/string.owl")) {
+			OWLFile file = new OWLFile(path);
+			file.init();
+			ClosedWorldReasoner cwr = new ClosedWorldReasoner(file);
+			cwr.init();
+			// a tiny store, such that most of the extensions are evicted and computed again
+			ClosedWorldReasoner cwrLazy = new ClosedWorldReasoner(file);
+			cwrLazy.setUseLazyMaterialization(true);
+			cwrLazy.setLazyMaterializationMaxBytes(1000);
+			cwrLazy.init();
+			cwrLazy.prefetch(cwrLazy.getClasses());
+
+			OWLDataFactory df = new OWLDataFactoryImpl();
+			assertEquals(cwr.getIndividuals(), cwrLazy.getIndividuals());
+			for (OWLClass cls : cwr.getClasses()) {
+				assertEquals(cwr.getIndividuals(cls), cwrLazy.getIndividuals(cls));
+				assertEquals(cwr.getIndividuals(df.getOWLObjectComplementOf(cls)),
+						cwrLazy.getIndividuals(df.getOWLObjectComplementOf(cls)));
+				for (OWLIndividual ind : cwr.getIndividuals()) {
+					assertEquals(cwr.hasType(cls, ind), cwrLazy.hasType(cls, ind));
+				}
+			}
+			for (OWLObjectProperty op : cwr.getObjectProperties()) {
+				assertEquals(cwr.getPropertyMembers(op), cwrLazy.getPropertyMembers(op));
+			}
+			for (OWLDataProperty dp : cwr.getDatatypeProperties()) {
+				assertEquals(cwr.getDatatypeMembers(dp), cwrLazy.getDatatypeMembers(dp));
+			}
+			for (OWLDataProperty dp : cwr.getDoubleDatatypeProperties()) {
+				assertEquals(cwr.getDoubleDatatypeMembers(dp), cwrLazy.getDoubleDatatypeMembers(dp));
+			}
+			for (OWLDataProperty dp : cwr.getStringDatatypeProperties()) {
+				assertEquals(cwr.getStringDatatypeMembers(dp), cwrLazy.getStringDatatypeMembers(dp));
+			}
+			cwrLazy.releaseKB();
+		}
+	}
+
+	@Test
+	public void retrievalCacheTest() throws ComponentInitException {
+		OWLFile file = new OWLFile("../examples/family/father_oe.owl");
+		file.init();
+		ClosedWorldReasoner cwr = new ClosedWorldReasoner(file);
+		cwr.init();
+		ClosedWorldReasoner cwrCached = new ClosedWorldReasoner(file);
+		cwrCached.setUseRetrievalCache(true);
+		cwrCached.init();
+
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		String ns = "http://example.com/father#";
+		OWLClass male = df.getOWLClass(IRI.create(ns + "male"));
+		OWLClass female = df.getOWLClass(IRI.create(ns + "female"));
+		OWLObjectProperty hasChild = df.getOWLObjectProperty(IRI.create(ns + "hasChild"));
+		OWLObjectSomeValuesFrom hasDaughter = df.getOWLObjectSomeValuesFrom(hasChild, female);
+
+		List<OWLClassExpression> expressions = Arrays.asList(
+				hasDaughter,
+				df.getOWLObjectIntersectionOf(male, hasDaughter),
+				df.getOWLObjectIntersectionOf(hasDaughter, male),
+				df.getOWLObjectUnionOf(female, df.getOWLObjectComplementOf(hasDaughter)));
+
+		for (OWLClassExpression ce : expressions) {
+			assertEquals(ce.toString(), cwr.getIndividuals(ce), cwrCached.getIndividuals(ce));
+			// returned sets have to be copies
+			cwrCached.getIndividuals(ce).clear();
+			assertEquals(ce.toString(), cwr.getIndividuals(ce), cwrCached.getIndividuals(ce));
+		}
+		assertTrue(cwrCached.getRetrievalCache().getStats().hitCount() > 0);
+	}
+
+	@Test
+	public void sparqlValueListsTest() throws ComponentInitException {
+		OWLFile file = new OWLFile("../examples/family/father_oe.owl");
+		file.init();
+		ClosedWorldReasoner cwr = new ClosedWorldReasoner(file);
+		cwr.init();
+		// one individual per query, such that several queries are sent concurrently
+		SPARQLReasoner sparqlReasoner = new SPARQLReasoner(RDFDataMgr.loadModel("../examples/family/father_oe.owl"));
+		sparqlReasoner.setUseValueLists(true);
+		sparqlReasoner.setValueListsChunkSize(1);
+		sparqlReasoner.setValueListsMaxChunkSize(1);
+		sparqlReasoner.setValueListsThreads(3);
+		sparqlReasoner.init();
+
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		String ns = "http://example.com/father#";
+		OWLClass male = df.getOWLClass(IRI.create(ns + "male"));
+		OWLClass female = df.getOWLClass(IRI.create(ns + "female"));
+		OWLObjectProperty hasChild = df.getOWLObjectProperty(IRI.create(ns + "hasChild"));
+
+		Set<OWLIndividual> males = cwr.getIndividuals(male);
+		Set<OWLIndividual> females = cwr.getIndividuals(female);
+		@SuppressWarnings("unchecked")
+		Set<OWLIndividual>[] sets = new Set[]{males, females};
+
+		List<OWLClassExpression> expressions = Arrays.asList(
+				male,
+				df.getOWLObjectSomeValuesFrom(hasChild, female),
+				df.getOWLObjectIntersectionOf(male, df.getOWLObjectSomeValuesFrom(hasChild, df.getOWLThing())));
+
+		for (OWLClassExpression ce : expressions) {
+			SortedSet<OWLIndividual> instances = cwr.getIndividuals(ce);
+			Set<OWLIndividual> maleInstances = Sets.intersection(males, instances);
+			Set<OWLIndividual> femaleInstances = Sets.intersection(females, instances);
+
+			assertEquals(ce.toString(), maleInstances, sparqlReasoner.getIndividuals(ce, males));
+			assertEquals(ce.toString(), maleInstances.size(), sparqlReasoner.getIndividualsCount(ce, males));
+
+			List<SortedSet<OWLIndividual>> covered = sparqlReasoner.getIndividuals(ce, sets);
+			assertEquals(ce.toString(), maleInstances, covered.get(0));
+			assertEquals(ce.toString(), femaleInstances, covered.get(1));
+			assertArrayEquals(new int[]{maleInstances.size(), femaleInstances.size()},
+					sparqlReasoner.getIndividualsCount(ce, sets));
+		}
+		sparqlReasoner.releaseKB();
+	}
+
 }
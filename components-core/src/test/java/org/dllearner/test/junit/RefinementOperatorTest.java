@@ -40,13 +40,15 @@ import org.junit.Test;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
 import uk.ac.manchester.cs.owl.owlapi.OWLClassImpl;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -374,6 +376,50 @@ public class RefinementOperatorTest {
 		}
 	}
 	
+	/**
+	 * Refines class expressions with a single operator instance from several
+	 * threads at once and checks that the result is the same as the one of
+	 * sequential refinement.
+	 */
+	@Test
+	public void rhoDRDownConcurrentTest() throws Exception {
+		AbstractReasonerComponent reasoner = TestOntologies.getTestOntology(TestOntology.FATHER);
+		reasoner.init();
+
+		OWLClassExpression male = new OWLClassImpl(IRI.create("http://example.com/father#male"));
+		OWLClassExpression top = new OWLClassImpl(OWLRDFVocabulary.OWL_THING.getIRI());
+		List<OWLClassExpression> concepts = new ArrayList<>();
+		for(int i = 0; i < 8; i++) {
+			concepts.add(i % 2 == 0 ? top : male);
+		}
+
+		RhoDRDown sequentialOp = new RhoDRDown();
+		sequentialOp.setReasoner(reasoner);
+		sequentialOp.init();
+		List<Set<OWLClassExpression>> expected = new ArrayList<>();
+		for(int i = 0; i < concepts.size(); i++) {
+			expected.add(sequentialOp.refine(concepts.get(i), 3 + i / 2));
+		}
+
+		RhoDRDown sharedOp = new RhoDRDown();
+		sharedOp.setReasoner(reasoner);
+		sharedOp.setPrecomputeM(true);
+		sharedOp.init();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Set<OWLClassExpression>>> results = new ArrayList<>();
+			for(int i = 0; i < concepts.size(); i++) {
+				final int index = i;
+				results.add(executor.submit(() -> sharedOp.refine(concepts.get(index), 3 + index / 2)));
+			}
+			for(int i = 0; i < concepts.size(); i++) {
+				assertEquals(expected.get(i), results.get(i).get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	private String uri(String name) {
 		return "\""+baseURI+name+"\"";
 	}
@@ -18,16 +18,36 @@
  */
 package org.dllearner.test.junit;
 
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
+import org.dllearner.algorithms.celoe.CELOE;
+import org.dllearner.algorithms.celoe.OENode;
 import org.dllearner.core.AbstractReasonerComponent;
+import org.dllearner.core.ComponentInitException;
+import org.dllearner.learningproblems.ClassLearningProblem;
 import org.dllearner.test.junit.TestOntologies.TestOntology;
+import org.dllearner.utilities.datastructures.BoundedSearchTree;
+import org.dllearner.utilities.datastructures.FingerprintSet;
 import org.dllearner.utilities.learn.UsedEntitiesDetection;
+import org.dllearner.utilities.owl.OWLObjectFunnel;
 import org.junit.Test;
 import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+
+import com.google.common.hash.PrimitiveSink;
 
+import uk.ac.manchester.cs.owl.owlapi.OWLClassImpl;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 import uk.ac.manchester.cs.owl.owlapi.OWLNamedIndividualImpl;
 
 /**
@@ -47,5 +67,82 @@ public class UtilitiesTest {
 		UsedEntitiesDetection detection = new UsedEntitiesDetection(reasoner, individuals, maxDepth);
 		System.out.println(detection);
 	}
-	
+
+	@Test
+	public void fingerprintSetTest() {
+		FingerprintSet<String> set = new FingerprintSet<>((String s, PrimitiveSink into) -> into.putUnencodedChars(s));
+		for (int i = 0; i < 10000; i++) {
+			assertTrue(set.add("element" + i));
+		}
+		for (int i = 0; i < 10000; i++) {
+			assertFalse(set.add("element" + i));
+		}
+		assertEquals(10000, set.size());
+	}
+
+	@Test
+	public void owlObjectFingerprintTest() {
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		OWLObjectProperty r = df.getOWLObjectProperty(IRI.create("http://ex1.org/r"));
+		OWLClass a1 = df.getOWLClass(IRI.create("http://ex1.org/A"));
+		OWLClass a2 = df.getOWLClass(IRI.create("http://ex2.org/A"));
+		OWLClass b = df.getOWLClass(IRI.create("http://ex1.org/B"));
+
+		FingerprintSet<OWLClassExpression> set = new FingerprintSet<>(OWLObjectFunnel.INSTANCE);
+		// class expressions which differ only in the namespaces are different
+		assertTrue(set.add(df.getOWLObjectSomeValuesFrom(r, a1)));
+		assertTrue(set.add(df.getOWLObjectSomeValuesFrom(r, a2)));
+		assertTrue(set.add(df.getOWLObjectAllValuesFrom(r, a1)));
+		assertTrue(set.add(df.getOWLObjectMinCardinality(2, r, a1)));
+		assertTrue(set.add(df.getOWLObjectMinCardinality(3, r, a1)));
+		assertTrue(set.add(df.getOWLObjectIntersectionOf(df.getOWLObjectUnionOf(a1, a2), b)));
+		assertTrue(set.add(df.getOWLObjectUnionOf(df.getOWLObjectIntersectionOf(a1, a2), b)));
+		// structurally equal class expressions are equal
+		assertFalse(set.add(df.getOWLObjectSomeValuesFrom(r, a2)));
+		assertFalse(set.add(df.getOWLObjectIntersectionOf(b, df.getOWLObjectUnionOf(a2, a1))));
+		assertEquals(7, set.size());
+	}
+
+	@Test
+	public void boundedSearchTreeTest() {
+		OWLDataFactory df = new OWLDataFactoryImpl();
+		BoundedSearchTree<OENode> tree = new BoundedSearchTree<>(
+				Comparator.comparingDouble(OENode::getAccuracy).thenComparing(OENode::getDescription), 5, 0);
+
+		OENode root = new OENode(df.getOWLThing(), 0.5);
+		tree.addNode(null, root);
+		OENode inner = new OENode(df.getOWLClass(IRI.create("http://localhost/foo#a")), 0.0);
+		tree.addNode(root, inner);
+		List<OENode> leaves = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			OENode leaf = new OENode(df.getOWLClass(IRI.create("http://localhost/foo#c" + i)), 0.05 * (i + 1));
+			tree.addNode(inner, leaf);
+			leaves.add(leaf);
+		}
+
+		// the root and the inner node are kept, as well as the best leaves
+		assertEquals(5, tree.size());
+		assertEquals(7, tree.getEvictedNodes());
+		assertTrue(tree.getNodeSet().contains(root));
+		assertTrue(tree.getNodeSet().contains(inner));
+		assertTrue(tree.getNodeSet().containsAll(leaves.subList(7, 10)));
+		assertEquals(3, inner.getChildren().size());
+	}
+
+	@Test
+	public void boundedSearchTreeCELOETest() throws ComponentInitException {
+		AbstractReasonerComponent reasoner = TestOntologies.getTestOntology(TestOntology.FATHER_OE);
+		ClassLearningProblem lp = new ClassLearningProblem(reasoner);
+		lp.setClassToDescribe(new OWLClassImpl(IRI.create("http://example.com/father#father")));
+		lp.init();
+
+		CELOE alg = new CELOE(lp, reasoner);
+		alg.setMaxExecutionTimeInSeconds(10);
+		alg.setMaxSearchTreeSize(20);
+		alg.setStopOnFirstDefinition(true);
+		alg.init();
+		alg.start();
+
+		assertEquals(1.0, alg.getCurrentlyBestAccuracy(), 0.0001);
+	}
 }
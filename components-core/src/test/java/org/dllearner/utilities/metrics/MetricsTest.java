@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.utilities.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.Test;
+
+public class MetricsTest {
+
+	@Test
+	public void testConcurrentUpdates() throws Exception {
+		MetricSet metrics = new MetricSet();
+		Counter counter = metrics.counter("checks");
+		Histogram histogram = metrics.histogram("sizes");
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			futures.add(executor.submit(() -> {
+				for (int i = 1; i <= 10000; i++) {
+					counter.inc();
+					histogram.update(i);
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+
+		assertEquals(40000, counter.getCount());
+		assertEquals(40000, histogram.getCount());
+		assertEquals(4 * 50005000L, histogram.getSum());
+		assertEquals(10000, histogram.getMax());
+	}
+
+	@Test
+	public void testHistogramQuantiles() {
+		Histogram histogram = new Histogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.update(i);
+		}
+		// the buckets have a relative error of at most 1/8
+		assertEquals(500, histogram.getQuantile(0.5), 500 / 8d);
+		assertEquals(990, histogram.getQuantile(0.99), 990 / 8d);
+		assertTrue(histogram.getQuantile(1.0) >= 1000);
+		assertEquals(0, histogram.getQuantile(0.0), 1);
+
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getQuantile(0.5), 0);
+	}
+
+	@Test
+	public void testExport() {
+		MetricRegistry registry = new MetricRegistry();
+		MetricSet metrics = registry.getMetricSet("celoe");
+		metrics.counter("expression_tests").inc(42);
+		metrics.timer("refine_node_time").update(2, TimeUnit.MILLISECONDS);
+
+		String json = registry.toJSON();
+		assertTrue(json, json.contains("\"celoe\": {"));
+		assertTrue(json, json.contains("\"expression_tests\": 42"));
+		assertTrue(json, json.contains("\"count\": 1"));
+
+		String prometheus = registry.toPrometheus();
+		assertTrue(prometheus, prometheus.contains("# TYPE dllearner_expression_tests_total counter"));
+		assertTrue(prometheus, prometheus.contains("dllearner_expression_tests_total{component=\"celoe\"} 42"));
+		assertTrue(prometheus, prometheus.contains("# TYPE dllearner_refine_node_time_seconds summary"));
+		assertTrue(prometheus, prometheus.contains("dllearner_refine_node_time_seconds_count{component=\"celoe\"} 1"));
+	}
+
+	@Test
+	public void testJSONReport() {
+		MetricRegistry registry = new MetricRegistry();
+		MetricSet metrics = registry.getMetricSet("celoe");
+		metrics.counter("expression_tests").inc(42);
+		metrics.timer("refine_node_time").update(2, TimeUnit.MILLISECONDS);
+
+		List<String> reports = new ArrayList<>();
+		MetricsReporter reporter = new MetricsReporter(registry, MetricsReporter.Format.JSON, reports::add);
+		reporter.report();
+		reporter.report();
+
+		assertEquals(2, reports.size());
+		for (String report : reports) {
+			// each report is exactly one JSON document
+			JSONTokener tokener = new JSONTokener(report);
+			JSONObject json = new JSONObject(tokener);
+			assertEquals(report, 0, tokener.nextClean());
+
+			assertEquals(42, json.getJSONObject("celoe").getLong("expression_tests"));
+			assertTrue(report, json.getJSONObject("rates").has("celoe.expression_tests"));
+		}
+		// no counter changed in between
+		assertEquals(0, new JSONObject(reports.get(1)).getJSONObject("rates").getDouble("celoe.expression_tests"), 0.0);
+
+		// a registry without any component still yields a single document
+		List<String> emptyReports = new ArrayList<>();
+		new MetricsReporter(new MetricRegistry(), MetricsReporter.Format.JSON, emptyReports::add).report();
+		assertEquals(0, new JSONObject(emptyReports.get(0)).getJSONObject("rates").length());
+	}
+}
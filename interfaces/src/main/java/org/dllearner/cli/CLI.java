@@ -31,7 +31,10 @@ import org.dllearner.confparser.ParseException;
 import org.dllearner.core.*;
 import org.dllearner.core.config.ConfigOption;
 import org.dllearner.learningproblems.PosNegLP;
+import org.dllearner.learningproblems.PosNegUndLP;
 import org.dllearner.refinementoperators.RefinementOperator;
+import org.dllearner.utilities.metrics.MetricRegistry;
+import org.dllearner.utilities.metrics.MetricsReporter;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.slf4j.Logger;
@@ -48,6 +51,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 
 //import org.dllearner.algorithms.qtl.QTL2;
 
@@ -71,6 +75,13 @@ public class CLI extends CLIBase2 {
 	private boolean performCrossValidation = false;
 	@ConfigOption(defaultValue = "10", description = "Number of folds in Cross-Validation mode")
 	private int nrOfFolds = 10;
+	@ConfigOption(defaultValue = "1", description = "Number of folds running in parallel in Cross-Validation mode")
+	private int nrOfParallelFolds = 1;
+	@ConfigOption(defaultValue = "0", description = "Period in seconds in which a snapshot of the metrics, e.g. the " +
+			"number of tested expressions and instance checks, is logged while running (0 = disabled)")
+	private int metricsReportPeriod = 0;
+	@ConfigOption(defaultValue = "json", description = "Format of the logged metrics, either json or prometheus")
+	private String metricsReportFormat = "json";
 
 	private AbstractClassExpressionLearningProblem lp;
 
@@ -112,7 +123,15 @@ public class CLI extends CLIBase2 {
 
 		rs = getMainReasonerComponent();
 		
+		MetricsReporter metricsReporter = null;
+		if (metricsReportPeriod > 0) {
+			metricsReporter = new MetricsReporter(MetricRegistry.getDefault(),
+					MetricsReporter.Format.valueOf(metricsReportFormat.toUpperCase()),
+					snapshot -> logger.info("Metrics:\n" + snapshot));
+			metricsReporter.start(metricsReportPeriod, TimeUnit.SECONDS);
+		}
 		
+		try {
 			if (performCrossValidation) {
 				la = context.getBeansOfType(AbstractCELA.class).entrySet().iterator().next().getValue();
 				
@@ -137,6 +156,8 @@ public class CLI extends CLIBase2 {
 					else
 						((DSTTDTClassifier)la).setOperator(op);
 					new CrossValidation2(la,lp,rs,nrOfFolds,false);
+				}else if(nrOfParallelFolds > 1 && !(lp instanceof PosNegUndLP)) {
+					new ParallelCrossValidation(la,lp,rs,nrOfFolds,nrOfParallelFolds);
 				}else {
 					new CrossValidation2(la,lp,rs,nrOfFolds,false);
 				}
@@ -155,6 +176,11 @@ public class CLI extends CLIBase2 {
 					algorithm.start();
 				}
 			}
+		} finally {
+			if (metricsReporter != null) {
+				metricsReporter.stop();
+			}
+		}
     }
 
 	/**
@@ -262,6 +288,30 @@ public class CLI extends CLIBase2 {
 		this.nrOfFolds = nrOfFolds;
 	}
 
+	public int getNrOfParallelFolds() {
+		return nrOfParallelFolds;
+	}
+
+	public void setNrOfParallelFolds(int nrOfParallelFolds) {
+		this.nrOfParallelFolds = nrOfParallelFolds;
+	}
+
+	public int getMetricsReportPeriod() {
+		return metricsReportPeriod;
+	}
+
+	public void setMetricsReportPeriod(int metricsReportPeriod) {
+		this.metricsReportPeriod = metricsReportPeriod;
+	}
+
+	public String getMetricsReportFormat() {
+		return metricsReportFormat;
+	}
+
+	public void setMetricsReportFormat(String metricsReportFormat) {
+		this.metricsReportFormat = metricsReportFormat;
+	}
+
 	//	public LearningAlgorithm getLearningAlgorithm() {
 //		return algorithm;
 //	}
@@ -148,6 +148,7 @@ public class Enrichment {
 	private boolean useInference;
 	private SPARQLReasoner reasoner;
 	private String cacheDir = "cache";
+	private int nrOfThreads = 1;
 
 	// lists of algorithms to apply
 	private List<Class<? extends LearningAlgorithm>> classAlgorithms;
@@ -214,16 +215,24 @@ public class Enrichment {
 //		classAlgorithms.add(SimpleSubclassLearner.class);
 		classAlgorithms.add(CELOE.class);
 
-		algorithmRuns = new LinkedList<>();
+		// properties might be processed in parallel
+		algorithmRuns = Collections.synchronizedList(new LinkedList<>());
 
-		learnedOWLAxioms = new HashSet<>();
-		learnedEvaluatedAxioms = new HashSet<>();
+		learnedOWLAxioms = Collections.synchronizedSet(new HashSet<>());
+		learnedEvaluatedAxioms = Collections.synchronizedSet(new HashSet<>());
 	}
 
 	public void setAllowedNamespaces(List<String> allowedNamespaces) {
 		this.allowedNamespaces = allowedNamespaces;
 	}
 
+	/**
+	 * @param nrOfThreads the number of properties that are processed in parallel
+	 */
+	public void setNrOfThreads(int nrOfThreads) {
+		this.nrOfThreads = nrOfThreads;
+	}
+
 	/**
 	 * @param iterativeMode the iterativeMode to set
 	 */
@@ -304,34 +313,70 @@ public class Enrichment {
 	}
 
 	private void processProperties(Set<? extends OWLProperty> properties, Set<AxiomType<? extends OWLAxiom>> axiomTypes){
+		if(nrOfThreads <= 1 || properties.size() <= 1) {
+			for(OWLProperty property : properties) {
+				processProperty(property, axiomTypes, nrOfThreads);
+			}
+		} else {
+			// each property is handled by a single thread, the axiom types of a property
+			// share the same sample, thus, running them in parallel would only increase the load
+			// on the endpoint which is limited by the knowledge source anyway
+			ExecutorService tp = Executors.newFixedThreadPool(nrOfThreads);
+			List<Future<?>> futures = new ArrayList<>();
+			for(final OWLProperty property : properties) {
+				futures.add(tp.submit(() -> processProperty(property, axiomTypes, 1)));
+			}
+			tp.shutdown();
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					tp.shutdownNow();
+					return;
+				} catch (ExecutionException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	private void processProperty(OWLProperty property, Set<AxiomType<? extends OWLAxiom>> axiomTypes, int maxNrOfThreads){
 		MultiPropertyAxiomLearner la = new MultiPropertyAxiomLearner(ks);
-//		la.setUseSampling(true);
+		la.setUseSampling(ks.isRemote());
+		la.setMultiThreaded(maxNrOfThreads > 1);
+		la.setMaxNrOfThreads(maxNrOfThreads);
+		if(maxExecutionTimeInSeconds > 0) {
+			// the runtime is shared by all axiom types
+			la.setMaxExecutionTime(maxExecutionTimeInSeconds * axiomTypes.size(), TimeUnit.SECONDS);
+		}
 		la.setProgressMonitor(progressMonitor);
 		la.setAxiomTypes(axiomTypes);
-		for(OWLProperty property : properties) {
-			System.out.println("Processing property " + property.toStringID());
-			la.setEntityToDescribe(property);
-			la.start();
-
-			for (AxiomType<? extends OWLAxiom> axiomType : axiomTypes) {
-
-				List<EvaluatedAxiom<OWLAxiom>> evaluatedAxioms = la.getCurrentlyBestEvaluatedAxioms(axiomType, threshold);
-				learnedEvaluatedAxioms.addAll(evaluatedAxioms);
-
-				AbstractAxiomLearningAlgorithm algorithm = la.getAlgorithm(axiomType);
-				
-				if(algorithm != null) {
-					AlgorithmRun algorithmRun = new AlgorithmRun(
-							AxiomAlgorithms.getAlgorithmClass(axiomType),
-							evaluatedAxioms,
-							ConfigHelper.getConfigOptionValues(la.getAlgorithm(axiomType)));
-					algorithmRuns.add(algorithmRun);
-				} else {
-					// TODO what to do when algorithm failed
-				}
-				
+		la.setEntityToDescribe(property);
+		la.start();
+
+		StringBuilder sb = new StringBuilder("Processed property " + property.toStringID() + "\n");
+		for (AxiomType<? extends OWLAxiom> axiomType : axiomTypes) {
+
+			List<EvaluatedAxiom<OWLAxiom>> evaluatedAxioms = la.getCurrentlyBestEvaluatedAxioms(axiomType, threshold);
+			learnedEvaluatedAxioms.addAll(evaluatedAxioms);
+
+			AbstractAxiomLearningAlgorithm algorithm = la.getAlgorithm(axiomType);
+
+			if(algorithm != null) {
+				AlgorithmRun algorithmRun = new AlgorithmRun(
+						AxiomAlgorithms.getAlgorithmClass(axiomType),
+						evaluatedAxioms,
+						ConfigHelper.getConfigOptionValues(algorithm));
+				algorithmRuns.add(algorithmRun);
+				sb.append(axiomType.getName()).append(": ").append(prettyPrint(evaluatedAxioms));
+			} else {
+				// TODO what to do when algorithm failed
 			}
+
 		}
+		// print the results of a property at once to avoid interleaved output of parallel runs
+		System.out.print(sb);
 	}
 
 	private <T extends OWLEntity> void filterByNamespaces(Collection<T> entities){
@@ -830,7 +875,9 @@ public class Enrichment {
 		OWLOntology ontology = null;
 		try {
 			OWLOntologyManager man = OWLManager.createOWLOntologyManager();
-			ontology = man.createOntology(learnedOWLAxioms);
+			synchronized (learnedOWLAxioms) {
+				ontology = man.createOntology(learnedOWLAxioms);
+			}
 		} catch (OWLOntologyCreationException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
@@ -847,7 +894,11 @@ public class Enrichment {
 			OWLAnnotationProperty confAnnoProp = factory.getOWLAnnotationProperty(IRI.create(EnrichmentVocabulary.NS
 					+ "confidence"));
 			Set<OWLAxiom> axioms = new HashSet<>();
-			for (EvaluatedAxiom evAx : learnedEvaluatedAxioms) {
+			Set<EvaluatedAxiom> evaluatedAxioms;
+			synchronized (learnedEvaluatedAxioms) {
+				evaluatedAxioms = new HashSet<>(learnedEvaluatedAxioms);
+			}
+			for (EvaluatedAxiom evAx : evaluatedAxioms) {
 				OWLAxiom ax = evAx.getAxiom();
 				if (withConfidenceAsAnnotations) {
 					ax = ax.getAnnotatedAxiom(Collections.singleton(factory.getOWLAnnotation(confAnnoProp,
@@ -894,7 +945,9 @@ public class Enrichment {
 	}
 
 	public List<AlgorithmRun> getAlgorithmRuns() {
-		return algorithmRuns;
+		synchronized (algorithmRuns) {
+			return new ArrayList<>(algorithmRuns);
+		}
 	}
 
 	/**
@@ -971,6 +1024,10 @@ public class Enrichment {
 				"Specifies whether to compute axiom for data properties.").withOptionalArg().ofType(Boolean.class).defaultsTo(true);
 		parser.acceptsAll(asList("cls"),
 				"Specifies whether compute axiom for classes.").withOptionalArg().ofType(Boolean.class).defaultsTo(true);
+		parser.acceptsAll(asList("threads"),
+				"Specifies the number of properties that are processed in parallel.").withRequiredArg().ofType(Integer.class).defaultsTo(1);
+		parser.acceptsAll(asList("maxQueriesPerSecond"),
+				"Specifies the max. number of queries per second sent to the SPARQL endpoint (0 means the rate is derived from the query delay of the knowledge source, i.e. 20 queries per second by default).").withRequiredArg().ofType(Double.class).defaultsTo(0d);
 
 		//username and password if endpoint is protected
 		parser.acceptsAll(asList("u", "username"), "Specify the username.")
@@ -1046,6 +1103,7 @@ public class Enrichment {
 //					Path tempDirectory = Files.createTempDirectory("dllearner");
 					String cacheDir = System.getProperty("java.io.tmpdir") + File.separator + "dl-learner";
 					ks = new SparqlEndpointKS(se, cacheDir);
+					ks.setMaxQueriesPerSecond((Double) options.valueOf("maxQueriesPerSecond"));
 				}
 				ks.init();
 			} catch (URISyntaxException e2) {
@@ -1132,6 +1190,7 @@ public class Enrichment {
 			e.setProcessObjectProperties(processObjectProperties);
 			e.setProcessDataProperties(processDataProperties);
 			e.setProcessClasses(processClasses);
+			e.setNrOfThreads((Integer) options.valueOf("threads"));
 			e.start();
 
 			// print output in correct format
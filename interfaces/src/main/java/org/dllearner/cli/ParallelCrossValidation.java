@@ -0,0 +1,345 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.cli;
+
+import com.google.common.collect.Sets;
+import org.dllearner.algorithms.celoe.CELOE;
+import org.dllearner.core.*;
+import org.dllearner.learningproblems.Heuristics;
+import org.dllearner.learningproblems.PosNegLP;
+import org.dllearner.learningproblems.PosOnlyLP;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.dllearner.refinementoperators.ReasoningBasedRefinementOperator;
+import org.dllearner.utilities.owl.ManchesterOWLSyntaxOWLObjectRendererImplExt;
+import org.dllearner.utilities.owl.OWLClassExpressionUtils;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.util.SimpleShortFormProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.text.DecimalFormat;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Performs k-fold cross validation with the folds running in parallel.
+ * The reasoner is materialized only once: each fold gets a snapshot of it
+ * (see {@link ClosedWorldReasoner#ClosedWorldReasoner(ClosedWorldReasoner)}),
+ * which shares the materialized data, and its own learning problem and
+ * learning algorithm instance. The results of the folds are reported as soon
+ * as they are available.
+ */
+public class ParallelCrossValidation extends CrossValidation {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelCrossValidation.class);
+
+	/**
+	 * The result of a single fold.
+	 */
+	public static class FoldResult {
+		private final int fold;
+		private final OWLClassExpression concept;
+		private final double runtime;
+		private final double accuracy;
+		private final double accuracyTraining;
+		private final double fMeasure;
+		private final double fMeasureTraining;
+		private final String output;
+
+		FoldResult(int fold, OWLClassExpression concept, double runtime,
+				double accuracy, double accuracyTraining, double fMeasure, double fMeasureTraining, String output) {
+			this.fold = fold;
+			this.concept = concept;
+			this.runtime = runtime;
+			this.accuracy = accuracy;
+			this.accuracyTraining = accuracyTraining;
+			this.fMeasure = fMeasure;
+			this.fMeasureTraining = fMeasureTraining;
+			this.output = output;
+		}
+
+		public int getFold() {
+			return fold;
+		}
+
+		/**
+		 * @return the best class expression learned on the training set
+		 */
+		public OWLClassExpression getConcept() {
+			return concept;
+		}
+
+		/**
+		 * @return the runtime of the learning algorithm in seconds
+		 */
+		public double getRuntime() {
+			return runtime;
+		}
+
+		/**
+		 * @return the predictive accuracy on the test set in percent
+		 */
+		public double getAccuracy() {
+			return accuracy;
+		}
+
+		/**
+		 * @return the predictive accuracy on the training set in percent
+		 */
+		public double getAccuracyTraining() {
+			return accuracyTraining;
+		}
+
+		/**
+		 * @return the F-measure on the test set in percent
+		 */
+		public double getFMeasure() {
+			return fMeasure;
+		}
+
+		/**
+		 * @return the F-measure on the training set in percent
+		 */
+		public double getFMeasureTraining() {
+			return fMeasureTraining;
+		}
+
+		@Override
+		public String toString() {
+			return output;
+		}
+	}
+
+	private final List<FoldResult> results = new ArrayList<>();
+
+	/**
+	 * @param la the learning algorithm, which has to be {@link Cloneable} to run the folds in parallel
+	 * @param lp the learning problem
+	 * @param rs the initialised reasoner
+	 * @param folds the number of folds
+	 * @param nrOfThreads the maximum number of folds running at the same time
+	 */
+	public ParallelCrossValidation(AbstractCELA la, AbstractClassExpressionLearningProblem lp,
+			AbstractReasonerComponent rs, int folds, int nrOfThreads) {
+		this(la, lp, rs, folds, nrOfThreads, result -> {});
+	}
+
+	/**
+	 * @param la the learning algorithm, which has to be {@link Cloneable} to run the folds in parallel
+	 * @param lp the learning problem
+	 * @param rs the initialised reasoner
+	 * @param folds the number of folds
+	 * @param nrOfThreads the maximum number of folds running at the same time
+	 * @param listener gets the result of each fold as soon as the fold is finished
+	 */
+	public ParallelCrossValidation(AbstractCELA la, AbstractClassExpressionLearningProblem lp,
+			AbstractReasonerComponent rs, int folds, int nrOfThreads, Consumer<FoldResult> listener) {
+		//console rendering of class expressions
+		ManchesterOWLSyntaxOWLObjectRendererImplExt renderer = new ManchesterOWLSyntaxOWLObjectRendererImplExt();
+		StringRenderer.setRenderer(renderer);
+		StringRenderer.setShortFormProvider(new SimpleShortFormProvider());
+
+		Set<OWLIndividual> posExamples;
+		Set<OWLIndividual> negExamples;
+		if(lp instanceof PosNegLP){
+			posExamples = ((PosNegLP)lp).getPositiveExamples();
+			negExamples = ((PosNegLP)lp).getNegativeExamples();
+		} else if(lp instanceof PosOnlyLP){
+			posExamples = ((PosOnlyLP)lp).getPositiveExamples();
+			negExamples = new HashSet<>();
+		} else {
+			throw new IllegalArgumentException("Only PosNeg and PosOnly learning problems are supported");
+		}
+		if(posExamples.size() < folds && negExamples.size() < folds) {
+			throw new IllegalArgumentException("The number of folds is higher than the number of "
+					+ "positive/negative examples. This can result in empty test sets.");
+		}
+
+		// split positive and negative examples separately (see CrossValidation)
+		List<OWLIndividual> posExamplesList = new LinkedList<>(posExamples);
+		List<OWLIndividual> negExamplesList = new LinkedList<>(negExamples);
+		Collections.shuffle(posExamplesList, new Random(1));
+		Collections.shuffle(negExamplesList, new Random(2));
+		int[] splitsPos = calculateSplits(posExamples.size(), folds);
+		int[] splitsNeg = calculateSplits(negExamples.size(), folds);
+
+		// the folds can only run in parallel if each of them gets its own algorithm instance
+		// and if the reasoner can be shared between threads
+		boolean parallel = nrOfThreads > 1 && la instanceof Cloneable && rs instanceof ClosedWorldReasoner;
+		if(nrOfThreads > 1 && !parallel) {
+			logger.warn("Running the folds sequentially: parallel cross validation requires a cloneable "
+					+ "learning algorithm and a closed world reasoner.");
+		}
+
+		ExecutorService es = Executors.newFixedThreadPool(parallel ? Math.min(nrOfThreads, folds) : 1);
+		CompletionService<FoldResult> cs = new ExecutorCompletionService<>(es);
+		try {
+			for(int currFold = 0; currFold < folds; currFold++) {
+				Set<OWLIndividual> testPos = getTestingSet(posExamplesList, splitsPos, currFold);
+				Set<OWLIndividual> testNeg = getTestingSet(negExamplesList, splitsNeg, currFold);
+				Set<OWLIndividual> trainPos = new TreeSet<>(getTrainingSet(posExamples, testPos));
+				Set<OWLIndividual> trainNeg = new TreeSet<>(getTrainingSet(negExamples, testNeg));
+
+				// the snapshots and copies are created here, such that all of them are
+				// completely set up before they are used by the worker threads
+				final int fold = currFold;
+				final AbstractReasonerComponent foldReasoner = parallel ? new ClosedWorldReasoner((ClosedWorldReasoner) rs) : rs;
+				final AbstractClassExpressionLearningProblem foldLp = parallel ? copy(lp) : lp;
+				final AbstractCELA foldLa = parallel ? copy(la, foldReasoner) : la;
+				cs.submit(() -> validate(foldLa, foldLp, foldReasoner, fold, trainPos, trainNeg, testPos, testNeg));
+			}
+
+			// aggregate the results in the order in which the folds are finished
+			for(int i = 0; i < folds; i++) {
+				FoldResult result = cs.take().get();
+				results.add(result);
+				runtime.addNumber(result.getRuntime());
+				accuracy.addNumber(result.getAccuracy());
+				accuracyTraining.addNumber(result.getAccuracyTraining());
+				fMeasure.addNumber(result.getFMeasure());
+				fMeasureTraining.addNumber(result.getFMeasureTraining());
+				length.addNumber(OWLClassExpressionUtils.getLength(result.getConcept()));
+				outputWriter(result.toString());
+				listener.accept(result);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Cross validation has been interrupted.", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Cross validation failed.", e.getCause());
+		} catch (ReflectiveOperationException e) {
+			throw new RuntimeException("Could not create the components of a fold.", e);
+		} finally {
+			es.shutdownNow();
+		}
+
+		outputWriter("");
+		outputWriter("Finished " + folds + "-folds cross-validation.");
+		outputWriter("runtime: " + statOutput(df, runtime, "s"));
+		outputWriter("length: " + statOutput(df, length, ""));
+		outputWriter("F-Measure on training set: " + statOutput(df, fMeasureTraining, "%"));
+		outputWriter("F-Measure: " + statOutput(df, fMeasure, "%"));
+		outputWriter("predictive accuracy on training set: " + statOutput(df, accuracyTraining, "%"));
+		outputWriter("predictive accuracy: " + statOutput(df, accuracy, "%"));
+	}
+
+	private FoldResult validate(AbstractCELA la, AbstractClassExpressionLearningProblem lp, AbstractReasonerComponent rs,
+			int currFold, Set<OWLIndividual> trainPos, Set<OWLIndividual> trainNeg,
+			Set<OWLIndividual> testPos, Set<OWLIndividual> testNeg) throws ComponentInitException {
+		if(lp instanceof PosNegLP){
+			((PosNegLP)lp).setPositiveExamples(trainPos);
+			((PosNegLP)lp).setNegativeExamples(trainNeg);
+		} else {
+			((PosOnlyLP)lp).setPositiveExamples(trainPos);
+		}
+		lp.setReasoner(rs);
+		lp.init();
+		la.setReasoner(rs);
+		la.setLearningProblem(lp);
+		la.init();
+
+		long algorithmStartTime = System.nanoTime();
+		la.start();
+		double algorithmDuration = (System.nanoTime() - algorithmStartTime) / (double)1000000000;
+
+		OWLClassExpression concept = la.getCurrentlyBestDescription();
+
+		// training accuracy and F-measure
+		int trainingCorrectPosClassified = getCorrectPosClassified(rs, concept, trainPos);
+		int trainingCorrectNegClassified = getCorrectNegClassified(rs, concept, trainNeg);
+		double trainingAccuracy = 100*((double)(trainingCorrectPosClassified + trainingCorrectNegClassified)/(trainPos.size()+
+				trainNeg.size()));
+		int negAsPosTraining = trainNeg.size() - trainingCorrectNegClassified;
+		double precisionTraining = trainingCorrectPosClassified + negAsPosTraining == 0 ? 0 : trainingCorrectPosClassified / (double) (trainingCorrectPosClassified + negAsPosTraining);
+		double recallTraining = trainingCorrectPosClassified / (double) trainPos.size();
+
+		// test accuracy and F-measure
+		Set<OWLIndividual> coveredPos = rs.hasType(concept, testPos);
+		Set<OWLIndividual> coveredNeg = rs.hasType(concept, testNeg);
+		int correctPosClassified = coveredPos.size();
+		int correctNegClassified = testNeg.size() - coveredNeg.size();
+		double currAccuracy = 100*((double)(correctPosClassified + correctNegClassified)/(testPos.size()+
+				testNeg.size()));
+		int negAsPos = coveredNeg.size();
+		double precision = correctPosClassified + negAsPos == 0 ? 0 : correctPosClassified / (double) (correctPosClassified + negAsPos);
+		double recall = correctPosClassified / (double) testPos.size();
+
+		// DecimalFormat is not thread-safe
+		DecimalFormat df = new DecimalFormat();
+		String output = "";
+		output += "test set errors pos: " + Sets.difference(testPos, coveredPos) + "\n";
+		output += "test set errors neg: " + coveredNeg + "\n";
+		output += "fold " + currFold + ":" + "\n";
+		output += "  training: " + trainPos.size() + " positive and " + trainNeg.size() + " negative examples";
+		output += "  testing: " + correctPosClassified + "/" + testPos.size() + " correct positives, "
+				+ correctNegClassified + "/" + testNeg.size() + " correct negatives" + "\n";
+		output += "  concept: " + concept.toString().replace("\n", " ") + "\n";
+		output += "  accuracy: " + df.format(currAccuracy) + "% (" + df.format(trainingAccuracy) + "% on training set)" + "\n";
+		output += "  length: " + df.format(OWLClassExpressionUtils.getLength(concept)) + "\n";
+		output += "  runtime: " + df.format(algorithmDuration) + "s" + "\n";
+
+		return new FoldResult(currFold, concept, algorithmDuration,
+				currAccuracy, trainingAccuracy,
+				100*Heuristics.getFScore(recall, precision), 100*Heuristics.getFScore(recallTraining, precisionTraining),
+				output);
+	}
+
+	/**
+	 * Creates a new instance of a component for a single fold, either by cloning it
+	 * or by copying its configuration options.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T extends AbstractComponent> T copy(T component) throws ReflectiveOperationException {
+		if(component instanceof Cloneable) {
+			return (T) component.getClass().getMethod("clone").invoke(component);
+		}
+		T copy = (T) component.getClass().newInstance();
+		for(Field field : AnnComponentManager.getConfigOptions(component.getClass())) {
+			field.setAccessible(true);
+			field.set(copy, field.get(component));
+		}
+		return copy;
+	}
+
+	/**
+	 * Creates a new instance of the learning algorithm for a single fold, which is bound
+	 * to the given reasoner. This holds also for the refinement operator of a cloned
+	 * {@link CELOE}, which is a copy of the original one, but is not replaced during
+	 * {@link CELOE#init()}.
+	 */
+	static AbstractCELA copy(AbstractCELA la, AbstractReasonerComponent reasoner) throws ReflectiveOperationException {
+		AbstractCELA copy = copy(la);
+		copy.setReasoner(reasoner);
+		if(copy instanceof CELOE && ((CELOE) copy).getOperator() instanceof ReasoningBasedRefinementOperator) {
+			((ReasoningBasedRefinementOperator) ((CELOE) copy).getOperator()).setReasoner(reasoner);
+		}
+		return copy;
+	}
+
+	/**
+	 * @return the results of the folds in the order in which they were finished
+	 */
+	public List<FoldResult> getResults() {
+		return results;
+	}
+
+}
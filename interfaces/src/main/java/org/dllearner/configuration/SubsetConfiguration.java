@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.configuration;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A view on a configuration that only contains a subset of its beans. Used to
+ * split a single configuration into several application contexts, e.g. to
+ * instantiate the knowledge sources and reasoners once in a parent context
+ * and the remaining components per learning task in child contexts.
+ */
+public class SubsetConfiguration implements IConfiguration {
+
+	private final IConfiguration configuration;
+	private final Set<String> beanNames;
+
+	public SubsetConfiguration(IConfiguration configuration, Collection<String> beanNames) {
+		this.configuration = configuration;
+		this.beanNames = Collections.unmodifiableSet(new LinkedHashSet<>(beanNames));
+	}
+
+	@Override
+	public Collection<String> getBeanNames() {
+		return beanNames;
+	}
+
+	@Override
+	public Class getClass(String beanName) {
+		return configuration.getClass(beanName);
+	}
+
+	@Override
+	public String getBaseDir() {
+		return configuration.getBaseDir();
+	}
+
+	@Override
+	public Collection<IConfigurationProperty> getConfigurationProperties(String beanName) {
+		return configuration.getConfigurationProperties(beanName);
+	}
+
+	/**
+	 * @param configuration the configuration
+	 * @param beanName the bean
+	 * @return the names of the beans directly referenced by the properties of the given bean
+	 */
+	public static Set<String> getReferencedBeans(IConfiguration configuration, String beanName) {
+		Set<String> references = new TreeSet<>();
+		for (IConfigurationProperty property : configuration.getConfigurationProperties(beanName)) {
+			if (property.isBeanReference()) {
+				references.add((String) property.getValue());
+			} else if (property.isBeanReferenceCollection()) {
+				for (Object reference : (Collection<?>) property.getValue()) {
+					references.add((String) reference);
+				}
+			}
+		}
+		return references;
+	}
+
+	/**
+	 * Returns the given beans together with all beans they reference, directly
+	 * or indirectly.
+	 *
+	 * @param configuration the configuration
+	 * @param beanNames the start beans
+	 * @return the closure of the start beans w.r.t. bean references
+	 */
+	public static Set<String> getReferenceClosure(IConfiguration configuration, Collection<String> beanNames) {
+		Set<String> closure = new TreeSet<>();
+		Deque<String> todo = new ArrayDeque<>(beanNames);
+		while (!todo.isEmpty()) {
+			String beanName = todo.pop();
+			if (closure.add(beanName) && configuration.getBeanNames().contains(beanName)) {
+				todo.addAll(getReferencedBeans(configuration, beanName));
+			}
+		}
+		closure.retainAll(configuration.getBeanNames());
+		return closure;
+	}
+}
@@ -3,7 +3,9 @@ package org.dllearner.configuration.spring;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.dllearner.configuration.IConfiguration;
 import org.slf4j.Logger;
@@ -30,6 +32,39 @@ public class DefaultApplicationContextBuilder implements ApplicationContextBuild
 
     @Override
     public ApplicationContext buildApplicationContext(IConfiguration configuration, List<Resource> springConfigurationLocations) throws IOException{
+        return buildApplicationContext(configuration, springConfigurationLocations, null);
+    }
+
+    /**
+     * Create an application context whose beans can reference the (already initialized) beans of a parent context.
+     * Beans contained in the parent context will not be instantiated again, thus, the configuration should only contain
+     * the beans that are not defined in the parent.
+     *
+     * @param configuration                The DL-Learner Configuration object.
+     * @param springConfigurationLocations An ordered list of Spring Configuration Files.
+     * @param parent                       The parent context, or <code>null</code>.
+     * @return An Application Context
+     * @throws IOException If there's a problem reading any of the files.
+     */
+    public ApplicationContext buildApplicationContext(IConfiguration configuration, List<Resource> springConfigurationLocations,
+                                                      ApplicationContext parent) throws IOException{
+        return buildApplicationContext(configuration, springConfigurationLocations, parent, Collections.<String, Object>emptyMap());
+    }
+
+    /**
+     * Create an application context whose beans can reference the (already initialized) beans of a parent context.
+     * The given singletons are registered in the new context as they are, i.e. without being initialized, and take
+     * precedence over beans of the same name in the parent context.
+     *
+     * @param configuration                The DL-Learner Configuration object.
+     * @param springConfigurationLocations An ordered list of Spring Configuration Files.
+     * @param parent                       The parent context, or <code>null</code>.
+     * @param singletons                   Already initialized objects to register by bean name.
+     * @return An Application Context
+     * @throws IOException If there's a problem reading any of the files.
+     */
+    public ApplicationContext buildApplicationContext(IConfiguration configuration, List<Resource> springConfigurationLocations,
+                                                      ApplicationContext parent, final Map<String, Object> singletons) throws IOException{
         ConfigurableApplicationContext context = null;
         // Post Processors
         BeanDefinitionRegistryPostProcessor beanDefinitionRegistryPostProcessor = new ConfigurationBasedBeanDefinitionRegistryPostProcessor(configuration);
@@ -50,7 +85,15 @@ public class DefaultApplicationContextBuilder implements ApplicationContextBuild
 			}
            ctr++;
         }
-        context = new ClassPathXmlApplicationContext(springConfigurationFiles, false);
+        context = new ClassPathXmlApplicationContext(springConfigurationFiles, false, parent);
+
+        if (!singletons.isEmpty()) {
+            context.addBeanFactoryPostProcessor(beanFactory -> {
+                for (Map.Entry<String, Object> entry : singletons.entrySet()) {
+                    beanFactory.registerSingleton(entry.getKey(), entry.getValue());
+                }
+            });
+        }
 
         // These post processors run before object instantiation
         context.addBeanFactoryPostProcessor(beanDefinitionRegistryPostProcessor);
@@ -1,6 +1,5 @@
 package org.dllearner.confparser;
 
-import org.apache.commons.collections15.BidiMap;
 import org.dllearner.cli.ConfFileOption;
 import org.dllearner.configuration.IConfiguration;
 import org.dllearner.configuration.IConfigurationProperty;
@@ -16,7 +15,6 @@ import org.springframework.core.io.Resource;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.util.*;
-import java.util.Map.Entry;
 
 /**
  * Created by IntelliJ IDEA.
@@ -91,19 +89,11 @@ public class ConfParserConfiguration implements IConfiguration {
 
         String value = (String) option.getValue();
         // first option: use long name of @ComponentAnn annotation (case insensitive)
-        BidiMap<Class<? extends Component>, String> componentsNamed = AnnComponentManager.getInstance().getComponentsNamed();
-        for(Entry<Class<? extends Component>, String> entry : componentsNamed.entrySet()) {
-        	if(entry.getValue().equalsIgnoreCase(value)) {
-        		return entry.getKey();
-        	}
-        }
         // second option: use short name of @ComponentAnn annotation
         // by convention, short names should always be lower case, but we still do it case insensitive
-        BidiMap<Class<? extends Component>, String> componentsNamedShort = AnnComponentManager.getInstance().getComponentsNamedShort();
-        for(Entry<Class<? extends Component>, String> entry : componentsNamedShort.entrySet()) {
-        	if(entry.getValue().equalsIgnoreCase(value)) {
-        		return entry.getKey();
-        	}
+        Class<? extends Component> componentClass = AnnComponentManager.getInstance().getComponentClass(value, true);
+        if(componentClass != null) {
+        	return componentClass;
         }
         // third option: use specified class name
         try {
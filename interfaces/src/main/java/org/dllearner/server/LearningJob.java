@@ -0,0 +1,219 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.server;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.core.AbstractCELA;
+import org.dllearner.core.ClassExpressionLearningAlgorithm;
+import org.dllearner.core.EvaluatedDescription;
+import org.dllearner.core.LearningAlgorithm;
+import org.dllearner.core.StoppableLearningAlgorithm;
+
+/**
+ * A learning task submitted to the {@link LearningJobService}. The state of a
+ * job can be queried from any thread while it is running, in particular the
+ * currently best solutions of class expression learning algorithms.
+ */
+public class LearningJob {
+
+	public enum Status {
+		QUEUED, RUNNING, FINISHED, FAILED, CANCELLED;
+
+		public boolean isDone() {
+			return this == FINISHED || this == FAILED || this == CANCELLED;
+		}
+	}
+
+	private final String id;
+	private final String conf;
+
+	private volatile Status status = Status.QUEUED;
+	private volatile LearningAlgorithm algorithm;
+	private volatile Throwable error;
+
+	private final long submissionTime = System.currentTimeMillis();
+	private volatile long startTime;
+	private volatile long endTime;
+
+	// the final results, set once the algorithm returned
+	private volatile List<? extends EvaluatedDescription> finalResults;
+
+	private final CountDownLatch done = new CountDownLatch(1);
+
+	LearningJob(String id, String conf) {
+		this.id = id;
+		this.conf = conf;
+	}
+
+	/**
+	 * @return the ID of the job
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @return the configuration of the job
+	 */
+	public String getConf() {
+		return conf;
+	}
+
+	/**
+	 * @return the current status of the job
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return the exception that caused the job to fail, if any
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * @return the learning algorithm, or <code>null</code> if the job has not been started yet
+	 */
+	public LearningAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	public long getSubmissionTime() {
+		return submissionTime;
+	}
+
+	public long getStartTime() {
+		return startTime;
+	}
+
+	public long getEndTime() {
+		return endTime;
+	}
+
+	/**
+	 * Returns the currently best solutions. While the algorithm is running, this
+	 * is the snapshot of its intermediate results published by the algorithm
+	 * (only supported by {@link AbstractCELA}s); after the algorithm returned,
+	 * the final results are returned.
+	 *
+	 * @param nrOfDescriptions the maximum number of solutions
+	 * @return the currently best solutions, best first
+	 */
+	public List<? extends EvaluatedDescription> getCurrentlyBestEvaluatedDescriptions(int nrOfDescriptions) {
+		List<? extends EvaluatedDescription> results = finalResults;
+		if (results == null) {
+			// the live state of a running algorithm must not be read from other threads
+			LearningAlgorithm la = algorithm;
+			results = la instanceof AbstractCELA
+					? ((AbstractCELA) la).getCurrentlyBestEvaluatedDescriptionsSnapshot()
+					: Collections.emptyList();
+		}
+		return results.size() > nrOfDescriptions ? results.subList(0, nrOfDescriptions) : results;
+	}
+
+	/**
+	 * Waits until the job is done.
+	 *
+	 * @param timeout the maximum time to wait
+	 * @param unit the time unit of the timeout
+	 * @return whether the job is done
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+		return done.await(timeout, unit);
+	}
+
+	/**
+	 * Waits until the job is done.
+	 *
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public void await() throws InterruptedException {
+		done.await();
+	}
+
+	/**
+	 * Stops the learning algorithm if it is running, or prevents it from being
+	 * started if the job is still queued.
+	 *
+	 * @return whether the job was cancelled, i.e. it was not done yet
+	 */
+	public synchronized boolean cancel() {
+		if (status.isDone()) {
+			return false;
+		}
+		status = Status.CANCELLED;
+		LearningAlgorithm la = algorithm;
+		if (la instanceof StoppableLearningAlgorithm) {
+			((StoppableLearningAlgorithm) la).stop();
+		}
+		if (la == null) {
+			finish();
+		}
+		return true;
+	}
+
+	synchronized boolean started(LearningAlgorithm algorithm) {
+		if (status == Status.CANCELLED) {
+			return false;
+		}
+		this.algorithm = algorithm;
+		this.startTime = System.currentTimeMillis();
+		status = Status.RUNNING;
+		return true;
+	}
+
+	synchronized void finished() {
+		if (status == Status.RUNNING) {
+			status = Status.FINISHED;
+		}
+		// keep the final results, the algorithm does not modify them anymore
+		LearningAlgorithm la = algorithm;
+		if (la instanceof ClassExpressionLearningAlgorithm) {
+			finalResults = ((ClassExpressionLearningAlgorithm) la).getCurrentlyBestEvaluatedDescriptions(Integer.MAX_VALUE);
+		}
+		finish();
+	}
+
+	synchronized void failed(Throwable t) {
+		if (status != Status.CANCELLED) {
+			status = Status.FAILED;
+		}
+		error = t;
+		finish();
+	}
+
+	private void finish() {
+		if (endTime == 0) {
+			endTime = System.currentTimeMillis();
+		}
+		done.countDown();
+	}
+
+	@Override
+	public String toString() {
+		return "learning job " + id + " (" + status + ")";
+	}
+}
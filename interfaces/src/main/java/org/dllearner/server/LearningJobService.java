@@ -0,0 +1,418 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.server;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.dllearner.configuration.IConfiguration;
+import org.dllearner.configuration.IConfigurationProperty;
+import org.dllearner.configuration.SubsetConfiguration;
+import org.dllearner.configuration.spring.DefaultApplicationContextBuilder;
+import org.dllearner.confparser.ConfParserConfiguration;
+import org.dllearner.core.KnowledgeSource;
+import org.dllearner.core.LearningAlgorithm;
+import org.dllearner.core.ReasonerComponent;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.InputStreamResource;
+
+import com.google.common.cache.Cache;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Runs learning tasks given as conf file contents asynchronously on a bounded
+ * pool of worker threads.
+ * <p>
+ * The knowledge sources and reasoners of a configuration (together with all
+ * components they reference) are instantiated in a separate application
+ * context, which is cached and reused by all jobs having exactly the same
+ * settings for those components. Thus, only the first job for a knowledge base
+ * pays for loading the ontology and initializing the reasoner. The remaining
+ * components, e.g. the learning problem and the learning algorithm, are
+ * created per job in a child context.
+ * <p>
+ * Jobs running on the same cached {@link ClosedWorldReasoner} get their own
+ * snapshot of it (see {@link ClosedWorldReasoner#ClosedWorldReasoner(ClosedWorldReasoner)})
+ * and can run in parallel. Jobs using any other cached reasoner directly are
+ * executed one after another.
+ * <p>
+ * A cached context is closed (together with its reasoners and caches) once it
+ * has been removed from the cache, either by eviction or by
+ * {@link #invalidateSources()}, and no running job uses it anymore.
+ */
+public class LearningJobService {
+
+	private static final Logger logger = LoggerFactory.getLogger(LearningJobService.class);
+
+	private final ThreadPoolExecutor executor;
+	private final Map<String, LearningJob> jobs = new ConcurrentHashMap<>();
+	private final Cache<String, SourceContext> sourceContexts;
+	// the number of source contexts that have not been closed yet, including removed ones still in use
+	private final AtomicInteger openSources = new AtomicInteger();
+
+	private volatile long jobRetentionTimeInMs = TimeUnit.HOURS.toMillis(1);
+
+	/**
+	 * The initialized knowledge sources and reasoners of a configuration. The
+	 * context is reference counted by the jobs using it and closed as soon as it
+	 * has been removed from the cache and the last job released it.
+	 */
+	private class SourceContext {
+		private final ApplicationContext context;
+		private final ReentrantLock lock = new ReentrantLock(true);
+
+		private int references = 0;
+		private boolean removed = false;
+
+		SourceContext(ApplicationContext context) {
+			this.context = context;
+			openSources.incrementAndGet();
+		}
+
+		/**
+		 * @return whether the context could be acquired, i.e. it has not been removed from the cache
+		 */
+		synchronized boolean acquire() {
+			if (removed) {
+				return false;
+			}
+			references++;
+			return true;
+		}
+
+		synchronized void release() {
+			references--;
+			closeIfUnused();
+		}
+
+		synchronized void removed() {
+			removed = true;
+			closeIfUnused();
+		}
+
+		private void closeIfUnused() {
+			if (removed && references == 0) {
+				if (context instanceof ConfigurableApplicationContext) {
+					logger.debug("Closing knowledge sources and reasoners {}", (Object) context.getBeanDefinitionNames());
+					((ConfigurableApplicationContext) context).close();
+				}
+				openSources.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * @param nrOfThreads the number of jobs running in parallel
+	 * @param maxQueuedJobs the maximum number of submitted jobs waiting to be started
+	 * @param maxCachedSources the maximum number of cached knowledge source and reasoner setups
+	 */
+	public LearningJobService(int nrOfThreads, int maxQueuedJobs, int maxCachedSources) {
+		executor = new ThreadPoolExecutor(nrOfThreads, nrOfThreads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(maxQueuedJobs),
+				new ThreadFactoryBuilder().setNameFormat("learning-job-%d").setDaemon(true).build());
+		sourceContexts = CacheBuilder.newBuilder()
+				.maximumSize(maxCachedSources)
+				.removalListener((RemovalListener<String, SourceContext>) notification -> notification.getValue().removed())
+				.build();
+	}
+
+	/**
+	 * Submits a learning task.
+	 *
+	 * @param conf the content of a conf file
+	 * @return the job
+	 * @throws RejectedExecutionException if the job queue is full
+	 */
+	public LearningJob submit(String conf) {
+		removeExpiredJobs();
+
+		final LearningJob job = new LearningJob(UUID.randomUUID().toString(), conf);
+		jobs.put(job.getId(), job);
+		try {
+			executor.execute(() -> run(job));
+		} catch (RejectedExecutionException e) {
+			jobs.remove(job.getId());
+			throw e;
+		}
+		logger.debug("Submitted {}", job);
+		return job;
+	}
+
+	/**
+	 * @param id the job ID
+	 * @return the job, or <code>null</code> if there is no such job (anymore)
+	 */
+	public LearningJob getJob(String id) {
+		return jobs.get(id);
+	}
+
+	/**
+	 * @return all jobs that are queued, running or have been finished recently
+	 */
+	public Collection<LearningJob> getJobs() {
+		return Collections.unmodifiableCollection(jobs.values());
+	}
+
+	/**
+	 * Cancels a job.
+	 *
+	 * @param id the job ID
+	 * @return whether the job was cancelled
+	 */
+	public boolean cancel(String id) {
+		LearningJob job = jobs.get(id);
+		return job != null && job.cancel();
+	}
+
+	/**
+	 * Removes all cached knowledge sources and reasoners, e.g. because the
+	 * underlying knowledge base has changed. Running jobs are not affected, the
+	 * removed components are closed once those jobs are done.
+	 */
+	public void invalidateSources() {
+		sourceContexts.invalidateAll();
+	}
+
+	/**
+	 * @return the number of cached knowledge source and reasoner setups
+	 */
+	public long getNrOfCachedSources() {
+		return sourceContexts.size();
+	}
+
+	/**
+	 * @return the number of knowledge source and reasoner setups that have not been closed yet,
+	 * i.e. the cached ones and those removed from the cache but still used by running jobs
+	 */
+	int getNrOfOpenSources() {
+		return openSources.get();
+	}
+
+	/**
+	 * @param jobRetentionTimeInMs how long the results of done jobs are kept
+	 */
+	public void setJobRetentionTimeInMs(long jobRetentionTimeInMs) {
+		this.jobRetentionTimeInMs = jobRetentionTimeInMs;
+	}
+
+	public long getJobRetentionTimeInMs() {
+		return jobRetentionTimeInMs;
+	}
+
+	/**
+	 * Cancels all jobs and stops the worker threads.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+		for (LearningJob job : jobs.values()) {
+			job.cancel();
+		}
+		sourceContexts.invalidateAll();
+	}
+
+	private void removeExpiredJobs() {
+		long expired = System.currentTimeMillis() - jobRetentionTimeInMs;
+		jobs.values().removeIf(job -> job.getStatus().isDone() && job.getEndTime() < expired);
+	}
+
+	private void run(LearningJob job) {
+		if (job.getStatus().isDone()) { // cancelled while queued
+			return;
+		}
+		ReentrantLock lock = null;
+		SourceContext sources = null;
+		ConfigurableApplicationContext context = null;
+		try {
+			IConfiguration configuration = new ConfParserConfiguration(
+					new InputStreamResource(new ByteArrayInputStream(job.getConf().getBytes(StandardCharsets.UTF_8))));
+
+			Set<String> sourceBeans = getSourceBeans(configuration);
+			Set<String> jobBeans = new TreeSet<>(configuration.getBeanNames());
+			jobBeans.removeAll(sourceBeans);
+
+			// the reasoners are replaced by snapshots if possible, otherwise the job gets exclusive access
+			Map<String, Object> snapshots = new HashMap<>();
+			if (!sourceBeans.isEmpty()) {
+				sources = getSourceContext(configuration, sourceBeans);
+
+				// reasoners are autowired, thus, a job can use any reasoner that is not just the base
+				// reasoner of a closed world reasoner (which is synchronized by the snapshots)
+				Set<String> referencedByJob = getReferencedBeans(configuration, jobBeans);
+				Set<String> baseReasoners = new TreeSet<>();
+				for (String beanName : sourceBeans) {
+					if (ClosedWorldReasoner.class.isAssignableFrom(configuration.getClass(beanName))) {
+						baseReasoners.addAll(SubsetConfiguration.getReferencedBeans(configuration, beanName));
+					}
+				}
+
+				boolean exclusive = false;
+				for (String beanName : sourceBeans) {
+					Object bean = sources.context.getBean(beanName);
+					if (bean instanceof ClosedWorldReasoner) {
+						snapshots.put(beanName, new ClosedWorldReasoner((ClosedWorldReasoner) bean));
+					} else if (bean instanceof ReasonerComponent
+							&& (referencedByJob.contains(beanName) || !baseReasoners.contains(beanName))) {
+						exclusive = true;
+					}
+				}
+				if (exclusive) {
+					lock = sources.lock;
+					lock.lockInterruptibly();
+				}
+			}
+
+			context = (ConfigurableApplicationContext) new DefaultApplicationContextBuilder().buildApplicationContext(
+					new SubsetConfiguration(configuration, jobBeans), new ArrayList<>(),
+					sources != null ? sources.context : null, snapshots);
+
+			LearningAlgorithm la = context.getBean(LearningAlgorithm.class);
+			if (job.started(la)) {
+				logger.info("Running {}", job);
+				la.start();
+				job.finished();
+				logger.info("Finished {}", job);
+			}
+		} catch (InterruptedException e) {
+			job.cancel();
+		} catch (Throwable t) {
+			logger.error("Learning job " + job.getId() + " failed", t);
+			job.failed(t);
+		} finally {
+			if (lock != null && lock.isHeldByCurrentThread()) {
+				lock.unlock();
+			}
+			if (context != null) {
+				context.close();
+			}
+			if (sources != null) {
+				sources.release();
+			}
+		}
+	}
+
+	/**
+	 * @return the cached context for the given beans, acquired by the caller, who has to
+	 * release it when done
+	 */
+	private SourceContext getSourceContext(final IConfiguration configuration, final Set<String> sourceBeans) throws Exception {
+		String key = getKey(configuration, sourceBeans);
+		while (true) {
+			SourceContext sources;
+			try {
+				sources = sourceContexts.get(key, () -> {
+					logger.info("Initializing knowledge sources and reasoners {} ...", sourceBeans);
+					return new SourceContext(new DefaultApplicationContextBuilder().buildApplicationContext(
+							new SubsetConfiguration(configuration, sourceBeans), new ArrayList<>()));
+				});
+			} catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+				Throwables.propagateIfPossible(e.getCause(), Exception.class);
+				throw e;
+			}
+			// the context might have been removed from the cache in the meantime, then we create a new one
+			if (sources.acquire()) {
+				return sources;
+			}
+			sourceContexts.asMap().remove(key, sources);
+		}
+	}
+
+	/**
+	 * @return the knowledge sources and reasoners of the configuration, together with all beans they reference
+	 */
+	private static Set<String> getSourceBeans(IConfiguration configuration) {
+		Set<String> roots = new TreeSet<>();
+		for (String beanName : configuration.getBeanNames()) {
+			Class<?> beanClass = configuration.getClass(beanName);
+			if (KnowledgeSource.class.isAssignableFrom(beanClass) || ReasonerComponent.class.isAssignableFrom(beanClass)) {
+				roots.add(beanName);
+			}
+		}
+		return SubsetConfiguration.getReferenceClosure(configuration, roots);
+	}
+
+	private static Set<String> getReferencedBeans(IConfiguration configuration, Collection<String> beanNames) {
+		Set<String> references = new TreeSet<>();
+		for (String beanName : beanNames) {
+			references.addAll(SubsetConfiguration.getReferencedBeans(configuration, beanName));
+		}
+		return references;
+	}
+
+	/**
+	 * @return a key that is equal for two configurations iff the given beans are configured equally
+	 */
+	private static String getKey(IConfiguration configuration, Set<String> beanNames) {
+		StringBuilder key = new StringBuilder(String.valueOf(configuration.getBaseDir()));
+		for (String beanName : new TreeSet<>(beanNames)) {
+			key.append('\n').append(beanName).append(':').append(configuration.getClass(beanName).getName());
+			List<String> properties = new ArrayList<>();
+			for (IConfigurationProperty property : configuration.getConfigurationProperties(beanName)) {
+				properties.add(property.getName() + "=" + toKey(property.getValue()));
+			}
+			Collections.sort(properties);
+			key.append(properties);
+		}
+		return key.toString();
+	}
+
+	private static String toKey(Object value) {
+		if (value instanceof Collection) {
+			List<String> elements = new ArrayList<>();
+			for (Object element : (Collection<?>) value) {
+				elements.add(toKey(element));
+			}
+			Collections.sort(elements);
+			return elements.toString();
+		} else if (value instanceof Map) {
+			List<String> entries = new ArrayList<>();
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				entries.add(toKey(entry.getKey()) + "=" + toKey(entry.getValue()));
+			}
+			Collections.sort(entries);
+			return entries.toString();
+		}
+		return String.valueOf(value);
+	}
+}
@@ -11,6 +11,8 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -23,10 +25,12 @@ import org.dllearner.configuration.spring.ApplicationContextBuilder;
 import org.dllearner.configuration.spring.DefaultApplicationContextBuilder;
 import org.dllearner.confparser.ConfParserConfiguration;
 import org.dllearner.core.ClassExpressionLearningAlgorithm;
+import org.dllearner.core.EvaluatedDescription;
 import org.dllearner.core.LearningAlgorithm;
 import org.dllearner.learningproblems.EvaluatedDescriptionPosNeg;
 import org.dllearner.utilities.owl.OWLAPIRenderers;
 import org.dllearner.utilities.owl.OWLClassExpressionToSPARQLConverter;
+import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +41,41 @@ import org.springframework.core.io.Resource;
 public class Rest extends HttpServlet {
     private static Logger log = LoggerFactory.getLogger(Rest.class);
 
+    private LearningJobService jobService;
+
+    /**
+     * Sets up the job service, which can be configured by the init parameters <code>jobThreads</code>,
+     * <code>jobQueueSize</code> and <code>cachedSources</code>.
+     */
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        jobService = new LearningJobService(
+                getIntParameter("jobThreads", Runtime.getRuntime().availableProcessors()),
+                getIntParameter("jobQueueSize", 100),
+                getIntParameter("cachedSources", 10));
+    }
+
+    @Override
+    public void destroy() {
+        if (jobService != null) {
+            jobService.shutdown();
+        }
+        super.destroy();
+    }
+
+    private int getIntParameter(String name, int defaultValue) {
+        String value = getServletConfig() != null ? getInitParameter(name) : null;
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private synchronized LearningJobService getJobService() {
+        if (jobService == null) {
+            jobService = new LearningJobService(Runtime.getRuntime().availableProcessors(), 100, 10);
+        }
+        return jobService;
+    }
+
     @Override
     protected void doGet(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws ServletException, IOException {
         handle(httpServletRequest, httpServletResponse);
@@ -59,6 +98,11 @@ public class Rest extends HttpServlet {
         JSONObject result = new JSONObject();
         JSONObject learningResult = new JSONObject();
         try {
+            if (isSet("action", httpServletRequest)) {
+                handleJobAction(httpServletRequest, httpServletResponse);
+                return;
+            }
+
             String conf = null;
             int limit = 5;
             if (!isSet("conf", httpServletRequest)) {
@@ -93,16 +137,8 @@ public class Rest extends HttpServlet {
 
                 EvaluatedDescriptionPosNeg ed = learn(conf);
 
-                OWLClassExpressionToSPARQLConverter sparqlConv = new OWLClassExpressionToSPARQLConverter();
-                               learningResult.put("success", "1");
-                learningResult.put("manchester", OWLAPIRenderers.toManchesterOWLSyntax(ed.getDescription()));
-//                learningResult.put("sparql", sqd.getSparqlQuery(ed.getDescription()));
-                learningResult.put("sparql", " "+ sparqlConv.asQuery("?subject", ed.getDescription())+" ");
-                learningResult.put("accuracy", ed.getAccuracy());
-                learningResult.put("truePositives", EvaluatedDescriptionPosNeg.getJSONArray(ed.getCoveredPositives()));
-                learningResult.put("falsePositives", EvaluatedDescriptionPosNeg.getJSONArray(ed.getNotCoveredPositives()));
-                learningResult.put("trueNegatives", EvaluatedDescriptionPosNeg.getJSONArray(ed.getNotCoveredNegatives()));
-                learningResult.put("falseNegatives", EvaluatedDescriptionPosNeg.getJSONArray(ed.getCoveredNegatives()));
+                learningResult.put("success", "1");
+                learningResult.putAll(toJSON(ed));
             }
 
         } catch (IllegalArgumentException e) {
@@ -131,24 +167,130 @@ public class Rest extends HttpServlet {
     }
 
     /**
-     * TODO
-     * This function takes the config string as in a conf file and the returns an EvaluatedDescription
-     *
-     * @param conf the content of a conf file
-     * @return
+     * Handles the job based API:
+     * <ul>
+     * <li><code>action=submit&amp;conf=...</code> submits a learning task and returns its job ID</li>
+     * <li><code>action=status&amp;job=...[&amp;limit=...]</code> returns the status and the currently best solutions</li>
+     * <li><code>action=stream&amp;job=...[&amp;limit=...][&amp;interval=...]</code> writes the status and the
+     * currently best solutions as one JSON object per line every <code>interval</code> ms until the job is done</li>
+     * <li><code>action=cancel&amp;job=...</code> stops a job</li>
+     * </ul>
      */
-    public EvaluatedDescriptionPosNeg learn(String conf) throws Exception {
-        Resource confFile = new InputStreamResource(new ByteArrayInputStream(conf.getBytes()));
+    private void handleJobAction(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws Exception {
+        String action = httpServletRequest.getParameter("action");
+        int limit = isSet("limit", httpServletRequest) ? Integer.parseInt(httpServletRequest.getParameter("limit")) : 5;
 
-        IConfiguration configuration = new ConfParserConfiguration(confFile);
+        httpServletResponse.setContentType("text/plain");
 
-        ApplicationContextBuilder builder = new DefaultApplicationContextBuilder();
-        ApplicationContext context = builder.buildApplicationContext(configuration, new ArrayList<>());
+        if (action.equalsIgnoreCase("submit")) {
+            if (!isSet("conf", httpServletRequest)) {
+                throw new IllegalArgumentException("Missing parameter: conf is required.");
+            }
+            String conf = URLDecoder.decode(httpServletRequest.getParameter("conf"), "UTF-8");
+            LearningJob job;
+            try {
+                job = getJobService().submit(conf);
+            } catch (RejectedExecutionException e) {
+                httpServletResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many queued learning jobs.");
+                return;
+            }
+            writeJSON(httpServletResponse, toJSON(job, 0));
+            return;
+        }
 
-        LearningAlgorithm algorithm = context.getBean(LearningAlgorithm.class);
-        algorithm.start();
-        if (algorithm instanceof ClassExpressionLearningAlgorithm) {
-            return (EvaluatedDescriptionPosNeg) ((ClassExpressionLearningAlgorithm) algorithm).getCurrentlyBestEvaluatedDescriptions(1).iterator().next();
+        if (!isSet("job", httpServletRequest)) {
+            throw new IllegalArgumentException("Missing parameter: job is required.");
+        }
+        LearningJob job = getJobService().getJob(httpServletRequest.getParameter("job"));
+        if (job == null) {
+            httpServletResponse.sendError(HttpServletResponse.SC_NOT_FOUND, "Unknown job " + httpServletRequest.getParameter("job"));
+            return;
+        }
+
+        if (action.equalsIgnoreCase("status")) {
+            writeJSON(httpServletResponse, toJSON(job, limit));
+        } else if (action.equalsIgnoreCase("cancel")) {
+            job.cancel();
+            writeJSON(httpServletResponse, toJSON(job, 0));
+        } else if (action.equalsIgnoreCase("stream")) {
+            long interval = isSet("interval", httpServletRequest) ? Long.parseLong(httpServletRequest.getParameter("interval")) : 1000;
+            PrintWriter out = httpServletResponse.getWriter();
+            boolean done;
+            do {
+                done = job.await(interval, TimeUnit.MILLISECONDS);
+                out.println(toJSON(job, limit).toJSONString());
+                out.flush();
+            } while (!done && !out.checkError());
+            out.close();
+        } else {
+            throw new IllegalArgumentException("Unknown action: " + action);
+        }
+    }
+
+    private static void writeJSON(HttpServletResponse httpServletResponse, JSONObject object) throws IOException {
+        PrintWriter out = httpServletResponse.getWriter();
+        out.println(object.toJSONString());
+        out.close();
+    }
+
+    private static JSONObject toJSON(LearningJob job, int limit) {
+        JSONObject result = new JSONObject();
+        result.put("job", job.getId());
+        result.put("status", job.getStatus().name());
+        if (job.getStartTime() > 0) {
+            long endTime = job.getEndTime() > 0 ? job.getEndTime() : System.currentTimeMillis();
+            result.put("runtime", endTime - job.getStartTime());
+        }
+        if (job.getError() != null) {
+            result.put("error", String.valueOf(ExceptionUtils.getRootCause(job.getError()) != null
+                    ? ExceptionUtils.getRootCause(job.getError()) : job.getError()));
+        }
+        if (limit > 0) {
+            JSONArray solutions = new JSONArray();
+            for (EvaluatedDescription ed : job.getCurrentlyBestEvaluatedDescriptions(limit)) {
+                solutions.add(toJSON(ed));
+            }
+            result.put("solutions", solutions);
+        }
+        return result;
+    }
+
+    private static JSONObject toJSON(EvaluatedDescription<?> ed) {
+        JSONObject result = new JSONObject();
+        OWLClassExpressionToSPARQLConverter sparqlConv = new OWLClassExpressionToSPARQLConverter();
+        result.put("manchester", OWLAPIRenderers.toManchesterOWLSyntax(ed.getDescription()));
+//        result.put("sparql", sqd.getSparqlQuery(ed.getDescription()));
+        result.put("sparql", " "+ sparqlConv.asQuery("?subject", ed.getDescription())+" ");
+        result.put("accuracy", ed.getAccuracy());
+        if (ed instanceof EvaluatedDescriptionPosNeg) {
+            EvaluatedDescriptionPosNeg edPosNeg = (EvaluatedDescriptionPosNeg) ed;
+            result.put("truePositives", EvaluatedDescriptionPosNeg.getJSONArray(edPosNeg.getCoveredPositives()));
+            result.put("falsePositives", EvaluatedDescriptionPosNeg.getJSONArray(edPosNeg.getNotCoveredPositives()));
+            result.put("trueNegatives", EvaluatedDescriptionPosNeg.getJSONArray(edPosNeg.getNotCoveredNegatives()));
+            result.put("falseNegatives", EvaluatedDescriptionPosNeg.getJSONArray(edPosNeg.getCoveredNegatives()));
+        }
+        return result;
+    }
+
+    /**
+     * This function takes the config string as in a conf file and the returns an EvaluatedDescription.
+     * The task is run by the job service, i.e. it reuses initialized knowledge sources and reasoners.
+     *
+     * @param conf the content of a conf file
+     * @return the best solution
+     */
+    public EvaluatedDescriptionPosNeg learn(String conf) throws Exception {
+        LearningJob job = getJobService().submit(conf);
+        job.await();
+        if (job.getStatus() == LearningJob.Status.FAILED) {
+            Throwable t = job.getError();
+            throw t instanceof Exception ? (Exception) t : new Exception(t);
+        }
+        if (job.getStatus() == LearningJob.Status.CANCELLED) {
+            throw new Exception("Learning job " + job.getId() + " has been cancelled.");
+        }
+        if (job.getAlgorithm() instanceof ClassExpressionLearningAlgorithm) {
+            return (EvaluatedDescriptionPosNeg) job.getCurrentlyBestEvaluatedDescriptions(1).iterator().next();
         }
         throw new Exception("only ClassExpressionLearningAlgorithm implemented currently");
     }
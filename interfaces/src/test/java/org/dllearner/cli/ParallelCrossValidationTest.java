@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.dllearner.algorithms.celoe.CELOE;
+import org.dllearner.core.ComponentInitException;
+import org.dllearner.kb.OWLFile;
+import org.dllearner.learningproblems.PosNegLPStandard;
+import org.dllearner.reasoning.ClosedWorldReasoner;
+import org.dllearner.refinementoperators.RhoDRDown;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLIndividual;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLNamedIndividualImpl;
+
+public class ParallelCrossValidationTest {
+
+	private static Set<OWLIndividual> individuals(String... names) {
+		return Stream.of(names)
+				.map(name -> new OWLNamedIndividualImpl(IRI.create("http://example.com/father#" + name)))
+				.collect(Collectors.toCollection(TreeSet::new));
+	}
+
+	@Test
+	public void testParallelFolds() throws ComponentInitException {
+		OWLFile ks = new OWLFile("../examples/family/father_oe.owl");
+		ks.init();
+		ClosedWorldReasoner reasoner = new ClosedWorldReasoner(ks);
+		reasoner.init();
+
+		PosNegLPStandard lp = new PosNegLPStandard(reasoner);
+		lp.setPositiveExamples(individuals("stefan", "markus", "martin"));
+		lp.setNegativeExamples(individuals("heinz", "anna", "michelle"));
+		lp.init();
+
+		CELOE la = new CELOE(lp, reasoner);
+		la.setMaxExecutionTimeInSeconds(2);
+		la.init();
+
+		int folds = 3;
+		List<Integer> reportedFolds = new CopyOnWriteArrayList<>();
+		ParallelCrossValidation cv = new ParallelCrossValidation(la, lp, reasoner, folds, folds,
+				result -> reportedFolds.add(result.getFold()));
+
+		// each fold is reported exactly once
+		Collections.sort(reportedFolds);
+		assertEquals(Arrays.asList(0, 1, 2), reportedFolds);
+		assertEquals(folds, cv.getResults().size());
+		for (ParallelCrossValidation.FoldResult result : cv.getResults()) {
+			assertNotNull(result.getConcept());
+			// the training examples are separable by a class expression
+			assertEquals(100, result.getAccuracyTraining(), 0.0001);
+		}
+	}
+
+	@Test
+	public void testFoldOperatorUsesFoldReasoner() throws Exception {
+		OWLFile ks = new OWLFile("../examples/family/father_oe.owl");
+		ks.init();
+		ClosedWorldReasoner reasoner = new ClosedWorldReasoner(ks);
+		reasoner.init();
+
+		PosNegLPStandard lp = new PosNegLPStandard(reasoner);
+		lp.setPositiveExamples(individuals("stefan", "markus", "martin"));
+		lp.setNegativeExamples(individuals("heinz", "anna", "michelle"));
+		lp.init();
+
+		CELOE la = new CELOE(lp, reasoner);
+		la.init();
+
+		ClosedWorldReasoner foldReasoner = new ClosedWorldReasoner(reasoner);
+		CELOE foldLa = (CELOE) ParallelCrossValidation.copy(la, foldReasoner);
+		foldLa.setLearningProblem(lp);
+		foldLa.init();
+
+		assertSame(foldReasoner, foldLa.getReasoner());
+		assertSame(foldReasoner, ((RhoDRDown) foldLa.getOperator()).getReasoner());
+		// the original algorithm is not affected
+		assertSame(reasoner, ((RhoDRDown) la.getOperator()).getReasoner());
+	}
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2007 - 2016, Jens Lehmann
+ *
+ * This file is part of DL-Learner.
+ *
+ * DL-Learner is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * DL-Learner is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.dllearner.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dllearner.core.AbstractCELA;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LearningJobServiceTest {
+
+	private static final String CONF =
+			"prefixes = [ (\"ex\",\"http://example.com/father#\") ]\n" +
+			"ks.type = \"OWL File\"\n" +
+			"ks.fileName = \"../examples/family/father_oe.owl\"\n" +
+			"reasoner.type = \"closed world reasoner\"\n" +
+			"reasoner.sources = { ks }\n" +
+			"lp.type = \"posNegStandard\"\n" +
+			"lp.positiveExamples = { %s }\n" +
+			"lp.negativeExamples = { \"ex:heinz\", \"ex:anna\", \"ex:michelle\" }\n" +
+			"alg.type = \"celoe\"\n" +
+			"alg.maxExecutionTimeInSeconds = %d\n";
+
+	private LearningJobService service;
+
+	@Before
+	public void setUp() {
+		service = new LearningJobService(2, 10, 2);
+	}
+
+	@After
+	public void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	public void testReuseSources() throws InterruptedException {
+		List<LearningJob> jobs = new ArrayList<>();
+		jobs.add(service.submit(String.format(CONF, "\"ex:stefan\", \"ex:markus\", \"ex:martin\"", 1)));
+		jobs.add(service.submit(String.format(CONF, "\"ex:stefan\", \"ex:markus\"", 1)));
+		jobs.add(service.submit(String.format(CONF, "\"ex:markus\", \"ex:martin\"", 1)));
+
+		for (LearningJob job : jobs) {
+			assertTrue(job.await(60, TimeUnit.SECONDS));
+			assertEquals(String.valueOf(job.getError()), LearningJob.Status.FINISHED, job.getStatus());
+			assertFalse(job.getCurrentlyBestEvaluatedDescriptions(1).isEmpty());
+			assertEquals(1.0, job.getCurrentlyBestEvaluatedDescriptions(1).get(0).getAccuracy(), 0.0001);
+		}
+		// the knowledge source and the reasoner have been initialized only once
+		assertEquals(1, service.getNrOfCachedSources());
+		// but each job used its own reasoner
+		assertNotSame(((AbstractCELA) jobs.get(0).getAlgorithm()).getReasoner(),
+				((AbstractCELA) jobs.get(1).getAlgorithm()).getReasoner());
+	}
+
+	@Test
+	public void testCancel() throws InterruptedException {
+		LearningJob job = service.submit(String.format(CONF, "\"ex:stefan\", \"ex:markus\", \"ex:martin\"", 60));
+		while (job.getStatus() == LearningJob.Status.QUEUED) {
+			Thread.sleep(50);
+		}
+		assertTrue(service.cancel(job.getId()));
+		assertTrue(job.await(30, TimeUnit.SECONDS));
+		assertEquals(LearningJob.Status.CANCELLED, job.getStatus());
+	}
+
+	@Test
+	public void testInvalidateWhileRunning() throws InterruptedException {
+		LearningJob job = service.submit(String.format(CONF, "\"ex:stefan\", \"ex:markus\", \"ex:martin\"", 60));
+		long deadline = System.currentTimeMillis() + 30000;
+		while (job.getCurrentlyBestEvaluatedDescriptions(1).isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		// intermediate results are available while the job is running
+		assertEquals(LearningJob.Status.RUNNING, job.getStatus());
+		assertFalse(job.getCurrentlyBestEvaluatedDescriptions(1).isEmpty());
+
+		// the removed sources are kept open as long as the job uses them
+		service.invalidateSources();
+		assertEquals(0, service.getNrOfCachedSources());
+		assertEquals(1, service.getNrOfOpenSources());
+
+		assertTrue(service.cancel(job.getId()));
+		assertTrue(job.await(30, TimeUnit.SECONDS));
+		deadline = System.currentTimeMillis() + 30000;
+		while (service.getNrOfOpenSources() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		assertEquals(0, service.getNrOfOpenSources());
+	}
+
+	@Test
+	public void testCloseEvictedSources() throws InterruptedException {
+		// three differently configured knowledge sources, but at most two of them are cached
+		String[] fileNames = {"father_oe.owl", "./father_oe.owl", "../family/father_oe.owl"};
+		for (String fileName : fileNames) {
+			LearningJob job = service.submit(String.format(CONF, "\"ex:stefan\", \"ex:markus\", \"ex:martin\"", 1)
+					.replace("father_oe.owl", fileName));
+			assertTrue(job.await(60, TimeUnit.SECONDS));
+			assertEquals(String.valueOf(job.getError()), LearningJob.Status.FINISHED, job.getStatus());
+		}
+		// the evicted one has been closed once the job using it has released it
+		long deadline = System.currentTimeMillis() + 30000;
+		while (service.getNrOfOpenSources() > 2 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		assertEquals(2, service.getNrOfCachedSources());
+		assertEquals(2, service.getNrOfOpenSources());
+	}
+}